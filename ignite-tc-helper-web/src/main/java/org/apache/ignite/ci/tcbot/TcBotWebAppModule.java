@@ -32,6 +32,8 @@ import org.apache.ignite.ci.tcbot.conf.LocalFilesBasedConfig;
 import org.apache.ignite.ci.tcbot.issue.IssueDetector;
 import org.apache.ignite.ci.tcbot.trends.MasterTrendsService;
 import org.apache.ignite.ci.web.model.hist.VisasHistoryStorage;
+import org.apache.ignite.ci.web.rest.cache.SummaryResultsCache;
+import org.apache.ignite.ci.web.rest.updates.UpdateCountersSubscriptions;
 import org.apache.ignite.githubignited.GitHubIgnitedModule;
 import org.apache.ignite.jiraignited.JiraIgnitedModule;
 import org.apache.ignite.tcbot.common.conf.IDataSourcesConfigSupplier;
@@ -40,6 +42,7 @@ import org.apache.ignite.tcbot.common.exeption.ServicesStartingException;
 import org.apache.ignite.tcbot.engine.TcBotEngineModule;
 import org.apache.ignite.tcbot.engine.cleaner.Cleaner;
 import org.apache.ignite.tcbot.engine.conf.ITcBotConfig;
+import org.apache.ignite.tcbot.engine.pool.ChainFanOutPool;
 import org.apache.ignite.tcbot.engine.pool.TcUpdatePool;
 import org.apache.ignite.tcbot.notify.TcBotNotificationsModule;
 import org.apache.ignite.tcbot.persistence.TcBotPersistenceModule;
@@ -75,6 +78,9 @@ public class TcBotWebAppModule extends AbstractModule {
 
         bind(ITeamcityConn.class).toInstance(new TeamcityServiceConnection());
         bind(TcUpdatePool.class).in(new SingletonScope());
+        bind(ChainFanOutPool.class).in(new SingletonScope());
+        bind(SummaryResultsCache.class).in(new SingletonScope());
+        bind(UpdateCountersSubscriptions.class).in(new SingletonScope());
         bind(IssueDetector.class).in(new SingletonScope());
         bind(ObserverTask.class).in(new SingletonScope());
         bind(BuildObserver.class).in(new SingletonScope());
@@ -440,11 +440,11 @@ public class TcBotTriggerAndSignOffService {
                     c.prAuthorAvatarUrl = "";
                 }
 
-                Ticket ticket = ticketMatcher.resolveTicketIdForPrBasedContrib(tickets, jiraCfg, pr.getTitle());
+                Ticket ticket = ticketMatcher.resolveTicketIdForPrBasedContrib(jiraIntegration, jiraCfg, pr.getTitle());
 
                 if (ticket == null || ticket.id == 0) {
                     if (pr.head() != null && pr.head().ref() != null)
-                        ticket = ticketMatcher.resolveTicketIdForPrBasedContrib(tickets, jiraCfg, pr.head().ref());
+                        ticket = ticketMatcher.resolveTicketIdForPrBasedContrib(jiraIntegration, jiraCfg, pr.head().ref());
                 }
 
                 c.jiraIssueId = ticket == null ? null : ticket.key;
@@ -35,6 +35,7 @@ import org.apache.ignite.tcbot.engine.cleaner.Cleaner;
 import org.apache.ignite.tcbot.engine.conf.INotificationChannel;
 import org.apache.ignite.tcbot.engine.conf.ITcBotConfig;
 import org.apache.ignite.tcbot.engine.conf.NotificationsConfig;
+import org.apache.ignite.tcbot.engine.pool.ChainFanOutPool;
 import org.apache.ignite.tcbot.engine.pool.TcUpdatePool;
 import org.apache.ignite.tcbot.notify.ISlackSender;
 import org.apache.ignite.tcbot.persistence.scheduler.IScheduler;
@@ -95,6 +96,7 @@ public class CtxListener implements ServletContextListener {
         try {
             injector.getInstance(IssueDetector.class).stop();
             injector.getInstance(TcUpdatePool.class).stop();
+            injector.getInstance(ChainFanOutPool.class).stop();
             injector.getInstance(BuildObserver.class).stop();
             injector.getInstance(IScheduler.class).stop();
             injector.getInstance(Cleaner.class).stop();
@@ -18,6 +18,7 @@
 package org.apache.ignite.ci.web;
 
 import org.apache.ignite.ci.web.auth.AuthenticationFilter;
+import org.apache.ignite.ci.web.rest.cache.ETagFilter;
 import org.apache.ignite.ci.web.rest.exception.ExeptionsTraceLogger;
 import org.apache.ignite.ci.web.rest.exception.ServiceStartingExceptionMapper;
 import org.apache.ignite.tcbot.common.exeption.ServiceUnauthorizedException;
@@ -38,6 +39,8 @@ public class TcApplicationResCfg extends ResourceConfig {
         register(ServiceUnauthorizedException.class);
         register(ServiceStartingExceptionMapper.class);
 
+        register(ETagFilter.class);
+
         register(LoggingFeature.class);
         register(ExeptionsTraceLogger.class);
     }
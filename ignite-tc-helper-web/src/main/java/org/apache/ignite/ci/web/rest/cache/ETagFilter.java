@@ -0,0 +1,86 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.ignite.ci.web.rest.cache;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.ws.rs.HttpMethod;
+import javax.ws.rs.container.ContainerRequestContext;
+import javax.ws.rs.container.ContainerResponseContext;
+import javax.ws.rs.container.ContainerResponseFilter;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.ext.Provider;
+
+/**
+ * Adds ETag header to responses of resources which set {@link #ETAG_ATTR} request attribute. If the request already
+ * contains the same ETag in {@code If-None-Match} header, response is replaced with {@code 304 Not Modified}, so
+ * entity is not serialized.
+ */
+@Provider
+public class ETagFilter implements ContainerResponseFilter {
+    /** Request attribute (property) containing quoted ETag of response entity. */
+    public static final String ETAG_ATTR = ETagFilter.class.getName() + ".etag";
+
+    /**
+     * @param req Request.
+     * @param etag Quoted ETag of the response entity, {@code null} if response should not have ETag.
+     */
+    public static void setETag(HttpServletRequest req, String etag) {
+        req.setAttribute(ETAG_ATTR, etag);
+    }
+
+    /** {@inheritDoc} */
+    @Override public void filter(ContainerRequestContext reqCtx, ContainerResponseContext resCtx) {
+        Object etag = reqCtx.getProperty(ETAG_ATTR);
+
+        if (!(etag instanceof String)
+            || !HttpMethod.GET.equals(reqCtx.getMethod())
+            || resCtx.getStatus() != Response.Status.OK.getStatusCode())
+            return;
+
+        resCtx.getHeaders().putSingle(HttpHeaders.ETAG, etag);
+
+        // Browser should check ETag each time, summary may become outdated at any moment.
+        resCtx.getHeaders().putSingle(HttpHeaders.CACHE_CONTROL, "no-cache");
+
+        if (matches(reqCtx.getHeaderString(HttpHeaders.IF_NONE_MATCH), (String)etag)) {
+            resCtx.setStatus(Response.Status.NOT_MODIFIED.getStatusCode());
+            resCtx.setEntity(null);
+        }
+    }
+
+    /**
+     * @param ifNoneMatch If-None-Match header value.
+     * @param etag Quoted ETag.
+     */
+    static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null)
+            return false;
+
+        for (String tag : ifNoneMatch.split(",")) {
+            String trimmed = tag.trim();
+
+            if (trimmed.startsWith("W/"))
+                trimmed = trimmed.substring(2);
+
+            if ("*".equals(trimmed) || etag.equals(trimmed))
+                return true;
+        }
+
+        return false;
+    }
+}
@@ -0,0 +1,173 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.ignite.ci.web.rest.cache;
+
+import com.google.common.base.Throwables;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import javax.inject.Inject;
+import org.apache.ignite.tcbot.common.exeption.ExceptionUtil;
+import org.apache.ignite.tcbot.engine.conf.ITcBotConfig;
+import org.apache.ignite.tcbot.engine.ui.DsChainUi;
+import org.apache.ignite.tcbot.engine.ui.DsSuiteUi;
+import org.apache.ignite.tcbot.engine.ui.DsSummaryUi;
+import org.apache.ignite.tcignited.ITeamcityIgnitedProvider;
+import org.apache.ignite.tcignited.creds.ICredentialsProv;
+
+/**
+ * Cache of failures summaries shared between users. Key should contain update counters hash, so summary is computed
+ * again as soon as related builds are changed. Concurrent requests of the same summary wait for single computation.
+ */
+public class SummaryResultsCache {
+    /** Max total weight of summaries cached, weight is count of suites and tests in summary. */
+    public static final int MAX_WEIGHT = 500_000;
+
+    /**
+     * Max time to keep summary, limits staleness of data not reflected in update counters, e.g. queued builds, JIRA
+     * tickets and PRs.
+     */
+    public static final int EXPIRE_SEC = 60;
+
+    /** Sequence for ETags, starts from current time to avoid matching ETags remembered by browsers before restart. */
+    private final AtomicLong etagSeq = new AtomicLong(System.currentTimeMillis());
+
+    /** Config. */
+    @Inject private ITcBotConfig cfg;
+
+    /** TC ignited server provider. */
+    @Inject private ITeamcityIgnitedProvider tcIgnProv;
+
+    /** Summaries. */
+    private final Cache<List<Object>, Entry> summaries = CacheBuilder.newBuilder()
+        .maximumWeight(MAX_WEIGHT)
+        .weigher((List<Object> key, Entry entry) -> entry.weight)
+        .expireAfterWrite(EXPIRE_SEC, TimeUnit.SECONDS)
+        .build();
+
+    /**
+     * @param key Key: summary kind, all request parameters, servers accessible and update counters hash.
+     * @param loader Loader of summary, should not modify summary after returning.
+     * @return Cached or computed summary, shared between requests so it should not be modified. Summary having timed
+     * out chains is not cached and has no ETag: it is incomplete, and next request may get complete one.
+     */
+    public Entry get(List<Object> key, Supplier<DsSummaryUi> loader) {
+        try {
+            Entry entry = summaries.get(key, () -> {
+                DsSummaryUi summary = loader.get();
+
+                if (timedOut(summary))
+                    return new Entry(summary, null, weight(summary));
+
+                return new Entry(summary, "\"" + Long.toHexString(etagSeq.incrementAndGet()) + "\"", weight(summary));
+            });
+
+            if (entry.etag == null)
+                summaries.asMap().remove(key, entry);
+
+            return entry;
+        }
+        catch (ExecutionException e) {
+            throw ExceptionUtil.propagateException(e);
+        }
+        catch (UncheckedExecutionException e) {
+            Throwables.throwIfUnchecked(e.getCause());
+
+            throw e;
+        }
+    }
+
+    /**
+     * @param creds Credentials.
+     * @return Codes of servers accessible, summaries of users having different access should not be shared.
+     */
+    public Set<String> accessibleServers(ICredentialsProv creds) {
+        return cfg.getServerIds().stream()
+            .filter(srvCode -> tcIgnProv.hasAccess(srvCode, creds))
+            .collect(Collectors.toCollection(TreeSet::new));
+    }
+
+    /**
+     * @param summary Summary.
+     * @return {@code True} if any chain of the summary was not completely loaded in time.
+     */
+    private static boolean timedOut(DsSummaryUi summary) {
+        return summary.servers.stream().anyMatch(chain -> chain.timedOut);
+    }
+
+    /**
+     * @param summary Summary.
+     * @return Weight of the summary in cache.
+     */
+    private static int weight(DsSummaryUi summary) {
+        int weight = 1;
+
+        for (DsChainUi chain : summary.servers) {
+            for (DsSuiteUi suite : chain.suites)
+                weight += 1 + suite.testFailures.size() + suite.topLongRunning.size() + suite.warnOnly.size();
+        }
+
+        return weight;
+    }
+
+    /**
+     * Summary with ETag.
+     */
+    public static class Entry {
+        /** Summary. */
+        private final DsSummaryUi summary;
+
+        /** ETag, identifies this entry, {@code null} for summary not cached. */
+        private final String etag;
+
+        /** Weight. */
+        private final int weight;
+
+        /**
+         * @param summary Summary.
+         * @param etag ETag.
+         * @param weight Weight.
+         */
+        private Entry(DsSummaryUi summary, String etag, int weight) {
+            this.summary = summary;
+            this.etag = etag;
+            this.weight = weight;
+        }
+
+        /**
+         * @return Summary.
+         */
+        public DsSummaryUi summary() {
+            return summary;
+        }
+
+        /**
+         * @return ETag, quoted, or {@code null} if summary is not cached.
+         */
+        public String etag() {
+            return etag;
+        }
+    }
+}
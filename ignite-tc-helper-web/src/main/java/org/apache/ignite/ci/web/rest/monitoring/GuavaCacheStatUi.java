@@ -0,0 +1,49 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.ignite.ci.web.rest.monitoring;
+
+import com.google.common.cache.CacheStats;
+import org.apache.ignite.tcbot.common.interceptor.GuavaCachedInterceptor;
+
+@SuppressWarnings("WeakerAccess")
+public class GuavaCacheStatUi {
+    public String name;
+    public long size;
+    public long hits;
+    public long misses;
+    public String hitRate;
+    public long loads;
+    public String avgLoadMs;
+    public long evictions;
+    public long refreshes;
+    public long refreshFailures;
+
+    public GuavaCacheStatUi(GuavaCachedInterceptor.CacheStatistics statistics) {
+        CacheStats stats = statistics.stats();
+
+        name = statistics.name();
+        size = statistics.size();
+        hits = stats.hitCount();
+        misses = stats.missCount();
+        hitRate = String.format("%.1f%%", stats.hitRate() * 100);
+        loads = stats.loadCount();
+        avgLoadMs = String.format("%.1f", stats.averageLoadPenalty() / 1_000_000);
+        evictions = stats.evictionCount();
+        refreshes = statistics.refreshes();
+        refreshFailures = statistics.refreshFailures();
+    }
+}
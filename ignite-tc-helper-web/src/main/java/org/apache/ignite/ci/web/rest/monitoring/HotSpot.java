@@ -16,6 +16,8 @@
  */
 package org.apache.ignite.ci.web.rest.monitoring;
 
+import java.util.concurrent.TimeUnit;
+import org.apache.ignite.tcbot.common.util.LatencyHistogram;
 import org.apache.ignite.tcbot.common.util.TimeUtil;
 
 @SuppressWarnings("WeakerAccess")
@@ -25,6 +27,14 @@ public class HotSpot {
     public int count;
     public String avgDuration;
 
+    /** Time window of percentiles, e.g. 15m. */
+    public String window;
+    public long windowCount;
+    public String p50;
+    public String p95;
+    public String p99;
+    public String max;
+
     private transient long ns;
 
     public long getNanos() {
@@ -47,4 +57,24 @@ public class HotSpot {
         duration = TimeUtil.nanosToDurationPrintable(ns);
         avgDuration = TimeUtil.nanosToDurationPrintable(ns / count);
     }
+
+    /**
+     * @param window Window name.
+     * @param latency Durations of calls in window, microseconds.
+     */
+    public void setLatency(String window, LatencyHistogram latency) {
+        this.window = window;
+        windowCount = latency.count();
+        p50 = microsToDurationPrintable(latency.percentile(50));
+        p95 = microsToDurationPrintable(latency.percentile(95));
+        p99 = microsToDurationPrintable(latency.percentile(99));
+        max = microsToDurationPrintable(latency.max());
+    }
+
+    /**
+     * @param micros Microseconds.
+     */
+    private static String microsToDurationPrintable(long micros) {
+        return TimeUtil.nanosToDurationPrintable(TimeUnit.MICROSECONDS.toNanos(micros));
+    }
 }
@@ -16,6 +16,7 @@
  */
 package org.apache.ignite.ci.web.rest.monitoring;
 
+import com.google.common.base.Preconditions;
 import com.google.common.base.Strings;
 import org.apache.ignite.Ignite;
 import org.apache.ignite.IgniteCache;
@@ -24,6 +25,7 @@ import org.apache.ignite.cache.affinity.Affinity;
 import org.apache.ignite.ci.web.CtxListener;
 import org.apache.ignite.ci.web.model.SimpleResult;
 import org.apache.ignite.tcbot.common.interceptor.AutoProfilingInterceptor;
+import org.apache.ignite.tcbot.common.interceptor.GuavaCachedInterceptor;
 import org.apache.ignite.tcbot.common.interceptor.MonitoredTaskInterceptor;
 import org.apache.ignite.tcbot.engine.conf.INotificationChannel;
 import org.apache.ignite.tcbot.engine.conf.ITcBotConfig;
@@ -31,7 +33,9 @@ import org.apache.ignite.tcbot.engine.conf.NotificationsConfig;
 import org.apache.ignite.tcbot.notify.IEmailSender;
 import org.apache.ignite.tcbot.notify.ISendEmailConfig;
 import org.apache.ignite.tcbot.notify.ISlackSender;
+import org.apache.ignite.tcbot.persistence.scheduler.IScheduler;
 
+import javax.annotation.Nullable;
 import javax.annotation.security.PermitAll;
 import javax.servlet.ServletContext;
 import javax.ws.rs.*;
@@ -71,10 +75,27 @@ public class MonitoringService {
     }
 
 
+    @GET
+    @PermitAll
+    @Path("scheduler")
+    public List<ScheduledTaskUi> getSchedulerStatistics() {
+        IScheduler scheduler = CtxListener.getInjector(ctx).getInstance(IScheduler.class);
+
+        return scheduler.taskStatistics().stream()
+            .map(ScheduledTaskUi::new)
+            .sorted(Comparator.comparing(t -> t.name))
+            .collect(Collectors.toList());
+    }
+
     @GET
     @PermitAll
     @Path("profiling")
-    public List<HotSpot> getHotMethods() {
+    public List<HotSpot> getHotMethods(@Nullable @QueryParam("window") String window) {
+        String win = Strings.isNullOrEmpty(window) ? "15m" : window;
+        Integer minutes = ProfilingMetricsExposition.WINDOWS.get(win);
+
+        Preconditions.checkArgument(minutes != null, "Unsupported window: " + win);
+
         AutoProfilingInterceptor instance = CtxListener.getInjector(ctx).getInstance(AutoProfilingInterceptor.class);
 
         Collection<AutoProfilingInterceptor.Invocation> profile = instance.getInvocations();
@@ -83,6 +104,7 @@ public class MonitoringService {
             HotSpot hotSpot = new HotSpot();
 
             hotSpot.setTiming(inv.getNanos(), inv.getCount());
+            hotSpot.setLatency(win, inv.getLatency(minutes));
             hotSpot.method = inv.getName();
 
             return hotSpot;
@@ -93,6 +115,19 @@ public class MonitoringService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * @return Profiling data for Prometheus scraping.
+     */
+    @GET
+    @PermitAll
+    @Path("metrics")
+    @Produces(ProfilingMetricsExposition.CONTENT_TYPE)
+    public String getMetrics() {
+        AutoProfilingInterceptor instance = CtxListener.getInjector(ctx).getInstance(AutoProfilingInterceptor.class);
+
+        return ProfilingMetricsExposition.write(instance.getInvocations());
+    }
+
     @POST
     @Path("resetProfiling")
     public SimpleResult resetProfiling() {
@@ -181,4 +216,16 @@ public class MonitoringService {
         }
         return res;
     }
+
+    @GET
+    @PermitAll
+    @Path("guavaCaches")
+    public List<GuavaCacheStatUi> getGuavaCacheStat() {
+        GuavaCachedInterceptor instance = CtxListener.getInjector(ctx).getInstance(GuavaCachedInterceptor.class);
+
+        return instance.getStatistics().stream()
+            .map(GuavaCacheStatUi::new)
+            .sorted(Comparator.comparing(s -> s.name))
+            .collect(Collectors.toList());
+    }
 }
@@ -0,0 +1,104 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.ignite.ci.web.rest.monitoring;
+
+import com.google.common.collect.ImmutableMap;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.apache.ignite.tcbot.common.interceptor.AutoProfilingInterceptor;
+import org.apache.ignite.tcbot.common.util.LatencyHistogram;
+
+/**
+ * Profiling data in Prometheus text exposition format: summary of method durations with quantiles for each time
+ * window, and lifetime sum and count.
+ */
+public class ProfilingMetricsExposition {
+    /** Content type of the format. */
+    public static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    /** Time windows supported: name -> minutes. */
+    public static final Map<String, Integer> WINDOWS = ImmutableMap.of("1m", 1, "15m", 15, "1h", 60);
+
+    /** Quantiles reported. */
+    private static final double[] QUANTILES = {0.5, 0.95, 0.99};
+
+    /** Metric name. */
+    private static final String DURATION = "tcbot_method_duration_seconds";
+
+    /** Max duration metric name. */
+    private static final String DURATION_MAX = "tcbot_method_duration_max_seconds";
+
+    /**
+     * @param invocations Profiled methods.
+     * @return Metrics text.
+     */
+    public static String write(Collection<AutoProfilingInterceptor.Invocation> invocations) {
+        StringBuilder sb = new StringBuilder();
+        StringBuilder maxSb = new StringBuilder();
+
+        sb.append("# HELP ").append(DURATION).append(" Duration of profiled method calls.\n");
+        sb.append("# TYPE ").append(DURATION).append(" summary\n");
+
+        maxSb.append("# HELP ").append(DURATION_MAX).append(" Max duration of profiled method calls in window.\n");
+        maxSb.append("# TYPE ").append(DURATION_MAX).append(" gauge\n");
+
+        invocations.stream()
+            .sorted(Comparator.comparing(AutoProfilingInterceptor.Invocation::getName))
+            .forEach(inv -> {
+                String mtd = escape(inv.getName());
+
+                WINDOWS.forEach((window, minutes) -> {
+                    LatencyHistogram latency = inv.getLatency(minutes);
+
+                    for (double q : QUANTILES) {
+                        sb.append(DURATION).append("{method=\"").append(mtd)
+                            .append("\",window=\"").append(window)
+                            .append("\",quantile=\"").append(q).append("\"} ")
+                            .append(microsToSeconds(latency.percentile(q * 100))).append('\n');
+                    }
+
+                    maxSb.append(DURATION_MAX).append("{method=\"").append(mtd)
+                        .append("\",window=\"").append(window).append("\"} ")
+                        .append(microsToSeconds(latency.max())).append('\n');
+                });
+
+                sb.append(DURATION).append("_sum{method=\"").append(mtd).append("\"} ")
+                    .append(inv.getNanos() / (double)TimeUnit.SECONDS.toNanos(1)).append('\n');
+                sb.append(DURATION).append("_count{method=\"").append(mtd).append("\"} ")
+                    .append(inv.getCount()).append('\n');
+            });
+
+        return sb.append(maxSb).toString();
+    }
+
+    /**
+     * @param micros Microseconds.
+     */
+    private static double microsToSeconds(long micros) {
+        return micros / (double)TimeUnit.SECONDS.toMicros(1);
+    }
+
+    /**
+     * @param val Label value.
+     * @return Value escaped according to the format.
+     */
+    private static String escape(String val) {
+        return val.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+}
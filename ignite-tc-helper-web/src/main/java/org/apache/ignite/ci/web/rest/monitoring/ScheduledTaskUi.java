@@ -0,0 +1,55 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.ignite.ci.web.rest.monitoring;
+
+import java.util.Map;
+import org.apache.ignite.tcbot.common.util.LatencyHistogram;
+import org.apache.ignite.tcbot.common.util.TimeUtil;
+import org.apache.ignite.tcbot.persistence.scheduler.NamedTaskStat;
+
+@SuppressWarnings("WeakerAccess")
+public class ScheduledTaskUi {
+    public String name;
+    public long count;
+
+    public String queueWaitP50;
+    public String queueWaitP95;
+    public String queueWaitMax;
+    public Map<String, Long> queueWaitHist;
+
+    public String runTimeP50;
+    public String runTimeP95;
+    public String runTimeMax;
+    public Map<String, Long> runTimeHist;
+
+    public ScheduledTaskUi(NamedTaskStat stat) {
+        name = stat.name();
+
+        LatencyHistogram queueWait = stat.queueWait();
+        count = queueWait.count();
+        queueWaitP50 = TimeUtil.millisToDurationPrintable(queueWait.percentile(50));
+        queueWaitP95 = TimeUtil.millisToDurationPrintable(queueWait.percentile(95));
+        queueWaitMax = TimeUtil.millisToDurationPrintable(queueWait.max());
+        queueWaitHist = queueWait.nonEmptyBuckets();
+
+        LatencyHistogram runTime = stat.runTime();
+        runTimeP50 = TimeUtil.millisToDurationPrintable(runTime.percentile(50));
+        runTimeP95 = TimeUtil.millisToDurationPrintable(runTime.percentile(95));
+        runTimeMax = TimeUtil.millisToDurationPrintable(runTime.max());
+        runTimeHist = runTime.nonEmptyBuckets();
+    }
+}
@@ -18,6 +18,8 @@
 package org.apache.ignite.ci.web.rest.pr;
 
 import com.google.inject.Injector;
+import java.util.Arrays;
+import java.util.List;
 import javax.annotation.Nonnull;
 import javax.servlet.ServletContext;
 import javax.servlet.http.HttpServletRequest;
@@ -27,18 +29,25 @@ import javax.ws.rs.POST;
 import javax.ws.rs.Path;
 import javax.ws.rs.Produces;
 import javax.ws.rs.QueryParam;
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.container.Suspended;
 import javax.ws.rs.core.Context;
 import javax.ws.rs.core.MediaType;
 import org.apache.ignite.ci.github.PullRequest;
 import org.apache.ignite.ci.user.ITcBotUserCreds;
 import org.apache.ignite.ci.web.CtxListener;
+import org.apache.ignite.ci.web.rest.cache.ETagFilter;
+import org.apache.ignite.ci.web.rest.cache.SummaryResultsCache;
+import org.apache.ignite.ci.web.rest.updates.UpdateCountersSubscriptions;
 import org.apache.ignite.githubignited.IGitHubConnIgnited;
 import org.apache.ignite.githubignited.IGitHubConnIgnitedProvider;
 import org.apache.ignite.githubservice.IGitHubConnection;
 import org.apache.ignite.tcbot.engine.pr.PrChainsProcessor;
 import org.apache.ignite.tcbot.engine.ui.DsSummaryUi;
 import org.apache.ignite.tcbot.engine.ui.UpdateInfo;
+import org.apache.ignite.tcignited.ITeamcityIgnitedProvider;
 import org.apache.ignite.tcignited.SyncMode;
+import org.apache.ignite.tcignited.build.UpdateCountersStorage;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -66,6 +75,31 @@ public class GetPrTestFailures {
                 .getPrUpdateCounters(srvCodeOrAlias, branchForTc, baseBranchForTc, ITcBotUserCreds.get(req)));
     }
 
+    /**
+     * Waits for change of update counters, see {@link UpdateCountersSubscriptions}.
+     *
+     * @param res Async response.
+     * @param srvCodeOrAlias Server code or alias.
+     * @param branchForTc Branch name in TC identification.
+     * @param baseBranchForTc Base branch name in TC identification.
+     * @param knownHash Hash of counters of data shown in page.
+     */
+    @GET
+    @Path("updatesWait")
+    public void waitPrFailuresUpdates(@Suspended AsyncResponse res,
+        @Nullable @QueryParam("serverId") String srvCodeOrAlias,
+        @Nonnull @QueryParam("branchForTc") String branchForTc,
+        @Nullable @QueryParam("baseBranchForTc") String baseBranchForTc,
+        @Nullable @QueryParam("knownHash") String knownHash) {
+        ITcBotUserCreds creds = ITcBotUserCreds.get(req);
+        Injector injector = CtxListener.getInjector(ctx);
+        PrChainsProcessor prChainsProcessor = injector.getInstance(PrChainsProcessor.class);
+
+        injector.getInstance(UpdateCountersSubscriptions.class).subscribe(res,
+            () -> prChainsProcessor.getPrUpdateCounters(srvCodeOrAlias, branchForTc, baseBranchForTc, creds),
+            knownHash);
+    }
+
     @GET
     @Path("resultsNoSync")
     public DsSummaryUi getPrFailuresResultsNoSync(
@@ -92,10 +126,24 @@ public class GetPrTestFailures {
         final ITcBotUserCreds creds = ITcBotUserCreds.get(req);
         final Injector injector = CtxListener.getInjector(ctx);
         final PrChainsProcessor prChainsProcessor = injector.getInstance(PrChainsProcessor.class);
+        final SummaryResultsCache resultsCache = injector.getInstance(SummaryResultsCache.class);
+
+        // Cached summary is returned without processing, so access is checked here.
+        injector.getInstance(ITeamcityIgnitedProvider.class).checkAccess(srvId, creds);
+
+        String countersHash = UpdateCountersStorage.getCountersHash(
+            prChainsProcessor.getPrUpdateCounters(srvId, branchForTc, baseBranchForTc, creds));
+
+        List<Object> key = Arrays.asList(PR, srvId, suiteId, branchForTc, act, cnt, baseBranchForTc, checkAllLogs,
+            mode, resultsCache.accessibleServers(creds), countersHash);
+
+        SummaryResultsCache.Entry entry = resultsCache.get(key,
+            () -> prChainsProcessor.getTestFailuresSummary(creds, srvId, suiteId, branchForTc, act, cnt,
+                baseBranchForTc, checkAllLogs, mode));
+
+        ETagFilter.setETag(req, entry.etag());
 
-        return prChainsProcessor.getTestFailuresSummary(creds, srvId, suiteId, branchForTc, act, cnt, baseBranchForTc,
-            checkAllLogs,
-            mode);
+        return entry.summary();
     }
 
     /**
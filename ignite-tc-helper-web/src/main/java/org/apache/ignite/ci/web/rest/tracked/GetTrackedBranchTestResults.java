@@ -18,6 +18,7 @@
 package org.apache.ignite.ci.web.rest.tracked;
 
 import com.google.inject.Injector;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -30,11 +31,16 @@ import javax.ws.rs.GET;
 import javax.ws.rs.Path;
 import javax.ws.rs.Produces;
 import javax.ws.rs.QueryParam;
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.container.Suspended;
 import javax.ws.rs.core.Context;
 import javax.ws.rs.core.MediaType;
 import org.apache.ignite.ci.tcbot.visa.TcBotTriggerAndSignOffService;
 import org.apache.ignite.ci.user.ITcBotUserCreds;
 import org.apache.ignite.ci.web.CtxListener;
+import org.apache.ignite.ci.web.rest.cache.ETagFilter;
+import org.apache.ignite.ci.web.rest.cache.SummaryResultsCache;
+import org.apache.ignite.ci.web.rest.updates.UpdateCountersSubscriptions;
 import org.apache.ignite.internal.util.typedef.F;
 import org.apache.ignite.tcbot.engine.chain.SortOption;
 import org.apache.ignite.tcbot.engine.conf.ITcBotConfig;
@@ -46,6 +52,7 @@ import org.apache.ignite.tcbot.engine.ui.GuardBranchStatusUi;
 import org.apache.ignite.tcbot.engine.ui.UpdateInfo;
 import org.apache.ignite.tcignited.ITeamcityIgnitedProvider;
 import org.apache.ignite.tcignited.SyncMode;
+import org.apache.ignite.tcignited.build.UpdateCountersStorage;
 import org.apache.ignite.tcservice.model.mute.MuteInfo;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -78,6 +85,26 @@ public class GetTrackedBranchTestResults {
         return info;
     }
 
+    /**
+     * Waits for change of update counters, see {@link UpdateCountersSubscriptions}.
+     *
+     * @param res Async response.
+     * @param branchOrNull Tracked branch name.
+     * @param knownHash Hash of counters of data shown in page.
+     */
+    @GET
+    @Path("updatesWait")
+    public void waitTestFailsUpdates(@Suspended AsyncResponse res,
+        @Nullable @QueryParam("branch") String branchOrNull,
+        @Nullable @QueryParam("knownHash") String knownHash) {
+        ITcBotUserCreds creds = ITcBotUserCreds.get(req);
+        Injector injector = CtxListener.getInjector(ctx);
+        IDetailedStatusForTrackedBranch status = injector.getInstance(IDetailedStatusForTrackedBranch.class);
+
+        injector.getInstance(UpdateCountersSubscriptions.class)
+            .subscribe(res, () -> status.getTrackedBranchUpdateCounters(branchOrNull, creds), knownHash);
+    }
+
     @GET
     @Path("results/txt")
     @Produces(MediaType.TEXT_PLAIN)
@@ -154,7 +181,17 @@ public class GetTrackedBranchTestResults {
 
         int maxDurationSec = (showTestLongerThan == null || showTestLongerThan < 1) ? 0 : showTestLongerThan;
 
-        return injector.getInstance(IDetailedStatusForTrackedBranch.class)
+        IDetailedStatusForTrackedBranch statusForBranch = injector.getInstance(IDetailedStatusForTrackedBranch.class);
+        SummaryResultsCache resultsCache = injector.getInstance(SummaryResultsCache.class);
+
+        String countersHash = UpdateCountersStorage.getCountersHash(
+            statusForBranch.getTrackedBranchUpdateCounters(branch, creds));
+
+        List<Object> key = Arrays.asList(TRACKED, branch, checkAllLogs, trustedTests, tagSelected, tagForHistSelected,
+            mode, displayMode, sortOption, actualMergeBuilds, maxDurationSec, showMuted, showIgnored,
+            resultsCache.accessibleServers(creds), countersHash);
+
+        SummaryResultsCache.Entry entry = resultsCache.get(key, () -> statusForBranch
             .getTrackedBranchTestFailures(branch,
                 checkAllLogs,
                 actualMergeBuilds,
@@ -167,7 +204,11 @@ public class GetTrackedBranchTestResults {
                 SortOption.parseStringValue(sortOption),
                 maxDurationSec,
                 Boolean.TRUE.equals(showMuted),
-                Boolean.TRUE.equals(showIgnored));
+                Boolean.TRUE.equals(showIgnored)));
+
+        ETagFilter.setETag(req, entry.etag());
+
+        return entry.summary();
     }
 
     @GET
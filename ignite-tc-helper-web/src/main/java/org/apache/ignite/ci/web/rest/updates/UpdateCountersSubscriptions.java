@@ -0,0 +1,173 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.ignite.ci.web.rest.updates;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import javax.annotation.Nullable;
+import javax.inject.Inject;
+import javax.ws.rs.container.AsyncResponse;
+import org.apache.ignite.tcbot.engine.ui.UpdateInfo;
+import org.apache.ignite.tcbot.persistence.scheduler.IScheduler;
+import org.apache.ignite.tcignited.build.UpdateCountersStorage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Subscriptions of UI pages to changes of update counters (long polling). Request is suspended until counters of
+ * related branches are changed, so page does not need to poll counters periodically. Each subscription is completed
+ * once: a series of changes is coalesced into one response, and next changes are delivered only after the page
+ * subscribes again. Waiting subscriptions do not occupy threads.
+ */
+public class UpdateCountersSubscriptions {
+    /** Logger. */
+    private static final Logger logger = LoggerFactory.getLogger(UpdateCountersSubscriptions.class);
+
+    /** Max time to wait for change, page should subscribe again after the timeout. Less than usual proxy timeouts. */
+    public static final int WAIT_TIMEOUT_SEC = 50;
+
+    /** Delay of response after first change, following changes during the delay are delivered with the same response. */
+    public static final int COALESCE_DELAY_MS = 2000;
+
+    /** Max subscriptions waiting at once, requests above the limit are completed immediately. */
+    public static final int MAX_SUBSCRIPTIONS = 2000;
+
+    /** Update counters storage. */
+    @Inject private UpdateCountersStorage countersStorage;
+
+    /** Scheduler. */
+    @Inject private IScheduler scheduler;
+
+    /** Count of subscriptions waiting. */
+    private final AtomicInteger waiting = new AtomicInteger();
+
+    /**
+     * Completes response with current counters if these are different from known by the page, otherwise suspends
+     * response until counters change or timeout.
+     *
+     * @param res Async response.
+     * @param countersSupplier Counters of branches related to the page, called once now and once on completion.
+     * @param knownHash Hash of counters known by the page, see {@link UpdateInfo#hashCodeHex}.
+     */
+    public void subscribe(AsyncResponse res, Supplier<Map<Integer, Integer>> countersSupplier,
+        @Nullable String knownHash) {
+        Map<Integer, Integer> counters = countersSupplier.get();
+
+        if (!Objects.equals(knownHash, UpdateCountersStorage.getCountersHash(counters))
+            || waiting.get() >= MAX_SUBSCRIPTIONS) {
+            res.resume(new UpdateInfo().initCounters(counters));
+
+            return;
+        }
+
+        new Subscription(res, countersSupplier, new HashSet<>(counters.keySet())).start(knownHash);
+    }
+
+    /**
+     * @return Count of subscriptions waiting.
+     */
+    public int waitingCount() {
+        return waiting.get();
+    }
+
+    /**
+     * Single page waiting for change.
+     */
+    private class Subscription implements Runnable {
+        /** Response. */
+        private final AsyncResponse res;
+
+        /** Counters supplier. */
+        private final Supplier<Map<Integer, Integer>> countersSupplier;
+
+        /** Branch IDs. */
+        private final Set<Integer> branchIds;
+
+        /** Change was detected or subscription is completed, all following notifications are ignored. */
+        private final AtomicBoolean notified = new AtomicBoolean();
+
+        /** Subscription is completed. */
+        private final AtomicBoolean completed = new AtomicBoolean();
+
+        /**
+         * @param res Response.
+         * @param countersSupplier Counters supplier.
+         * @param branchIds Branch IDs.
+         */
+        Subscription(AsyncResponse res, Supplier<Map<Integer, Integer>> countersSupplier, Set<Integer> branchIds) {
+            this.res = res;
+            this.countersSupplier = countersSupplier;
+            this.branchIds = branchIds;
+        }
+
+        /**
+         * Suspends response and starts listening.
+         *
+         * @param knownHash Hash of counters known by the page.
+         */
+        void start(String knownHash) {
+            waiting.incrementAndGet();
+
+            res.setTimeoutHandler(r -> complete());
+            res.setTimeout(WAIT_TIMEOUT_SEC, TimeUnit.SECONDS);
+
+            countersStorage.addListener(branchIds, this);
+
+            // Change may happen before listener was added.
+            if (!Objects.equals(knownHash, UpdateCountersStorage.getCountersHash(countersSupplier.get())))
+                run();
+        }
+
+        /** Counter changed notification, called from thread updating counters. */
+        @Override public void run() {
+            if (notified.compareAndSet(false, true))
+                scheduler.invokeLater(this::complete, COALESCE_DELAY_MS, TimeUnit.MILLISECONDS);
+        }
+
+        /**
+         * Stops listening and sends current counters, if response was not sent yet.
+         */
+        private void complete() {
+            notified.set(true);
+
+            if (!completed.compareAndSet(false, true))
+                return;
+
+            waiting.decrementAndGet();
+
+            countersStorage.removeListener(branchIds, this);
+
+            if (res.isDone())
+                return;
+
+            try {
+                res.resume(new UpdateInfo().initCounters(countersSupplier.get()));
+            }
+            catch (Exception e) {
+                logger.warn("Failed to send update counters", e);
+
+                res.resume(e);
+            }
+        }
+    }
+}
@@ -152,6 +152,12 @@ function showChainCurrentStatusData(chain, settings) {
             "run. <br>There is no data on the TC server</span></td></tr>";
     }
 
+    if(isDefinedAndFilled(chain.timedOut) && chain.timedOut ) {
+        return "<tr><td><b>Chain [" + chain.suiteId + "] for branch [" + chain.branchName + "] was not processed in time" +
+            "</b><br><br><span style='color:grey; font-size:12px;'>Results will be available after page " +
+            "refresh</span></td></tr>";
+    }
+
     var res = "";
 
     res += "<table style='width: 100%;' border='0px'>";
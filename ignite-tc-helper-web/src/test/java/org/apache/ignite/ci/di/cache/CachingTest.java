@@ -21,10 +21,12 @@ import com.google.inject.Injector;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.ignite.tcbot.common.interceptor.GuavaCached;
+import org.apache.ignite.tcbot.common.interceptor.GuavaCachedInterceptor;
 import org.apache.ignite.tcbot.common.interceptor.GuavaCachedModule;
 import org.junit.Test;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 public class CachingTest {
     @Test
@@ -66,10 +68,55 @@ public class CachingTest {
         assertEquals(110, instance.parseIntMtdCalls.get());
     }
 
+    @Test
+    public void testStaleValueReturnedWhileRefreshing() throws Exception {
+        Injector injector = Guice.createInjector(new GuavaCachedModule());
+
+        SomeWorker instance = injector.getInstance(SomeWorker.class);
+
+        assertEquals(1, instance.version());
+
+        Thread.sleep(1100);
+
+        // Stale value is returned, new one is loaded asynchronously.
+        assertEquals(1, instance.version());
+
+        long deadline = System.currentTimeMillis() + 10_000;
+
+        while (instance.version() == 1 && System.currentTimeMillis() < deadline)
+            Thread.sleep(10);
+
+        assertEquals(2, instance.version());
+        assertEquals(2, instance.versionMtdCalls.get());
+
+        GuavaCachedInterceptor interceptor = injector.getInstance(GuavaCachedInterceptor.class);
+
+        while (versionStatistics(interceptor).refreshes() == 0 && System.currentTimeMillis() < deadline)
+            Thread.sleep(10);
+
+        GuavaCachedInterceptor.CacheStatistics stat = versionStatistics(interceptor);
+
+        assertEquals(1, stat.refreshes());
+        assertEquals(1, stat.stats().missCount());
+        assertTrue(stat.stats().hitCount() >= 2);
+    }
+
+    /**
+     * @param interceptor Interceptor.
+     * @return Statistics of {@link SomeWorker#version()} cache.
+     */
+    private static GuavaCachedInterceptor.CacheStatistics versionStatistics(GuavaCachedInterceptor interceptor) {
+        return interceptor.getStatistics().stream()
+            .filter(s -> s.name().endsWith(".version"))
+            .findAny()
+            .orElseThrow(AssertionError::new);
+    }
+
     public static class SomeWorker {
         AtomicInteger doSmtMtdCalls = new AtomicInteger();
         AtomicInteger toStringMtdCalls = new AtomicInteger();
         AtomicInteger parseIntMtdCalls = new AtomicInteger();
+        AtomicInteger versionMtdCalls = new AtomicInteger();
 
         @GuavaCached
         public String doSmt() {
@@ -92,6 +139,11 @@ public class CachingTest {
 
             return Integer.parseInt(val);
         }
+
+        @GuavaCached(refreshAfterWriteSecs = 1)
+        public int version() {
+            return versionMtdCalls.incrementAndGet();
+        }
     }
 
 }
@@ -0,0 +1,134 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.ignite.ci.teamcity.pure;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.apache.ignite.tcbot.common.util.HttpTransport;
+import org.junit.After;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests for {@link HttpTransport} limits and timeouts, checked against {@link StandInServer}.
+ */
+public class HttpTransportTest {
+    /** Server. */
+    private StandInServer srv;
+
+    /**
+     *
+     */
+    @After
+    public void stopServer() throws Exception {
+        if (srv != null)
+            srv.stop();
+    }
+
+    /**
+     * Checks requests exceeding host limit are queued, and all of them are sent eventually.
+     */
+    @Test
+    public void testConcurrentRequestsLimited() throws Exception {
+        srv = new StandInServer(null, null, 100, 100);
+
+        String url = srv.start();
+
+        HttpTransport transport = new HttpTransport();
+
+        transport.configure(url, 0, 0, 2);
+
+        List<CompletableFuture<HttpResponse<String>>> futs = new ArrayList<>();
+
+        for (int i = 0; i < 10; i++)
+            futs.add(transport.sendAsync(HttpRequest.newBuilder().GET(), URI.create(url + i),
+                HttpResponse.BodyHandlers.ofString()));
+
+        for (CompletableFuture<HttpResponse<String>> fut : futs)
+            assertEquals(404, HttpTransport.get(fut).statusCode());
+
+        assertEquals(10, srv.requests());
+        assertEquals(2, srv.maxInFlight());
+    }
+
+    /**
+     * Checks request waiting for response longer than read timeout fails, and its permit is returned to the host.
+     */
+    @Test
+    public void testReadTimeout() throws Exception {
+        srv = new StandInServer(null, null, 1000, 100);
+
+        String url = srv.start();
+
+        HttpTransport transport = new HttpTransport();
+
+        transport.configure(url, 0, 100, 1);
+
+        // Second request is sent only if permit of the first one is returned after timeout.
+        for (int i = 0; i < 2; i++) {
+            CompletableFuture<HttpResponse<String>> fut = transport.sendAsync(HttpRequest.newBuilder().GET(),
+                URI.create(url + "slow"), HttpResponse.BodyHandlers.ofString());
+
+            try {
+                fut.get(5, TimeUnit.SECONDS);
+
+                fail("Timeout expected");
+            }
+            catch (ExecutionException e) {
+                assertTrue(String.valueOf(e.getCause()), e.getCause() instanceof HttpTimeoutException);
+            }
+        }
+    }
+
+    /**
+     * Checks request is failed if connection can't be established within connect timeout.
+     */
+    @Test
+    public void testConnectTimeout() throws Exception {
+        // Non routable address, connection attempt hangs until timeout.
+        String url = "http://10.255.255.1:81/";
+
+        HttpTransport transport = new HttpTransport();
+
+        transport.configure(url, 100, 30000, 1);
+
+        long start = System.currentTimeMillis();
+
+        try {
+            HttpTransport.get(transport.sendAsync(HttpRequest.newBuilder().GET(), URI.create(url),
+                HttpResponse.BodyHandlers.ofString()));
+
+            fail("Connect failure expected");
+        }
+        catch (IOException ignored) {
+            // Expected: timeout, or immediate failure if network is unreachable.
+        }
+
+        assertTrue(System.currentTimeMillis() - start < 10000);
+    }
+}
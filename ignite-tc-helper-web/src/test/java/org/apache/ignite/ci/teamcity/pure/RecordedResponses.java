@@ -0,0 +1,135 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.ignite.ci.teamcity.pure;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import javax.annotation.Nullable;
+import org.apache.ignite.tcservice.http.TeamcityRecorder;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Responses recorded by {@link TeamcityRecorder}, indexed by path and query of URL. If URL was recorded several times,
+ * the latest response is used.
+ */
+public class RecordedResponses {
+    /** Path and query -> response body. */
+    private final Map<String, byte[]> responses = new HashMap<>();
+
+    /**
+     * @param file Records file.
+     */
+    public static RecordedResponses load(File file) throws IOException {
+        RecordedResponses res = new RecordedResponses();
+
+        res.parse(Files.readAllBytes(file.toPath()));
+
+        return res;
+    }
+
+    /**
+     * @param data Records file content.
+     */
+    void parse(byte[] data) {
+        byte[] marker = TeamcityRecorder.RECORD_START.getBytes(UTF_8);
+
+        int recStart = indexOf(data, marker, 0);
+
+        while (recStart >= 0) {
+            int urlStart = recStart + marker.length;
+            int urlEnd = urlStart;
+
+            while (urlEnd < data.length && data[urlEnd] != '\n')
+                urlEnd++;
+
+            int bodyStart = Math.min(urlEnd + 1, data.length);
+            int nextRec = indexOf(data, marker, bodyStart);
+            int bodyEnd = nextRec < 0 ? data.length : nextRec;
+
+            // Recorder appends line separator after each body.
+            if (bodyEnd > bodyStart && data[bodyEnd - 1] == '\n')
+                bodyEnd--;
+
+            String url = new String(data, urlStart, urlEnd - urlStart, UTF_8);
+
+            responses.put(pathAndQuery(url), Arrays.copyOfRange(data, bodyStart, bodyEnd));
+
+            recStart = nextRec;
+        }
+    }
+
+    /**
+     * @param pathAndQuery Path and query of URL, leading slash is optional.
+     * @return Recorded response or null.
+     */
+    @Nullable public byte[] get(String pathAndQuery) {
+        return responses.get(pathAndQuery(pathAndQuery));
+    }
+
+    /**
+     * @return Count of URLs recorded.
+     */
+    public int size() {
+        return responses.size();
+    }
+
+    /**
+     * @param url Full URL or its path and query.
+     * @return Path and query without leading slash.
+     */
+    static String pathAndQuery(String url) {
+        String res = url;
+
+        int schemeEnd = res.indexOf("://");
+
+        if (schemeEnd >= 0) {
+            int pathStart = res.indexOf('/', schemeEnd + 3);
+
+            res = pathStart < 0 ? "" : res.substring(pathStart);
+        }
+
+        return res.startsWith("/") ? res.substring(1) : res;
+    }
+
+    /**
+     * @param data Data.
+     * @param pattern Pattern.
+     * @param from Start position.
+     * @return Position of pattern at the start of line, or -1.
+     */
+    private static int indexOf(byte[] data, byte[] pattern, int from) {
+        outer:
+        for (int i = from; i <= data.length - pattern.length; i++) {
+            if (i > 0 && data[i - 1] != '\n')
+                continue;
+
+            for (int j = 0; j < pattern.length; j++) {
+                if (data[i + j] != pattern[j])
+                    continue outer;
+            }
+
+            return i;
+        }
+
+        return -1;
+    }
+}
@@ -0,0 +1,210 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.ignite.ci.teamcity.pure;
+
+import java.io.IOException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.annotation.Nullable;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.eclipse.jetty.server.Request;
+import org.eclipse.jetty.server.Server;
+import org.eclipse.jetty.server.ServerConnector;
+import org.eclipse.jetty.server.handler.AbstractHandler;
+
+/**
+ * Embedded HTTP server standing in for TeamCity, GitHub and JIRA. Responses recorded by
+ * {@link org.apache.ignite.tcservice.http.TeamcityRecorder} are served first, other URLs are served by synthetic
+ * generator. Each request is delayed by configured latency, requests exceeding concurrency limit wait for their turn.
+ */
+public class StandInServer {
+    /** Recorded responses. */
+    @Nullable private final RecordedResponses recorded;
+
+    /** Synthetic responses. */
+    @Nullable private final SyntheticResponses synthetic;
+
+    /** Latency of each response, milliseconds. */
+    private final long latencyMs;
+
+    /** Concurrency limit. */
+    private final Semaphore permits;
+
+    /** Requests served. */
+    private final AtomicLong requests = new AtomicLong();
+
+    /** Requests not found. */
+    private final AtomicLong notFound = new AtomicLong();
+
+    /** Requests being processed. */
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    /** Max requests processed concurrently. */
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+
+    /** Jetty server. */
+    private Server srv;
+
+    /** Base URL. */
+    private String baseUrl;
+
+    /**
+     * @param recorded Recorded responses.
+     * @param synthetic Synthetic responses.
+     * @param latencyMs Latency of each response, milliseconds.
+     * @param maxConcurrent Max requests processed concurrently.
+     */
+    public StandInServer(@Nullable RecordedResponses recorded, @Nullable SyntheticResponses synthetic,
+        long latencyMs, int maxConcurrent) {
+        this.recorded = recorded;
+        this.synthetic = synthetic;
+        this.latencyMs = latencyMs;
+        this.permits = new Semaphore(maxConcurrent, true);
+    }
+
+    /**
+     * Starts server on random free port.
+     *
+     * @return Base URL, ends with slash.
+     */
+    public String start() throws Exception {
+        srv = new Server();
+
+        ServerConnector connector = new ServerConnector(srv);
+
+        connector.setHost("127.0.0.1");
+        connector.setPort(0);
+
+        srv.addConnector(connector);
+        srv.setHandler(new AbstractHandler() {
+            @Override public void handle(String target, Request baseReq, HttpServletRequest req,
+                HttpServletResponse res) throws IOException {
+                baseReq.setHandled(true);
+
+                serve(req, res);
+            }
+        });
+
+        srv.start();
+
+        baseUrl = "http://127.0.0.1:" + connector.getLocalPort() + "/";
+
+        return baseUrl;
+    }
+
+    /**
+     *
+     */
+    public void stop() throws Exception {
+        if (srv != null)
+            srv.stop();
+    }
+
+    /**
+     * @param req Request.
+     * @param res Response.
+     */
+    private void serve(HttpServletRequest req, HttpServletResponse res) throws IOException {
+        String query = req.getQueryString();
+        String pathAndQuery = RecordedResponses.pathAndQuery(req.getRequestURI() + (query == null ? "" : "?" + query));
+
+        try {
+            permits.acquire();
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+
+            res.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+
+            return;
+        }
+
+        int cur = inFlight.incrementAndGet();
+
+        maxInFlight.accumulateAndGet(cur, Math::max);
+
+        try {
+            if (latencyMs > 0)
+                Thread.sleep(latencyMs);
+
+            requests.incrementAndGet();
+
+            byte[] rec = recorded == null ? null : recorded.get(pathAndQuery);
+
+            if (rec != null) {
+                res.setContentType(pathAndQuery.startsWith("app/rest/") ? "application/xml" : "application/json");
+                res.getOutputStream().write(rec);
+
+                return;
+            }
+
+            SyntheticResponses.Response generated = synthetic == null ? null : synthetic.handle(pathAndQuery, baseUrl);
+
+            if (generated != null) {
+                res.setContentType(generated.contentType);
+                generated.headers.forEach(res::setHeader);
+                res.getOutputStream().write(generated.body);
+
+                return;
+            }
+
+            notFound.incrementAndGet();
+
+            res.sendError(HttpServletResponse.SC_NOT_FOUND, pathAndQuery);
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+
+            res.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+        }
+        finally {
+            inFlight.decrementAndGet();
+
+            permits.release();
+        }
+    }
+
+    /**
+     * @return Base URL, ends with slash.
+     */
+    public String baseUrl() {
+        return baseUrl;
+    }
+
+    /**
+     * @return Requests served, including not found ones.
+     */
+    public long requests() {
+        return requests.get();
+    }
+
+    /**
+     * @return Requests not found.
+     */
+    public long notFound() {
+        return notFound.get();
+    }
+
+    /**
+     * @return Max requests processed concurrently.
+     */
+    public int maxInFlight() {
+        return maxInFlight.get();
+    }
+}
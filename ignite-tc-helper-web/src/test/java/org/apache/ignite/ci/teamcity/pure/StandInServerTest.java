@@ -0,0 +1,193 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.ignite.ci.teamcity.pure;
+
+import com.google.common.base.Strings;
+import com.google.common.io.ByteStreams;
+import com.google.gson.Gson;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.apache.ignite.jiraservice.Tickets;
+import org.apache.ignite.tcservice.http.TeamcityRecorder;
+import org.apache.ignite.tcservice.model.hist.Builds;
+import org.apache.ignite.tcservice.model.mute.Mutes;
+import org.apache.ignite.tcservice.model.result.Build;
+import org.apache.ignite.tcservice.model.result.tests.TestOccurrencesFull;
+import org.apache.ignite.tcservice.util.TestOccurrencesStreamParser;
+import org.apache.ignite.tcservice.util.XmlUtil;
+import org.junit.After;
+import org.junit.Test;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+public class StandInServerTest {
+    /** First build ID. */
+    private static final int FIRST_BUILD = 1000;
+
+    /** Server. */
+    private StandInServer srv;
+
+    @After
+    public void stopServer() throws Exception {
+        if (srv != null)
+            srv.stop();
+    }
+
+    @Test
+    public void testSyntheticResponsesAreParsedWithPaging() throws Exception {
+        srv = new StandInServer(null, new SyntheticResponses(FIRST_BUILD, 250, 3, 230, 2, 120, 40, 150), 0, 10);
+
+        String url = srv.start();
+
+        int builds = 0;
+        String next = "app/rest/latest/builds?locator=defaultFilter:false";
+
+        while (next != null) {
+            try (Reader reader = reader(url + trimSlash(next))) {
+                Builds page = XmlUtil.load(Builds.class, reader);
+
+                builds += page.getBuildsNonNull().size();
+                next = Strings.emptyToNull(page.nextHref());
+            }
+        }
+
+        assertEquals(250, builds);
+
+        Build build;
+
+        try (Reader reader = reader(url + "app/rest/latest/builds/id:" + (FIRST_BUILD + 5))) {
+            build = XmlUtil.load(Build.class, reader);
+        }
+
+        assertEquals(FIRST_BUILD + 5, (int)build.getId());
+        assertNotNull(build.getStartDate());
+        assertEquals(230, (int)build.testOccurrences.count);
+
+        List<String> tests = new ArrayList<>();
+        next = build.testOccurrences.href;
+
+        while (next != null) {
+            try (Reader reader = reader(url + trimSlash(next))) {
+                TestOccurrencesFull page = TestOccurrencesStreamParser.parse(reader, t -> tests.add(t.getName()));
+
+                next = Strings.emptyToNull(page.nextHref());
+            }
+        }
+
+        assertEquals(230, tests.size());
+        assertEquals(230, tests.stream().distinct().count());
+
+        try (Reader reader = reader(url + "app/rest/mutes?locator=project:(id:" + SyntheticResponses.PROJECT_ID + ")")) {
+            Mutes mutes = XmlUtil.load(Mutes.class, reader);
+
+            assertEquals(100, mutes.getMutesNonNull().size());
+            assertNotNull(mutes.nextHref());
+        }
+
+        try (Reader reader = reader(url + "rest/api/2/search?jql=project%3DIGNITE&startAt=100")) {
+            Tickets tickets = new Gson().fromJson(reader, Tickets.class);
+
+            assertEquals(50, tickets.issuesNotNull().size());
+            assertEquals(-1, tickets.nextStart());
+        }
+
+        assertEquals(0, srv.notFound());
+    }
+
+    @Test
+    public void testRecordedResponsesReplayed() throws Exception {
+        String records = TeamcityRecorder.RECORD_START + "https://ci.ignite.apache.org/app/rest/latest/builds/id:1\n" +
+            "<build id=\"1\"/>\n" +
+            TeamcityRecorder.RECORD_START + "https://ci.ignite.apache.org/app/rest/latest/builds/id:2\n" +
+            "<build id=\"2\">\n</build>\n";
+
+        RecordedResponses recorded = new RecordedResponses();
+
+        recorded.parse(records.getBytes(UTF_8));
+
+        assertEquals(2, recorded.size());
+
+        srv = new StandInServer(recorded, null, 0, 10);
+
+        String url = srv.start();
+
+        assertEquals("<build id=\"1\"/>", body(url + "app/rest/latest/builds/id:1"));
+        assertEquals("<build id=\"2\">\n</build>", body(url + "app/rest/latest/builds/id:2"));
+    }
+
+    @Test
+    public void testConcurrencyLimited() throws Exception {
+        srv = new StandInServer(null, new SyntheticResponses(FIRST_BUILD, 10, 1, 10, 1, 0, 0, 0), 50, 2);
+
+        String url = srv.start();
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        try {
+            List<Future<String>> futs = new ArrayList<>();
+
+            for (int i = 0; i < 16; i++) {
+                int buildId = FIRST_BUILD + i % 10;
+
+                futs.add(executor.submit(() -> body(url + "app/rest/latest/builds/id:" + buildId)));
+            }
+
+            for (Future<String> fut : futs)
+                assertTrue(fut.get().startsWith("<build"));
+        }
+        finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(16, srv.requests());
+        assertTrue(srv.maxInFlight() <= 2);
+    }
+
+    /**
+     * @param url Url.
+     */
+    private static Reader reader(String url) throws IOException {
+        return new InputStreamReader(new URL(url).openStream(), UTF_8);
+    }
+
+    /**
+     * @param url Url.
+     */
+    private static String body(String url) throws IOException {
+        try (InputStream is = new URL(url).openStream()) {
+            return new String(ByteStreams.toByteArray(is), UTF_8);
+        }
+    }
+
+    /**
+     * @param href Href.
+     */
+    private static String trimSlash(String href) {
+        return href.startsWith("/") ? href.substring(1) : href;
+    }
+}
@@ -0,0 +1,571 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.ignite.ci.teamcity.pure;
+
+import java.text.SimpleDateFormat;
+import java.util.Collections;
+import java.util.Date;
+import java.util.Map;
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import javax.annotation.Nullable;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Generates TeamCity, GitHub and JIRA REST responses for synthetic history: builds of several suites in master branch,
+ * their test occurrences, changes and statistics, project mutes, pull requests and JIRA tickets. Responses are
+ * deterministic, the same URL always produces the same response.
+ */
+public class SyntheticResponses {
+    /** Project of synthetic suites. */
+    public static final String PROJECT_ID = "Synthetic";
+
+    /** Branch of all builds. */
+    public static final String BRANCH = "refs/heads/master";
+
+    /** Page size used if request does not specify one. */
+    private static final int DFLT_PAGE = 100;
+
+    /** GitHub page size. */
+    private static final int GITHUB_PAGE = 30;
+
+    /** Start of the history. */
+    private static final long HISTORY_START = 1_500_000_000_000L;
+
+    /** Time between builds. */
+    private static final long BUILD_INTERVAL = TimeUnit.MINUTES.toMillis(10);
+
+    /** Build ID by path. */
+    private static final Pattern BUILD_ID = Pattern.compile("builds/id:(\\d+)");
+
+    /** Build ID in locator. */
+    private static final Pattern LOCATOR_BUILD_ID = Pattern.compile("build:\\(id:(\\d+)\\)");
+
+    /** Change ID by path. */
+    private static final Pattern CHANGE_ID = Pattern.compile("changes/id:(\\d+)");
+
+    /** Pull request by path. */
+    private static final Pattern PR_NUM = Pattern.compile("/pulls/(\\d+)");
+
+    /** First build ID. */
+    private final int firstBuildId;
+
+    /** Builds count. */
+    private final int builds;
+
+    /** Suites count, builds are distributed between suites round-robin. */
+    private final int suites;
+
+    /** Tests in each build. */
+    private final int testsPerBuild;
+
+    /** Changes in each build. */
+    private final int changesPerBuild;
+
+    /** Mutes in project. */
+    private final int mutes;
+
+    /** Pull requests. */
+    private final int prs;
+
+    /** JIRA tickets. */
+    private final int tickets;
+
+    /**
+     * @param firstBuildId First build ID.
+     * @param builds Builds count.
+     * @param suites Suites count.
+     * @param testsPerBuild Tests in each build.
+     * @param changesPerBuild Changes in each build.
+     * @param mutes Mutes in project.
+     * @param prs Pull requests.
+     * @param tickets JIRA tickets.
+     */
+    public SyntheticResponses(int firstBuildId, int builds, int suites, int testsPerBuild, int changesPerBuild,
+        int mutes, int prs, int tickets) {
+        this.firstBuildId = firstBuildId;
+        this.builds = builds;
+        this.suites = suites;
+        this.testsPerBuild = testsPerBuild;
+        this.changesPerBuild = changesPerBuild;
+        this.mutes = mutes;
+        this.prs = prs;
+        this.tickets = tickets;
+    }
+
+    /**
+     * @param pathAndQuery Path and query of request without leading slash.
+     * @param baseUrl Base URL of the server, ends with slash. Used for absolute links.
+     * @return Response or null if URL is not supported.
+     */
+    @Nullable public Response handle(String pathAndQuery, String baseUrl) {
+        if (pathAndQuery.startsWith("app/rest/"))
+            return xml(teamcity(pathAndQuery));
+
+        Matcher prNum = PR_NUM.matcher(pathAndQuery);
+
+        if (prNum.find())
+            return json(pullRequest(Integer.parseInt(prNum.group(1))));
+
+        if (pathAndQuery.contains("/pulls"))
+            return pullRequests(pathAndQuery, baseUrl);
+
+        if (pathAndQuery.contains("search?jql="))
+            return json(tickets(pathAndQuery));
+
+        return null;
+    }
+
+    /**
+     * @param url Url.
+     * @return XML or null.
+     */
+    @Nullable private String teamcity(String url) {
+        if (url.startsWith("app/rest/latest/builds?"))
+            return buildRefs(url);
+
+        Matcher buildId = BUILD_ID.matcher(url);
+
+        if (buildId.find()) {
+            int id = Integer.parseInt(buildId.group(1));
+
+            if (!exists(id))
+                return null;
+
+            return url.endsWith("/statistics") ? statistics(id) : build(id);
+        }
+
+        Matcher changeId = CHANGE_ID.matcher(url);
+
+        if (changeId.find())
+            return change(Integer.parseInt(changeId.group(1)));
+
+        Matcher locatorBuildId = LOCATOR_BUILD_ID.matcher(url);
+
+        if (locatorBuildId.find()) {
+            int id = Integer.parseInt(locatorBuildId.group(1));
+
+            if (!exists(id))
+                return null;
+
+            if (url.startsWith("app/rest/latest/testOccurrences"))
+                return tests(id, url);
+
+            if (url.startsWith("app/rest/latest/problemOccurrences"))
+                return problems(id);
+
+            if (url.startsWith("app/rest/latest/changes"))
+                return changes(id);
+        }
+
+        if (url.startsWith("app/rest/mutes"))
+            return mutes(url);
+
+        return null;
+    }
+
+    /**
+     * @param id Build ID.
+     */
+    private boolean exists(int id) {
+        return id >= firstBuildId && id < firstBuildId + builds;
+    }
+
+    /**
+     * Build references, newest first.
+     *
+     * @param url Url.
+     */
+    private String buildRefs(String url) {
+        int start = intParam(url, "start:", 0);
+        int cnt = intParam(url, "count:", DFLT_PAGE);
+        int end = Math.min(builds, start + cnt);
+
+        StringBuilder sb = new StringBuilder();
+
+        sb.append("<builds count=\"").append(Math.max(end - start, 0)).append('"');
+
+        if (end < builds) {
+            sb.append(" nextHref=\"/app/rest/latest/builds?locator=defaultFilter:false,count:").append(cnt)
+                .append(",start:").append(end).append('"');
+        }
+
+        sb.append(">\n");
+
+        for (int i = start; i < end; i++) {
+            int id = firstBuildId + builds - 1 - i;
+
+            sb.append("    <build id=\"").append(id).append("\" buildTypeId=\"").append(suite(id))
+                .append("\" number=\"").append(id - firstBuildId + 1).append("\" status=\"").append(status(id))
+                .append("\" state=\"finished\" branchName=\"").append(BRANCH)
+                .append("\" defaultBranch=\"true\" href=\"/app/rest/latest/builds/id:").append(id).append("\"/>\n");
+        }
+
+        return sb.append("</builds>").toString();
+    }
+
+    /**
+     * @param id Build ID.
+     */
+    private String build(int id) {
+        String suite = suite(id);
+        long start = HISTORY_START + (id - firstBuildId) * BUILD_INTERVAL;
+
+        return "<build id=\"" + id + "\" buildTypeId=\"" + suite + "\" number=\"" + (id - firstBuildId + 1) +
+            "\" status=\"" + status(id) + "\" state=\"finished\" branchName=\"" + BRANCH +
+            "\" defaultBranch=\"true\" href=\"/app/rest/latest/builds/id:" + id + "\">\n" +
+            "    <buildType id=\"" + suite + "\" name=\"" + suite + "\" projectName=\"" + PROJECT_ID +
+            "\" projectId=\"" + PROJECT_ID + "\" href=\"/app/rest/latest/buildTypes/id:" + suite + "\"/>\n" +
+            "    <queuedDate>" + date(start - TimeUnit.MINUTES.toMillis(1)) + "</queuedDate>\n" +
+            "    <startDate>" + date(start) + "</startDate>\n" +
+            "    <finishDate>" + date(start + BUILD_INTERVAL / 2) + "</finishDate>\n" +
+            "    <changes href=\"/app/rest/latest/changes?locator=build:(id:" + id + ")\"/>\n" +
+            "    <revisions count=\"1\">\n" +
+            "        <revision version=\"" + sha(id) + "\"/>\n" +
+            "    </revisions>\n" +
+            "    <testOccurrences count=\"" + testsPerBuild + "\" href=\"/app/rest/latest/testOccurrences?locator=build:(id:" +
+            id + ")\"/>\n" +
+            "    <problemOccurrences count=\"" + (isFailed(id) ? 1 : 0) +
+            "\" href=\"/app/rest/latest/problemOccurrences?locator=build:(id:" + id + ")\"/>\n" +
+            "    <statistics href=\"/app/rest/latest/builds/id:" + id + "/statistics\"/>\n" +
+            "</build>";
+    }
+
+    /**
+     * @param id Build ID.
+     */
+    private String statistics(int id) {
+        return "<properties count=\"2\">\n" +
+            "    <property name=\"BuildDuration\" value=\"" + BUILD_INTERVAL / 2 + "\"/>\n" +
+            "    <property name=\"TestCount\" value=\"" + testsPerBuild + "\"/>\n" +
+            "</properties>";
+    }
+
+    /**
+     * @param id Build ID.
+     * @param url Url.
+     */
+    private String tests(int id, String url) {
+        int start = intParam(url, "start:", 0);
+        int cnt = intParam(url, "count:", DFLT_PAGE);
+        int end = Math.min(testsPerBuild, start + cnt);
+
+        StringBuilder sb = new StringBuilder();
+
+        sb.append("<testOccurrences count=\"").append(Math.max(end - start, 0)).append('"');
+
+        if (end < testsPerBuild) {
+            sb.append(" nextHref=\"/app/rest/latest/testOccurrences?locator=build:(id:").append(id)
+                .append("),start:").append(end).append(",count:").append(cnt).append('"');
+        }
+
+        sb.append(">\n");
+
+        for (int t = start; t < end; t++) {
+            boolean failed = isTestFailed(id, t);
+            String name = suite(id) + ": org.apache.ignite.synthetic.Test" + (t / 10) + ".test" + (t % 10);
+
+            sb.append("    <testOccurrence id=\"id:").append(t + 1).append(",build:(id:").append(id)
+                .append(")\" name=\"").append(name).append("\" status=\"").append(failed ? "FAILURE" : "SUCCESS")
+                .append("\" ignored=\"false\" duration=\"").append(10 + (id + t) % 1000)
+                .append("\" muted=\"false\" currentlyMuted=\"false\" currentlyInvestigated=\"false\">\n");
+
+            if (failed)
+                sb.append("        <details>java.lang.AssertionError: synthetic failure</details>\n");
+
+            sb.append("        <test id=\"").append(name.hashCode()).append("\"/>\n");
+            sb.append("        <build id=\"").append(id).append("\"/>\n");
+            sb.append("    </testOccurrence>\n");
+        }
+
+        return sb.append("</testOccurrences>").toString();
+    }
+
+    /**
+     * @param id Build ID.
+     */
+    private String problems(int id) {
+        if (!isFailed(id))
+            return "<problemOccurrences count=\"0\"/>";
+
+        return "<problemOccurrences count=\"1\">\n" +
+            "    <problemOccurrence id=\"problem:(id:1),build:(id:" + id + ")\" type=\"TC_FAILED_TESTS\"" +
+            " identity=\"testFailures\" href=\"/app/rest/latest/problemOccurrences/problem:(id:1),build:(id:" + id +
+            ")\">\n" +
+            "        <build id=\"" + id + "\"/>\n" +
+            "    </problemOccurrence>\n" +
+            "</problemOccurrences>";
+    }
+
+    /**
+     * @param id Build ID.
+     */
+    private String changes(int id) {
+        StringBuilder sb = new StringBuilder();
+
+        sb.append("<changes count=\"").append(changesPerBuild).append("\">\n");
+
+        for (int c = 0; c < changesPerBuild; c++) {
+            int changeId = (id - firstBuildId) * changesPerBuild + c + 1;
+
+            sb.append("    <change id=\"").append(changeId).append("\" version=\"").append(sha(changeId))
+                .append("\" username=\"user").append(changeId % 20).append("\" href=\"/app/rest/latest/changes/id:")
+                .append(changeId).append("\"/>\n");
+        }
+
+        return sb.append("</changes>").toString();
+    }
+
+    /**
+     * @param changeId Change ID.
+     */
+    private String change(int changeId) {
+        return "<change id=\"" + changeId + "\" version=\"" + sha(changeId) + "\" username=\"user" + changeId % 20 +
+            "\" date=\"" + date(HISTORY_START + changeId * BUILD_INTERVAL / Math.max(changesPerBuild, 1)) +
+            "\" href=\"/app/rest/latest/changes/id:" + changeId + "\">\n" +
+            "    <comment>IGNITE-" + (changeId % Math.max(tickets, 1) + 1) + " Synthetic change</comment>\n" +
+            "    <user username=\"user" + changeId % 20 + "\" name=\"User " + changeId % 20 + "\" id=\"" +
+            changeId % 20 + "\"/>\n" +
+            "</change>";
+    }
+
+    /**
+     * @param url Url.
+     */
+    private String mutes(String url) {
+        int start = intParam(url, "start:", 0);
+        int cnt = intParam(url, "count:", DFLT_PAGE);
+        int end = Math.min(mutes, start + cnt);
+
+        StringBuilder sb = new StringBuilder();
+
+        sb.append("<mutes");
+
+        if (end < mutes) {
+            sb.append(" nextHref=\"/app/rest/mutes?locator=project:(id:").append(PROJECT_ID).append("),start:")
+                .append(end).append(",count:").append(cnt).append('"');
+        }
+
+        sb.append(">\n");
+
+        for (int m = start; m < end; m++) {
+            String suite = PROJECT_ID + "_Suite" + m % suites;
+            String test = suite + ": org.apache.ignite.synthetic.Test" + m / 10 + ".test" + m % 10;
+
+            sb.append("    <mute id=\"").append(m + 1).append("\">\n")
+                .append("        <assignment>\n")
+                .append("            <timestamp>").append(date(HISTORY_START)).append("</timestamp>\n")
+                .append("            <text>IGNITE-").append(m + 1).append("</text>\n")
+                .append("        </assignment>\n")
+                .append("        <scope>\n")
+                .append("            <buildTypes count=\"1\">\n")
+                .append("                <buildType id=\"").append(suite).append("\" name=\"").append(suite)
+                .append("\" projectId=\"").append(PROJECT_ID).append("\"/>\n")
+                .append("            </buildTypes>\n")
+                .append("        </scope>\n")
+                .append("        <target>\n")
+                .append("            <tests>\n")
+                .append("                <test id=\"").append(test.hashCode()).append("\" name=\"").append(test)
+                .append("\"/>\n")
+                .append("            </tests>\n")
+                .append("        </target>\n")
+                .append("    </mute>\n");
+        }
+
+        return sb.append("</mutes>").toString();
+    }
+
+    /**
+     * @param url Url.
+     * @param baseUrl Base url.
+     */
+    private Response pullRequests(String url, String baseUrl) {
+        int page = intParam(url, "page=", 1);
+        int start = (page - 1) * GITHUB_PAGE;
+        int end = Math.min(prs, start + GITHUB_PAGE);
+
+        StringBuilder sb = new StringBuilder("[");
+
+        for (int i = start; i < end; i++) {
+            if (i > start)
+                sb.append(',');
+
+            sb.append(pullRequest(prs - i));
+        }
+
+        sb.append(']');
+
+        Map<String, String> headers = Collections.emptyMap();
+
+        if (end < prs) {
+            String path = url.replaceAll("[?&]page=\\d+", "");
+
+            headers = Collections.singletonMap("Link", "<" + baseUrl + path + (path.contains("?") ? "&" : "?") +
+                "page=" + (page + 1) + ">; rel=\"next\"");
+        }
+
+        return new Response("application/json", sb.toString(), headers);
+    }
+
+    /**
+     * @param num Number.
+     */
+    private String pullRequest(int num) {
+        return "{\"number\":" + num + ",\"state\":\"" + (num % 5 == 0 ? "closed" : "open") + "\"," +
+            "\"title\":\"IGNITE-" + num + " Synthetic pull request\"," +
+            "\"html_url\":\"https://github.com/apache/ignite/pull/" + num + "\"," +
+            "\"updated_at\":\"2019-01-01T00:00:00Z\"," +
+            "\"user\":{\"login\":\"user" + num % 20 + "\"}," +
+            "\"head\":{\"label\":\"user" + num % 20 + ":ignite-" + num + "\",\"ref\":\"ignite-" + num + "\"," +
+            "\"sha\":\"" + sha(num) + "\"}," +
+            "\"base\":{\"label\":\"apache:master\",\"ref\":\"master\",\"sha\":\"" + sha(0) + "\"}}";
+    }
+
+    /**
+     * @param url Url.
+     */
+    private String tickets(String url) {
+        int start = intParam(url, "startAt=", 0);
+        int end = Math.min(tickets, start + DFLT_PAGE);
+
+        StringBuilder sb = new StringBuilder();
+
+        sb.append("{\"startAt\":").append(start).append(",\"maxResults\":").append(DFLT_PAGE)
+            .append(",\"total\":").append(tickets).append(",\"issues\":[");
+
+        for (int i = start; i < end; i++) {
+            int num = tickets - i;
+
+            if (i > start)
+                sb.append(',');
+
+            sb.append("{\"id\":").append(num).append(",\"key\":\"IGNITE-").append(num).append("\",\"fields\":{")
+                .append("\"status\":{\"id\":").append(num % 3 == 0 ? 6 : 1).append(",\"name\":\"")
+                .append(num % 3 == 0 ? "Closed" : "Open").append("\"},")
+                .append("\"summary\":\"Synthetic ticket ").append(num).append("\"}}");
+        }
+
+        return sb.append("]}").toString();
+    }
+
+    /**
+     * @param id Build ID.
+     */
+    private String suite(int id) {
+        return PROJECT_ID + "_Suite" + (id - firstBuildId) % suites;
+    }
+
+    /**
+     * @param id Build ID.
+     */
+    private String status(int id) {
+        return isFailed(id) ? "FAILURE" : "SUCCESS";
+    }
+
+    /**
+     * @param id Build ID.
+     */
+    private boolean isFailed(int id) {
+        for (int t = 0; t < testsPerBuild; t++) {
+            if (isTestFailed(id, t))
+                return true;
+        }
+
+        return false;
+    }
+
+    /**
+     * @param id Build ID.
+     * @param test Test index.
+     */
+    private static boolean isTestFailed(int id, int test) {
+        return (test * 31 + id) % 997 == 0;
+    }
+
+    /**
+     * @param seed Seed.
+     * @return Commit hash.
+     */
+    private static String sha(int seed) {
+        return String.format("%08x%032x", seed, (long)seed * 0x9E3779B97F4A7C15L);
+    }
+
+    /**
+     * @param ts Timestamp.
+     * @return Date in TeamCity format.
+     */
+    private static String date(long ts) {
+        SimpleDateFormat fmt = new SimpleDateFormat("yyyyMMdd'T'HHmmssZ");
+
+        fmt.setTimeZone(TimeZone.getTimeZone("UTC"));
+
+        return fmt.format(new Date(ts));
+    }
+
+    /**
+     * @param url Url.
+     * @param prefix Prefix of the parameter, e.g. {@code start:} for locator or {@code page=} for query.
+     * @param def Default value.
+     */
+    private static int intParam(String url, String prefix, int def) {
+        Matcher m = Pattern.compile("[,(?&]" + Pattern.quote(prefix) + "(\\d+)").matcher(url);
+
+        return m.find() ? Integer.parseInt(m.group(1)) : def;
+    }
+
+    /**
+     * @param body Body.
+     */
+    @Nullable private static Response xml(@Nullable String body) {
+        return body == null ? null : new Response("application/xml", body, Collections.emptyMap());
+    }
+
+    /**
+     * @param body Body.
+     */
+    private static Response json(String body) {
+        return new Response("application/json", body, Collections.emptyMap());
+    }
+
+    /**
+     * Generated response.
+     */
+    public static class Response {
+        /** Content type. */
+        final String contentType;
+
+        /** Body. */
+        final byte[] body;
+
+        /** Headers. */
+        final Map<String, String> headers;
+
+        /**
+         * @param contentType Content type.
+         * @param body Body.
+         * @param headers Headers.
+         */
+        Response(String contentType, String body, Map<String, String> headers) {
+            this.contentType = contentType;
+            this.body = body.getBytes(UTF_8);
+            this.headers = headers;
+        }
+    }
+}
@@ -0,0 +1,144 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.ignite.ci.web.rest.cache;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.apache.ignite.tcbot.engine.ui.DsChainUi;
+import org.apache.ignite.tcbot.engine.ui.DsSummaryUi;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for {@link SummaryResultsCache} and ETag matching.
+ */
+public class SummaryResultsCacheTest {
+    /**
+     * Checks concurrent requests of the same summary share single computation and ETag.
+     */
+    @Test
+    public void testSingleComputationForConcurrentRequests() throws Exception {
+        SummaryResultsCache cache = new SummaryResultsCache();
+        AtomicInteger computations = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        List<Object> key = Arrays.asList("tracked", "master", null, "hash1");
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        try {
+            List<Future<SummaryResultsCache.Entry>> futs = new ArrayList<>();
+
+            for (int i = 0; i < 8; i++) {
+                futs.add(executor.submit(() -> cache.get(key, () -> {
+                    computations.incrementAndGet();
+                    started.countDown();
+
+                    try {
+                        release.await();
+                    }
+                    catch (InterruptedException e) {
+                        throw new RuntimeException(e);
+                    }
+
+                    return new DsSummaryUi();
+                })));
+            }
+
+            assertTrue(started.await(10, TimeUnit.SECONDS));
+
+            release.countDown();
+
+            SummaryResultsCache.Entry first = futs.get(0).get(10, TimeUnit.SECONDS);
+
+            for (Future<SummaryResultsCache.Entry> fut : futs) {
+                SummaryResultsCache.Entry entry = fut.get(10, TimeUnit.SECONDS);
+
+                assertSame(first.summary(), entry.summary());
+                assertEquals(first.etag(), entry.etag());
+            }
+
+            assertEquals(1, computations.get());
+        }
+        finally {
+            executor.shutdownNow();
+        }
+
+        SummaryResultsCache.Entry updated = cache.get(Arrays.asList("tracked", "master", null, "hash2"),
+            DsSummaryUi::new);
+
+        assertNotEquals(cache.get(key, DsSummaryUi::new).etag(), updated.etag());
+    }
+
+    /**
+     * Checks summary with timed out chain is neither cached nor ETagged.
+     */
+    @Test
+    public void testTimedOutSummaryNotCached() {
+        SummaryResultsCache cache = new SummaryResultsCache();
+        AtomicInteger computations = new AtomicInteger();
+        List<Object> key = Arrays.asList("tracked", "master", null, "hash1");
+
+        Supplier<DsSummaryUi> loader = () -> {
+            DsSummaryUi summary = new DsSummaryUi();
+
+            DsChainUi chain = new DsChainUi("apache", "master", "master");
+
+            summary.servers.add(chain.setTimedOut(computations.incrementAndGet() == 1));
+
+            return summary;
+        };
+
+        SummaryResultsCache.Entry timedOut = cache.get(key, loader);
+
+        assertNull(timedOut.etag());
+
+        SummaryResultsCache.Entry complete = cache.get(key, loader);
+
+        assertNotNull(complete.etag());
+        assertSame(complete, cache.get(key, loader));
+        assertEquals(2, computations.get());
+    }
+
+    /**
+     * Checks If-None-Match header parsing.
+     */
+    @Test
+    public void testETagMatching() {
+        assertTrue(ETagFilter.matches("\"1a\"", "\"1a\""));
+        assertTrue(ETagFilter.matches("\"0\", W/\"1a\"", "\"1a\""));
+        assertTrue(ETagFilter.matches("*", "\"1a\""));
+        assertFalse(ETagFilter.matches("\"1b\"", "\"1a\""));
+        assertFalse(ETagFilter.matches(null, "\"1a\""));
+    }
+}
@@ -0,0 +1,219 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.ignite.ci.web.rest.updates;
+
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.container.TimeoutHandler;
+import org.apache.ignite.tcbot.engine.ui.UpdateInfo;
+import org.apache.ignite.tcbot.persistence.scheduler.IScheduler;
+import org.apache.ignite.tcignited.build.UpdateCountersStorage;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Tests for {@link UpdateCountersSubscriptions}.
+ */
+public class UpdateCountersSubscriptionsTest {
+    /** Branch ID. */
+    private static final int BRANCH = 42;
+
+    /** Counters storage. */
+    private final UpdateCountersStorage storage = new UpdateCountersStorage();
+
+    /** Scheduler, keeps delayed tasks to be run by test. */
+    private final IScheduler scheduler = mock(IScheduler.class);
+
+    /** Tasks passed to scheduler. */
+    private final List<Runnable> delayed = new ArrayList<>();
+
+    /** Subscriptions. */
+    private UpdateCountersSubscriptions subscriptions;
+
+    /** Counters of page. */
+    private final Supplier<Map<Integer, Integer>> counters =
+        () -> storage.getCounters(Collections.singleton(BRANCH));
+
+    /** */
+    @Before
+    public void init() {
+        doAnswer(inv -> delayed.add(inv.getArgument(0)))
+            .when(scheduler).invokeLater(any(Runnable.class), anyLong(), any(TimeUnit.class));
+
+        Injector injector = Guice.createInjector(binder -> {
+            binder.bind(UpdateCountersStorage.class).toInstance(storage);
+            binder.bind(IScheduler.class).toInstance(scheduler);
+        });
+
+        subscriptions = injector.getInstance(UpdateCountersSubscriptions.class);
+    }
+
+    /**
+     * Checks outdated page gets counters immediately.
+     */
+    @Test
+    public void testOutdatedHashCompletedImmediately() {
+        AsyncResponse res = mock(AsyncResponse.class);
+
+        subscriptions.subscribe(res, counters, "outdated");
+
+        verify(res).resume(any(UpdateInfo.class));
+        assertEquals(0, subscriptions.waitingCount());
+    }
+
+    /**
+     * Checks several changes are delivered with one response and listener is removed after it.
+     */
+    @Test
+    public void testChangesCoalesced() {
+        AsyncResponse res = subscribe();
+
+        storage.increment(BRANCH + 1);
+
+        assertTrue(delayed.isEmpty());
+
+        storage.increment(BRANCH);
+        storage.increment(BRANCH);
+
+        assertEquals(1, delayed.size());
+        verify(res, never()).resume(any(UpdateInfo.class));
+
+        runDelayed();
+
+        assertEquals(2, resumedCounter(res));
+        assertEquals(0, subscriptions.waitingCount());
+
+        storage.increment(BRANCH);
+
+        assertTrue(delayed.isEmpty());
+        verify(res, times(1)).resume(any(UpdateInfo.class));
+    }
+
+    /**
+     * Checks page gets current counters on timeout and change notified before is not sent again.
+     */
+    @Test
+    public void testTimeout() {
+        AsyncResponse res = subscribe();
+
+        ArgumentCaptor<TimeoutHandler> hnd = ArgumentCaptor.forClass(TimeoutHandler.class);
+
+        verify(res).setTimeoutHandler(hnd.capture());
+        verify(res).setTimeout(UpdateCountersSubscriptions.WAIT_TIMEOUT_SEC, TimeUnit.SECONDS);
+
+        storage.increment(BRANCH);
+
+        hnd.getValue().handleTimeout(res);
+
+        assertEquals(1, resumedCounter(res));
+        assertEquals(0, subscriptions.waitingCount());
+
+        runDelayed();
+        hnd.getValue().handleTimeout(res);
+        storage.increment(BRANCH);
+
+        assertTrue(delayed.isEmpty());
+        verify(res, times(1)).resume(any(UpdateInfo.class));
+    }
+
+    /**
+     * Checks subscriptions above the limit are completed immediately.
+     */
+    @Test
+    public void testSubscriptionsLimit() {
+        List<AsyncResponse> waiting = new ArrayList<>();
+
+        for (int i = 0; i < UpdateCountersSubscriptions.MAX_SUBSCRIPTIONS; i++)
+            waiting.add(subscribe());
+
+        AsyncResponse aboveLimit = mock(AsyncResponse.class);
+
+        subscriptions.subscribe(aboveLimit, counters, UpdateCountersStorage.getCountersHash(counters.get()));
+
+        assertEquals(0, resumedCounter(aboveLimit));
+        verify(aboveLimit, never()).setTimeoutHandler(any(TimeoutHandler.class));
+        assertEquals(UpdateCountersSubscriptions.MAX_SUBSCRIPTIONS, subscriptions.waitingCount());
+
+        storage.increment(BRANCH);
+        runDelayed();
+
+        assertEquals(0, subscriptions.waitingCount());
+
+        for (AsyncResponse res : waiting)
+            assertEquals(1, resumedCounter(res));
+
+        subscribe();
+
+        assertEquals(1, subscriptions.waitingCount());
+    }
+
+    /**
+     * @return Response of page subscribed with actual counters, waiting for change.
+     */
+    private AsyncResponse subscribe() {
+        AsyncResponse res = mock(AsyncResponse.class);
+
+        subscriptions.subscribe(res, counters, UpdateCountersStorage.getCountersHash(counters.get()));
+
+        verify(res, never()).resume(any(UpdateInfo.class));
+
+        return res;
+    }
+
+    /**
+     * Runs tasks passed to scheduler.
+     */
+    private void runDelayed() {
+        List<Runnable> tasks = new ArrayList<>(delayed);
+
+        delayed.clear();
+
+        tasks.forEach(Runnable::run);
+    }
+
+    /**
+     * @param res Response, should be resumed once.
+     * @return Counter of branch sent.
+     */
+    private static int resumedCounter(AsyncResponse res) {
+        ArgumentCaptor<UpdateInfo> captor = ArgumentCaptor.forClass(UpdateInfo.class);
+
+        verify(res, times(1)).resume(captor.capture());
+
+        Integer cnt = captor.getValue().counters.get(BRANCH);
+
+        return cnt == null ? 0 : cnt;
+    }
+}
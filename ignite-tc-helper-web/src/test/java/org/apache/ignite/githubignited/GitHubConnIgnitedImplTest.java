@@ -0,0 +1,222 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.ignite.githubignited;
+
+import com.google.gson.Gson;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.apache.ignite.Ignite;
+import org.apache.ignite.Ignition;
+import org.apache.ignite.ci.db.TcHelperDb;
+import org.apache.ignite.ci.github.PullRequest;
+import org.apache.ignite.configuration.IgniteConfiguration;
+import org.apache.ignite.githubservice.IGitHubConnection;
+import org.apache.ignite.spi.discovery.tcp.TcpDiscoverySpi;
+import org.apache.ignite.tcbot.common.conf.IGitHubConfig;
+import org.apache.ignite.tcbot.persistence.scheduler.IScheduler;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Test for open PRs view of {@link GitHubConnIgnitedImpl} and refresh of outdated PRs.
+ */
+public class GitHubConnIgnitedImplTest {
+    /** Test ignite port. */
+    public static final int TEST_IGNITE_PORT = 64127;
+
+    /** Ignite. */
+    private static Ignite ignite;
+
+    /** GitHub connection. */
+    private IGitHubConnection conn;
+
+    /**
+     *
+     */
+    @BeforeClass
+    public static void startIgnite() {
+        IgniteConfiguration cfg = new IgniteConfiguration();
+        final TcpDiscoverySpi spi = new TcpDiscoverySpi();
+        int locPort = TEST_IGNITE_PORT;
+
+        spi.setLocalPort(locPort);
+        spi.setLocalPortRange(1);
+        spi.setIpFinder(new TcHelperDb.LocalOnlyTcpDiscoveryIpFinder(locPort));
+
+        cfg.setDiscoverySpi(spi);
+
+        ignite = Ignition.start(cfg);
+    }
+
+    /**
+     *
+     */
+    @AfterClass
+    public static void stopIgnite() {
+        if (ignite != null)
+            ignite.close();
+    }
+
+    /**
+     * Clears caches and mocks connection.
+     */
+    @Before
+    public void initConnection() {
+        ignite.destroyCache(IGitHubConnIgnited.GIT_HUB_PR);
+        ignite.destroyCache(IGitHubConnIgnited.GIT_HUB_BRANCHES);
+
+        IGitHubConfig cfg = mock(IGitHubConfig.class);
+
+        when(cfg.code()).thenReturn("apache");
+
+        conn = mock(IGitHubConnection.class);
+
+        when(conn.config()).thenReturn(cfg);
+    }
+
+    /**
+     * Checks PR closed on page loaded is removed from open PRs.
+     */
+    @Test
+    public void testClosedPrRemovedFromOpenPrs() {
+        GitHubConnIgnitedImpl ignited = ignited();
+
+        pages(prs(PullRequest.OPEN, 1, 2, 3));
+
+        ignited.runActualizePrs("apache", false);
+
+        assertEquals(numbers(1, 2, 3), openPrs(ignited));
+
+        pages(prs("closed", 2));
+
+        ignited.runActualizePrs("apache", false);
+
+        assertEquals(numbers(1, 3), openPrs(ignited));
+
+        // View is restored from cache by new instance.
+        assertEquals(numbers(1, 3), openPrs(ignited()));
+    }
+
+    /**
+     * Checks open PRs absent in full resync are requested with limited concurrency, and closed ones are removed from
+     * open PRs.
+     */
+    @Test
+    public void testOutdatedPrsRefreshedWithConcurrencyLimit() {
+        GitHubConnIgnitedImpl ignited = ignited();
+
+        pages(prs(PullRequest.OPEN, IntStream.rangeClosed(1, 20).toArray()));
+
+        ignited.runActualizePrs("apache", false);
+
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        AtomicInteger requested = new AtomicInteger();
+
+        when(conn.getPullRequestAsync(anyInt())).thenAnswer(inv -> {
+            int prNum = inv.getArgument(0);
+
+            requested.incrementAndGet();
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+
+            return CompletableFuture.supplyAsync(() -> {
+                try {
+                    Thread.sleep(100);
+                }
+                catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+
+                inFlight.decrementAndGet();
+
+                return prs("closed", prNum).get(0);
+            });
+        });
+
+        pages(prs(PullRequest.OPEN, 1, 2));
+
+        ignited.runActualizePrs("apache", true);
+
+        assertEquals(18, requested.get());
+        assertEquals(8, maxInFlight.get());
+        assertEquals(numbers(1, 2), openPrs(ignited));
+    }
+
+    /**
+     * @return Ignited connection initialized for mocked connection.
+     */
+    private GitHubConnIgnitedImpl ignited() {
+        GitHubConnIgnitedImpl ignited = new GitHubConnIgnitedImpl();
+
+        ignited.igniteProvider = () -> ignite;
+        ignited.scheduler = mock(IScheduler.class);
+
+        ignited.init(conn);
+
+        return ignited;
+    }
+
+    /**
+     * @param prs PRs returned as the only page.
+     */
+    private void pages(List<PullRequest> prs) {
+        when(conn.getPullRequestsPage(isNull(), any(AtomicReference.class))).thenReturn(prs);
+    }
+
+    /**
+     * @param state State.
+     * @param nums PR numbers.
+     */
+    private static List<PullRequest> prs(String state, int... nums) {
+        Gson gson = new Gson();
+
+        return IntStream.of(nums)
+            .mapToObj(num -> gson.fromJson("{\"number\":" + num + ",\"state\":\"" + state + "\"}", PullRequest.class))
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * @param ignited Ignited connection.
+     */
+    private static Set<Integer> openPrs(GitHubConnIgnitedImpl ignited) {
+        return ignited.getPullRequests().stream()
+            .map(PullRequest::getNumber)
+            .collect(Collectors.toCollection(TreeSet::new));
+    }
+
+    /**
+     * @param nums Numbers.
+     */
+    private static Set<Integer> numbers(int... nums) {
+        return IntStream.of(nums).boxed().collect(Collectors.toCollection(TreeSet::new));
+    }
+}
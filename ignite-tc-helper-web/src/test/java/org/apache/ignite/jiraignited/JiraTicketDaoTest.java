@@ -0,0 +1,247 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.jiraignited;
+
+import com.google.common.collect.Sets;
+import com.google.inject.AbstractModule;
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import com.google.inject.internal.SingletonScope;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.apache.ignite.Ignite;
+import org.apache.ignite.Ignition;
+import org.apache.ignite.ci.db.TcHelperDb;
+import org.apache.ignite.configuration.IgniteConfiguration;
+import org.apache.ignite.jiraservice.Fields;
+import org.apache.ignite.jiraservice.Status;
+import org.apache.ignite.jiraservice.Ticket;
+import org.apache.ignite.spi.discovery.tcp.TcpDiscoverySpi;
+import org.apache.ignite.tcbot.persistence.IStringCompactor;
+import org.apache.ignite.tcbot.persistence.InMemoryStringCompactor;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test for JIRA tickets storage and tokens index.
+ */
+public class JiraTicketDaoTest {
+    /** Test ignite port. */
+    public static final int TEST_IGNITE_PORT = 64125;
+
+    /** Project code. */
+    private static final String PROJECT = "IGNITE";
+
+    /** Server ID. */
+    private static final int SRV_ID = 1;
+
+    /** Ignite. */
+    private static Ignite ignite;
+
+    /** Injector. */
+    private Injector injector;
+
+    /**
+     *
+     */
+    @BeforeClass
+    public static void startIgnite() {
+        IgniteConfiguration cfg = new IgniteConfiguration();
+        final TcpDiscoverySpi spi = new TcpDiscoverySpi();
+        int locPort = TEST_IGNITE_PORT;
+
+        spi.setLocalPort(locPort);
+        spi.setLocalPortRange(1);
+        spi.setIpFinder(new TcHelperDb.LocalOnlyTcpDiscoveryIpFinder(locPort));
+
+        cfg.setDiscoverySpi(spi);
+
+        ignite = Ignition.start(cfg);
+    }
+
+    /**
+     *
+     */
+    @AfterClass
+    public static void stopIgnite() {
+        if (ignite != null)
+            ignite.close();
+    }
+
+    /**
+     * Clear caches and create new DAO, so index filling state is not shared between tests.
+     */
+    @Before
+    public void initDao() {
+        ignite.destroyCache(JiraTicketDao.TEAMCITY_JIRA_TICKET_CACHE_NAME);
+        ignite.destroyCache(JiraTicketDao.JIRA_TICKET_TOKEN_IDX_CACHE_NAME);
+
+        injector = Guice.createInjector(new AbstractModule() {
+            @Override protected void configure() {
+                bind(Ignite.class).toInstance(ignite);
+                bind(IStringCompactor.class).to(InMemoryStringCompactor.class).in(new SingletonScope());
+            }
+        });
+    }
+
+    /**
+     *
+     */
+    @Test
+    public void testTokens() {
+        assertEquals(Collections.emptySet(), JiraTicketDao.tokens(null));
+        assertEquals(Collections.emptySet(), JiraTicketDao.tokens("Fix tests, no numbers"));
+
+        // Punctuation splits tokens, case is ignored.
+        assertEquals(Sets.newHashSet("IGNITE-123", "GG-456"),
+            JiraTicketDao.tokens("[ignite-123]: fix after (gg-456), see IGNITE-123."));
+
+        // Only tokens ending with digit are kept, dash-separated prefixes ending with digit too.
+        assertEquals(Sets.newHashSet("IGNITE-123", "IGNITE-123-FIX-2"),
+            JiraTicketDao.tokens("IGNITE-123-fix-2 IGNITE-"));
+
+        assertEquals(Sets.newHashSet("JAVA11", "2"), JiraTicketDao.tokens("Support java11 in 2 modules"));
+    }
+
+    /**
+     *
+     */
+    @Test
+    public void testTicketsMentioning() {
+        JiraTicketDao dao = dao();
+
+        dao.saveChunk(SRV_ID, Arrays.asList(
+            ticket(1, "Fix for GG-12345 in cache", null),
+            ticket(2, "Other issue", "gg-12345"),
+            ticket(3, "Fix for GG-1234", null)), PROJECT);
+
+        dao.saveChunk(SRV_ID + 1, Collections.singletonList(ticket(4, "GG-12345", null)), PROJECT);
+
+        assertEquals(Arrays.asList("IGNITE-1", "IGNITE-2"), keys(dao.getTicketsMentioning(SRV_ID, PROJECT, "GG-12345")));
+        assertEquals(Collections.singletonList("IGNITE-3"), keys(dao.getTicketsMentioning(SRV_ID, PROJECT, "gg-1234")));
+        assertEquals(Collections.singletonList("IGNITE-4"), keys(dao.getTicketsMentioning(SRV_ID + 1, PROJECT, "GG-12345")));
+
+        assertTrue(dao.getTicketsMentioning(SRV_ID, PROJECT, "GG-123").isEmpty());
+        assertTrue(dao.getTicketsMentioning(SRV_ID, PROJECT, "GG-12345 in").isEmpty());
+        assertTrue(dao.getTicketsMentioning(SRV_ID, PROJECT, null).isEmpty());
+
+        // Changed ticket is removed from index of old tokens.
+        dao.saveChunk(SRV_ID, Collections.singletonList(ticket(1, "Fix for GG-23456", null)), PROJECT);
+
+        assertEquals(Collections.singletonList("IGNITE-2"), keys(dao.getTicketsMentioning(SRV_ID, PROJECT, "GG-12345")));
+        assertEquals(Collections.singletonList("IGNITE-1"), keys(dao.getTicketsMentioning(SRV_ID, PROJECT, "GG-23456")));
+
+        assertNull("Tokens should not be registered in compactor",
+            injector.getInstance(IStringCompactor.class).getStringIdIfPresent("GG-23456"));
+    }
+
+    /**
+     * Mentioning used to be checked as substring of summary or branch field, it is case insensitive token now.
+     */
+    @Test
+    public void testMentionIsWholeToken() {
+        JiraTicketDao dao = dao();
+
+        dao.saveChunk(SRV_ID, Arrays.asList(
+            ticket(1, "Fix for GG-12345", null),
+            ticket(2, "Fix for gg-777", null),
+            ticket(3, "Fix for XGG-888", null)), PROJECT);
+
+        // Substring of longer number.
+        assertTrue(dao.getTicketsMentioning(SRV_ID, PROJECT, "GG-1234").isEmpty());
+
+        // Lower case mention.
+        assertEquals(Collections.singletonList("IGNITE-2"), keys(dao.getTicketsMentioning(SRV_ID, PROJECT, "GG-777")));
+
+        // Substring of token with other prefix.
+        assertTrue(dao.getTicketsMentioning(SRV_ID, PROJECT, "GG-888").isEmpty());
+    }
+
+    /**
+     *
+     */
+    @Test
+    public void testIndexFilledForExistingTickets() {
+        JiraTicketDao dao = dao();
+
+        dao.saveChunk(SRV_ID, Collections.singletonList(ticket(1, "Fix for GG-12345", null)), PROJECT);
+
+        ignite.cache(JiraTicketDao.JIRA_TICKET_TOKEN_IDX_CACHE_NAME).clear();
+
+        assertEquals(Collections.singletonList("IGNITE-1"), keys(dao().getTicketsMentioning(SRV_ID, PROJECT, "GG-12345")));
+    }
+
+    /**
+     *
+     */
+    @Test
+    public void testGetTicket() {
+        JiraTicketDao dao = dao();
+
+        dao.saveChunk(SRV_ID, Collections.singletonList(ticket(123, "Summary", null)), PROJECT);
+
+        assertEquals("IGNITE-123", dao.getTicket(SRV_ID, PROJECT, "IGNITE-123").key);
+        assertNull(dao.getTicket(SRV_ID, PROJECT, "IGNITE-0123"));
+        assertNull(dao.getTicket(SRV_ID, PROJECT, "ignite-123"));
+        assertNull(dao.getTicket(SRV_ID, PROJECT, "IGNITE-12"));
+        assertNull(dao.getTicket(SRV_ID + 1, PROJECT, "IGNITE-123"));
+    }
+
+    /**
+     * @return New initialized DAO.
+     */
+    private JiraTicketDao dao() {
+        JiraTicketDao dao = injector.getInstance(JiraTicketDao.class);
+
+        dao.init();
+
+        return dao;
+    }
+
+    /**
+     * @param num Ticket number.
+     * @param summary Summary.
+     * @param branch Branch field value.
+     */
+    private static Ticket ticket(int num, String summary, String branch) {
+        Ticket ticket = new Ticket(PROJECT + Ticket.PROJECT_DELIM + num);
+
+        ticket.id = num;
+        ticket.fields = new Fields();
+        ticket.fields.status = new Status(1);
+        ticket.fields.summary = summary;
+        ticket.fields.customfield_11050 = branch;
+
+        return ticket;
+    }
+
+    /**
+     * @param tickets Tickets.
+     */
+    private static List<String> keys(List<Ticket> tickets) {
+        return tickets.stream().map(t -> t.key).collect(Collectors.toList());
+    }
+}
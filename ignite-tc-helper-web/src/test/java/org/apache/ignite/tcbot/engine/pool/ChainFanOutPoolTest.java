@@ -0,0 +1,108 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.ignite.tcbot.engine.pool;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.After;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for {@link ChainFanOutPool}.
+ */
+public class ChainFanOutPoolTest {
+    /** Pool. */
+    private final ChainFanOutPool pool = new ChainFanOutPool();
+
+    /** Stops pool. */
+    @After
+    public void stop() {
+        pool.stop();
+    }
+
+    /**
+     * Checks results are returned in order of tasks and concurrency is limited for server.
+     */
+    @Test
+    public void testOrderAndBulkhead() {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+
+        List<String> srvCodes = new ArrayList<>();
+        List<Callable<Integer>> tasks = new ArrayList<>();
+
+        for (int i = 0; i < 20; i++) {
+            int taskIdx = i;
+
+            srvCodes.add("apache");
+            tasks.add(() -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+
+                Thread.sleep(20 - taskIdx);
+
+                running.decrementAndGet();
+
+                return taskIdx;
+            });
+        }
+
+        List<Integer> res = pool.invokeAll(srvCodes, tasks, 60_000);
+
+        for (int i = 0; i < res.size(); i++)
+            assertEquals(i, res.get(i).intValue());
+
+        assertTrue(maxRunning.get() <= ChainFanOutPool.MAX_CHAINS_PER_SERVER);
+    }
+
+    /**
+     * Checks slow task of one server does not delay results of other servers.
+     */
+    @Test
+    public void testPartialResultsOnTimeout() {
+        CountDownLatch release = new CountDownLatch(1);
+
+        List<Callable<String>> tasks = Arrays.asList(
+            () -> {
+                release.await();
+
+                return "slow";
+            },
+            () -> "fast");
+
+        try {
+            List<String> res = pool.invokeAll(Arrays.asList("slowSrv", "fastSrv"), tasks, 200);
+
+            assertNull(res.get(0));
+            assertEquals("fast", res.get(1));
+        }
+        finally {
+            release.countDown();
+        }
+
+        assertEquals(Collections.singletonList("fast"),
+            pool.invokeAll(Collections.singletonList("slowSrv"), Collections.singletonList(() -> "fast"), 60_000));
+    }
+}
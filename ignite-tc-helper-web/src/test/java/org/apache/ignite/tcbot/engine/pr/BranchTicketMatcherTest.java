@@ -0,0 +1,108 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.tcbot.engine.pr;
+
+import java.util.Arrays;
+import java.util.Collections;
+import org.apache.ignite.jiraignited.IJiraIgnited;
+import org.apache.ignite.jiraservice.Ticket;
+import org.apache.ignite.tcbot.common.conf.IJiraServerConfig;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Test for resolving JIRA ticket by PR title.
+ */
+public class BranchTicketMatcherTest {
+    /** Matcher. */
+    private final BranchTicketMatcher matcher = new BranchTicketMatcher();
+
+    /** JIRA. */
+    private IJiraIgnited jira;
+
+    /** JIRA config. */
+    private IJiraServerConfig jiraCfg;
+
+    /**
+     *
+     */
+    @Before
+    public void initJira() {
+        jira = mock(IJiraIgnited.class);
+        jiraCfg = mock(IJiraServerConfig.class);
+
+        when(jiraCfg.projectCodeForVisa()).thenReturn("IGNITE");
+        when(jira.getTicketsMentioning(anyString())).thenReturn(Collections.emptyList());
+    }
+
+    /**
+     * Without branch prefix ticket is resolved by key, unknown ticket is returned as key only.
+     */
+    @Test
+    public void testTicketByKey() {
+        Ticket ticket = new Ticket("IGNITE-12345");
+
+        when(jira.getTicket("IGNITE-12345")).thenReturn(ticket);
+
+        assertSame(ticket, matcher.resolveTicketIdForPrBasedContrib(jira, jiraCfg, "IGNITE-12345 Fix tests"));
+
+        Ticket unknown = matcher.resolveTicketIdForPrBasedContrib(jira, jiraCfg, "ignite-777: Fix");
+
+        assertEquals("IGNITE-777", unknown.key);
+        assertNull(unknown.fields);
+
+        verify(jira, never()).getTickets();
+        verify(jira, never()).getTicketsMentioning(anyString());
+    }
+
+    /**
+     * With branch prefix ticket having this key is preferred, otherwise the first one mentioning branch is returned.
+     * All tickets were scanned before for substring of summary or branch field, now index lookup is used.
+     */
+    @Test
+    public void testTicketByBranchMention() {
+        when(jiraCfg.branchNumPrefix()).thenReturn("GG-");
+
+        Ticket first = new Ticket("IGNITE-1");
+        Ticket second = new Ticket("IGNITE-2");
+
+        when(jira.getTicketsMentioning("GG-12345")).thenReturn(Arrays.asList(first, second));
+
+        assertSame(first, matcher.resolveTicketIdForPrBasedContrib(jira, jiraCfg, "gg-12345 Fix tests"));
+
+        Ticket sameKey = new Ticket("GG-12345");
+
+        when(jira.getTicket("GG-12345")).thenReturn(sameKey);
+
+        assertSame(sameKey, matcher.resolveTicketIdForPrBasedContrib(jira, jiraCfg, "GG-12345 Fix tests"));
+
+        assertNull(matcher.resolveTicketIdForPrBasedContrib(jira, jiraCfg, "GG-777 Not mentioned"));
+        assertNull(matcher.resolveTicketIdForPrBasedContrib(jira, jiraCfg, "Fix tests"));
+
+        verify(jira, never()).getTickets();
+    }
+}
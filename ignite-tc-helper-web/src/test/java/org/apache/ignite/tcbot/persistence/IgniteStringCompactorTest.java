@@ -0,0 +1,126 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.ignite.tcbot.persistence;
+
+import com.google.inject.AbstractModule;
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.ignite.Ignite;
+import org.apache.ignite.Ignition;
+import org.apache.ignite.ci.db.TcHelperDb;
+import org.apache.ignite.configuration.IgniteConfiguration;
+import org.apache.ignite.spi.discovery.tcp.TcpDiscoverySpi;
+import org.apache.ignite.tcbot.common.util.ObjectInterner;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Test for reverse dictionary (ID to string) of {@link IgniteStringCompactor}.
+ */
+public class IgniteStringCompactorTest {
+    /** Test ignite port. */
+    public static final int TEST_IGNITE_PORT = 64126;
+
+    /** Ignite. */
+    private static Ignite ignite;
+
+    /**
+     *
+     */
+    @BeforeClass
+    public static void startIgnite() {
+        IgniteConfiguration cfg = new IgniteConfiguration();
+        final TcpDiscoverySpi spi = new TcpDiscoverySpi();
+        int locPort = TEST_IGNITE_PORT;
+
+        spi.setLocalPort(locPort);
+        spi.setLocalPortRange(1);
+        spi.setIpFinder(new TcHelperDb.LocalOnlyTcpDiscoveryIpFinder(locPort));
+
+        cfg.setDiscoverySpi(spi);
+
+        ignite = Ignition.start(cfg);
+    }
+
+    /**
+     *
+     */
+    @AfterClass
+    public static void stopIgnite() {
+        if (ignite != null)
+            ignite.close();
+    }
+
+    /**
+     * Checks strings stored before start are loaded into reverse dictionary at init, and strings registered later
+     * are added to it, so lookups by ID do not need the cache.
+     */
+    @Test
+    public void testStringsByIdRemembered() {
+        List<String> initial = strings("initial", 10);
+        int[] initialIds = compactor().getStringIds(initial);
+
+        // New instance loads strings saved by previous one.
+        IgniteStringCompactor compactor = compactor();
+
+        assertEquals(initial.get(3), compactor.getStringFromId(initialIds[3]));
+        assertSame(ObjectInterner.internString(initial.get(3)), compactor.getStringFromId(initialIds[3]));
+
+        // Enough strings to grow the array allocated at init.
+        List<String> added = strings("added", 100);
+        int[] addedIds = compactor.getStringIds(added);
+
+        ignite.cache(IgniteStringCompactor.STRINGS_CACHE).clear();
+
+        assertArrayEquals(initial.toArray(), compactor.getStringsFromIds(initialIds));
+        assertArrayEquals(added.toArray(), compactor.getStringsFromIds(addedIds));
+    }
+
+    /**
+     * @return New compactor.
+     */
+    private static IgniteStringCompactor compactor() {
+        Injector injector = Guice.createInjector(new AbstractModule() {
+            @Override protected void configure() {
+                bind(Ignite.class).toInstance(ignite);
+            }
+        });
+
+        return injector.getInstance(IgniteStringCompactor.class);
+    }
+
+    /**
+     * @param prefix Prefix.
+     * @param cnt Count.
+     * @return Distinct strings, not interned.
+     */
+    private static List<String> strings(String prefix, int cnt) {
+        List<String> res = new ArrayList<>();
+
+        for (int i = 0; i < cnt; i++)
+            res.add(prefix + i);
+
+        return res;
+    }
+}
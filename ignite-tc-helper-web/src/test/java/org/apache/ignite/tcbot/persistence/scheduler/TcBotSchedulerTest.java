@@ -0,0 +1,169 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.ignite.tcbot.persistence.scheduler;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import org.apache.ignite.tcbot.common.util.LatencyHistogram;
+import org.junit.After;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test for dispatching named tasks by {@link TcBotScheduler}.
+ */
+public class TcBotSchedulerTest {
+    /** Scheduler. */
+    private final TcBotScheduler scheduler = new TcBotScheduler();
+
+    /**
+     *
+     */
+    @After
+    public void stopScheduler() {
+        scheduler.stop();
+    }
+
+    /**
+     * Checks tasks are dispatched in order of time they become eligible to run, regardless of scheduling order.
+     */
+    @Test
+    public void testDispatchedByEligibleTime() throws Exception {
+        List<String> runs = new CopyOnWriteArrayList<>();
+
+        scheduler.sheduleNamed("slow", () -> runs.add("slow"), 600, TimeUnit.MILLISECONDS);
+        scheduler.sheduleNamed("fast", () -> runs.add("fast"), 300, TimeUnit.MILLISECONDS);
+
+        waitFor(() -> runs.size() == 2);
+
+        long start = System.currentTimeMillis();
+
+        // Both tasks have just finished, so each is eligible after its quiet period.
+        scheduler.sheduleNamed("slow", () -> runs.add("slow"), 600, TimeUnit.MILLISECONDS);
+        scheduler.sheduleNamed("fast", () -> runs.add("fast"), 300, TimeUnit.MILLISECONDS);
+
+        waitFor(() -> runs.size() == 4);
+
+        assertEquals("fast", runs.get(2));
+        assertEquals("slow", runs.get(3));
+        assertTrue(System.currentTimeMillis() - start >= 500);
+    }
+
+    /**
+     * Checks task re-scheduled under the same name while running is run once more, with the latest command.
+     */
+    @Test
+    public void testRescheduledTaskCoalesced() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger runs = new AtomicInteger();
+        AtomicInteger lastRun = new AtomicInteger();
+
+        scheduler.sheduleNamed("task", () -> {
+            started.countDown();
+
+            try {
+                release.await();
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, 0, TimeUnit.MILLISECONDS);
+
+        assertTrue(started.await(10, TimeUnit.SECONDS));
+
+        for (int i = 1; i <= 5; i++) {
+            int cmdIdx = i;
+
+            scheduler.sheduleNamed("task", () -> {
+                runs.incrementAndGet();
+                lastRun.set(cmdIdx);
+            }, 0, TimeUnit.MILLISECONDS);
+        }
+
+        release.countDown();
+
+        waitFor(() -> runs.get() > 0);
+
+        // Let possible extra runs happen.
+        Thread.sleep(200);
+
+        assertEquals(1, runs.get());
+        assertEquals(5, lastRun.get());
+    }
+
+    /**
+     * Checks queue wait is measured from time task became eligible to run, and run time is measured for each run.
+     */
+    @Test
+    public void testStatisticsRecorded() throws Exception {
+        AtomicInteger runs = new AtomicInteger();
+
+        Runnable cmd = () -> {
+            try {
+                Thread.sleep(100);
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+
+            runs.incrementAndGet();
+        };
+
+        scheduler.sheduleNamed("task", cmd, 500, TimeUnit.MILLISECONDS);
+
+        waitFor(() -> runs.get() == 1);
+
+        scheduler.sheduleNamed("task", cmd, 500, TimeUnit.MILLISECONDS);
+
+        waitFor(() -> runs.get() == 2);
+
+        NamedTaskStat stat = scheduler.taskStatistics().iterator().next();
+
+        // Run time is recorded after command completion.
+        waitFor(() -> stat.runTime().count() == 2);
+
+        assertEquals("task", stat.name());
+
+        LatencyHistogram queueWait = stat.queueWait();
+
+        assertEquals(2, queueWait.count());
+        assertTrue("Queue wait should not include quiet period: " + queueWait.max(), queueWait.max() < 500);
+
+        assertTrue(stat.runTime().max() >= 100);
+        assertTrue(stat.runTime().percentile(50) >= 90);
+    }
+
+    /**
+     * @param cond Condition.
+     */
+    private static void waitFor(BooleanSupplier cond) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(10);
+
+        while (!cond.getAsBoolean()) {
+            assertTrue("Condition not met in time", System.currentTimeMillis() < deadline);
+
+            Thread.sleep(10);
+        }
+    }
+}
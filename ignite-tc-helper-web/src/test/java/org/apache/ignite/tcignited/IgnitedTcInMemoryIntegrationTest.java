@@ -16,6 +16,7 @@
  */
 package org.apache.ignite.tcignited;
 
+import com.google.common.collect.Iterables;
 import com.google.common.collect.Lists;
 import com.google.inject.AbstractModule;
 import com.google.inject.Guice;
@@ -36,6 +37,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.SortedSet;
 import java.util.TreeMap;
 import java.util.TreeSet;
 import java.util.concurrent.ExecutorService;
@@ -43,6 +45,7 @@ import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.atomic.LongAdder;
 import java.util.concurrent.locks.LockSupport;
 import java.util.stream.Collectors;
@@ -71,6 +74,7 @@ import org.apache.ignite.tcbot.engine.conf.ITcBotConfig;
 import org.apache.ignite.tcbot.engine.conf.TcBotJsonConfig;
 import org.apache.ignite.tcbot.engine.issue.EventTemplates;
 import org.apache.ignite.tcbot.persistence.IStringCompactor;
+import org.apache.ignite.tcbot.persistence.InMemoryStringCompactor;
 import org.apache.ignite.tcbot.persistence.IgniteStringCompactor;
 import org.apache.ignite.tcbot.persistence.TcBotPersistenceModule;
 import org.apache.ignite.tcbot.persistence.scheduler.DirectExecNoWaitScheduler;
@@ -79,13 +83,18 @@ import org.apache.ignite.tcignited.build.FatBuildDao;
 import org.apache.ignite.tcignited.build.ProactiveFatBuildSync;
 import org.apache.ignite.tcignited.build.TestCompactedV2;
 import org.apache.ignite.tcignited.buildlog.ILogProductSpecific;
+import org.apache.ignite.tcignited.buildref.BuildRefBranchIdxDao;
+import org.apache.ignite.tcignited.buildref.BuildRefBranchIdxKey;
 import org.apache.ignite.tcignited.buildref.BuildRefDao;
 import org.apache.ignite.tcignited.history.BuildStartTimeStorage;
 import org.apache.ignite.tcignited.history.HistoryCollector;
 import org.apache.ignite.tcignited.history.IRunHistory;
 import org.apache.ignite.tcignited.history.ISuiteRunHistory;
 import org.apache.ignite.tcignited.history.SuiteInvocationHistoryDao;
+import org.apache.ignite.tcignited.mute.MuteDao;
+import org.apache.ignite.tcignited.mute.MuteSync;
 import org.apache.ignite.tcservice.ITeamcity;
+import org.apache.ignite.tcservice.ITeamcityConn;
 import org.apache.ignite.tcservice.TeamcityServiceConnection;
 import org.apache.ignite.tcservice.http.ITeamcityHttpConnection;
 import org.apache.ignite.tcservice.model.changes.ChangesList;
@@ -93,16 +102,22 @@ import org.apache.ignite.tcservice.model.conf.BuildType;
 import org.apache.ignite.tcservice.model.conf.Project;
 import org.apache.ignite.tcservice.model.conf.bt.BuildTypeFull;
 import org.apache.ignite.tcservice.model.hist.BuildRef;
+import org.apache.ignite.tcservice.model.mute.MuteAssignment;
 import org.apache.ignite.tcservice.model.mute.MuteInfo;
+import org.apache.ignite.tcservice.model.mute.MuteScope;
+import org.apache.ignite.tcservice.model.mute.MuteTarget;
 import org.apache.ignite.tcservice.model.mute.Mutes;
 import org.apache.ignite.tcservice.model.result.Build;
 import org.apache.ignite.tcservice.model.result.Triggered;
 import org.apache.ignite.tcservice.model.result.problems.ProblemOccurrence;
 import org.apache.ignite.tcservice.model.result.problems.ProblemOccurrences;
 import org.apache.ignite.tcservice.model.result.stat.Statistics;
+import org.apache.ignite.tcservice.model.result.tests.TestOccurrenceFull;
 import org.apache.ignite.tcservice.model.result.tests.TestOccurrencesFull;
+import org.apache.ignite.tcservice.model.result.tests.TestRef;
 import org.apache.ignite.tcservice.model.vcs.Revision;
 import org.apache.ignite.tcservice.model.vcs.Revisions;
+import org.apache.ignite.tcservice.util.TestOccurrencesStreamParser;
 import org.apache.ignite.tcservice.util.XmlUtil;
 import org.jetbrains.annotations.NotNull;
 import org.junit.AfterClass;
@@ -117,10 +132,13 @@ import static junit.framework.TestCase.assertFalse;
 import static junit.framework.TestCase.assertNotNull;
 import static junit.framework.TestCase.assertNull;
 import static junit.framework.TestCase.assertTrue;
+import static org.junit.Assert.assertArrayEquals;
 import static org.apache.ignite.ci.tcbot.issue.IssueDetectorTest.SRV_ID;
 import static org.apache.ignite.tcbot.common.conf.TcBotWorkDir.ensureDirExist;
 import static org.apache.ignite.tcbot.persistence.IgniteStringCompactor.STRINGS_CACHE;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.nullable;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
@@ -170,6 +188,8 @@ public class IgnitedTcInMemoryIntegrationTest {
     @Before
     public void clearIgniteCaches() {
         clearCache(BuildRefDao.TEAMCITY_BUILD_CACHE_NAME);
+        clearCache(BuildRefDao.TEAMCITY_BUILD_STATE_IDX_CACHE_NAME);
+        clearCache(BuildRefBranchIdxDao.TEAMCITY_BUILD_BRANCH_IDX_CACHE_NAME);
         clearCache(FatBuildDao.TEAMCITY_FAT_BUILD_CACHE_NAME);
 
         BuildRefCompacted.resetCached();
@@ -445,6 +465,126 @@ public class IgnitedTcInMemoryIntegrationTest {
         assertEquals("-5875314334924226234", mute.target.tests.get(0).id);
     }
 
+    @Test
+    public void testMuteSyncAppliesDelta() {
+        Injector injector = Guice.createInjector(new TeamcityIgnitedModule(), new IgniteAndSchedulerTestModule());
+
+        MuteDao muteDao = injector.getInstance(MuteDao.class);
+        muteDao.init();
+        MuteSync muteSync = injector.getInstance(MuteSync.class);
+        int srvId = ITeamcityIgnited.serverIdToInt("mutesync");
+
+        ITeamcityConn conn = mock(ITeamcityConn.class);
+        Map<String, List<SortedSet<MuteInfo>>> pages = new HashMap<>();
+
+        when(conn.getMutesPage(anyString(), nullable(String.class), any())).thenAnswer(inv -> {
+            List<SortedSet<MuteInfo>> projectPages = pages.get(inv.getArgument(0));
+            String url = inv.getArgument(1);
+            int page = url == null ? 0 : Integer.parseInt(url);
+
+            if (page + 1 < projectPages.size())
+                ((AtomicReference<String>)inv.getArgument(2)).set(String.valueOf(page + 1));
+
+            return projectPages.get(page);
+        });
+
+        pages.put("p1", Arrays.asList(
+            mutes(muteInfo(1, "Text", "TestA"), muteInfo(2, "Text", "TestB"), muteInfo(3, "Text", "TestC")),
+            mutes(muteInfo(5, "Text", "TestD"), muteInfo(6, "Text", "TestE"))));
+
+        muteSync.ensureActualizeMutes("syncMutes1", "p1", srvId, conn);
+
+        assertEquals(Arrays.asList(1, 2, 3, 5, 6), muteIds(muteDao.getMutes(srvId)));
+        assertTrue(muteDao.isMuted(srvId, compactor(injector).getStringId("TestB")));
+
+        long stamp = muteDao.changeStamp(srvId);
+
+        // Nothing changed, nothing is saved.
+        assertEquals(0, muteDao.saveChunk(srvId, pages.get("p1").get(0)));
+        assertEquals(stamp, muteDao.changeStamp(srvId));
+
+        // Mute 3 changed, 2 and 5 removed, 7 added.
+        pages.put("p2", Arrays.asList(
+            mutes(muteInfo(1, "Text", "TestA"), muteInfo(3, "Changed", "TestC")),
+            mutes(muteInfo(6, "Text", "TestE"), muteInfo(7, "Text", "TestF"))));
+
+        muteSync.ensureActualizeMutes("syncMutes2", "p2", srvId, conn);
+
+        assertEquals(Arrays.asList(1, 3, 6, 7), muteIds(muteDao.getMutes(srvId)));
+        assertFalse(muteDao.isMuted(srvId, compactor(injector).getStringId("TestB")));
+        assertTrue(muteDao.isMuted(srvId, compactor(injector).getStringId("TestF")));
+        assertEquals("Changed", findMute(3, muteDao.getMutes(srvId)).assignment.text);
+        assertTrue(muteDao.changeStamp(srvId) > stamp);
+
+        // Tail of the mutes is removed if the last page became shorter.
+        pages.put("p3", Collections.singletonList(mutes(muteInfo(1, "Text", "TestA"), muteInfo(3, "Changed", "TestC"))));
+
+        muteSync.ensureActualizeMutes("syncMutes3", "p3", srvId, conn);
+
+        assertEquals(Arrays.asList(1, 3), muteIds(muteDao.getMutes(srvId)));
+
+        // Mutes stored before the first page are not removed.
+        pages.put("p4", Collections.singletonList(mutes(muteInfo(3, "Changed", "TestC"))));
+
+        muteSync.ensureActualizeMutes("syncMutes4", "p4", srvId, conn);
+
+        assertEquals(Arrays.asList(1, 3), muteIds(muteDao.getMutes(srvId)));
+
+        // Index of new DAO instance is loaded from the cache.
+        MuteDao loaded = Guice.createInjector(new TeamcityIgnitedModule(), new IgniteAndSchedulerTestModule())
+            .getInstance(MuteDao.class);
+        loaded.init();
+
+        assertEquals(Arrays.asList(1, 3), muteIds(loaded.getMutes(srvId)));
+        assertEquals("Changed", findMute(3, loaded.getMutes(srvId)).assignment.text);
+    }
+
+    /**
+     * @param injector Injector.
+     */
+    private static IStringCompactor compactor(Injector injector) {
+        return injector.getInstance(IStringCompactor.class);
+    }
+
+    /**
+     * @param mutes Mutes.
+     */
+    private static SortedSet<MuteInfo> mutes(MuteInfo... mutes) {
+        return new TreeSet<>(Arrays.asList(mutes));
+    }
+
+    /**
+     * @param mutes Mutes.
+     * @return Sorted mute IDs.
+     */
+    private static List<Integer> muteIds(Collection<MuteInfo> mutes) {
+        return mutes.stream().map(mute -> mute.id).sorted().collect(Collectors.toList());
+    }
+
+    /**
+     * @param id Mute ID.
+     * @param text Mute text.
+     * @param test Test name.
+     */
+    private static MuteInfo muteInfo(int id, String text, String test) {
+        MuteInfo mute = new MuteInfo();
+
+        mute.id = id;
+        mute.assignment = new MuteAssignment();
+        mute.assignment.muteDate = "20190101T120000+0300";
+        mute.assignment.text = text;
+        mute.scope = new MuteScope();
+        mute.target = new MuteTarget();
+
+        TestRef ref = new TestRef();
+        ref.id = String.valueOf(id);
+        ref.name = test;
+
+        mute.target.tests = Collections.singletonList(ref);
+
+        return mute;
+    }
+
     /**
      * @param id Mute id.
      * @param infos Collection of mutes.
@@ -585,6 +725,30 @@ public class IgnitedTcInMemoryIntegrationTest {
         }
     }
 
+    @Test
+    public void testStreamingTestsPageMatchesJaxb() throws Exception {
+        TestOccurrencesFull refPage = jaxbTestXml("/testList.xml", TestOccurrencesFull.class);
+        List<TestOccurrenceFull> streamed = new ArrayList<>();
+        TestOccurrencesFull page;
+
+        try (InputStream stream = getClass().getResourceAsStream("/testList.xml")) {
+            page = TestOccurrencesStreamParser.parse(new InputStreamReader(stream), streamed::add);
+        }
+
+        assertEquals(refPage.nextHref(), page.nextHref());
+        assertTrue(page.getTests().isEmpty());
+        assertEquals(refPage.getTests().size(), streamed.size());
+
+        IStringCompactor c = new InMemoryStringCompactor();
+
+        for (int i = 0; i < streamed.size(); i++) {
+            TestOccurrenceFull ref = refPage.getTests().get(i);
+
+            assertEquals(ref.details, streamed.get(i).details);
+            assertEquals(new TestCompactedV2(c, ref, null), new TestCompactedV2(c, streamed.get(i), null));
+        }
+    }
+
     private <E> E jaxbTestXml(String ref, Class<E> cls) throws IOException, JAXBException {
         E refBuild;
         try (InputStream stream = getClass().getResourceAsStream(ref)) {
@@ -669,6 +833,65 @@ public class IgnitedTcInMemoryIntegrationTest {
         assertEquals(0.5, testRunHist.getFailRate(), 0.1);
     }
 
+    @Test
+    public void testHistoryAppendedForNewBuild() {
+        Injector injector = Guice.createInjector(new TeamcityIgnitedModule(), new IgniteAndSchedulerTestModule());
+
+        injector.getInstance(BuildStartTimeStorage.class).init();
+
+        final String srvId = "apache";
+        final String branch = ITeamcity.DEFAULT;
+
+        final ITeamcityIgnitedProvider inst = injector.getInstance(ITeamcityIgnitedProvider.class);
+        final ITeamcityIgnited srv = inst.server(srvId, Mockito.mock(ITcBotUserCreds.class));
+
+        FatBuildDao fatBuildDao = injector.getInstance(FatBuildDao.class);
+        fatBuildDao.init();
+
+        BuildRefDao buildRefDao = injector.getInstance(BuildRefDao.class);
+        buildRefDao.init();
+
+        final IStringCompactor c = injector.getInstance(IStringCompactor.class);
+
+        final PrChainsProcessorTest tst = new PrChainsProcessorTest();
+        int srvIdMaskHigh = ITeamcityIgnited.serverIdToInt(srvId);
+
+        tst.initHistory(c).forEach((id, build) -> {
+            fatBuildDao.putFatBuild(srvIdMaskHigh, id, build);
+            buildRefDao.save(srvIdMaskHigh, new BuildRefCompacted(build));
+        });
+
+        int testName = c.getStringId(PrChainsProcessorTest.TEST_FLAKY_IN_MASTER);
+        int suiteName = c.getStringId(PrChainsProcessorTest.CACHE_1);
+        int branchId = c.getStringId(branch);
+
+        IRunHistory before = srv.getTestRunHist(testName, suiteName, branchId);
+        ISuiteRunHistory suiteBefore = srv.getSuiteRunHist(suiteName, branchId);
+
+        assertNotNull(before);
+        assertNotNull(suiteBefore);
+
+        int invocationsBefore = Iterables.size(before.invocations());
+
+        FatBuildCompacted newBuild = tst.createFailedBuild(c, PrChainsProcessorTest.CACHE_1, branch, 200000, 0)
+            .addTests(c, Lists.newArrayList(PrChainsProcessorTest.createTest(50L,
+                PrChainsProcessorTest.TEST_FLAKY_IN_MASTER, false)), null);
+
+        fatBuildDao.putFatBuild(srvIdMaskHigh, newBuild.id(), newBuild);
+
+        IRunHistory after = srv.getTestRunHist(testName, suiteName, branchId);
+        ISuiteRunHistory suiteAfter = srv.getSuiteRunHist(suiteName, branchId);
+
+        assertNotNull(after);
+        assertEquals(before.getRunsCount() + 1, after.getRunsCount());
+        assertEquals(before.getFailuresCount() + 1, after.getFailuresCount());
+        assertEquals(suiteBefore.self().getRunsCount() + 1, suiteAfter.self().getRunsCount());
+        assertEquals(newBuild.id(), Iterables.getLast(after.invocations()).buildId());
+
+        // Instance obtained before the build was saved is not modified.
+        assertEquals(invocationsBefore, Iterables.size(before.invocations()));
+    }
+
     @Test
     public void testQueuedBuildsRemoved() {
         TeamcityIgnitedModule module = new TeamcityIgnitedModule();
@@ -739,6 +962,241 @@ public class IgnitedTcInMemoryIntegrationTest {
         assertTrue(checkNotNull(running4).isEmpty());
     }
 
+    @Test
+    public void testStateIdxVerified() {
+        Injector injector = Guice.createInjector(new TeamcityIgnitedModule(), new IgniteAndSchedulerTestModule());
+
+        IStringCompactor c = injector.getInstance(IStringCompactor.class);
+        BuildRefDao buildRefDao = injector.getInstance(BuildRefDao.class).init();
+        int srvId = ITeamcityIgnited.serverIdToInt(APACHE);
+
+        // Reference saved by previous version, bypassing index.
+        int queuedId = 1000100;
+        BuildRefCompacted queued = new BuildRefCompacted(c, buildRef(queuedId, BuildRef.STATE_QUEUED));
+        buildRefDao.buildRefsCache().put(BuildRefDao.buildIdToCacheKey(srvId, queuedId), queued);
+
+        // Reference finished without updating index.
+        int finishedId = 1000101;
+        buildRefDao.saveChunk(srvId, Lists.newArrayList(buildRef(finishedId, BuildRef.STATE_RUNNING)));
+        BuildRefCompacted finished = new BuildRefCompacted(c, buildRef(finishedId, BuildRef.STATE_FINISHED));
+        buildRefDao.buildRefsCache().put(BuildRefDao.buildIdToCacheKey(srvId, finishedId), finished);
+
+        // Not verified index is not used.
+        assertEquals(Collections.singletonList(queuedId), ids(buildRefDao.getQueuedAndRunning(srvId)));
+        assertTrue(stateIdxContains(finishedId));
+
+        buildRefDao.verifyIndexes(srvId);
+
+        assertTrue(stateIdxContains(queuedId));
+        assertFalse(stateIdxContains(finishedId));
+        assertEquals(Collections.singletonList(queuedId), ids(buildRefDao.getQueuedAndRunning(srvId)));
+    }
+
+    @Test
+    public void testStateIdxConcurrentSaveAndRead() throws Exception {
+        Injector injector = Guice.createInjector(new TeamcityIgnitedModule(), new IgniteAndSchedulerTestModule());
+
+        BuildRefDao buildRefDao = injector.getInstance(BuildRefDao.class).init();
+        int srvId = ITeamcityIgnited.serverIdToInt(APACHE);
+        List<Integer> buildIds = new ArrayList<>();
+
+        for (int id = 1000200; id < 1000210; id++)
+            buildIds.add(id);
+
+        buildRefDao.saveChunk(srvId, buildIds.stream().map(id -> buildRef(id, BuildRef.STATE_QUEUED))
+            .collect(Collectors.toList()));
+        buildRefDao.verifyIndexes(srvId);
+
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        AtomicBoolean stop = new AtomicBoolean();
+
+        try {
+            List<Future<?>> readers = new ArrayList<>();
+
+            for (int i = 0; i < 3; i++) {
+                readers.add(pool.submit(() -> {
+                    while (!stop.get())
+                        buildRefDao.getQueuedAndRunning(srvId);
+                }));
+            }
+
+            Future<?> writer = pool.submit(() -> {
+                for (int i = 0; i < 100; i++) {
+                    for (String state : Arrays.asList(BuildRef.STATE_QUEUED, BuildRef.STATE_FINISHED, BuildRef.STATE_RUNNING)) {
+                        buildRefDao.saveChunk(srvId, buildIds.stream().map(id -> buildRef(id, state))
+                            .collect(Collectors.toList()));
+                    }
+
+                    // Concurrent cleanup may see finished reference, but must not lose running build.
+                    assertEquals(buildIds, ids(buildRefDao.getQueuedAndRunning(srvId)));
+                }
+            });
+
+            writer.get();
+            stop.set(true);
+
+            for (Future<?> reader : readers)
+                reader.get();
+        }
+        finally {
+            stop.set(true);
+            pool.shutdownNow();
+        }
+
+        assertEquals(buildIds, ids(buildRefDao.getQueuedAndRunning(srvId)));
+
+        for (Integer id : buildIds)
+            assertTrue(stateIdxContains(id));
+    }
+
+    @Test
+    public void testBranchIdxLookup() {
+        Injector injector = Guice.createInjector(new TeamcityIgnitedModule(), new IgniteAndSchedulerTestModule());
+
+        IStringCompactor c = injector.getInstance(IStringCompactor.class);
+        BuildRefBranchIdxDao idxDao = injector.getInstance(BuildRefBranchIdxDao.class).init();
+        int srvId = ITeamcityIgnited.serverIdToInt(APACHE);
+        int otherSrvId = ITeamcityIgnited.serverIdToInt("other");
+
+        // IDs are placed to different chunks.
+        idxDao.addAll(srvId, Lists.newArrayList(
+            new BuildRefCompacted(c, buildRef(10, "Suite", "master")),
+            new BuildRefCompacted(c, buildRef(70000, "Suite", "master")),
+            new BuildRefCompacted(c, buildRef(200000, "Suite", "master")),
+            new BuildRefCompacted(c, buildRef(11, "OtherSuite", "master")),
+            new BuildRefCompacted(c, buildRef(12, "Suite", "branch"))));
+        idxDao.addAll(otherSrvId, Lists.newArrayList(new BuildRefCompacted(c, buildRef(13, "Suite", "master"))));
+
+        int suite = c.getStringId("Suite");
+        int master = c.getStringId("master");
+
+        assertArrayEquals(new int[] {10, 70000, 200000},
+            idxDao.getBuildIds(srvId, suite, master, Integer.MIN_VALUE, Integer.MAX_VALUE));
+        assertArrayEquals(new int[] {70000, 200000},
+            idxDao.getBuildIds(srvId, suite, master, 70000, Integer.MAX_VALUE));
+        assertArrayEquals(new int[] {70000}, idxDao.getBuildIds(srvId, suite, master, 11, 199999));
+        assertArrayEquals(new int[] {11},
+            idxDao.getBuildIds(srvId, c.getStringId("OtherSuite"), master, Integer.MIN_VALUE, Integer.MAX_VALUE));
+        assertArrayEquals(new int[] {12},
+            idxDao.getBuildIds(srvId, suite, c.getStringId("branch"), Integer.MIN_VALUE, Integer.MAX_VALUE));
+        assertArrayEquals(new int[] {13},
+            idxDao.getBuildIds(otherSrvId, suite, master, Integer.MIN_VALUE, Integer.MAX_VALUE));
+        assertArrayEquals(new int[0],
+            idxDao.getBuildIds(srvId, master, suite, Integer.MIN_VALUE, Integer.MAX_VALUE));
+
+        // Build moved to another branch.
+        BuildRefCompacted prev = new BuildRefCompacted(c, buildRef(70000, "Suite", "master"));
+        BuildRefCompacted moved = new BuildRefCompacted(c, buildRef(70000, "Suite", "branch"));
+        Map<Long, BuildRefCompacted> prevMap = Collections.singletonMap(BuildRefDao.buildIdToCacheKey(srvId, 70000), prev);
+        Map<Long, BuildRefCompacted> updMap = Collections.singletonMap(BuildRefDao.buildIdToCacheKey(srvId, 70000), moved);
+
+        idxDao.update(srvId, prevMap, updMap, true);
+        idxDao.update(srvId, prevMap, updMap, false);
+
+        assertArrayEquals(new int[] {10, 200000},
+            idxDao.getBuildIds(srvId, suite, master, Integer.MIN_VALUE, Integer.MAX_VALUE));
+        assertArrayEquals(new int[] {12, 70000},
+            idxDao.getBuildIds(srvId, suite, c.getStringId("branch"), Integer.MIN_VALUE, Integer.MAX_VALUE));
+
+        BuildRefBranchIdxKey key = new BuildRefBranchIdxKey(srvId, suite, master, 1);
+
+        assertEquals(key, new BuildRefBranchIdxKey(srvId, suite, master, 0).withChunk(1));
+        assertTrue(key.compareTo(key.withChunk(2)) < 0);
+        assertTrue(key.compareTo(new BuildRefBranchIdxKey(srvId, suite + 1, master, 0)) < 0);
+    }
+
+    @Test
+    public void testBranchIdxFilledByVerification() {
+        Injector injector = Guice.createInjector(new TeamcityIgnitedModule(), new IgniteAndSchedulerTestModule());
+
+        IStringCompactor c = injector.getInstance(IStringCompactor.class);
+        BuildRefDao buildRefDao = injector.getInstance(BuildRefDao.class).init();
+        BuildRefBranchIdxDao idxDao = injector.getInstance(BuildRefBranchIdxDao.class);
+        int srvId = ITeamcityIgnited.serverIdToInt(APACHE);
+
+        // References saved by previous version, bypassing index.
+        for (int id = 1000300; id < 1000305; id++) {
+            buildRefDao.buildRefsCache().put(BuildRefDao.buildIdToCacheKey(srvId, id),
+                new BuildRefCompacted(c, buildRef(id, "Suite", "master")));
+        }
+
+        buildRefDao.buildRefsCache().put(BuildRefDao.buildIdToCacheKey(srvId, 1000305),
+            new BuildRefCompacted(c, buildRef(1000305, "OtherSuite", "master")));
+
+        int suite = c.getStringId("Suite");
+        Set<Integer> branches = Collections.singleton(c.getStringId("master"));
+
+        assertFalse(idxDao.isFilled(srvId));
+        assertEquals(Arrays.asList(1000303, 1000304),
+            ids(buildRefDao.getAllBuildsCompacted(srvId, suite, branches, 1000303)));
+
+        buildRefDao.verifyIndexes(srvId);
+
+        assertTrue(idxDao.isFilled(srvId));
+        assertArrayEquals(new int[] {1000300, 1000301, 1000302, 1000303, 1000304},
+            idxDao.getBuildIds(srvId, suite, c.getStringId("master"), Integer.MIN_VALUE, Integer.MAX_VALUE));
+        assertEquals(Arrays.asList(1000303, 1000304),
+            ids(buildRefDao.getAllBuildsCompacted(srvId, suite, branches, 1000303)));
+        assertEquals(5, buildRefDao.getAllBuildsCompacted(srvId, suite, branches, Integer.MIN_VALUE).size());
+        assertTrue(buildRefDao.getAllBuildsCompacted(srvId, suite, branches, 1000305).isEmpty());
+
+        // Index is maintained for saved builds.
+        buildRefDao.save(srvId, new BuildRefCompacted(c, buildRef(1000306, "Suite", "master")));
+
+        assertEquals(Arrays.asList(1000304, 1000306),
+            ids(buildRefDao.getAllBuildsCompacted(srvId, suite, branches, 1000304)));
+    }
+
+    /**
+     * @param id Build id.
+     * @param buildTypeId Build type id.
+     * @param branchName Branch name.
+     */
+    private static BuildRef buildRef(int id, String buildTypeId, String branchName) {
+        BuildRef ref = buildRef(id, BuildRef.STATE_FINISHED);
+        ref.buildTypeId = buildTypeId;
+        ref.branchName = branchName;
+
+        return ref;
+    }
+
+    /**
+     * @param id Build id.
+     * @param state State.
+     */
+    private static BuildRef buildRef(int id, String state) {
+        BuildRef ref = new BuildRef();
+        ref.buildTypeId = "Testbuild";
+        ref.branchName = ITeamcity.REFS_HEADS_MASTER;
+        ref.state = state;
+        ref.setId(id);
+
+        return ref;
+    }
+
+    /**
+     * @param refs References.
+     * @return Sorted build IDs.
+     */
+    private static List<Integer> ids(List<BuildRefCompacted> refs) {
+        return refs.stream().map(BuildRefCompacted::id).sorted().collect(Collectors.toList());
+    }
+
+    /**
+     * @param buildId Build id.
+     * @return {@code True} if state index contains build under any state.
+     */
+    private static boolean stateIdxContains(int buildId) {
+        IgniteCache<Long, int[]> idx = ignite.cache(BuildRefDao.TEAMCITY_BUILD_STATE_IDX_CACHE_NAME);
+
+        for (javax.cache.Cache.Entry<Long, int[]> entry : idx) {
+            if (Arrays.binarySearch(entry.getValue(), buildId) >= 0)
+                return true;
+        }
+
+        return false;
+    }
+
     public void putOldFashionFakeBuild(IStringCompactor c, FatBuildDao fatBuildDao, int buildId, int srvIdInt) {
         FatBuildCompacted fb = fatBuildDao.getFatBuild(srvIdInt, buildId);
 
@@ -783,6 +1241,7 @@ public class IgnitedTcInMemoryIntegrationTest {
         storage.save(srvId, ref.withId(idGen.incrementAndGet()).branchName(branch));
         int present = 3;
         assertEquals(present, storage.getAllBuildsCompacted(srvId, buildTypeId, branchList).size());
+        assertEquals(2, storage.getAllBuildsCompacted(srvId, buildTypeId, branchList, 2).size());
 
         LongAdder savedCnt = new LongAdder();
         ExecutorService svc = Executors.newFixedThreadPool(10);
@@ -879,6 +1338,9 @@ public class IgnitedTcInMemoryIntegrationTest {
         assertNotNull(hist);
 
         assertEquals(Arrays.asList(4, 4, 4, 4, 4, 6, 6, 6, 6, 6, 6, 1, 1, 1, 1, 1), hist.getLatestRunResults());
+        assertArrayEquals(new int[] {4, 4, 4, 4, 4, 6, 6, 6, 6, 6, 6, 1, 1, 1, 1, 1}, hist.getLatestRunStatuses());
+        assertEquals(5, hist.getRunsCount());
+        assertEquals(5, hist.getFailuresCount());
 
         assertEquals(0, hist.getCriticalFailuresCount());
 
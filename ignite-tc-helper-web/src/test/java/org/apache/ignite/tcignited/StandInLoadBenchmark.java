@@ -0,0 +1,332 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.ignite.tcignited;
+
+import com.google.common.base.Strings;
+import com.google.common.io.ByteStreams;
+import com.google.inject.AbstractModule;
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import java.io.File;
+import java.io.InputStream;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.ignite.Ignite;
+import org.apache.ignite.Ignition;
+import org.apache.ignite.ci.db.TcHelperDb;
+import org.apache.ignite.ci.teamcity.pure.RecordedResponses;
+import org.apache.ignite.ci.teamcity.pure.StandInServer;
+import org.apache.ignite.ci.teamcity.pure.SyntheticResponses;
+import org.apache.ignite.ci.user.ITcBotUserCreds;
+import org.apache.ignite.configuration.IgniteConfiguration;
+import org.apache.ignite.jiraservice.IJiraIntegrationProvider;
+import org.apache.ignite.spi.discovery.tcp.TcpDiscoverySpi;
+import org.apache.ignite.tcbot.common.conf.IDataSourcesConfigSupplier;
+import org.apache.ignite.tcbot.common.conf.ITcServerConfig;
+import org.apache.ignite.tcbot.common.util.LatencyHistogram;
+import org.apache.ignite.tcbot.engine.conf.ITcBotConfig;
+import org.apache.ignite.tcbot.engine.conf.TcBotJsonConfig;
+import org.apache.ignite.tcbot.persistence.TcBotPersistenceModule;
+import org.apache.ignite.tcbot.persistence.scheduler.IScheduler;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Load benchmark of TeamCity synchronization against {@link StandInServer}, runs on a plain machine without access to
+ * real services. Phases:
+ * <ol>
+ * <li>full reindex of build references ({@code BuildRefSync});</li>
+ * <li>concurrent loading of fat builds ({@code ProactiveFatBuildSync});</li>
+ * <li>optional: concurrent GET requests to URLs of running TC Bot, e.g. configured to use this stand-in.</li>
+ * </ol>
+ * Parameters are system properties: {@code bench.builds}, {@code bench.tests}, {@code bench.latencyMs},
+ * {@code bench.maxConcurrent}, {@code bench.threads}, {@code bench.records} (file recorded by
+ * {@link org.apache.ignite.tcservice.http.TeamcityRecorder}, served before synthetic responses),
+ * {@code bench.urls} (comma separated URLs for the last phase), {@code bench.durationSec}.
+ */
+public class StandInLoadBenchmark {
+    /** Server code. */
+    private static final String SRV_CODE = "standin";
+
+    /** Ignite discovery port. */
+    private static final int IGNITE_PORT = 64125;
+
+    /** First build ID. */
+    private static final int FIRST_BUILD = 100_000;
+
+    /**
+     * @param args Arguments, not used.
+     */
+    public static void main(String[] args) throws Exception {
+        int builds = Integer.getInteger("bench.builds", 2000);
+        int tests = Integer.getInteger("bench.tests", 500);
+        int threads = Integer.getInteger("bench.threads", 8);
+        String recordsFile = System.getProperty("bench.records");
+
+        RecordedResponses recorded = Strings.isNullOrEmpty(recordsFile)
+            ? null
+            : RecordedResponses.load(new File(recordsFile));
+
+        StandInServer standIn = new StandInServer(recorded,
+            new SyntheticResponses(FIRST_BUILD, builds, 20, tests, 3, 300, 300, 1000),
+            Long.getLong("bench.latencyMs", 20),
+            Integer.getInteger("bench.maxConcurrent", 16));
+
+        String url = standIn.start();
+
+        Ignite ignite = startIgnite();
+
+        try {
+            Injector injector = Guice.createInjector(new TeamcityIgnitedModule(), new BenchmarkModule(ignite, url));
+
+            TeamcityIgnitedImpl srv = (TeamcityIgnitedImpl)injector.getInstance(ITeamcityIgnitedProvider.class)
+                .server(SRV_CODE, creds());
+
+            long reqs = standIn.requests();
+            long start = System.nanoTime();
+
+            srv.fullReindex();
+
+            report("Build references sync", 1, System.nanoTime() - start, null);
+            System.out.println("    requests: " + (standIn.requests() - reqs));
+
+            List<Integer> ids = new ArrayList<>();
+
+            for (int id = FIRST_BUILD; id < FIRST_BUILD + builds; id++)
+                ids.add(id);
+
+            reqs = standIn.requests();
+
+            runConcurrently("Fat builds load", threads, ids.size(), idx -> {
+                if (srv.getFatBuild(ids.get(idx), SyncMode.RELOAD_QUEUED).isFakeStub())
+                    throw new IllegalStateException("Build not loaded: " + ids.get(idx));
+            });
+
+            System.out.println("    requests: " + (standIn.requests() - reqs) + ", not found: " + standIn.notFound() +
+                ", max concurrent on server: " + standIn.maxInFlight());
+
+            String urls = System.getProperty("bench.urls");
+
+            if (!Strings.isNullOrEmpty(urls))
+                runRest(urls.split(","), threads, Integer.getInteger("bench.durationSec", 30));
+        }
+        finally {
+            ignite.close();
+
+            standIn.stop();
+        }
+    }
+
+    /**
+     * @param urls Urls.
+     * @param threads Threads.
+     * @param durationSec Duration.
+     */
+    private static void runRest(String[] urls, int threads, int durationSec) throws Exception {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(durationSec);
+        LatencyHistogram hist = new LatencyHistogram();
+        AtomicInteger errors = new AtomicInteger();
+        AtomicLong cnt = new AtomicLong();
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<?>> futs = new ArrayList<>();
+
+        long start = System.nanoTime();
+
+        for (int t = 0; t < threads; t++) {
+            int thread = t;
+
+            futs.add(executor.submit(() -> {
+                for (int i = thread; System.nanoTime() < deadline; i++) {
+                    long callStart = System.nanoTime();
+
+                    try (InputStream is = new URL(urls[i % urls.length].trim()).openStream()) {
+                        ByteStreams.exhaust(is);
+                    }
+                    catch (Exception e) {
+                        errors.incrementAndGet();
+                    }
+
+                    hist.record(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - callStart));
+                    cnt.incrementAndGet();
+                }
+            }));
+        }
+
+        for (Future<?> fut : futs)
+            fut.get();
+
+        executor.shutdown();
+
+        report("REST requests", cnt.get(), System.nanoTime() - start, hist);
+        System.out.println("    errors: " + errors.get());
+    }
+
+    /**
+     * @param name Phase name.
+     * @param threads Threads.
+     * @param ops Operations count.
+     * @param op Operation by index.
+     */
+    private static void runConcurrently(String name, int threads, int ops, IndexedOp op) throws Exception {
+        LatencyHistogram hist = new LatencyHistogram();
+        AtomicInteger next = new AtomicInteger();
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<?>> futs = new ArrayList<>();
+
+        long start = System.nanoTime();
+
+        for (int t = 0; t < threads; t++) {
+            futs.add(executor.submit(() -> {
+                for (int idx = next.getAndIncrement(); idx < ops; idx = next.getAndIncrement()) {
+                    long opStart = System.nanoTime();
+
+                    op.run(idx);
+
+                    hist.record(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - opStart));
+                }
+
+                return null;
+            }));
+        }
+
+        for (Future<?> fut : futs)
+            fut.get();
+
+        executor.shutdown();
+
+        report(name, ops, System.nanoTime() - start, hist);
+    }
+
+    /**
+     * @param name Phase name.
+     * @param ops Operations count.
+     * @param nanos Time taken.
+     * @param hist Latency of operations, microseconds.
+     */
+    private static void report(String name, long ops, long nanos, LatencyHistogram hist) {
+        double sec = nanos / 1e9;
+
+        System.out.println(String.format("%s: %d ops in %.2f s, %.1f ops/s", name, ops, sec, ops / sec));
+
+        if (hist != null) {
+            System.out.println(String.format("    latency ms: p50 %.1f, p95 %.1f, p99 %.1f, max %.1f",
+                hist.percentile(50) / 1e3, hist.percentile(95) / 1e3, hist.percentile(99) / 1e3, hist.max() / 1e3));
+        }
+    }
+
+    /**
+     *
+     */
+    private static Ignite startIgnite() {
+        IgniteConfiguration cfg = new IgniteConfiguration();
+        TcpDiscoverySpi spi = new TcpDiscoverySpi();
+
+        spi.setLocalPort(IGNITE_PORT);
+        spi.setLocalPortRange(1);
+        spi.setIpFinder(new TcHelperDb.LocalOnlyTcpDiscoveryIpFinder(IGNITE_PORT));
+
+        cfg.setDiscoverySpi(spi);
+
+        return Ignition.start(cfg);
+    }
+
+    /**
+     *
+     */
+    private static ITcBotUserCreds creds() {
+        ITcBotUserCreds creds = mock(ITcBotUserCreds.class);
+
+        when(creds.hasAccess(anyString())).thenReturn(true);
+        when(creds.getUser(anyString())).thenReturn("bench");
+        when(creds.getPassword(anyString())).thenReturn("bench");
+
+        return creds;
+    }
+
+    /**
+     * Operation by index.
+     */
+    private interface IndexedOp {
+        /**
+         * @param idx Index.
+         */
+        void run(int idx) throws Exception;
+    }
+
+    /**
+     * Ignite, configuration pointing to the stand-in server, scheduler ignoring background tasks to measure phases
+     * separately.
+     */
+    private static class BenchmarkModule extends AbstractModule {
+        /** Ignite. */
+        private final Ignite ignite;
+
+        /** Stand-in server URL. */
+        private final String url;
+
+        /**
+         * @param ignite Ignite.
+         * @param url Stand-in server URL.
+         */
+        BenchmarkModule(Ignite ignite, String url) {
+            this.ignite = ignite;
+            this.url = url;
+        }
+
+        /** {@inheritDoc} */
+        @Override protected void configure() {
+            bind(Ignite.class).toInstance(ignite);
+            bind(IScheduler.class).toInstance(new IScheduler() {
+                @Override public void invokeLater(Runnable cmd, long delay, TimeUnit unit) {
+                }
+
+                @Override public void sheduleNamed(String fullName, Runnable cmd, long queitPeriod, TimeUnit unit) {
+                }
+
+                @Override public void stop() {
+                }
+            });
+
+            bind(IJiraIntegrationProvider.class).toInstance(mock(IJiraIntegrationProvider.class));
+
+            ITcBotConfig cfg = mock(ITcBotConfig.class);
+
+            ITcServerConfig tcCfg = mock(ITcServerConfig.class);
+            when(tcCfg.logsDirectory()).thenReturn("logs");
+            when(tcCfg.host()).thenReturn(url);
+            when(tcCfg.trustedSuites()).thenReturn(new ArrayList<>());
+            when(cfg.getTeamcityConfig(anyString())).thenReturn(tcCfg);
+            when(cfg.getTrackedBranches()).thenReturn(new TcBotJsonConfig());
+
+            bind(ITcBotConfig.class).toInstance(cfg);
+            bind(IDataSourcesConfigSupplier.class).toInstance(cfg);
+
+            install(new TcBotPersistenceModule());
+        }
+    }
+}
@@ -83,4 +83,19 @@ public interface ITcServerConfig {
      * @return Time as auto-triggering build is enabled. {@link DateTimeFormatter.ISO_LOCAL_TIME} must be used.
      */
     @Nullable String autoTriggeringBuildDisabledEndTime();
+
+    /**
+     * @return Timeout for establishing HTTP connection to the server, milliseconds.
+     */
+    public int httpConnectTimeoutMs();
+
+    /**
+     * @return Timeout for waiting HTTP response from the server, milliseconds.
+     */
+    public int httpReadTimeoutMs();
+
+    /**
+     * @return Limit of HTTP requests concurrently sent to the server, other requests wait in queue.
+     */
+    public int httpMaxConcurrentRequests();
 }
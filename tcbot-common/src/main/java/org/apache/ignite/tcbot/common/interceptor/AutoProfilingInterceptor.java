@@ -17,6 +17,7 @@
 package org.apache.ignite.tcbot.common.interceptor;
 
 import com.google.common.base.Stopwatch;
+import java.lang.reflect.Method;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.concurrent.ConcurrentHashMap;
@@ -26,12 +27,26 @@ import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 import org.aopalliance.intercept.MethodInterceptor;
 import org.aopalliance.intercept.MethodInvocation;
+import org.apache.ignite.tcbot.common.util.LatencyHistogram;
+import org.apache.ignite.tcbot.common.util.TimeWindowHistogram;
 
 public class AutoProfilingInterceptor implements MethodInterceptor {
-    private final ConcurrentMap<String, Invocation> totalTime = new ConcurrentHashMap<>();
+    /** Statistics since last reset, replaced as a whole, so method cache never refers to dropped invocation. */
+    private volatile Stats stats = new Stats();
 
     public void reset() {
-        totalTime.clear();
+        stats = new Stats();
+    }
+
+    /**
+     * Invocations collected since reset.
+     */
+    private static class Stats {
+        /** Full method name -> invocation. */
+        private final ConcurrentMap<String, Invocation> totalTime = new ConcurrentHashMap<>();
+
+        /** Method -> invocation, to avoid building name on each call. Overloaded methods share one invocation. */
+        private final ConcurrentMap<Method, Invocation> byMethod = new ConcurrentHashMap<>();
     }
 
     public static class Invocation {
@@ -39,11 +54,16 @@ public class AutoProfilingInterceptor implements MethodInterceptor {
         private final AtomicInteger callsCnt = new AtomicInteger();
         private String name;
 
+        /** Durations of recent calls, microseconds. */
+        private final TimeWindowHistogram latency = new TimeWindowHistogram();
+
         public Invocation(String name) {
             this.name = name;
         }
 
         public long addAndGet(long elapsed) {
+            latency.record(TimeUnit.NANOSECONDS.toMicros(elapsed), System.currentTimeMillis());
+
             callsCnt.incrementAndGet();
 
             return timeNanos.addAndGet(elapsed);
@@ -60,13 +80,18 @@ public class AutoProfilingInterceptor implements MethodInterceptor {
         public String getName() {
             return name;
         }
+
+        /**
+         * @param minutes Window, full minutes in addition to the current one.
+         * @return Durations of calls in window, microseconds.
+         */
+        public LatencyHistogram getLatency(int minutes) {
+            return latency.window(minutes, System.currentTimeMillis());
+        }
     }
 
     @Override
     public Object invoke(MethodInvocation invocation) throws Throwable {
-        String cls = invocation.getMethod().getDeclaringClass().getSimpleName();
-        String mtd = invocation.getMethod().getName();
-
         Stopwatch started = Stopwatch.createStarted();
         try {
             return invocation.proceed();
@@ -74,13 +99,31 @@ public class AutoProfilingInterceptor implements MethodInterceptor {
         finally {
             long elapsed = started.elapsed(TimeUnit.NANOSECONDS);
 
-            String fullKey = cls + "." + mtd;
-
-            totalTime.computeIfAbsent(fullKey, Invocation::new).addAndGet(elapsed);
+            invocation(invocation.getMethod()).addAndGet(elapsed);
         }
     }
 
+    /**
+     * @param mtd Method.
+     */
+    private Invocation invocation(Method mtd) {
+        Stats stats = this.stats;
+
+        Invocation res = stats.byMethod.get(mtd);
+
+        if (res != null)
+            return res;
+
+        String fullKey = mtd.getDeclaringClass().getSimpleName() + "." + mtd.getName();
+
+        res = stats.totalTime.computeIfAbsent(fullKey, Invocation::new);
+
+        stats.byMethod.put(mtd, res);
+
+        return res;
+    }
+
     public Collection<Invocation> getInvocations() {
-        return Collections.unmodifiableCollection(totalTime.values());
+        return Collections.unmodifiableCollection(stats.totalTime.values());
     }
 }
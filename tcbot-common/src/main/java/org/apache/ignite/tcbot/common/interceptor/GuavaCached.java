@@ -50,4 +50,10 @@ public @interface GuavaCached {
     long expireAfterAccessSecs() default -1;
 
     long expireAfterWriteSecs() default -1;
+
+    /**
+     * Refresh-ahead: entry older than this is still returned, but is reloaded asynchronously. Makes sense only if it is
+     * less than expiration time.
+     */
+    long refreshAfterWriteSecs() default -1;
 }
@@ -20,27 +20,146 @@ import com.google.common.base.Preconditions;
 import com.google.common.base.Throwables;
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
-import java.util.Optional;
-import java.util.concurrent.Callable;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
-import javax.annotation.Nonnull;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.annotation.Nullable;
 import org.aopalliance.intercept.MethodInterceptor;
 import org.aopalliance.intercept.MethodInvocation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 public class GuavaCachedInterceptor implements MethodInterceptor {
-    private final ConcurrentMap<String, Cache<List, Optional>> caches = new ConcurrentHashMap<>();
+    /** Logger. */
+    private static final Logger logger = LoggerFactory.getLogger(GuavaCachedInterceptor.class);
+
+    /** Threads reloading entries asynchronously (refresh-ahead). */
+    private static final int REFRESH_THREADS = 2;
+
+    /** Max refreshes waiting for thread, entries not refreshed because of the limit are refreshed on next access. */
+    private static final int REFRESH_QUEUE_SIZE = 1000;
+
+    /** Flag for method call from refresh thread: interceptor should call method instead of returning cached value. */
+    private static final ThreadLocal<Boolean> REFRESHING = new ThreadLocal<>();
+
+    /** Caches, created once for each method. */
+    private final ConcurrentMap<Method, MethodCache> caches = new ConcurrentHashMap<>();
+
+    /** Refresh executor. */
+    private final ExecutorService refreshExecutor;
+
+    public GuavaCachedInterceptor() {
+        AtomicInteger threadIdx = new AtomicInteger();
+
+        refreshExecutor = new ThreadPoolExecutor(REFRESH_THREADS, REFRESH_THREADS, 60, TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(REFRESH_QUEUE_SIZE), r -> {
+            Thread thread = new Thread(r, "guava-cached-refresh-" + threadIdx.incrementAndGet());
+
+            thread.setDaemon(true);
+
+            return thread;
+        });
+
+        ((ThreadPoolExecutor)refreshExecutor).allowCoreThreadTimeOut(true);
+    }
 
     @Override public Object invoke(MethodInvocation invocation) throws Throwable {
+        if (REFRESHING.get() != null) {
+            // Only outer call is refreshed, nested cached methods are called as usual.
+            REFRESHING.remove();
+
+            return invocation.proceed();
+        }
+
         final Method invocationMtd = invocation.getMethod();
-        GuavaCached annotation = invocationMtd.getAnnotation(GuavaCached.class);
 
-        Cache<List, Optional> cache = caches.computeIfAbsent(cacheId(invocation), k -> {
-            CacheBuilder builder = CacheBuilder.newBuilder();
+        MethodCache mtdCache = caches.get(invocationMtd);
+
+        if (mtdCache == null)
+            mtdCache = caches.computeIfAbsent(invocationMtd, MethodCache::new);
+
+        List<Object> cacheKey = Arrays.asList(invocation.getArguments());
+
+        CachedValue val = mtdCache.cache.get(cacheKey, () -> {
+            Object res;
+            try {
+                res = invocation.proceed();
+            }
+            catch (Throwable throwable) {
+                Throwables.propagateIfPossible(throwable, Exception.class);
+
+                throw new RuntimeException(throwable);
+            }
+            return new CachedValue(res);
+        });
+
+        if (!mtdCache.cacheable(cacheKey, val.res))
+            mtdCache.cache.asMap().remove(cacheKey, val);
+        else if (mtdCache.refreshNanos > 0 && System.nanoTime() - val.loadedNanos > mtdCache.refreshNanos)
+            mtdCache.refreshAsync(invocation, cacheKey, val);
+
+        return val.res;
+    }
+
+    /**
+     * @return Statistics of caches.
+     */
+    public Collection<CacheStatistics> getStatistics() {
+        Collection<CacheStatistics> res = new ArrayList<>();
+
+        caches.values().forEach(mtdCache -> res.add(new CacheStatistics(mtdCache)));
+
+        return res;
+    }
+
+    /**
+     * Cache of one method.
+     */
+    private class MethodCache {
+        /** Method full name. */
+        private final String name;
+
+        /** Annotation. */
+        private final GuavaCached annotation;
+
+        /** Refresh period, nanos, non-positive value means refresh-ahead is disabled. */
+        private final long refreshNanos;
+
+        /** Cache. */
+        private final Cache<List<Object>, CachedValue> cache;
+
+        /** Keys being refreshed. */
+        private final Set<List<Object>> refreshing = ConcurrentHashMap.newKeySet();
+
+        /** Count of refreshes completed. */
+        private final AtomicLong refreshes = new AtomicLong();
+
+        /** Count of refreshes failed, stale value is kept for these. */
+        private final AtomicLong refreshFailures = new AtomicLong();
+
+        /**
+         * @param mtd Method.
+         */
+        MethodCache(Method mtd) {
+            name = mtd.getDeclaringClass().getName() + "." + mtd.getName();
+            annotation = mtd.getAnnotation(GuavaCached.class);
+            refreshNanos = TimeUnit.SECONDS.toNanos(annotation.refreshAfterWriteSecs());
+
+            CacheBuilder<Object, Object> builder = CacheBuilder.newBuilder().recordStats();
 
             if (annotation.softValues())
                 builder = builder.softValues();
@@ -54,52 +173,172 @@ public class GuavaCachedInterceptor implements MethodInterceptor {
             if (annotation.expireAfterWriteSecs() > 0)
                 builder.expireAfterWrite(annotation.expireAfterWriteSecs(), TimeUnit.SECONDS);
 
-            return builder.build();
-        });
+            cache = builder.build();
 
-        List<Object> cacheKey = Arrays.asList(invocation.getArguments());
+            if (refreshNanos > 0)
+                mtd.setAccessible(true);
+        }
 
-        Optional optional = cache.get(cacheKey,
-            new Callable<Optional>() {
-                @Override public Optional call() throws Exception {
-                    Object res;
-                    try {
-                        res = invocation.proceed();
-                    }
-                    catch (Throwable throwable) {
-                        Throwables.propagateIfPossible(throwable, Exception.class);
+        /**
+         * @param key Key.
+         * @param res Method result.
+         * @return {@code True} if result may be kept in cache.
+         */
+        boolean cacheable(List<Object> key, @Nullable Object res) {
+            if (!annotation.cacheNullRval()) {
+                if (res == null)
+                    return false;
+            }
 
-                        throw new RuntimeException(throwable);
-                    }
-                    return Optional.ofNullable(res);
+            if (!annotation.cacheNegativeNumbersRval()) {
+                if (res != null) {
+                    Preconditions.checkState(res instanceof Number, "Invalid return value of method: " + key);
+
+                    Number num = (Number)res;
+                    if (num.longValue() < 0)
+                        return false;
                 }
-            });
+            }
 
-        if (!annotation.cacheNullRval()) {
-            if (!optional.isPresent())
-                cache.invalidate(cacheKey);
+            return true;
         }
 
-        if (!annotation.cacheNegativeNumbersRval()) {
-            if (optional.isPresent()) {
-                Object o = optional.get();
-                Preconditions.checkState(o instanceof Number, "Invalid return value of method: " + cacheKey);
+        /**
+         * Reloads value in background, stale value is returned until reloading completes.
+         *
+         * @param invocation Invocation, provides object and arguments to call method again.
+         * @param key Key.
+         * @param oldVal Value being refreshed.
+         */
+        void refreshAsync(MethodInvocation invocation, List<Object> key, CachedValue oldVal) {
+            if (!refreshing.add(key))
+                return;
+
+            Object target = invocation.getThis();
+            Method mtd = invocation.getMethod();
+            Object[] args = invocation.getArguments().clone();
+
+            try {
+                refreshExecutor.execute(() -> {
+                    try {
+                        Object res;
+
+                        REFRESHING.set(true);
+
+                        try {
+                            res = mtd.invoke(target, args);
+                        }
+                        finally {
+                            REFRESHING.remove();
+                        }
+
+                        // Counted before new value is visible, so value read by caller is already counted.
+                        refreshes.incrementAndGet();
+
+                        // Value invalidated or already reloaded during refresh is not replaced.
+                        if (cacheable(key, res))
+                            cache.asMap().replace(key, oldVal, new CachedValue(res));
+                        else
+                            cache.asMap().remove(key, oldVal);
+                    }
+                    catch (InvocationTargetException | IllegalAccessException | RuntimeException e) {
+                        refreshFailures.incrementAndGet();
 
-                Number num = (Number)o;
-                if (num.longValue() < 0)
-                    cache.invalidate(cacheKey);
+                        logger.warn("Failed to refresh cached value of " + name + ", key " + key,
+                            e instanceof InvocationTargetException ? e.getCause() : e);
+                    }
+                    finally {
+                        refreshing.remove(key);
+                    }
+                });
+            }
+            catch (RejectedExecutionException e) {
+                refreshing.remove(key);
             }
         }
+    }
 
-        return optional.orElse(null);
+    /**
+     * Method result with load time.
+     */
+    private static class CachedValue {
+        /** Result, may be null. */
+        @Nullable private final Object res;
+
+        /** Time of loading, nanos. */
+        private final long loadedNanos = System.nanoTime();
+
+        /**
+         * @param res Result.
+         */
+        CachedValue(@Nullable Object res) {
+            this.res = res;
+        }
     }
 
-    @Nonnull
-    private String cacheId(MethodInvocation invocation) {
-        final Method invocationMtd = invocation.getMethod();
-        final String cls = invocationMtd.getDeclaringClass().getName();
-        final String mtd = invocationMtd.getName();
+    /**
+     * Statistics of one method cache.
+     */
+    public static class CacheStatistics {
+        /** Method full name. */
+        private final String name;
+
+        /** Entries count. */
+        private final long size;
+
+        /** Guava cache stats. */
+        private final CacheStats stats;
+
+        /** Refreshes completed. */
+        private final long refreshes;
+
+        /** Refreshes failed. */
+        private final long refreshFailures;
+
+        /**
+         * @param mtdCache Method cache.
+         */
+        private CacheStatistics(MethodCache mtdCache) {
+            name = mtdCache.name;
+            size = mtdCache.cache.size();
+            stats = mtdCache.cache.stats();
+            refreshes = mtdCache.refreshes.get();
+            refreshFailures = mtdCache.refreshFailures.get();
+        }
 
-        return cls + "." + mtd;
+        /**
+         * @return Method full name.
+         */
+        public String name() {
+            return name;
+        }
+
+        /**
+         * @return Entries count.
+         */
+        public long size() {
+            return size;
+        }
+
+        /**
+         * @return Guava cache stats: hits, misses, loads and evictions.
+         */
+        public CacheStats stats() {
+            return stats;
+        }
+
+        /**
+         * @return Refreshes completed.
+         */
+        public long refreshes() {
+            return refreshes;
+        }
+
+        /**
+         * @return Refreshes failed.
+         */
+        public long refreshFailures() {
+            return refreshFailures;
+        }
     }
 }
@@ -0,0 +1,241 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.ignite.tcbot.common.util;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Shared non-blocking HTTP transport. Keeps one client with pooled keep-alive connections per remote host (scheme,
+ * host and port) and limits count of requests concurrently sent to each host. Requests exceeding the limit are queued
+ * without blocking caller threads.
+ */
+public class HttpTransport {
+    /** Default connect and read timeout, milliseconds. */
+    public static final int DFLT_TIMEOUT_MS = 60000;
+
+    /** Default limit of requests concurrently sent to one host. */
+    public static final int DFLT_MAX_CONCURRENT = 16;
+
+    /** Instance shared by all services. */
+    private static final HttpTransport INSTANCE = new HttpTransport();
+
+    /** Hosts: scheme, host and port mapped to client and settings. */
+    private final ConcurrentMap<String, Host> hosts = new ConcurrentHashMap<>();
+
+    /**
+     * @return Shared transport instance.
+     */
+    public static HttpTransport instance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Changes settings for the host of the URL provided. Requests already sent are completed using previous settings.
+     *
+     * @param url Any URL of the host.
+     * @param connTimeoutMs Connect timeout, non positive value means default.
+     * @param readTimeoutMs Timeout of waiting for response, non positive value means default.
+     * @param maxConcurrent Limit of requests concurrently sent to host, non positive value means default.
+     */
+    public void configure(String url, int connTimeoutMs, int readTimeoutMs, int maxConcurrent) {
+        Host newHost = new Host(
+            connTimeoutMs > 0 ? connTimeoutMs : DFLT_TIMEOUT_MS,
+            readTimeoutMs > 0 ? readTimeoutMs : DFLT_TIMEOUT_MS,
+            maxConcurrent > 0 ? maxConcurrent : DFLT_MAX_CONCURRENT);
+
+        hosts.compute(hostKey(URI.create(url)), (k, old) -> old != null && old.sameSettings(newHost) ? old : newHost);
+    }
+
+    /**
+     * Sends request asynchronously, request is delayed if there are too many requests sent to the same host.
+     *
+     * @param req Request builder, timeout is set according to host settings.
+     * @param uri Request URI.
+     * @param hnd Response body handler.
+     * @return Future to be completed with response (regardless of HTTP status code) or with communication error.
+     */
+    public <T> CompletableFuture<HttpResponse<T>> sendAsync(HttpRequest.Builder req, URI uri,
+        HttpResponse.BodyHandler<T> hnd) {
+        Host host = hosts.computeIfAbsent(hostKey(uri),
+            k -> new Host(DFLT_TIMEOUT_MS, DFLT_TIMEOUT_MS, DFLT_MAX_CONCURRENT));
+
+        HttpRequest httpReq = req.uri(uri).timeout(Duration.ofMillis(host.readTimeoutMs)).build();
+
+        CompletableFuture<HttpResponse<T>> res = new CompletableFuture<>();
+
+        host.submit(() -> {
+            try {
+                host.client.sendAsync(httpReq, hnd).whenComplete((rsp, e) -> {
+                    host.release();
+
+                    if (e != null)
+                        res.completeExceptionally(e instanceof CompletionException && e.getCause() != null ? e.getCause() : e);
+                    else
+                        res.complete(rsp);
+                });
+            }
+            catch (Throwable e) {
+                host.release();
+
+                res.completeExceptionally(e);
+            }
+        });
+
+        return res;
+    }
+
+    /**
+     * Waits for future completion and unwraps communication errors.
+     *
+     * @param fut Future.
+     * @throws IOException If communication failed.
+     */
+    public static <T> T get(CompletableFuture<T> fut) throws IOException {
+        try {
+            return fut.get();
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+
+            InterruptedIOException ex = new InterruptedIOException("Interrupted while waiting for HTTP response");
+
+            ex.initCause(e);
+
+            throw ex;
+        }
+        catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+
+            if (cause instanceof IOException)
+                throw (IOException)cause;
+
+            if (cause instanceof RuntimeException)
+                throw (RuntimeException)cause;
+
+            if (cause instanceof Error)
+                throw (Error)cause;
+
+            throw new IOException(cause);
+        }
+    }
+
+    /**
+     * @param uri URI.
+     */
+    private static String hostKey(URI uri) {
+        return uri.getScheme() + "://" + uri.getHost() + ":" + uri.getPort();
+    }
+
+    /**
+     * Client and requests limiter for one host.
+     */
+    private static class Host {
+        /** Connect timeout, milliseconds. */
+        private final int connTimeoutMs;
+
+        /** Response timeout, milliseconds. */
+        private final int readTimeoutMs;
+
+        /** Max concurrent requests. */
+        private final int maxConcurrent;
+
+        /** Client, keeps connections alive and reuses them for next requests. */
+        private final HttpClient client;
+
+        /** Permits for sending requests. */
+        private final Semaphore permits;
+
+        /** Requests waiting for permit. */
+        private final Queue<Runnable> waiting = new ConcurrentLinkedQueue<>();
+
+        /**
+         * @param connTimeoutMs Connect timeout.
+         * @param readTimeoutMs Read timeout.
+         * @param maxConcurrent Max concurrent requests.
+         */
+        Host(int connTimeoutMs, int readTimeoutMs, int maxConcurrent) {
+            this.connTimeoutMs = connTimeoutMs;
+            this.readTimeoutMs = readTimeoutMs;
+            this.maxConcurrent = maxConcurrent;
+
+            permits = new Semaphore(maxConcurrent);
+            client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .connectTimeout(Duration.ofMillis(connTimeoutMs))
+                .build();
+        }
+
+        /**
+         * @param o Other host.
+         */
+        boolean sameSettings(Host o) {
+            return connTimeoutMs == o.connTimeoutMs
+                && readTimeoutMs == o.readTimeoutMs
+                && maxConcurrent == o.maxConcurrent;
+        }
+
+        /**
+         * @param task Task to be run as soon as permit is available, should call {@link #release()} when finished.
+         */
+        void submit(Runnable task) {
+            waiting.add(task);
+
+            drain();
+        }
+
+        /**
+         * Returns permit and starts next waiting task, if any.
+         */
+        void release() {
+            permits.release();
+
+            drain();
+        }
+
+        /**
+         * Starts waiting tasks while permits are available.
+         */
+        private void drain() {
+            while (!waiting.isEmpty() && permits.tryAcquire()) {
+                Runnable task = waiting.poll();
+
+                if (task == null) {
+                    permits.release();
+
+                    continue;
+                }
+
+                task.run();
+            }
+        }
+    }
+}
@@ -14,25 +14,27 @@
  * See the License for the specific language governing permissions and
  * limitations under the License.
  */
-
 package org.apache.ignite.tcbot.common.util;
 
 import com.google.common.base.Stopwatch;
-import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
-import java.io.OutputStreamWriter;
-import java.net.HttpURLConnection;
-import java.net.URL;
+import java.net.URI;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.StandardCopyOption;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
 
 import org.apache.ignite.tcbot.common.exeption.ServiceUnauthorizedException;
 import org.apache.ignite.tcbot.common.exeption.ServiceBadRequestException;
@@ -43,29 +45,26 @@ import org.slf4j.LoggerFactory;
 import javax.annotation.Nullable;
 
 /**
- * Methods for sending HTTP requests
+ * Methods for sending HTTP requests. All requests are sent using shared pooled {@link HttpTransport}, responses are
+ * requested gzipped (except of files downloaded).
  */
 public class HttpUtil {
     /** Logger. */
     private static final Logger logger = LoggerFactory.getLogger(HttpUtil.class);
 
+    /** Charset used for requests and responses. */
+    private static final Charset CHARSET = StandardCharsets.UTF_8;
+
     /**
-     * @param inputStream Input stream.
+     * Sets up timeouts and concurrency limit for all requests to host of given URL.
+     *
+     * @param url Any URL of the host, e.g. server base URL.
+     * @param connTimeoutMs Connect timeout, non positive value means default.
+     * @param readTimeoutMs Timeout of waiting for response, non positive value means default.
+     * @param maxConcurrent Limit of requests concurrently sent to host, non positive value means default.
      */
-    private static String readIsToString(InputStream inputStream) throws IOException {
-        if (inputStream == null)
-            return "<null>";
-
-        BufferedReader in = new BufferedReader(
-            new InputStreamReader(inputStream));
-        String inputLine;
-        StringBuilder res = new StringBuilder();
-
-        while ((inputLine = in.readLine()) != null) {
-            res.append(inputLine);
-            res.append("\n");
-        }
-        return res.toString();
+    public static void configureHost(String url, int connTimeoutMs, int readTimeoutMs, int maxConcurrent) {
+        HttpTransport.instance().configure(url, connTimeoutMs, readTimeoutMs, maxConcurrent);
     }
 
     /**
@@ -80,23 +79,22 @@ public class HttpUtil {
      * @throws IllegalStateException if some unexpected HTTP error returned.
      */
     public static InputStream sendGetWithBasicAuth(String basicAuthTok, String url) throws IOException {
-        final Stopwatch started = Stopwatch.createStarted();
-        URL obj = new URL(url);
-        HttpURLConnection con = (HttpURLConnection)obj.openConnection();
-        con.setConnectTimeout(60000); //todo make configurable
-        con.setReadTimeout(60000);
-
-        con.setRequestProperty("Authorization", "Basic " + basicAuthTok);
-        con.setRequestProperty("Connection", "Keep-Alive");
-        con.setRequestProperty("Keep-Alive", "header");
-        con.setRequestProperty("accept-charset", StandardCharsets.UTF_8.toString());
-
-        int resCode = con.getResponseCode();
+        return HttpTransport.get(sendGetAsyncWithBasicAuth(basicAuthTok, url));
+    }
 
-        logger.info(Thread.currentThread().getName() + ": Required: " + started.elapsed(TimeUnit.MILLISECONDS)
-            + "ms : Sending 'GET' request to : " + url + " Response: " + resCode);
+    /**
+     * Send GET request to the TeamCity url without blocking caller thread.
+     *
+     * @param basicAuthTok Authorization token.
+     * @param url URL.
+     * @return Future with fully read response body. Future is completed exceptionally with the same errors as
+     * {@link #sendGetWithBasicAuth(String, String)} throws.
+     */
+    public static CompletableFuture<InputStream> sendGetAsyncWithBasicAuth(String basicAuthTok, String url) {
+        HttpRequest.Builder req = HttpRequest.newBuilder().GET()
+            .header("Authorization", "Basic " + basicAuthTok);
 
-        return getInputStream(con);
+        return sendBuffered(req, url, null).thenApply(HttpUtil::successBody);
     }
 
     /**
@@ -109,30 +107,34 @@ public class HttpUtil {
      * @throws IOException If failed.
      */
     public static InputStream sendGetToGit(String githubAuthTok, String url, @Nullable Map<String, String> rspHeaders) throws IOException {
-        Stopwatch started = Stopwatch.createStarted();
-        URL obj = new URL(url);
-        HttpURLConnection con = (HttpURLConnection)obj.openConnection();
+        HttpRequest.Builder req = HttpRequest.newBuilder().GET();
 
         if (githubAuthTok != null)
-            con.setRequestProperty("Authorization", "token " + githubAuthTok);
+            req.header("Authorization", "token " + githubAuthTok);
 
-        con.setRequestProperty("accept-charset", StandardCharsets.UTF_8.toString());
-        con.setRequestProperty("Connection", "Keep-Alive");
-        con.setRequestProperty("Keep-Alive", "header");
+        HttpResponse<byte[]> rsp = HttpTransport.get(sendBuffered(req, url, null));
 
-        int resCode = con.getResponseCode();
+        if (rspHeaders != null)
+            rspHeaders.keySet().forEach((k) -> rspHeaders.put(k, rsp.headers().firstValue(k).orElse(null)));
 
-        if(rspHeaders != null) {
-            rspHeaders.keySet().forEach((k) -> {
-                String link = con.getHeaderField(k);
+        return checkSuccess(rsp);
+    }
 
-                rspHeaders.put(k, link);
-            });
-        }
-        logger.info(Thread.currentThread().getName() + ": Required: " + started.elapsed(TimeUnit.MILLISECONDS)
-            + "ms : Sending 'GET' request to : " + url + " Response: " + resCode);
+    /**
+     * Send GET request to the GitHub url without blocking caller thread.
+     *
+     * @param githubAuthTok Authorization OAuth token.
+     * @param url URL.
+     * @return Future with fully read response body. Future is completed exceptionally with the same errors as
+     * {@link #sendGetToGit(String, String, Map)} throws.
+     */
+    public static CompletableFuture<InputStream> sendGetAsyncToGit(String githubAuthTok, String url) {
+        HttpRequest.Builder req = HttpRequest.newBuilder().GET();
 
-        return getInputStream(con);
+        if (githubAuthTok != null)
+            req.header("Authorization", "token " + githubAuthTok);
+
+        return sendBuffered(req, url, null).thenApply(HttpUtil::successBody);
     }
 
     /**
@@ -146,74 +148,32 @@ public class HttpUtil {
      * @throws IllegalStateException if some unexpected HTTP error returned.
      */
     public static void sendGetCopyToFile(String tok, String url, File file) throws IOException {
-        try (InputStream inputStream = sendGetWithBasicAuth(tok, url)){
-            Files.copy(inputStream, file.toPath(), StandardCopyOption.REPLACE_EXISTING);
-        }
-    }
+        Stopwatch started = Stopwatch.createStarted();
 
-    public static String sendPostAsString(String basicAuthTok, String url, String body) throws IOException {
-        try (InputStream inputStream = sendPostWithBasicAuth(basicAuthTok, url, body)){
-            return readIsToString(inputStream);
-        }
-    }
+        HttpRequest.Builder req = HttpRequest.newBuilder().GET()
+            .header("Authorization", "Basic " + tok)
+            .header("accept-charset", CHARSET.toString());
 
-    private static InputStream sendPostWithBasicAuth(String tok, String url,
-        String body) throws IOException {
-        URL obj = new URL(url);
-        HttpURLConnection con = (HttpURLConnection)obj.openConnection();
+        HttpResponse<InputStream> rsp = HttpTransport.get(
+            HttpTransport.instance().sendAsync(req, URI.create(url), HttpResponse.BodyHandlers.ofInputStream()));
 
-        con.setRequestMethod("POST");
-        con.setRequestProperty("Authorization", "Basic " + tok);
-        con.setRequestProperty("Connection", "Keep-Alive");
-        con.setRequestProperty("Keep-Alive", "header");
-        Charset charset = StandardCharsets.UTF_8;
+        logger.info(Thread.currentThread().getName() + ": Required: " + started.elapsed(TimeUnit.MILLISECONDS)
+            + "ms : Sending 'GET' request to : " + url + " Response: " + rsp.statusCode());
 
-        con.setRequestProperty("accept-charset", charset.toString());
-        con.setRequestProperty("content-type", "application/xml");
+        try (InputStream inputStream = rsp.body()) {
+            if (rsp.statusCode() / 100 != 2)
+                throwResponseError(rsp, readIsToString(inputStream, rsp.headers()));
 
-        con.setDoOutput(true);
-        try (OutputStreamWriter writer = new OutputStreamWriter(con.getOutputStream(), charset)){
-            writer.write(body); // Write POST query string (if any needed).
+            Files.copy(inputStream, file.toPath(), StandardCopyOption.REPLACE_EXISTING);
         }
-
-        logger.info("\nSending 'POST' request to URL : " + url + "\n" + body);
-
-        return getInputStream(con);
     }
 
-    /**
-     * Get input stream for successful connection. Throws exception if connection response wasn't successful.
-     *
-     * @param con Http connection.
-     * @return Input stream from connection.
-     * @throws IOException If communication failed.
-     * @throws FileNotFoundException If not found (404) was returned from service.
-     * @throws ServiceConflictException If conflict (409) was returned from service.
-     * @throws IllegalStateException if some unexpected HTTP error returned.
-     */
-    private static InputStream getInputStream(HttpURLConnection con) throws IOException {
-        int resCode = con.getResponseCode();
-
-        // Successful responses (with code 200+).
-        if (resCode / 100 == 2)
-            return con.getInputStream();
-
-        String detailsFromResponeText = readIsToString(con.getErrorStream());
-
-        if (resCode == 400)
-            throw new ServiceBadRequestException(detailsFromResponeText);
-
-        if (resCode == 401)
-            throw new ServiceUnauthorizedException("Service " + con.getURL() + " returned forbidden error.");
-
-        if (resCode == 404)
-            throw new FileNotFoundException("Service " + con.getURL() + " returned not found error. " + detailsFromResponeText);
-
-        if (resCode == 409)
-            throw new ServiceConflictException("Service " + con.getURL() + " returned Conflict Response Code :\n" + detailsFromResponeText);
+    public static String sendPostAsString(String basicAuthTok, String url, String body) throws IOException {
+        HttpRequest.Builder req = HttpRequest.newBuilder()
+            .header("Authorization", "Basic " + basicAuthTok)
+            .header("content-type", "application/xml");
 
-        throw new IllegalStateException("Service " + con.getURL() + " returned Invalid Response Code : " + resCode + ":\n"
-                + detailsFromResponeText);
+        return sendPost(req, url, body);
     }
 
     /**
@@ -226,29 +186,11 @@ public class HttpUtil {
      * @throws IOException If failed.
      */
     public static String sendPostAsStringToGit(String githubAuthTok, String url, String body) throws IOException {
-        URL obj = new URL(url);
-        HttpURLConnection con = (HttpURLConnection)obj.openConnection();
-        Charset charset = StandardCharsets.UTF_8;
-
-        con.setRequestProperty("accept-charset", charset.toString());
-        con.setRequestProperty("Authorization", "token " + githubAuthTok);
-        con.setRequestProperty("Connection", "Keep-Alive");
-        con.setRequestProperty("Keep-Alive", "header");
-        con.setRequestProperty("content-type", "application/json");
-
-        con.setRequestMethod("POST");
+        HttpRequest.Builder req = HttpRequest.newBuilder()
+            .header("Authorization", "token " + githubAuthTok)
+            .header("content-type", "application/json");
 
-        con.setDoOutput(true);
-
-        try (OutputStreamWriter writer = new OutputStreamWriter(con.getOutputStream(), charset)){
-            writer.write(body); // Write POST query string (if any needed).
-        }
-
-        logger.info("\nSending 'POST' request to URL : " + url + "\n" + body);
-
-        try (InputStream inputStream = getInputStream(con)){
-            return readIsToString(inputStream);
-        }
+        return sendPost(req, url, body);
     }
 
     /**
@@ -261,58 +203,165 @@ public class HttpUtil {
      * @throws IOException If failed.
      */
     public static String sendPostAsStringToJira(String jiraAuthTok, String url, String body) throws IOException {
-        URL obj = new URL(url);
-        HttpURLConnection con = (HttpURLConnection)obj.openConnection();
-        Charset charset = StandardCharsets.UTF_8;
+        HttpRequest.Builder req = HttpRequest.newBuilder()
+            .header("Authorization", "Basic " + jiraAuthTok)
+            .header("content-type", "application/json");
 
-        con.setRequestProperty("accept-charset", charset.toString());
-        con.setRequestProperty("Authorization", "Basic " + jiraAuthTok);
-        con.setRequestProperty("content-type", "application/json");
-        con.setRequestProperty("Connection", "Keep-Alive");
-        con.setRequestProperty("Keep-Alive", "header");
+        return sendPost(req, url, body);
+    }
 
-        con.setRequestMethod("POST");
+    /**
+     * Send GET request to the JIRA url.
+     *
+     * @param jiraAuthTok Jira auth token.
+     * @param url Url.
+     */
+    public static String sendGetToJira(String jiraAuthTok, String url) throws IOException {
+        HttpRequest.Builder req = HttpRequest.newBuilder().GET()
+            .header("Authorization", "Basic " + jiraAuthTok)
+            .header("content-type", "application/json");
 
-        con.setDoOutput(true);
+        HttpResponse<byte[]> rsp = HttpTransport.get(sendBuffered(req, url, null));
 
-        try (OutputStreamWriter writer = new OutputStreamWriter(con.getOutputStream(), charset)){
-            writer.write(body); // Write POST query string (if any needed).
+        try (InputStream inputStream = checkSuccess(rsp)) {
+            return readIsToString(inputStream);
         }
+    }
 
-        logger.info("\nSending 'POST' request to URL : " + url + "\n" + body);
+    /**
+     * @param req Request.
+     * @param url Url.
+     * @param body Body.
+     * @return Response body.
+     */
+    private static String sendPost(HttpRequest.Builder req, String url, String body) throws IOException {
+        req.POST(HttpRequest.BodyPublishers.ofString(body, CHARSET));
 
-        try (InputStream inputStream = getInputStream(con)) {
+        HttpResponse<byte[]> rsp = HttpTransport.get(sendBuffered(req, url, body));
+
+        try (InputStream inputStream = checkSuccess(rsp)) {
             return readIsToString(inputStream);
         }
     }
 
     /**
-     * Send GET request to the JIRA url.
+     * Sends request, response body is read fully in memory without blocking any thread.
      *
-     * @param jiraAuthTok Jira auth token.
+     * @param req Request, method and authorization should be already set.
      * @param url Url.
+     * @param body Request body to be logged, null for GET requests.
      */
-    public static String sendGetToJira(String jiraAuthTok, String url) throws IOException {
+    private static CompletableFuture<HttpResponse<byte[]>> sendBuffered(HttpRequest.Builder req, String url,
+        @Nullable String body) {
         Stopwatch started = Stopwatch.createStarted();
-        URL obj = new URL(url);
-        HttpURLConnection con = (HttpURLConnection)obj.openConnection();
-        Charset charset = StandardCharsets.UTF_8;
-
-        con.setRequestProperty("accept-charset", charset.toString());
-        con.setRequestProperty("Authorization", "Basic " + jiraAuthTok);
-        con.setRequestProperty("content-type", "application/json");
-        con.setRequestProperty("Connection", "Keep-Alive");
-        con.setRequestProperty("Keep-Alive", "header");
 
-        con.setRequestMethod("GET");
+        req.header("accept-charset", CHARSET.toString())
+            .header("Accept-Encoding", "gzip");
 
-        int resCode = con.getResponseCode();
+        if (body != null)
+            logger.info("\nSending 'POST' request to URL : " + url + "\n" + body);
 
-        logger.info(Thread.currentThread().getName() + ": Required: " + started.elapsed(TimeUnit.MILLISECONDS)
-            + "ms : Sending 'GET' request to : " + url + " Response: " + resCode);
+        return HttpTransport.instance()
+            .sendAsync(req, URI.create(url), HttpResponse.BodyHandlers.ofByteArray())
+            .whenComplete((rsp, e) -> {
+                if (body == null && rsp != null) {
+                    logger.info(Thread.currentThread().getName() + ": Required: " + started.elapsed(TimeUnit.MILLISECONDS)
+                        + "ms : Sending 'GET' request to : " + url + " Response: " + rsp.statusCode());
+                }
+            });
+    }
 
-        try (InputStream inputStream = getInputStream(con)) {
-            return readIsToString(inputStream);
+    /**
+     * @param rsp Response.
+     * @return Body for successful response, exception wrapped into {@link CompletionException} otherwise.
+     */
+    private static InputStream successBody(HttpResponse<byte[]> rsp) {
+        try {
+            return checkSuccess(rsp);
+        }
+        catch (IOException e) {
+            throw new CompletionException(e);
         }
     }
+
+    /**
+     * Get input stream for successful response. Throws exception if response wasn't successful.
+     *
+     * @param rsp Http response.
+     * @return Input stream with decoded response body.
+     * @throws IOException If communication failed.
+     * @throws FileNotFoundException If not found (404) was returned from service.
+     * @throws ServiceConflictException If conflict (409) was returned from service.
+     * @throws IllegalStateException if some unexpected HTTP error returned.
+     */
+    private static InputStream checkSuccess(HttpResponse<byte[]> rsp) throws IOException {
+        InputStream body = decodedBody(rsp.body(), rsp.headers());
+
+        // Unsuccessful responses (with code other than 200+).
+        if (rsp.statusCode() / 100 != 2)
+            throwResponseError(rsp, readIsToString(body));
+
+        return body;
+    }
+
+    /**
+     * @param rsp Response with unsuccessful code.
+     * @param detailsFromResponeText Details from response text.
+     * @throws FileNotFoundException If not found (404) was returned from service.
+     * @throws ServiceConflictException If conflict (409) was returned from service.
+     * @throws IllegalStateException if some unexpected HTTP error returned.
+     */
+    private static void throwResponseError(HttpResponse<?> rsp, String detailsFromResponeText) throws IOException {
+        int resCode = rsp.statusCode();
+
+        if (resCode == 400)
+            throw new ServiceBadRequestException(detailsFromResponeText);
+
+        if (resCode == 401)
+            throw new ServiceUnauthorizedException("Service " + rsp.uri() + " returned forbidden error.");
+
+        if (resCode == 404)
+            throw new FileNotFoundException("Service " + rsp.uri() + " returned not found error. " + detailsFromResponeText);
+
+        if (resCode == 409)
+            throw new ServiceConflictException("Service " + rsp.uri() + " returned Conflict Response Code :\n" + detailsFromResponeText);
+
+        throw new IllegalStateException("Service " + rsp.uri() + " returned Invalid Response Code : " + resCode + ":\n"
+                + detailsFromResponeText);
+    }
+
+    /**
+     * @param body Raw body.
+     * @param headers Response headers.
+     */
+    private static InputStream decodedBody(byte[] body, HttpHeaders headers) throws IOException {
+        InputStream is = new ByteArrayInputStream(body == null ? new byte[0] : body);
+
+        return isGzipped(headers) ? new GZIPInputStream(is) : is;
+    }
+
+    /**
+     * @param headers Response headers.
+     */
+    private static boolean isGzipped(HttpHeaders headers) {
+        return headers.firstValue("Content-Encoding").map("gzip"::equalsIgnoreCase).orElse(false);
+    }
+
+    /**
+     * @param inputStream Input stream.
+     * @param headers Response headers.
+     */
+    private static String readIsToString(InputStream inputStream, HttpHeaders headers) throws IOException {
+        return readIsToString(isGzipped(headers) ? new GZIPInputStream(inputStream) : inputStream);
+    }
+
+    /**
+     * @param inputStream Input stream.
+     */
+    private static String readIsToString(InputStream inputStream) throws IOException {
+        if (inputStream == null)
+            return "<null>";
+
+        return new String(inputStream.readAllBytes(), CHARSET);
+    }
 }
@@ -0,0 +1,178 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.ignite.tcbot.common.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free log-linear histogram (HdrHistogram-like): each power of 2 range is split into {@link #SUB_BUCKETS} equal
+ * buckets, so relative error of percentile estimation does not exceed {@code 1 / SUB_BUCKETS}. Used both for
+ * latencies in nanoseconds and for durations in milliseconds.
+ */
+public class LatencyHistogram {
+    /** Bits of value after the highest one, used to select bucket within power of 2 range. */
+    private static final int SUB_BITS = 3;
+
+    /** Buckets in power of 2 range. */
+    private static final int SUB_BUCKETS = 1 << SUB_BITS;
+
+    /** Max value counted in its own bucket, greater values are counted in the last one. */
+    public static final long MAX_TRACKABLE = (1L << 40) - 1;
+
+    /** Buckets count. */
+    private static final int BUCKETS = bucket(MAX_TRACKABLE) + 1;
+
+    /** Buckets. */
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+
+    /** Total values recorded. */
+    private final AtomicLong cnt = new AtomicLong();
+
+    /** Sum of values recorded. */
+    private final AtomicLong total = new AtomicLong();
+
+    /** Maximal value recorded. */
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * @param val Value, negative values are counted as 0.
+     */
+    public void record(long val) {
+        long v = Math.max(val, 0);
+
+        buckets.incrementAndGet(bucket(Math.min(v, MAX_TRACKABLE)));
+        cnt.incrementAndGet();
+        total.addAndGet(v);
+        max.accumulateAndGet(v, Math::max);
+    }
+
+    /**
+     * Adds all values recorded by other histogram to this one.
+     *
+     * @param other Other histogram.
+     */
+    public void add(LatencyHistogram other) {
+        for (int i = 0; i < BUCKETS; i++) {
+            long val = other.buckets.get(i);
+
+            if (val != 0)
+                buckets.addAndGet(i, val);
+        }
+
+        cnt.addAndGet(other.cnt.get());
+        total.addAndGet(other.total.get());
+        max.accumulateAndGet(other.max.get(), Math::max);
+    }
+
+    /**
+     * @param val Value, non negative and not greater than {@link #MAX_TRACKABLE}.
+     */
+    static int bucket(long val) {
+        if (val < SUB_BUCKETS)
+            return (int)val;
+
+        int exp = 63 - Long.numberOfLeadingZeros(val);
+        int sub = (int)(val >>> (exp - SUB_BITS)) & (SUB_BUCKETS - 1);
+
+        return (exp - SUB_BITS + 1) * SUB_BUCKETS + sub;
+    }
+
+    /**
+     * @param bucket Bucket.
+     * @return Upper bound (exclusive) of values range for bucket.
+     */
+    static long upperBound(int bucket) {
+        if (bucket < SUB_BUCKETS)
+            return bucket + 1;
+
+        int shift = bucket / SUB_BUCKETS - 1;
+        long sub = bucket % SUB_BUCKETS;
+
+        return (SUB_BUCKETS + sub + 1) << shift;
+    }
+
+    /**
+     * @return Count of values recorded.
+     */
+    public long count() {
+        return cnt.get();
+    }
+
+    /**
+     * @return Sum of values recorded.
+     */
+    public long sum() {
+        return total.get();
+    }
+
+    /**
+     * @return Maximal value recorded.
+     */
+    public long max() {
+        return max.get();
+    }
+
+    /**
+     * @param percentile Percentile, value in range (0..100].
+     * @return Estimation of value for percentile: upper bound of the bucket (limited by max value recorded).
+     */
+    public long percentile(double percentile) {
+        // Count is summed from buckets to be consistent with them during concurrent recording.
+        long cnt = 0;
+
+        for (int i = 0; i < BUCKETS; i++)
+            cnt += buckets.get(i);
+
+        if (cnt == 0)
+            return 0;
+
+        long threshold = (long)Math.ceil(cnt * percentile / 100.0);
+        long seen = 0;
+
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += buckets.get(i);
+
+            if (seen >= threshold)
+                return Math.min(upperBound(i) - 1, max.get());
+        }
+
+        return max.get();
+    }
+
+    /**
+     * @return Non empty power of 2 ranges of durations in milliseconds: printable upper bound of the range mapped to
+     * count of values.
+     */
+    public Map<String, Long> nonEmptyBuckets() {
+        Map<String, Long> res = new LinkedHashMap<>();
+
+        for (int range = 0; range < BUCKETS / SUB_BUCKETS; range++) {
+            long val = 0;
+
+            for (int i = range * SUB_BUCKETS; i < (range + 1) * SUB_BUCKETS; i++)
+                val += buckets.get(i);
+
+            if (val != 0)
+                res.put("<" + TimeUtil.millisToDurationPrintable(upperBound((range + 1) * SUB_BUCKETS - 1)), val);
+        }
+
+        return res;
+    }
+}
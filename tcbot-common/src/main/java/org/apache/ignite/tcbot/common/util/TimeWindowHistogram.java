@@ -0,0 +1,96 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.ignite.tcbot.common.util;
+
+import com.google.common.base.Preconditions;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Histogram of values recorded during last hour. Values are recorded into histogram of current minute, histogram for a
+ * time window is merged from minutes histograms on request. Minute histogram is created on first value recorded.
+ */
+public class TimeWindowHistogram {
+    /** Max window supported, minutes. */
+    public static final int MAX_WINDOW_MINUTES = 60;
+
+    /** Minute of time -> histogram, ring. One slot more than max window: current minute is not complete. */
+    private final AtomicReferenceArray<Slot> slots = new AtomicReferenceArray<>(MAX_WINDOW_MINUTES + 1);
+
+    /**
+     * @param val Value.
+     * @param nowMs Current time, milliseconds.
+     */
+    public void record(long val, long nowMs) {
+        long minute = TimeUnit.MILLISECONDS.toMinutes(nowMs);
+        int idx = (int)(minute % slots.length());
+
+        Slot slot = slots.get(idx);
+
+        // Slot of later minute is used as is if clock was moved back.
+        while (slot == null || slot.minute < minute) {
+            Slot newSlot = new Slot(minute);
+
+            if (slots.compareAndSet(idx, slot, newSlot))
+                slot = newSlot;
+            else
+                slot = slots.get(idx);
+        }
+
+        slot.hist.record(val);
+    }
+
+    /**
+     * @param minutes Window: count of full minutes to include in addition to the current one.
+     * @param nowMs Current time, milliseconds.
+     * @return Values recorded in the window, new histogram.
+     */
+    public LatencyHistogram window(int minutes, long nowMs) {
+        Preconditions.checkArgument(minutes > 0 && minutes <= MAX_WINDOW_MINUTES, "Unsupported window: %s", minutes);
+
+        long minute = TimeUnit.MILLISECONDS.toMinutes(nowMs);
+
+        LatencyHistogram res = new LatencyHistogram();
+
+        for (int i = 0; i < slots.length(); i++) {
+            Slot slot = slots.get(i);
+
+            if (slot != null && slot.minute >= minute - minutes && slot.minute <= minute)
+                res.add(slot.hist);
+        }
+
+        return res;
+    }
+
+    /**
+     * Values recorded in one minute.
+     */
+    private static class Slot {
+        /** Minute since epoch. */
+        private final long minute;
+
+        /** Histogram. */
+        private final LatencyHistogram hist = new LatencyHistogram();
+
+        /**
+         * @param minute Minute.
+         */
+        Slot(long minute) {
+            this.minute = minute;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.tcbot.common.interceptor;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.aopalliance.intercept.MethodInvocation;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Test for profiling statistics collection.
+ */
+public class AutoProfilingInterceptorTest {
+    /**
+     * Calls made after reset are reported, including calls of methods cached before reset.
+     */
+    @Test
+    public void testCallsReportedAfterReset() throws Throwable {
+        AutoProfilingInterceptor interceptor = new AutoProfilingInterceptor();
+        MethodInvocation call = mock(MethodInvocation.class);
+
+        when(call.getMethod()).thenReturn(String.class.getMethod("length"));
+
+        interceptor.invoke(call);
+        interceptor.invoke(call);
+
+        List<AutoProfilingInterceptor.Invocation> invocations = new ArrayList<>(interceptor.getInvocations());
+
+        assertEquals(1, invocations.size());
+        assertEquals("String.length", invocations.get(0).getName());
+        assertEquals(2, invocations.get(0).getCount());
+
+        interceptor.reset();
+
+        assertEquals(0, interceptor.getInvocations().size());
+
+        interceptor.invoke(call);
+
+        invocations = new ArrayList<>(interceptor.getInvocations());
+
+        assertEquals(1, invocations.size());
+        assertEquals(1, invocations.get(0).getCount());
+    }
+}
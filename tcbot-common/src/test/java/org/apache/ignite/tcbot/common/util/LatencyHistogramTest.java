@@ -0,0 +1,119 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.ignite.tcbot.common.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for {@link LatencyHistogram} and {@link TimeWindowHistogram}.
+ */
+public class LatencyHistogramTest {
+    /**
+     * Checks each value falls into the bucket covering it, and buckets have no gaps.
+     */
+    @Test
+    public void testBucketsCoverValuesContiguously() {
+        for (long val = 0; val < 100_000; val++) {
+            int bucket = LatencyHistogram.bucket(val);
+
+            assertTrue("value " + val, val < LatencyHistogram.upperBound(bucket));
+            assertTrue("value " + val, bucket == 0 || val >= LatencyHistogram.upperBound(bucket - 1));
+        }
+
+        assertTrue(LatencyHistogram.upperBound(LatencyHistogram.bucket(LatencyHistogram.MAX_TRACKABLE))
+            > LatencyHistogram.MAX_TRACKABLE);
+    }
+
+    /**
+     * Checks percentiles are estimated with relative error not greater than bucket width.
+     */
+    @Test
+    public void testPercentilesRelativeError() {
+        LatencyHistogram hist = new LatencyHistogram();
+
+        for (int i = 1; i <= 10_000; i++)
+            hist.record(i * 100L);
+
+        assertEquals(10_000, hist.count());
+        assertEquals(1_000_000, hist.max());
+
+        assertEstimated(500_000, hist.percentile(50));
+        assertEstimated(950_000, hist.percentile(95));
+        assertEstimated(990_000, hist.percentile(99));
+        assertEquals(1_000_000, hist.percentile(100));
+    }
+
+    /**
+     * Checks durations are grouped by power of 2 ranges for display.
+     */
+    @Test
+    public void testNonEmptyBuckets() {
+        LatencyHistogram hist = new LatencyHistogram();
+
+        hist.record(0);
+        hist.record(9);
+        hist.record(15);
+        hist.record(1000);
+
+        Map<String, Long> buckets = hist.nonEmptyBuckets();
+
+        assertEquals(3, buckets.size());
+        assertEquals(Arrays.asList(1L, 2L, 1L), new ArrayList<>(buckets.values()));
+        assertEquals("<" + TimeUtil.millisToDurationPrintable(16L), buckets.keySet().toArray()[1]);
+    }
+
+    /**
+     * Checks window contains values recorded during requested count of recent minutes.
+     */
+    @Test
+    public void testWindowIncludesRecentMinutesOnly() {
+        TimeWindowHistogram hist = new TimeWindowHistogram();
+
+        long now = TimeUnit.HOURS.toMillis(100_000);
+
+        hist.record(10, now - TimeUnit.MINUTES.toMillis(90));
+        hist.record(20, now - TimeUnit.MINUTES.toMillis(30));
+        hist.record(30, now - TimeUnit.MINUTES.toMillis(1));
+        hist.record(40, now);
+
+        assertEquals(2, hist.window(1, now).count());
+        assertEquals(40, hist.window(1, now).max());
+        assertEquals(2, hist.window(15, now).count());
+        assertEquals(3, hist.window(60, now).count());
+
+        // Slot of the minute 90 minutes ago is reused.
+        hist.record(50, now + TimeUnit.MINUTES.toMillis(31));
+
+        assertEquals(1, hist.window(1, now + TimeUnit.MINUTES.toMillis(31)).count());
+        assertEquals(3, hist.window(60, now + TimeUnit.MINUTES.toMillis(31)).count());
+    }
+
+    /**
+     * @param exp Expected.
+     * @param actual Actual.
+     */
+    private static void assertEstimated(long exp, long actual) {
+        assertTrue("expected " + exp + ", actual " + actual, Math.abs(actual - exp) <= exp / 8);
+    }
+}
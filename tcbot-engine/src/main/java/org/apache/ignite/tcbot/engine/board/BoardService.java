@@ -19,7 +19,6 @@ package org.apache.ignite.tcbot.engine.board;
 import com.google.common.base.Preconditions;
 import com.google.common.base.Strings;
 import java.util.Collection;
-import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -225,6 +224,11 @@ public class BoardService {
                     status = IssueResolveStatus.IGNORED;
                 else if (test.isMutedTest())
                     status = IssueResolveStatus.TC_MUTED;
+                else if (test.isFailedTest(compactor) && tcIgn.isMuted(rebuild.get().projectId(compactor),
+                    issue.testNameCid(), rebuild.get().buildTypeId(), rebuild.get().projectId())) {
+                    // Test was muted on TeamCity for this suite after the latest run.
+                    status = IssueResolveStatus.TC_MUTED;
+                }
                 else if (IssueType.newTestWithHighFlakyRate.code().equals(issueType)) {
                     int fullSuiteNameAndFullTestName = issue.testNameCid();
 
@@ -235,17 +239,18 @@ public class BoardService {
                     if (runStat == null)
                         status = IssueResolveStatus.UNKNOWN;
                     else {
-                        List<Integer> runResults = runStat.getLatestRunResults();
+                        int[] runResults = runStat.getLatestRunStatuses();
                         if (runResults == null)
                             status = IssueResolveStatus.UNKNOWN;
                         else {
                             int confidenceOkTestsRow = Math.max(1,
                                 (int) Math.ceil(Math.log(1 - cfg.confidence()) / Math.log(1 - issue.getFlakyRate() / 100.0)));
-                            Collections.reverse(runResults);
                             int okTestRow = 0;
 
-                            for (Integer run : runResults) {
-                                if (run == null || run == RES_MISSING.getCode())
+                            for (int i = runResults.length - 1; i >= 0; i--) {
+                                int run = runResults[i];
+
+                                if (run == RES_MISSING.getCode())
                                     continue;
                                 if (run == RES_OK.getCode() && (okTestRow < confidenceOkTestsRow))
                                     okTestRow++;
@@ -41,6 +41,7 @@ import javax.annotation.Nullable;
 import javax.inject.Inject;
 import org.apache.ignite.ci.teamcity.ignited.BuildRefCompacted;
 import org.apache.ignite.ci.teamcity.ignited.buildtype.ParametersCompacted;
+import org.apache.ignite.ci.teamcity.ignited.change.ChangeCompacted;
 import org.apache.ignite.ci.teamcity.ignited.fatbuild.FatBuildCompacted;
 import org.apache.ignite.ci.teamcity.ignited.runhist.Invocation;
 import org.apache.ignite.tcbot.common.interceptor.AutoProfiling;
@@ -185,6 +186,16 @@ public class BuildChainProcessor {
             }
         );
 
+        // Changes are often shared by suites of the chain, so they are loaded once for all builds.
+        int[] chainChangeIds = freshRebuilds.values().stream()
+            .flatMap(listBuilds -> FutureUtil.getResults(listBuilds))
+            .filter(buildCompacted -> !buildCompacted.isFakeStub())
+            .flatMapToInt(buildCompacted -> IntStream.of(buildCompacted.changes()))
+            .distinct()
+            .toArray();
+
+        Map<Integer, ChangeCompacted> chainChanges = tcIgn.getChanges(chainChangeIds);
+
         List<MultBuildRunCtx> contexts = new ArrayList<>(freshRebuilds.size());
 
         freshRebuilds.forEach((bt, listBuilds) -> {
@@ -199,7 +210,7 @@ public class BuildChainProcessor {
 
             final MultBuildRunCtx ctx = new MultBuildRunCtx(ref, compactor);
 
-            buildsForSuite.forEach(buildCompacted -> ctx.addBuild(loadChanges(buildCompacted, tcIgn)));
+            buildsForSuite.forEach(buildCompacted -> ctx.addBuild(loadChanges(buildCompacted, tcIgn, chainChanges)));
 
             //ask for history for the suite in parallel
             tcUpdatePool.getService().submit(() -> {
@@ -308,9 +319,29 @@ public class BuildChainProcessor {
      */
     public SingleBuildRunCtx loadChanges(@Nonnull FatBuildCompacted buildCompacted,
         ITeamcityIgnited tcIgnited) {
+        return loadChanges(buildCompacted, tcIgnited, tcIgnited.getChanges(buildCompacted.changes()));
+    }
+
+    /**
+     * @param buildCompacted Build ref from history with references to tests.
+     * @param tcIgnited TC connection.
+     * @param changes Changes preloaded: Change ID -> change, should contain all changes of the build.
+     * @return Full context.
+     */
+    private SingleBuildRunCtx loadChanges(@Nonnull FatBuildCompacted buildCompacted,
+        ITeamcityIgnited tcIgnited, Map<Integer, ChangeCompacted> changes) {
         SingleBuildRunCtx ctx = new SingleBuildRunCtx(buildCompacted, compactor);
 
-        ctx.setChanges(tcIgnited.getAllChanges(buildCompacted.changes()));
+        List<ChangeCompacted> buildChanges = new ArrayList<>();
+
+        for (int changeId : buildCompacted.changes()) {
+            ChangeCompacted change = changes.get(changeId);
+
+            if (change != null)
+                buildChanges.add(change);
+        }
+
+        ctx.setChanges(buildChanges);
 
         ctx.addTags(SingleBuildRunCtx.getBuildTagsFromParameters(tcIgnited.config(), compactor, buildCompacted));
 
@@ -243,14 +243,7 @@ public class SingleBuildRunCtx implements ISuiteResults {
      * @return Full run time required to run tests.
      */
     public long testsDuration() {
-        return getAllTests()
-            .mapToLong(t -> {
-                Integer duration = t.getDuration();
-                if (duration == null)
-                    return 0;
-
-                return duration;
-            }).sum();
+        return isComposite() ? 0 : buildCompacted.testsDuration();
     }
 
     public void addTag(@Nullable String lb) {
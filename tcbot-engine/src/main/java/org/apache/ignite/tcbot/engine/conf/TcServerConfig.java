@@ -27,6 +27,7 @@ import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import org.apache.ignite.tcbot.common.conf.IBuildParameterSpec;
 import org.apache.ignite.tcbot.common.conf.ITcServerConfig;
+import org.apache.ignite.tcbot.common.util.HttpTransport;
 
 /**
  * Teamcity connection configuration or reference to another config.
@@ -76,6 +77,15 @@ public class TcServerConfig implements ITcServerConfig {
     /** Time as auto-triggering build is enabled. {@link DateTimeFormatter.ISO_LOCAL_TIME} must be used. */
     @Nullable private String autoTriggeringBuildDisabledEndTime;
 
+    /** HTTP connect timeout, milliseconds. */
+    @Nullable private Integer httpConnectTimeoutMs;
+
+    /** HTTP response timeout, milliseconds. */
+    @Nullable private Integer httpReadTimeoutMs;
+
+    /** Max HTTP requests concurrently sent to server. */
+    @Nullable private Integer httpMaxConcurrentRequests;
+
     public TcServerConfig() {
 
     }
@@ -181,4 +191,25 @@ public class TcServerConfig implements ITcServerConfig {
     public String autoTriggeringBuildDisabledEndTime() {
         return autoTriggeringBuildDisabledEndTime;
     }
+
+    /** {@inheritDoc} */
+    @Override public int httpConnectTimeoutMs() {
+        return httpConnectTimeoutMs != null && httpConnectTimeoutMs > 0
+            ? httpConnectTimeoutMs
+            : HttpTransport.DFLT_TIMEOUT_MS;
+    }
+
+    /** {@inheritDoc} */
+    @Override public int httpReadTimeoutMs() {
+        return httpReadTimeoutMs != null && httpReadTimeoutMs > 0
+            ? httpReadTimeoutMs
+            : HttpTransport.DFLT_TIMEOUT_MS;
+    }
+
+    /** {@inheritDoc} */
+    @Override public int httpMaxConcurrentRequests() {
+        return httpMaxConcurrentRequests != null && httpMaxConcurrentRequests > 0
+            ? httpMaxConcurrentRequests
+            : HttpTransport.DFLT_MAX_CONCURRENT;
+    }
 }
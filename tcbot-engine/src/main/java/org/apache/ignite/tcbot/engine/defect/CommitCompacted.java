@@ -16,6 +16,7 @@
  */
 package org.apache.ignite.tcbot.engine.defect;
 
+import com.google.common.hash.Hasher;
 import java.util.Arrays;
 import org.apache.ignite.tcbot.persistence.Persisted;
 
@@ -43,6 +44,16 @@ public class CommitCompacted implements Comparable<CommitCompacted> {
         return Arrays.hashCode(data);
     }
 
+    /**
+     * @param hasher Hasher to put commit data into.
+     */
+    public void hashTo(Hasher hasher) {
+        if (data == null)
+            hasher.putInt(-1);
+        else
+            hasher.putInt(data.length).putBytes(data);
+    }
+
     /** {@inheritDoc} */
     @Override public int compareTo(CommitCompacted o) {
         return compare(data, o.data);
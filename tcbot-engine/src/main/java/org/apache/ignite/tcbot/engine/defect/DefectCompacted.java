@@ -76,6 +76,13 @@ public class DefectCompacted {
         return commits.equals(collect);
     }
 
+    /**
+     * @return Commits, sorted.
+     */
+    public List<CommitCompacted> commits() {
+        return Collections.unmodifiableList(commits);
+    }
+
     /**
      * @param collect Collected commits, should be sorted.
      */
@@ -96,6 +103,13 @@ public class DefectCompacted {
         return revisions.equals(collect);
     }
 
+    /**
+     * @return Revisions, sorted.
+     */
+    public List<CommitCompacted> revisions() {
+        return revisions == null ? Collections.emptyList() : Collections.unmodifiableList(revisions);
+    }
+
     /**
      * @param collect Collected revisions, should be sorted.
      */
@@ -17,12 +17,21 @@
 package org.apache.ignite.tcbot.engine.defect;
 
 import com.google.common.base.Preconditions;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
 import java.util.function.BiFunction;
+import java.util.function.Predicate;
+import java.util.stream.IntStream;
+import javax.annotation.Nullable;
 import javax.annotation.concurrent.NotThreadSafe;
 import javax.cache.Cache;
 import javax.inject.Inject;
@@ -40,8 +49,11 @@ import org.apache.ignite.ci.teamcity.ignited.change.RevisionCompacted;
 import org.apache.ignite.ci.teamcity.ignited.fatbuild.FatBuildCompacted;
 import org.apache.ignite.configuration.CacheConfiguration;
 import org.apache.ignite.tcbot.persistence.CacheConfigs;
+import org.apache.ignite.transactions.Transaction;
 
 import static java.util.stream.Collectors.toList;
+import static org.apache.ignite.transactions.TransactionConcurrency.PESSIMISTIC;
+import static org.apache.ignite.transactions.TransactionIsolation.REPEATABLE_READ;
 
 @NotThreadSafe
 public class DefectsStorage {
@@ -49,12 +61,25 @@ public class DefectsStorage {
     public static final String BOT_DETECTED_DEFECTS = "botDetectedDefects";
     /** Bot detected defects sequence. */
     public static final String BOT_DETECTED_DEFECTS_SEQ = "botDetectedDefectsSeq";
+    /** Bot detected defects index: hash of build, commits or revisions -> IDs of defects. */
+    public static final String BOT_DETECTED_DEFECTS_IDX = "botDetectedDefectsIdx";
+
+    /** Index key type: build ID. */
+    private static final byte IDX_BUILD = 1;
+    /** Index key type: commits of open defect. */
+    private static final byte IDX_COMMITS = 2;
+    /** Index key type: revisions of open defect. */
+    private static final byte IDX_REVISIONS = 3;
+    /** Index key marking index was filled for all defects. */
+    private static final long IDX_FILLED_KEY = 0L;
 
     @Inject
     private Provider<Ignite> igniteProvider;
     @Inject
     private ChangeDao changeDao;
 
+    /** Index was checked to be filled for existing defects. */
+    private boolean idxFilled;
 
     public DefectsStorage() {
     }
@@ -67,6 +92,10 @@ public class DefectsStorage {
         return botDetectedIssuesCache(getIgnite());
     }
 
+    private IgniteCache<Long, int[]> idxCache() {
+        return getIgnite().getOrCreateCache(CacheConfigs.getCacheV2TxConfig(BOT_DETECTED_DEFECTS_IDX));
+    }
+
     private Ignite getIgnite() {
         return igniteProvider.get();
     }
@@ -87,17 +116,13 @@ public class DefectsStorage {
 
         IgniteCache<Integer, DefectCompacted> cache = cache();
 
-        try (QueryCursor<Cache.Entry<Integer, DefectCompacted>> qry = cache.query(new ScanQuery<Integer, DefectCompacted>()
-            .setFilter((k, v) -> v.tcSrvId() == srvId))) {
-            //here we ignore if issue was resolved or not because defect can be already resolved,
-            // and if this(resolved) defect contains same build ID, as we've used earlier, no reason to open new defect for it.
-            for (Cache.Entry<Integer, DefectCompacted> next : qry) {
-                DefectCompacted openDefect = next.getValue();
+        //here we ignore if issue was resolved or not because defect can be already resolved,
+        // and if this(resolved) defect contains same build ID, as we've used earlier, no reason to open new defect for it.
+        DefectCompacted withBuild = findIndexed(buildKey(srvId, fatBuild.id()),
+            defect -> defect.tcSrvId() == srvId && defect.hasBuild(fatBuild.id()));
 
-                if (openDefect.hasBuild(fatBuild.id()))
-                    return processExisting(function, cache, next.getKey(), openDefect);
-            }
-        }
+        if (withBuild != null)
+            return processExisting(function, cache, withBuild.id(), withBuild);
 
         int[] changes = fatBuild.changes();
         Map<Integer, ChangeCompacted> changeList = changeDao.getAll(srvId, changes);
@@ -111,15 +136,12 @@ public class DefectsStorage {
             .collect(toList());
 
         if (!commitsToUse.isEmpty()) {
-            try (QueryCursor<Cache.Entry<Integer, DefectCompacted>> qry = cache.query(new ScanQuery<Integer, DefectCompacted>()
-                .setFilter((k, v) -> v.resolvedByUsernameId() < 1 && v.tcSrvId() == srvId))) {
-                for (Cache.Entry<Integer, DefectCompacted> next : qry) {
-                    DefectCompacted openDefect = next.getValue();
+            DefectCompacted openDefect = findIndexed(commitsKey(IDX_COMMITS, srvId, commitsToUse),
+                defect -> defect.resolvedByUsernameId() < 1 && defect.tcSrvId() == srvId
+                    && defect.sameCommits(commitsToUse));
 
-                    if (openDefect.sameCommits(commitsToUse))
-                        return processExisting(function, cache, next.getKey(), openDefect);
-                }
-            }
+            if (openDefect != null)
+                return processExisting(function, cache, openDefect.id(), openDefect);
         }
 
         List<RevisionCompacted> buildRevisions = fatBuild.revisions();
@@ -134,15 +156,12 @@ public class DefectsStorage {
             .collect(toList());
 
         if (commitsToUse.isEmpty() && !buildRevisions.isEmpty()) {
-            try (QueryCursor<Cache.Entry<Integer, DefectCompacted>> qry = cache.query(new ScanQuery<Integer, DefectCompacted>()
-                .setFilter((k, v) -> v.resolvedByUsernameId() < 1 && v.tcSrvId() == srvId))) {
-                for (Cache.Entry<Integer, DefectCompacted> next : qry) {
-                    DefectCompacted openDefect = next.getValue();
+            DefectCompacted openDefect = findIndexed(commitsKey(IDX_REVISIONS, srvId, revisionsToUse),
+                defect -> defect.resolvedByUsernameId() < 1 && defect.tcSrvId() == srvId
+                    && defect.sameRevisions(revisionsToUse));
 
-                    if (openDefect.sameRevisions(revisionsToUse))
-                        return processExisting(function, cache, next.getKey(), openDefect);
-                }
-            }
+            if (openDefect != null)
+                return processExisting(function, cache, openDefect.id(), openDefect);
         }
 
         int id = (int)sequence().incrementAndGet();
@@ -159,11 +178,173 @@ public class DefectsStorage {
 
         DefectCompacted defectT = function.apply(id, defect);
 
-        boolean putSuccess = cache.putIfAbsent(id, defectT);
+        defectT.id(id);
+
+        saveIndexed(id, defectT);
 
         return defectT;
     }
 
+    /**
+     * @param idxKey Index key.
+     * @param filter Filter to check defect actually matches, index keys are hashes.
+     * @return Defect having lowest ID among matching or {@code null}.
+     */
+    @Nullable private DefectCompacted findIndexed(long idxKey, Predicate<DefectCompacted> filter) {
+        ensureIndexFilled();
+
+        int[] ids = idxCache().get(idxKey);
+
+        if (ids == null || ids.length == 0)
+            return null;
+
+        Set<Integer> keys = new TreeSet<>();
+
+        for (int id : ids)
+            keys.add(id);
+
+        Map<Integer, DefectCompacted> defects = cache().getAll(keys);
+
+        for (Integer id : keys) {
+            DefectCompacted defect = defects.get(id);
+
+            if (defect == null)
+                continue;
+
+            defect.id(id);
+
+            if (filter.test(defect))
+                return defect;
+        }
+
+        return null;
+    }
+
+    /**
+     * Saves or removes defect and updates index entries in one transaction.
+     *
+     * @param id Defect ID.
+     * @param defect Defect to save, {@code null} means removal.
+     */
+    private void saveIndexed(int id, @Nullable DefectCompacted defect) {
+        ensureIndexFilled();
+
+        IgniteCache<Integer, DefectCompacted> cache = cache();
+        IgniteCache<Long, int[]> idx = idxCache();
+
+        try (Transaction tx = getIgnite().transactions().txStart(PESSIMISTIC, REPEATABLE_READ)) {
+            DefectCompacted old = cache.get(id);
+
+            if (defect != null)
+                cache.put(id, defect);
+            else if (old != null)
+                cache.remove(id);
+
+            Set<Long> oldKeys = old == null ? Collections.emptySet() : indexKeys(old);
+            Set<Long> newKeys = defect == null ? Collections.emptySet() : indexKeys(defect);
+
+            Set<Long> changedKeys = new TreeSet<>(oldKeys);
+            changedKeys.addAll(newKeys);
+            changedKeys.removeIf(k -> oldKeys.contains(k) && newKeys.contains(k));
+
+            if (!changedKeys.isEmpty()) {
+                Map<Long, int[]> cur = idx.getAll(changedKeys);
+
+                for (Long key : changedKeys) {
+                    int[] ids = cur.get(key);
+                    IntStream others = ids == null ? IntStream.empty() : IntStream.of(ids).filter(i -> i != id);
+
+                    int[] updated = newKeys.contains(key)
+                        ? IntStream.concat(others, IntStream.of(id)).toArray()
+                        : others.toArray();
+
+                    if (updated.length == 0)
+                        idx.remove(key);
+                    else
+                        idx.put(key, updated);
+                }
+            }
+
+            tx.commit();
+        }
+    }
+
+    /**
+     * Fills index for defects saved before the index was introduced.
+     */
+    private void ensureIndexFilled() {
+        if (idxFilled)
+            return;
+
+        IgniteCache<Long, int[]> idx = idxCache();
+
+        if (!idx.containsKey(IDX_FILLED_KEY)) {
+            Map<Long, Set<Integer>> idsByKey = new HashMap<>();
+
+            cache().forEach(entry -> indexKeys(entry.getValue())
+                .forEach(k -> idsByKey.computeIfAbsent(k, k0 -> new HashSet<>()).add(entry.getKey())));
+
+            Map<Long, int[]> data = new HashMap<>();
+
+            idsByKey.forEach((k, ids) -> data.put(k, ids.stream().mapToInt(Integer::intValue).toArray()));
+
+            idx.putAll(data);
+            idx.put(IDX_FILLED_KEY, new int[0]);
+        }
+
+        idxFilled = true;
+    }
+
+    /**
+     * @param defect Defect.
+     * @return Keys of index entries to reference defect: builds involved, commits and revisions for open defect.
+     */
+    private static Set<Long> indexKeys(DefectCompacted defect) {
+        Set<Long> res = new HashSet<>();
+        int srvId = defect.tcSrvId();
+
+        for (Integer buildId : defect.buildsInvolved().keySet())
+            res.add(buildKey(srvId, buildId));
+
+        if (defect.resolvedByUsernameId() < 1) {
+            if (!defect.commits().isEmpty())
+                res.add(commitsKey(IDX_COMMITS, srvId, defect.commits()));
+
+            if (!defect.revisions().isEmpty())
+                res.add(commitsKey(IDX_REVISIONS, srvId, defect.revisions()));
+        }
+
+        return res;
+    }
+
+    /**
+     * @param srvId Server ID.
+     * @param buildId Build ID.
+     */
+    private static long buildKey(int srvId, int buildId) {
+        return Hashing.murmur3_128().newHasher()
+            .putByte(IDX_BUILD)
+            .putInt(srvId)
+            .putInt(buildId)
+            .hash().asLong();
+    }
+
+    /**
+     * @param type Index key type.
+     * @param srvId Server ID.
+     * @param commits Sorted commits or revisions.
+     */
+    private static long commitsKey(byte type, int srvId, List<CommitCompacted> commits) {
+        Hasher hasher = Hashing.murmur3_128().newHasher()
+            .putByte(type)
+            .putInt(srvId)
+            .putInt(commits.size());
+
+        commits.forEach(c -> c.hashTo(hasher));
+
+        return hasher.hash().asLong();
+    }
+
     public DefectCompacted processExisting(BiFunction<Integer, DefectCompacted, DefectCompacted> function,
                                            IgniteCache<Integer, DefectCompacted> cache, Integer id, DefectCompacted openDefect) {
         DefectCompacted defect = function.apply(id, openDefect);
@@ -201,7 +382,7 @@ public class DefectsStorage {
 
     public void save(DefectCompacted defect) {
         Preconditions.checkState(defect.id() != 0);
-        cache().put(defect.id(), defect);
+        saveIndexed(defect.id(), defect);
     }
 
     public void checkIfPossibleToRemove(Map<Integer, List<Integer>> oldBuildsTeamCityAndBuildIds) {
@@ -227,7 +408,7 @@ public class DefectsStorage {
                     .map(build -> build.build().id()).collect(toList());
 
                 if (defectBuildIds.stream().anyMatch(buildIdsToRemove::contains))
-                    cache().remove(entry.getKey());
+                    saveIndexed(entry.getKey(), null);
             });
         });
     }
@@ -249,7 +430,7 @@ public class DefectsStorage {
         for (Cache.Entry<Integer, BinaryObject> entry : cacheWithBinary.query(scan)) {
             if (numOfItemsToDel > 0) {
                 numOfItemsToDel--;
-                cacheWithBinary.remove(entry.getKey());
+                saveIndexed(entry.getKey(), null);
             }
             else
                 break;
@@ -0,0 +1,127 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.ignite.tcbot.engine.pool;
+
+import com.google.common.base.Preconditions;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import org.apache.ignite.tcbot.common.exeption.ExceptionUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Pool for processing independent build chains concurrently. Each server has its own bulkhead: limited count of threads,
+ * so slow server does not delay chains of other servers.
+ */
+public class ChainFanOutPool {
+    /** Logger. */
+    private static final Logger logger = LoggerFactory.getLogger(ChainFanOutPool.class);
+
+    /** Max chains processed concurrently for one server. */
+    public static final int MAX_CHAINS_PER_SERVER = 4;
+
+    /** Thread factory. */
+    private final ThreadFactory threadFactory = Executors.defaultThreadFactory();
+
+    /** Server code -> executor of chains of this server. */
+    private final ConcurrentMap<String, ExecutorService> bulkheads = new ConcurrentHashMap<>();
+
+    /**
+     * Runs tasks concurrently and waits for its completion until deadline. Tasks not completed before deadline are not
+     * interrupted, these continue in background.
+     *
+     * @param srvCodes Server code of each task.
+     * @param tasks Tasks.
+     * @param timeoutMs Time to wait for all tasks, milliseconds.
+     * @return Results in order of tasks, {@code null} for tasks not completed before deadline.
+     */
+    public <T> List<T> invokeAll(List<String> srvCodes, List<? extends Callable<T>> tasks, long timeoutMs) {
+        Preconditions.checkArgument(srvCodes.size() == tasks.size(), "Server code is required for each task");
+
+        long deadlineNs = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+
+        List<Future<T>> futs = new ArrayList<>(tasks.size());
+
+        for (int i = 0; i < tasks.size(); i++)
+            futs.add(bulkhead(srvCodes.get(i)).submit(tasks.get(i)));
+
+        List<T> res = new ArrayList<>(futs.size());
+
+        for (int i = 0; i < futs.size(); i++) {
+            try {
+                res.add(futs.get(i).get(Math.max(deadlineNs - System.nanoTime(), 0), TimeUnit.NANOSECONDS));
+            }
+            catch (TimeoutException e) {
+                logger.warn("Chain processing was not completed in " + timeoutMs + "ms, server " + srvCodes.get(i));
+
+                res.add(null);
+            }
+            catch (InterruptedException | ExecutionException e) {
+                throw ExceptionUtil.propagateException(e);
+            }
+        }
+
+        return res;
+    }
+
+    /**
+     * @param srvCode Server code.
+     */
+    private ExecutorService bulkhead(String srvCode) {
+        return bulkheads.computeIfAbsent(srvCode, code -> {
+            ThreadPoolExecutor executor = new ThreadPoolExecutor(MAX_CHAINS_PER_SERVER, MAX_CHAINS_PER_SERVER,
+                60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), r -> {
+                Thread thread = threadFactory.newThread(r);
+
+                thread.setName("tc-chain-" + code + "-" + thread.getName());
+
+                return thread;
+            });
+
+            executor.allowCoreThreadTimeOut(true);
+
+            return executor;
+        });
+    }
+
+    /**
+     * Stops all executors.
+     */
+    public void stop() {
+        bulkheads.values().forEach(ExecutorService::shutdown);
+
+        try {
+            for (ExecutorService executor : bulkheads.values())
+                executor.awaitTermination(10, TimeUnit.SECONDS);
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -18,14 +18,13 @@
 package org.apache.ignite.tcbot.engine.pr;
 
 import com.google.common.base.Strings;
-import java.util.Collection;
-import java.util.Objects;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import javax.inject.Inject;
 import org.apache.ignite.ci.github.PullRequest;
 import org.apache.ignite.githubignited.IGitHubConnIgnitedProvider;
 import org.apache.ignite.githubservice.IGitHubConnection;
+import org.apache.ignite.jiraignited.IJiraIgnited;
 import org.apache.ignite.jiraignited.IJiraIgnitedProvider;
 import org.apache.ignite.jiraservice.Ticket;
 import org.apache.ignite.tcbot.common.conf.IGitHubConfig;
@@ -85,11 +84,11 @@ public class BranchTicketMatcher {
     }
 
     /**
-     * @param tickets Tickets.
+     * @param jiraIgn Jira.
      * @param jiraCfg Jira config.
      * @param prTitle
      */
-    @Nullable public Ticket resolveTicketIdForPrBasedContrib(Collection<Ticket> tickets,
+    @Nullable public Ticket resolveTicketIdForPrBasedContrib(IJiraIgnited jiraIgn,
         IJiraServerConfig jiraCfg, String prTitle) {
         String branchNumPrefix = jiraCfg.branchNumPrefix();
 
@@ -99,10 +98,9 @@ public class BranchTicketMatcher {
 
             final String ticketKey = findFixPrefixedNumber(prTitle, jiraPrefix);
 
-            return tickets.stream()
-                .filter(t -> Objects.equals(t.key, ticketKey))
-                .findFirst()
-                .orElseGet(() -> new Ticket(ticketKey));
+            Ticket ticket = jiraIgn.getTicket(ticketKey);
+
+            return ticket != null ? ticket : new Ticket(ticketKey);
         }
 
         String branchNum = findFixPrefixedNumber(prTitle, branchNumPrefix);
@@ -110,7 +108,7 @@ public class BranchTicketMatcher {
         if (branchNum == null) // PR does not mention
             return null;
 
-        return findTicketMentions(tickets, branchNum);
+        return findTicketMentions(jiraIgn, branchNum);
     }
 
     /**
@@ -118,56 +116,30 @@ public class BranchTicketMatcher {
      * @param branchNum Branch number to be checked.
      */
     @SuppressWarnings("WeakerAccess")
-    @GuavaCached(maximumSize = 3000, expireAfterWriteSecs = 60, cacheNullRval = true)
+    @GuavaCached(maximumSize = 3000, expireAfterWriteSecs = 60, refreshAfterWriteSecs = 45, cacheNullRval = true)
     @Nullable
     protected Ticket findTicketMentions(String srvCode, @Nullable String branchNum) {
-        return findTicketMentions(jiraIgnProv.server(srvCode).getTickets(), branchNum);
+        return findTicketMentions(jiraIgnProv.server(srvCode), branchNum);
     }
 
     /**
-     * @param tickets Tickets.
+     * @param jiraIgn Jira.
      * @param branchNum Branch number to be checked.
      */
-    @Nullable private Ticket findTicketMentions(Collection<Ticket> tickets, @Nullable String branchNum) {
+    @Nullable private Ticket findTicketMentions(IJiraIgnited jiraIgn, @Nullable String branchNum) {
         if (Strings.isNullOrEmpty(branchNum))
             return null;
 
-        return tickets.stream()
-            .filter(t -> Objects.equals(t.key, branchNum))
-            .findFirst()
-            .orElseGet(() -> findTicketMentionsInSupplementaryFields(tickets, branchNum));
-    }
+        Ticket ticket = jiraIgn.getTicket(branchNum);
 
-    /**
-     * @param tickets Tickets.
-     * @param branchNum Branch number to be checked.
-     */
-    @Nullable private Ticket findTicketMentionsInSupplementaryFields(Collection<Ticket> tickets, String branchNum) {
-        if (Strings.isNullOrEmpty(branchNum))
-            return null;
+        if (ticket != null)
+            return ticket;
 
-        return tickets.stream()
-            .filter(t -> mentionsBranch(branchNum, t))
+        return jiraIgn.getTicketsMentioning(branchNum).stream()
             .findFirst()
             .orElse(null);
     }
 
-    /**
-     * @param branchName Full branch name in jira.
-     * @param ticket Ticket.
-     */
-    private boolean mentionsBranch(String branchName, Ticket ticket) {
-        String summary = ticket.fields.summary;
-        if (summary != null && summary.contains(branchName))
-            return true;
-
-        String val = ticket.fields.customfield_11050;
-        if (val != null && val.contains(branchName))
-            return true;
-
-        return false;
-    }
-
     @Nullable private String findFixPrefixedNoInValues(@Nonnull String prefix, String... values) {
         for (String value : values) {
             String fixPrefixedNum = findFixPrefixedNumber(value, prefix);
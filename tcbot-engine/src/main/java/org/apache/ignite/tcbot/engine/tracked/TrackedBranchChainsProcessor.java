@@ -18,13 +18,17 @@ package org.apache.ignite.tcbot.engine.tracked;
 
 import com.google.common.base.Strings;
 import java.time.Duration;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 import javax.annotation.Nonnull;
@@ -43,6 +47,7 @@ import org.apache.ignite.tcbot.engine.chain.SortOption;
 import org.apache.ignite.tcbot.engine.conf.ITcBotConfig;
 import org.apache.ignite.tcbot.engine.conf.ITrackedBranch;
 import org.apache.ignite.tcbot.engine.conf.ITrackedChain;
+import org.apache.ignite.tcbot.engine.pool.ChainFanOutPool;
 import org.apache.ignite.tcbot.engine.ui.DsChainUi;
 import org.apache.ignite.tcbot.engine.ui.DsSummaryUi;
 import org.apache.ignite.tcbot.engine.ui.GuardBranchStatusUi;
@@ -61,6 +66,9 @@ import static com.google.common.base.Strings.isNullOrEmpty;
  * Process failures for some setup tracked branch, which may be triggered/monitored by TC Bot.
  */
 public class TrackedBranchChainsProcessor implements IDetailedStatusForTrackedBranch {
+    /** Time to wait for all chains of tracked branch, chains not processed in time are reported without results. */
+    public static final int CHAINS_TIMEOUT_SEC = 120;
+
     /** TC ignited server provider. */
     @Inject private ITeamcityIgnitedProvider tcIgnitedProv;
 
@@ -78,6 +86,9 @@ public class TrackedBranchChainsProcessor implements IDetailedStatusForTrackedBr
     /** Update Counters for branch-related changes storage. */
     @Inject private UpdateCountersStorage countersStorage;
 
+    /** Pool for processing chains concurrently. */
+    @Inject private ChainFanOutPool chainFanOutPool;
+
     /** {@inheritDoc} */
     @AutoProfiling
     @Nonnull
@@ -102,9 +113,12 @@ public class TrackedBranchChainsProcessor implements IDetailedStatusForTrackedBr
 
         final ITrackedBranch tracked = tcBotCfg.getTrackedBranches().getBranchMandatory(branchNn);
 
-        tracked.chainsStream()
+        List<ITrackedChain> trackedChains = tracked.chainsStream()
             .filter(chainTracked -> tcIgnitedProv.hasAccess(chainTracked.serverCode(), creds))
-            .map(chainTracked -> {
+            .collect(Collectors.toList());
+
+        List<Callable<DsChainUi>> tasks = trackedChains.stream()
+            .map(chainTracked -> (Callable<DsChainUi>)() -> {
                 final String srvCodeOrAlias = chainTracked.serverCode();
 
                 final String branchForTc = chainTracked.tcBranch();
@@ -159,8 +173,20 @@ public class TrackedBranchChainsProcessor implements IDetailedStatusForTrackedBr
 
                 return chainStatus;
             })
-            .forEach(res::addChainOnServer);
+            .collect(Collectors.toList());
+
+        List<String> srvCodes = trackedChains.stream().map(ITrackedChain::serverCode).collect(Collectors.toList());
 
+        List<DsChainUi> chainStatuses = chainFanOutPool.invokeAll(srvCodes, tasks,
+            TimeUnit.SECONDS.toMillis(CHAINS_TIMEOUT_SEC));
+
+        for (int i = 0; i < trackedChains.size(); i++) {
+            DsChainUi chainStatus = chainStatuses.get(i);
+
+            res.addChainOnServer(chainStatus != null ? chainStatus : timedOutChainStatus(trackedChains.get(i), creds));
+        }
+
+        // Sorting is stable, so chains of the same server are kept in order of configuration.
         res.servers.sort(Comparator.comparing(DsChainUi::serverName));
 
         res.initCounters(getTrackedBranchUpdateCounters(branch, creds));
@@ -168,6 +194,25 @@ public class TrackedBranchChainsProcessor implements IDetailedStatusForTrackedBr
         return res;
     }
 
+    /**
+     * @param chainTracked Chain which was not processed in time.
+     * @param creds Credentials.
+     * @return Chain status without results.
+     */
+    private DsChainUi timedOutChainStatus(ITrackedChain chainTracked, ICredentialsProv creds) {
+        String srvCodeOrAlias = chainTracked.serverCode();
+        String branchForTc = chainTracked.tcBranch();
+
+        DsChainUi chainStatus = new DsChainUi(srvCodeOrAlias,
+            tcIgnitedProv.server(srvCodeOrAlias, creds).serverCode(),
+            branchForTc);
+
+        chainStatus.baseBranchForTc = chainTracked.tcBaseBranch().orElse(branchForTc);
+        chainStatus.suiteId = chainTracked.tcSuiteId();
+
+        return chainStatus.setTimedOut(true);
+    }
+
     public Map<Integer, Integer> reverseTagToParametersRequired(@Nullable String tagForHistSelected,
         String srvCodeOrAlias) {
 
@@ -213,11 +258,11 @@ public class TrackedBranchChainsProcessor implements IDetailedStatusForTrackedBr
 
             List<BuildRefCompacted> hist = tcIgn.getAllBuildsCompacted(chain.tcSuiteId(), chain.tcBranch());
 
-            AtomicInteger finished = new AtomicInteger();
             AtomicInteger running = new AtomicInteger();
             AtomicInteger queued = new AtomicInteger();
+            Integer borderId = tcIgn.getBorderForAgeForBuildId(ageDays);
 
-            hist.stream()
+            int[] finishedIds = hist.stream()
                 .filter(ref -> !ref.isFakeStub())
                 .filter(t -> !t.isCancelled(compactor))
                 .peek(ref -> {
@@ -227,20 +272,18 @@ public class TrackedBranchChainsProcessor implements IDetailedStatusForTrackedBr
                         queued.incrementAndGet();
                 })
                 .filter(ref -> ref.isFinished(compactor))
-                .filter(ref -> {
-                    Integer borderId = tcIgn.getBorderForAgeForBuildId(ageDays);
-                    return borderId == null || ref.id() >= borderId;
-                })
-                .filter(ref -> {
-                    Long startTime = tcIgn.getBuildStartTime(ref.id());
+                .filter(ref -> borderId == null || ref.id() >= borderId)
+                .mapToInt(BuildRefCompacted::id)
+                .toArray();
 
-                    return startTime != null && startTime > minStartTime;
-                })
-                .forEach(ref -> {
-                    finished.incrementAndGet();
-                });
+            int[] startedRecently = tcIgn.getBuildsStartedBetween(Collections.singleton(chain.tcSuiteId()),
+                chain.tcBranch(), minStartTime + 1, Long.MAX_VALUE);
+
+            int finished = (int)Arrays.stream(finishedIds)
+                .filter(id -> Arrays.binarySearch(startedRecently, id) >= 0)
+                .count();
 
-            statusUi.addSuiteRunStat(finished.get(), running.get(), queued.get());
+            statusUi.addSuiteRunStat(finished, running.get(), queued.get());
         }
 
         return statusUi;
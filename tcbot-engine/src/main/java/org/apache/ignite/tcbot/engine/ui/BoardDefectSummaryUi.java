@@ -18,6 +18,7 @@ package org.apache.ignite.tcbot.engine.ui;
 
 import com.google.common.base.Strings;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
@@ -55,9 +56,12 @@ public class BoardDefectSummaryUi {
     }
 
     public List<String> getSuites() {
-        return defect.buildsInvolved().values().stream().map(
-            b -> b.build().buildTypeName()
-        ).distinct().map(compactor::getStringFromId).collect(Collectors.toList());
+        int[] suiteIds = defect.buildsInvolved().values().stream()
+            .mapToInt(b -> b.build().buildTypeName())
+            .distinct()
+            .toArray();
+
+        return Arrays.asList(compactor.getStringsFromIds(suiteIds));
     }
 
     public String getSuitesSummary() {
@@ -137,6 +137,9 @@ public class DsChainUi {
     /** Special flag if chain entry point not found */
     public boolean buildNotFound;
 
+    /** Special flag if chain was not processed in time, results are not available. */
+    public boolean timedOut;
+
     @Nullable public String baseBranchForTc;
 
     /** Total blockers count. */
@@ -355,6 +358,7 @@ public class DsChainUi {
             return false;
         DsChainUi status = (DsChainUi)o;
         return buildNotFound == status.buildNotFound &&
+            timedOut == status.timedOut &&
             Objects.equals(chainName, status.chainName) &&
             Objects.equals(serverId, status.serverId) &&
             Objects.equals(serverCode, status.serverCode) &&
@@ -387,7 +391,7 @@ public class DsChainUi {
             ticketFullName, webToTicket, prNum, webToPr, suites, failedTests, failedToFinish, durationPrintable,
             durationNetTimePrintable,  sourceUpdateDurationPrintable, artifcactPublishingDurationPrintable,
             dependeciesResolvingDurationPrintable,  testsDurationPrintable, lostInTimeouts, topLongRunning,
-            logConsumers, buildNotFound, baseBranchForTc);
+            logConsumers, buildNotFound, timedOut, baseBranchForTc);
     }
 
     public DsChainUi setBuildNotFound(boolean buildNotFound) {
@@ -395,6 +399,11 @@ public class DsChainUi {
         return this;
     }
 
+    public DsChainUi setTimedOut(boolean timedOut) {
+        this.timedOut = timedOut;
+        return this;
+    }
+
     /** {@inheritDoc} */
     @Override public String toString() {
         StringBuilder builder = new StringBuilder();
@@ -18,6 +18,7 @@
 package org.apache.ignite.tcbot.engine.ui;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Comparator;
 import java.util.HashSet;
@@ -85,7 +86,7 @@ public class DsSuiteUi extends ShortSuiteUi {
     @Nonnull public DsHistoryStatUi criticalFails = new DsHistoryStatUi();
 
     /** Latest runs, 0,1,3 values for each run. */
-    @Nullable public List<Integer> latestRuns;
+    @Nullable public int[] latestRuns;
 
     /** TcHelperUser commits, comma separated string. */
     public String userCommits = "";
@@ -277,7 +278,7 @@ public class DsSuiteUi extends ShortSuiteUi {
             criticalFails.runs = runs;
             criticalFails.failureRate = statInBaseBranch.getCriticalFailPercentPrintable();
 
-            latestRuns = statInBaseBranch.getLatestRunResults();
+            latestRuns = statInBaseBranch.getLatestRunStatuses();
         }
 
         IRunHistory latestRunsSrc = null;
@@ -285,7 +286,7 @@ public class DsSuiteUi extends ShortSuiteUi {
             IRunHistory statForStripe = suite.history(tcIgnited, curBranchNormalized, requireParamVal);
 
             latestRunsSrc = statForStripe;
-            latestRuns = statForStripe != null ? statForStripe.getLatestRunResults() : null;
+            latestRuns = statForStripe != null ? statForStripe.getLatestRunStatuses() : null;
         }
         else
             latestRunsSrc = statInBaseBranch;
@@ -378,7 +379,7 @@ public class DsSuiteUi extends ShortSuiteUi {
             Objects.equals(suiteId, status.suiteId) &&
             Objects.equals(branchName, status.branchName) &&
             Objects.equals(criticalFails, status.criticalFails) &&
-            Objects.equals(latestRuns, status.latestRuns) &&
+            Arrays.equals(latestRuns, status.latestRuns) &&
             Objects.equals(userCommits, status.userCommits) &&
             Objects.equals(failedTests, status.failedTests) &&
             Objects.equals(durationPrintable, status.durationPrintable) &&
@@ -396,7 +397,7 @@ public class DsSuiteUi extends ShortSuiteUi {
     @Override public int hashCode() {
         return Objects.hash(super.hashCode(), name, result, hasCriticalProblem, webToHist,
             webToHistBaseBranch, webToBuild, testFailures, topLongRunning, warnOnly, logConsumers, webUrlThreadDump,
-            runningBuildCount, queuedBuildCount, serverId, suiteId, branchName, criticalFails, latestRuns,
+            runningBuildCount, queuedBuildCount, serverId, suiteId, branchName, criticalFails, Arrays.hashCode(latestRuns),
             userCommits, failedTests, durationPrintable, durationNetTimePrintable, sourceUpdateDurationPrintable,
             artifcactPublishingDurationPrintable, dependeciesResolvingDurationPrintable, testsDurationPrintable,
             lostInTimeouts, problemRef, blockerComment);
@@ -17,7 +17,7 @@
 
 package org.apache.ignite.tcbot.engine.ui;
 
-import java.util.List;
+import java.util.Arrays;
 import java.util.Objects;
 import javax.annotation.Nullable;
 import org.apache.ignite.tcignited.history.IRunHistory;
@@ -30,7 +30,7 @@ public class DsTestHistoryUi {
     public DsHistoryStatUi recent = new DsHistoryStatUi();
 
     /** Latest runs, 0,1,2 values for each run. */
-    @Nullable public List<Integer> latestRuns;
+    @Nullable public int[] latestRuns;
 
     /** Non null flaky comments means there is flakiness detected in the the branch. */
     @Nullable public String flakyComments;
@@ -43,7 +43,7 @@ public class DsTestHistoryUi {
         recent.runs = stat.getRunsCount();
         recent.failureRate = stat.getFailPercentPrintable();
 
-        latestRuns = stat.getLatestRunResults();
+        latestRuns = stat.getLatestRunStatuses();
 
         flakyComments = stat.getFlakyComments();
     }
@@ -56,12 +56,12 @@ public class DsTestHistoryUi {
             return false;
         DsTestHistoryUi hist = (DsTestHistoryUi)o;
         return Objects.equals(recent, hist.recent) &&
-            Objects.equals(latestRuns, hist.latestRuns) &&
+            Arrays.equals(latestRuns, hist.latestRuns) &&
             Objects.equals(flakyComments, hist.flakyComments);
     }
 
     /** {@inheritDoc} */
     @Override public int hashCode() {
-        return Objects.hash(recent, latestRuns, flakyComments);
+        return Objects.hash(recent, Arrays.hashCode(latestRuns), flakyComments);
     }
 }
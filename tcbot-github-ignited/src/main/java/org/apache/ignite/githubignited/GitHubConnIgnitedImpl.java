@@ -16,21 +16,29 @@
  */
 package org.apache.ignite.githubignited;
 
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
-import java.util.stream.StreamSupport;
+import javax.cache.Cache;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import javax.inject.Inject;
 import javax.inject.Provider;
 import org.apache.ignite.Ignite;
 import org.apache.ignite.IgniteCache;
+import org.apache.ignite.cache.query.QueryCursor;
+import org.apache.ignite.cache.query.ScanQuery;
 import org.apache.ignite.githubservice.IGitHubConnection;
 import org.apache.ignite.tcbot.common.interceptor.AutoProfiling;
 import org.apache.ignite.tcbot.common.interceptor.MonitoredTask;
@@ -50,6 +58,8 @@ class GitHubConnIgnitedImpl implements IGitHubConnIgnited {
     /** Logger. */
     private static final Logger logger = LoggerFactory.getLogger(GitHubConnIgnitedImpl.class);
 
+    /** Max count of outdated PRs requested concurrently. */
+    private static final int MAX_CONCURRENT_PR_REFRESH = 8;
 
     /** Server id. */
     private String srvCode;
@@ -73,6 +83,12 @@ class GitHubConnIgnitedImpl implements IGitHubConnIgnited {
     /** PPs cache. */
     private IgniteCache<GitHubBranchKey, GitHubBranchShort> branchCache;
 
+    /** Open PRs of this server: PR number -> PR, view of {@link #prCache} maintained on each save. */
+    private final Map<Integer, PullRequest> openPrs = new ConcurrentSkipListMap<>();
+
+    /** Branch names of this server, view of {@link #branchCache} maintained on each save. */
+    private final Set<String> branches = ConcurrentHashMap.newKeySet();
+
     /**
      * @param conn Connection.
      */
@@ -88,6 +104,16 @@ class GitHubConnIgnitedImpl implements IGitHubConnIgnited {
         Ignite ignite = igniteProvider.get();
         prCache = ignite.getOrCreateCache(CacheConfigs.getCache8PartsConfig(GIT_HUB_PR));
         branchCache = ignite.getOrCreateCache(CacheConfigs.getCache8PartsConfig(GIT_HUB_BRANCHES));
+
+        try (QueryCursor<Cache.Entry<Long, PullRequest>> qry = prCache.query(new ScanQuery<Long, PullRequest>()
+            .setFilter((k, v) -> k >> 32 == srvIdMaskHigh && PullRequest.OPEN.equals(v.getState())))) {
+            qry.forEach(entry -> openPrs.put(entry.getValue().getNumber(), entry.getValue()));
+        }
+
+        try (QueryCursor<Cache.Entry<GitHubBranchKey, GitHubBranchShort>> qry = branchCache.query(
+            new ScanQuery<GitHubBranchKey, GitHubBranchShort>().setFilter((k, v) -> k.srvId() == srvIdMaskHigh))) {
+            qry.forEach(entry -> branches.add(entry.getKey().branchName()));
+        }
     }
 
     /** {@inheritDoc} */
@@ -117,11 +143,7 @@ class GitHubConnIgnitedImpl implements IGitHubConnIgnited {
     @Override public List<PullRequest> getPullRequests() {
         scheduler.sheduleNamed(taskName("actualizePrs"), this::actualizePrs, 2, TimeUnit.MINUTES);
 
-        return StreamSupport.stream(prCache.spliterator(), false)
-            .filter(entry -> entry.getKey() >> 32 == srvIdMaskHigh)
-            .filter(entry -> PullRequest.OPEN.equals(entry.getValue().getState()))
-            .map(javax.cache.Cache.Entry::getValue)
-            .collect(Collectors.toList());
+        return new ArrayList<>(openPrs.values());
     }
 
     /** {@inheritDoc} */
@@ -133,11 +155,7 @@ class GitHubConnIgnitedImpl implements IGitHubConnIgnited {
                 this::actualizeBranches,
                 rescanIntervalMins, TimeUnit.MINUTES);
 
-        return StreamSupport.stream(branchCache.spliterator(), false)
-            .filter(entry -> entry.getKey().srvId() == srvIdMaskHigh)
-            .map(javax.cache.Cache.Entry::getKey)
-            .map(GitHubBranchKey::branchName)
-            .collect(Collectors.toList());
+        return new ArrayList<>(branches);
     }
 
     private void actualizeBranches() {
@@ -185,6 +203,10 @@ class GitHubConnIgnitedImpl implements IGitHubConnIgnited {
 
         int cntSaved = savePrsChunk(ghData);
         int totalChecked = ghData.size();
+
+        if (fullReindex)
+            ghData.forEach(pr -> actualPrs.add(pr.getNumber()));
+
         while (outLinkNext.get() != null) {
             String nextPageUrl = outLinkNext.get();
             ghData = conn.getPullRequestsPage(nextPageUrl, outLinkNext);
@@ -192,11 +214,8 @@ class GitHubConnIgnitedImpl implements IGitHubConnIgnited {
             cntSaved += savedThisChunk;
             totalChecked += ghData.size();
 
-            if (fullReindex) {
-                actualPrs.addAll(ghData.stream()
-                    .map(PullRequest::getNumber)
-                    .collect(Collectors.toSet()));
-            }
+            if (fullReindex)
+                ghData.forEach(pr -> actualPrs.add(pr.getNumber()));
 
             if (!fullReindex && savedThisChunk == 0)
                 break;
@@ -213,14 +232,40 @@ class GitHubConnIgnitedImpl implements IGitHubConnIgnited {
     @SuppressWarnings({"WeakerAccess", "UnusedReturnValue"})
     @MonitoredTask(name = "Check Outdated PRs(srv)", nameExtArgsIndexes = {0})
     protected String refreshOutdatedPrs(String srvId, Set<Integer> actualPrs) {
-        final long cnt = StreamSupport.stream(prCache.spliterator(), false)
-            .filter(entry -> entry.getKey() >> 32 == srvIdMaskHigh)
-            .filter(entry -> PullRequest.OPEN.equals(entry.getValue().getState()))
-            .filter(entry -> !actualPrs.contains(entry.getValue().getNumber()))
-            .peek(entry -> prCache.put(entry.getKey(), conn.getPullRequest(entry.getValue().getNumber())))
-            .count();
-
-        return "PRs updated for " + srvId + ": " + cnt + " from " + prCache.size();
+        List<Integer> outdated = openPrs.keySet().stream()
+            .filter(prNum -> !actualPrs.contains(prNum))
+            .collect(Collectors.toList());
+
+        int cnt = 0;
+
+        for (int i = 0; i < outdated.size(); i += MAX_CONCURRENT_PR_REFRESH) {
+            Map<Integer, CompletableFuture<PullRequest>> loading = new LinkedHashMap<>();
+
+            for (Integer prNum : outdated.subList(i, Math.min(i + MAX_CONCURRENT_PR_REFRESH, outdated.size())))
+                loading.put(prNum, conn.getPullRequestAsync(prNum));
+
+            List<PullRequest> loaded = new ArrayList<>();
+
+            loading.forEach((prNum, fut) -> {
+                try {
+                    loaded.add(fut.get());
+                }
+                catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+
+                    throw new IllegalStateException(e);
+                }
+                catch (ExecutionException e) {
+                    logger.error("Failed to refresh PR " + prNum + " for " + srvId + ": " + e.getCause(), e.getCause());
+                }
+            });
+
+            savePrsChunk(loaded);
+
+            cnt += loaded.size();
+        }
+
+        return "PRs updated for " + srvId + ": " + cnt + " from " + outdated.size() + " outdated";
     }
 
     /**
@@ -244,9 +289,17 @@ class GitHubConnIgnitedImpl implements IGitHubConnIgnited {
 
         int size = entriesToPut.size();
 
-        if (size != 0)
+        if (size != 0) {
             prCache.putAll(entriesToPut);
 
+            for (PullRequest pr : entriesToPut.values()) {
+                if (PullRequest.OPEN.equals(pr.getState()))
+                    openPrs.put(pr.getNumber(), pr);
+                else
+                    openPrs.remove(pr.getNumber());
+            }
+        }
+
         return size;
     }
 
@@ -266,8 +319,6 @@ class GitHubConnIgnitedImpl implements IGitHubConnIgnited {
 
         List<GitHubBranchShort> ghData = conn.getBranchesPage(null, outLinkNext);
 
-        Set<Integer> actualPrs = new HashSet<>();
-
         int cntSaved = saveBranchesChunk(ghData);
         int totalChecked = ghData.size();
         while (outLinkNext.get() != null) {
@@ -281,9 +332,6 @@ class GitHubConnIgnitedImpl implements IGitHubConnIgnited {
                 break;
         }
 
-        if (fullReindex)
-            refreshOutdatedPrs(srvId, actualPrs);
-
         return "Entries saved " + cntSaved + " Branches checked " + totalChecked;
     }
 
@@ -309,9 +357,12 @@ class GitHubConnIgnitedImpl implements IGitHubConnIgnited {
 
         int size = entriesToPut.size();
 
-        if (size != 0)
+        if (size != 0) {
             branchCache.putAll(entriesToPut);
 
+            entriesToPut.keySet().forEach(key -> branches.add(key.branchName()));
+        }
+
         return size;
     }
 
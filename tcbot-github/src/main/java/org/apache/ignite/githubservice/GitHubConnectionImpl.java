@@ -41,6 +41,7 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.StringTokenizer;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.locks.LockSupport;
@@ -116,6 +117,23 @@ class GitHubConnectionImpl implements IGitHubConnection {
         }
     }
 
+    /** {@inheritDoc} */
+    @Override public CompletableFuture<PullRequest> getPullRequestAsync(int id) {
+        String pr = getApiUrlMandatory() + "pulls/" + id;
+        String tok = config().gitAuthTok();
+
+        velocityControl(tok);
+
+        return HttpUtil.sendGetAsyncToGit(tok, pr).thenApply(is -> {
+            try (InputStreamReader reader = new InputStreamReader(is)) {
+                return new Gson().fromJson(reader, PullRequest.class);
+            }
+            catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
     /** {@inheritDoc} */
     @AutoProfiling
     @Override public boolean notifyGit(String url, String body) {
@@ -19,6 +19,7 @@ package org.apache.ignite.githubservice;
 import com.google.common.base.Strings;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.atomic.AtomicReference;
 import org.apache.ignite.ci.github.GitHubBranchShort;
 import org.apache.ignite.ci.github.PullRequest;
@@ -36,6 +37,14 @@ public interface IGitHubConnection {
     /** */
     public PullRequest getPullRequest(Integer id);
 
+    /**
+     * Requests pull request without blocking caller thread, requests rate is limited the same way as for blocking ones.
+     *
+     * @param id Pull request number.
+     * @return Future to be completed with pull request.
+     */
+    public CompletableFuture<PullRequest> getPullRequestAsync(int id);
+
     /**
      * Send POST request with given body.
      *
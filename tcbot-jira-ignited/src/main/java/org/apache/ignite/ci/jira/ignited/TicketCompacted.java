@@ -89,6 +89,20 @@ public class TicketCompacted {
         return ticket;
     }
 
+    /**
+     * @return Summary.
+     */
+    @Nullable public String summary() {
+        return summary != null ? summary.getValue() : null;
+    }
+
+    /**
+     * @return Custom field value, usually contains branch name.
+     */
+    @Nullable public String customfield11050() {
+        return customfield_11050 != null ? customfield_11050.getValue() : null;
+    }
+
     /** {@inheritDoc} */
     @Override public boolean equals(Object o) {
         if (this == o)
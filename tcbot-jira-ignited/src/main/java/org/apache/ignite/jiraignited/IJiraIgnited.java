@@ -17,6 +17,7 @@
 package org.apache.ignite.jiraignited;
 
 import java.io.IOException;
+import java.util.List;
 import java.util.Set;
 import org.apache.ignite.jiraservice.Ticket;
 import org.apache.ignite.tcbot.common.conf.IJiraServerConfig;
@@ -32,6 +33,18 @@ public interface IJiraIgnited {
      */
     public Set<Ticket> getTickets();
 
+    /**
+     * @param ticketKey Ticket full name (e.g IGNITE-8331).
+     * @return Ticket or {@code null} if ticket is not found.
+     */
+    @Nullable public Ticket getTicket(@Nullable String ticketKey);
+
+    /**
+     * @param text Text mentioned in ticket summary or branch field as a separate word, e.g. branch name.
+     * @return Tickets mentioning text, sorted by ticket number.
+     */
+    public List<Ticket> getTicketsMentioning(@Nullable String text);
+
     /**
      * @param ticketFullName Ticket full name (e.g IGNITE-8331)
      * @return URL which is used as link to Jira comment with specified id.
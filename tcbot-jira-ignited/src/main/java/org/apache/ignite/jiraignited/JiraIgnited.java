@@ -17,7 +17,9 @@
 package org.apache.ignite.jiraignited;
 
 import java.io.IOException;
+import java.util.List;
 import java.util.Set;
+import javax.annotation.Nullable;
 import javax.inject.Inject;
 import org.apache.ignite.jiraservice.IJiraIntegration;
 import org.apache.ignite.jiraservice.Ticket;
@@ -62,6 +64,20 @@ class JiraIgnited implements IJiraIgnited {
         return jiraTicketDao.getTickets(srvIdMaskHigh, jira.config().projectCodeForVisa());
     }
 
+    /** {@inheritDoc} */
+    @Nullable @Override public Ticket getTicket(@Nullable String ticketKey) {
+        jiraTicketSync.ensureActualizeJiraTickets(srvCode);
+
+        return jiraTicketDao.getTicket(srvIdMaskHigh, jira.config().projectCodeForVisa(), ticketKey);
+    }
+
+    /** {@inheritDoc} */
+    @Override public List<Ticket> getTicketsMentioning(@Nullable String text) {
+        jiraTicketSync.ensureActualizeJiraTickets(srvCode);
+
+        return jiraTicketDao.getTicketsMentioning(srvIdMaskHigh, jira.config().projectCodeForVisa(), text);
+    }
+
     /** {@inheritDoc} */
     @Override public String generateCommentUrl(String ticketFullName, int commentId) {
         return jira.generateCommentUrl(ticketFullName, commentId);
@@ -18,16 +18,29 @@
 package org.apache.ignite.jiraignited;
 
 import com.google.common.base.Preconditions;
+import com.google.common.base.Strings;
+import com.google.common.hash.Hashing;
+import com.google.common.primitives.Ints;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.annotation.Nullable;
 import javax.cache.Cache;
 import javax.inject.Inject;
 import javax.inject.Provider;
 import org.apache.ignite.Ignite;
 import org.apache.ignite.IgniteCache;
+import org.apache.ignite.cache.query.QueryCursor;
+import org.apache.ignite.cache.query.ScanQuery;
 import org.apache.ignite.ci.jira.ignited.TicketCompacted;
 import org.apache.ignite.tcbot.common.interceptor.AutoProfiling;
 import org.apache.ignite.tcbot.common.interceptor.GuavaCached;
@@ -36,6 +49,10 @@ import org.apache.ignite.tcbot.persistence.CacheConfigs;
 import org.apache.ignite.tcbot.persistence.IStringCompactor;
 import org.apache.ignite.internal.util.typedef.F;
 import org.apache.ignite.internal.util.typedef.internal.U;
+import org.apache.ignite.transactions.Transaction;
+
+import static org.apache.ignite.transactions.TransactionConcurrency.PESSIMISTIC;
+import static org.apache.ignite.transactions.TransactionIsolation.REPEATABLE_READ;
 
 /**
  *
@@ -44,12 +61,27 @@ public class JiraTicketDao {
     /** Cache name. */
     public static final String TEAMCITY_JIRA_TICKET_CACHE_NAME = "jiraTickets";
 
+    /** Cache name of tickets index by tokens mentioned in summary and branch field. */
+    public static final String JIRA_TICKET_TOKEN_IDX_CACHE_NAME = "jiraTicketTokenIdx";
+
+    /** Token ID for marker of index filled for server, it is never returned by {@link #tokenId(String)}. */
+    private static final int FILLED_MARKER = Integer.MIN_VALUE;
+
+    /** Tickets count to be indexed in one transaction while index is filled for existing tickets. */
+    private static final int FILL_BATCH = 500;
+
     /** Ignite provider. */
     @Inject private Provider<Ignite> igniteProvider;
 
     /** JIRA tickets cache : (srvId || ticketNuber) -> Ticket data compacted. */
     private IgniteCache<Long, TicketCompacted> jiraCache;
 
+    /** Tokens index: (srvId || token hash) -> sorted ticket numbers. */
+    private IgniteCache<Long, int[]> tokenIdxCache;
+
+    /** Servers having index checked to be filled. */
+    private final Set<Integer> tokenIdxChecked = ConcurrentHashMap.newKeySet();
+
     /** Compactor. */
     @Inject private IStringCompactor compactor;
 
@@ -58,6 +90,7 @@ public class JiraTicketDao {
      */
     public void init() {
         jiraCache = igniteProvider.get().getOrCreateCache(CacheConfigs.getCache8PartsConfig(TEAMCITY_JIRA_TICKET_CACHE_NAME));
+        tokenIdxCache = igniteProvider.get().getOrCreateCache(CacheConfigs.getCacheV2TxConfig(JIRA_TICKET_TOKEN_IDX_CACHE_NAME));
     }
 
     /**
@@ -65,21 +98,98 @@ public class JiraTicketDao {
      * @param projectCode project code. WIth delim gives Fixed prefix for JIRA tickets.
      * @return Jira tickets.
      */
-    @GuavaCached(expireAfterWriteSecs = 60, softValues = true)
+    @GuavaCached(expireAfterWriteSecs = 60, refreshAfterWriteSecs = 45, softValues = true)
     public Set<Ticket> getTickets(int srvIdMaskHigh, String projectCode) {
         Preconditions.checkNotNull(jiraCache, "init() was not called");
-        long srvId = (long)srvIdMaskHigh << 32;
 
         Set<Ticket> res = new HashSet<>();
 
-        for (Cache.Entry<Long, TicketCompacted> entry : jiraCache) {
-            if ((entry.getKey() & srvId) == srvId)
+        try (QueryCursor<Cache.Entry<Long, TicketCompacted>> qry = jiraCache.query(
+            new ScanQuery<Long, TicketCompacted>().setFilter((k, v) -> cacheKeyToSrvId(k) == srvIdMaskHigh))) {
+            for (Cache.Entry<Long, TicketCompacted> entry : qry)
                 res.add(entry.getValue().toTicket(compactor, projectCode));
         }
 
         return res;
     }
 
+    /**
+     * @param srvIdMaskHigh Server id mask high.
+     * @param projectCode Project code.
+     * @param ticketKey Ticket full name, e.g. IGNITE-123.
+     * @return Ticket or {@code null} if ticket with exactly this key is not stored.
+     */
+    @Nullable public Ticket getTicket(int srvIdMaskHigh, String projectCode, @Nullable String ticketKey) {
+        Preconditions.checkNotNull(jiraCache, "init() was not called");
+
+        String prefix = projectCode + Ticket.PROJECT_DELIM;
+
+        if (Strings.isNullOrEmpty(ticketKey) || !ticketKey.startsWith(prefix))
+            return null;
+
+        int igniteId;
+
+        try {
+            igniteId = Integer.parseInt(ticketKey.substring(prefix.length()));
+        }
+        catch (NumberFormatException ignored) {
+            return null;
+        }
+
+        TicketCompacted ticket = jiraCache.get(ticketToCacheKey(srvIdMaskHigh, igniteId));
+
+        if (ticket == null)
+            return null;
+
+        Ticket res = ticket.toTicket(compactor, projectCode);
+
+        return ticketKey.equals(res.key) ? res : null;
+    }
+
+    /**
+     * Finds tickets mentioning text as a separate token (case insensitive) in summary or in branch field.
+     *
+     * @param srvIdMaskHigh Server id mask high.
+     * @param projectCode Project code.
+     * @param text Text, should be a token containing digit, e.g. branch name.
+     * @return Tickets sorted by number.
+     */
+    @AutoProfiling
+    public List<Ticket> getTicketsMentioning(int srvIdMaskHigh, String projectCode, @Nullable String text) {
+        Preconditions.checkNotNull(tokenIdxCache, "init() was not called");
+
+        if (Strings.isNullOrEmpty(text))
+            return Collections.emptyList();
+
+        String token = text.toUpperCase();
+
+        if (!tokens(token).contains(token))
+            return Collections.emptyList();
+
+        ensureTokenIdxChecked(srvIdMaskHigh);
+
+        int[] igniteIds = tokenIdxCache.get(tokenIdxKey(srvIdMaskHigh, tokenId(token)));
+
+        if (igniteIds == null)
+            return Collections.emptyList();
+
+        Set<Long> keys = new TreeSet<>();
+
+        for (int igniteId : igniteIds)
+            keys.add(ticketToCacheKey(srvIdMaskHigh, igniteId));
+
+        Map<Long, TicketCompacted> tickets = new TreeMap<>(jiraCache.getAll(keys));
+        List<Ticket> res = new ArrayList<>();
+
+        // Index may contain tickets being updated now or having token with the same hash, these are checked to mention token.
+        tickets.values().forEach(ticket -> {
+            if (tokens(ticket).contains(token))
+                res.add(ticket.toTicket(compactor, projectCode));
+        });
+
+        return res;
+    }
+
     /**
      * Combine server and project into key for storage.
      *
@@ -91,6 +201,23 @@ public class JiraTicketDao {
         return (long)igniteId | (long)srvIdMaskHigh << 32;
     }
 
+    /**
+     * @param key Cache key.
+     * @return Server id mask high.
+     */
+    private static int cacheKeyToSrvId(long key) {
+        return (int)(key >>> 32);
+    }
+
+    /**
+     * @param srvIdMaskHigh Server id mask high.
+     * @param tokenId Token ID, see {@link #tokenId(String)}.
+     * @return Key of index entry.
+     */
+    private static long tokenIdxKey(int srvIdMaskHigh, int tokenId) {
+        return (long)srvIdMaskHigh << 32 | (tokenId & 0xFFFFFFFFL);
+    }
+
     /**
      * Save small part of loaded mutes.
      *
@@ -106,6 +233,8 @@ public class JiraTicketDao {
         if (F.isEmpty(chunk))
             return 0;
 
+        ensureTokenIdxChecked(srvIdMaskHigh);
+
         Map<Long, TicketCompacted> compactedTickets = new HashMap<>(U.capacity(chunk.size()));
 
         for (Ticket ticket : chunk) {
@@ -118,17 +247,184 @@ public class JiraTicketDao {
         Map<Long, TicketCompacted> dbVal = jiraCache.getAll(compactedTickets.keySet());
 
         Map<Long, TicketCompacted> ticketsToUpdate = new HashMap<>(U.capacity(chunk.size()));
+        Map<Long, Set<Integer>> idxAdded = new TreeMap<>();
+        Map<Long, Set<Integer>> idxRemoved = new TreeMap<>();
 
         compactedTickets.forEach((k, v) -> {
             TicketCompacted existing = dbVal.get(k);
 
-            if (existing == null || !v.equals(existing))
+            if (existing == null || !v.equals(existing)) {
                 ticketsToUpdate.put(k, v);
+
+                Set<String> newTokens = tokens(v);
+                Set<String> oldTokens = existing == null ? Collections.emptySet() : tokens(existing);
+
+                for (String token : newTokens) {
+                    if (!oldTokens.contains(token))
+                        idxAdded.computeIfAbsent(tokenIdxKey(srvIdMaskHigh, tokenId(token)),
+                            t -> new TreeSet<>()).add(v.igniteId);
+                }
+
+                for (String token : oldTokens) {
+                    if (!newTokens.contains(token))
+                        idxRemoved.computeIfAbsent(tokenIdxKey(srvIdMaskHigh, tokenId(token)),
+                            t -> new TreeSet<>()).add(v.igniteId);
+                }
+            }
         });
 
-        if (!ticketsToUpdate.isEmpty())
+        if (!ticketsToUpdate.isEmpty()) {
+            // Index entries are added before ticket is saved and removed after, readers filter out stale ones.
+            applyTokenIdx(idxAdded, Collections.emptyMap());
+
             jiraCache.putAll(ticketsToUpdate);
 
+            applyTokenIdx(Collections.emptyMap(), idxRemoved);
+        }
+
         return ticketsToUpdate.size();
     }
+
+    /**
+     * Fills tokens index for tickets saved before the index was introduced.
+     *
+     * @param srvIdMaskHigh Server id mask high.
+     */
+    private void ensureTokenIdxChecked(int srvIdMaskHigh) {
+        if (tokenIdxChecked.contains(srvIdMaskHigh))
+            return;
+
+        long markerKey = tokenIdxKey(srvIdMaskHigh, FILLED_MARKER);
+
+        synchronized (tokenIdxChecked) {
+            if (tokenIdxChecked.contains(srvIdMaskHigh))
+                return;
+
+            if (!tokenIdxCache.containsKey(markerKey)) {
+                Map<Long, Set<Integer>> added = new TreeMap<>();
+                int cnt = 0;
+
+                try (QueryCursor<Cache.Entry<Long, TicketCompacted>> qry = jiraCache.query(
+                    new ScanQuery<Long, TicketCompacted>().setFilter((k, v) -> cacheKeyToSrvId(k) == srvIdMaskHigh))) {
+                    for (Cache.Entry<Long, TicketCompacted> entry : qry) {
+                        TicketCompacted ticket = entry.getValue();
+
+                        for (String token : tokens(ticket)) {
+                            added.computeIfAbsent(tokenIdxKey(srvIdMaskHigh, tokenId(token)),
+                                t -> new TreeSet<>()).add(ticket.igniteId);
+                        }
+
+                        if (++cnt % FILL_BATCH == 0) {
+                            applyTokenIdx(added, Collections.emptyMap());
+
+                            added.clear();
+                        }
+                    }
+                }
+
+                applyTokenIdx(added, Collections.emptyMap());
+
+                tokenIdxCache.put(markerKey, new int[0]);
+            }
+
+            tokenIdxChecked.add(srvIdMaskHigh);
+        }
+    }
+
+    /**
+     * @param added Index key -> ticket numbers to be added.
+     * @param removed Index key -> ticket numbers to be removed.
+     */
+    private void applyTokenIdx(Map<Long, Set<Integer>> added, Map<Long, Set<Integer>> removed) {
+        Set<Long> keys = new TreeSet<>(added.keySet());
+        keys.addAll(removed.keySet());
+
+        if (keys.isEmpty())
+            return;
+
+        try (Transaction tx = igniteProvider.get().transactions().txStart(PESSIMISTIC, REPEATABLE_READ)) {
+            Map<Long, int[]> cur = tokenIdxCache.getAll(keys);
+
+            for (Long key : keys) {
+                Set<Integer> ids = new TreeSet<>();
+
+                int[] curIds = cur.get(key);
+
+                if (curIds != null)
+                    ids.addAll(Ints.asList(curIds));
+
+                ids.addAll(added.getOrDefault(key, Collections.emptySet()));
+                ids.removeAll(removed.getOrDefault(key, Collections.emptySet()));
+
+                if (ids.isEmpty())
+                    tokenIdxCache.remove(key);
+                else
+                    tokenIdxCache.put(key, Ints.toArray(ids));
+            }
+
+            tx.commit();
+        }
+    }
+
+    /**
+     * Tokens are hashed instead of being registered in compactor: almost each summary has its own tokens, so strings
+     * dictionary would grow with each ticket. Tickets found by token with the same hash are filtered out on read.
+     *
+     * @param token Token.
+     * @return Token ID for index.
+     */
+    static int tokenId(String token) {
+        int hash = Hashing.murmur3_32().hashString(token, StandardCharsets.UTF_8).asInt();
+
+        return hash == FILLED_MARKER ? hash + 1 : hash;
+    }
+
+    /**
+     * @param ticket Ticket.
+     * @return Tokens of summary and branch field.
+     */
+    private static Set<String> tokens(TicketCompacted ticket) {
+        Set<String> res = tokens(ticket.summary());
+
+        res.addAll(tokens(ticket.customfield11050()));
+
+        return res;
+    }
+
+    /**
+     * Splits text into upper-cased tokens consisting of letters, digits and dashes. Tickets and branches are always
+     * referenced by a name ending with number, so only tokens and their dash-separated prefixes ending with a digit are
+     * returned, e.g. IGNITE-123 for IGNITE-123-FIX.
+     *
+     * @param text Text.
+     * @return Tokens.
+     */
+    static Set<String> tokens(@Nullable String text) {
+        Set<String> res = new HashSet<>();
+
+        if (Strings.isNullOrEmpty(text))
+            return res;
+
+        String upper = text.toUpperCase();
+        int start = -1;
+
+        for (int i = 0; i <= upper.length(); i++) {
+            char c = i < upper.length() ? upper.charAt(i) : ' ';
+            boolean tokenChar = Character.isLetterOrDigit(c) || c == '-';
+
+            if (tokenChar && start < 0 && c != '-')
+                start = i;
+
+            if (start >= 0 && (!tokenChar || c == '-')) {
+                // Token or its dash-separated prefix ends here.
+                if (i > start && Character.isDigit(upper.charAt(i - 1)))
+                    res.add(upper.substring(start, i));
+
+                if (!tokenChar)
+                    start = -1;
+            }
+        }
+
+        return res;
+    }
 }
@@ -16,8 +16,13 @@
  */
 package org.apache.ignite.tcbot.persistence;
 
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.atomic.AtomicBoolean;
 import javax.cache.Cache;
@@ -28,6 +33,7 @@ import org.apache.ignite.IgniteAtomicSequence;
 import org.apache.ignite.IgniteCache;
 import org.apache.ignite.cache.QueryEntity;
 import org.apache.ignite.cache.query.QueryCursor;
+import org.apache.ignite.cache.query.ScanQuery;
 import org.apache.ignite.cache.query.SqlQuery;
 import org.apache.ignite.tcbot.common.interceptor.AutoProfiling;
 import org.apache.ignite.tcbot.common.exeption.ExceptionUtil;
@@ -59,6 +65,12 @@ public class IgniteStringCompactor implements IStringCompactor {
     /** Sequence. */
     private IgniteAtomicSequence seq;
 
+    /**
+     * Reverse dictionary: string ID -> string. Filled at startup and extended as new strings are registered, so lookups
+     * do not need SQL. Element set concurrently with array growth may be lost, it is read from cache again in this case.
+     */
+    private volatile String[] strById = new String[0];
+
     private void initIfNeeded() {
         if (initGuard.compareAndSet(false, true)) {
             init();
@@ -87,6 +99,54 @@ public class IgniteStringCompactor implements IStringCompactor {
         stringsCache = ignite.getOrCreateCache(cfg);
 
         seq = ignite.atomicSequence(STRINGS_SEQ, 0, true);
+
+        int cnt = 0;
+
+        try (QueryCursor<Cache.Entry<String, org.apache.ignite.ci.teamcity.ignited.IgniteStringCompactor.CompactorEntity>> qryCursor
+            = stringsCache.query(new ScanQuery<>())) {
+            for (Cache.Entry<String, org.apache.ignite.ci.teamcity.ignited.IgniteStringCompactor.CompactorEntity> next : qryCursor) {
+                remember(next.getValue().id(), ObjectInterner.internString(next.getValue().val()));
+
+                cnt++;
+            }
+        }
+
+        logger.info("String compactor loaded " + cnt + " strings, max ID " + (strById.length - 1));
+    }
+
+    /**
+     * @param id String ID.
+     * @param val Value.
+     */
+    private void remember(int id, String val) {
+        if (id < 0)
+            return;
+
+        String[] arr = strById;
+
+        if (id >= arr.length) {
+            synchronized (this) {
+                arr = strById;
+
+                if (id >= arr.length) {
+                    arr = Arrays.copyOf(arr, Math.max(id + 1, arr.length + arr.length / 2));
+
+                    strById = arr;
+                }
+            }
+        }
+
+        arr[id] = val;
+    }
+
+    /**
+     * @param id String ID.
+     * @return Value from reverse dictionary, or {@code null} if it is not there.
+     */
+    private String remembered(int id) {
+        String[] arr = strById;
+
+        return id < arr.length ? arr[id] : null;
     }
 
     /** {@inheritDoc} */
@@ -102,22 +162,76 @@ public class IgniteStringCompactor implements IStringCompactor {
         if (entity != null)
             return entity.id();
 
+        return register(val);
+    }
+
+    /**
+     * @param val Value not found in cache.
+     * @return ID of value, new one or set concurrently.
+     */
+    private int register(String val) {
         int codeCandidate = (int)seq.incrementAndGet();
 
         boolean valWasSet = stringsCache.putIfAbsent(val, new org.apache.ignite.ci.teamcity.ignited.IgniteStringCompactor.CompactorEntity(codeCandidate, val));
 
-        return valWasSet ? codeCandidate : stringsCache.get(val).id();
+        if (!valWasSet)
+            return stringsCache.get(val).id();
+
+        remember(codeCandidate, val);
+
+        return codeCandidate;
+    }
+
+    /** {@inheritDoc} */
+    @Override public int[] getStringIds(Collection<String> vals) {
+        initIfNeeded();
+
+        Set<String> keys = new HashSet<>(vals);
+
+        keys.remove(null);
+
+        Map<String, org.apache.ignite.ci.teamcity.ignited.IgniteStringCompactor.CompactorEntity> existing
+            = stringsCache.getAll(keys);
+
+        int[] res = new int[vals.size()];
+        int i = 0;
+
+        for (String val : vals) {
+            if (val == null) {
+                res[i++] = STRING_NULL;
+
+                continue;
+            }
+
+            org.apache.ignite.ci.teamcity.ignited.IgniteStringCompactor.CompactorEntity entity = existing.get(val);
+
+            res[i++] = entity != null ? entity.id() : register(val);
+        }
+
+        return res;
     }
 
     /** {@inheritDoc} */
-    @AutoProfiling
-    @GuavaCached(cacheNullRval = false)
     @Override public String getStringFromId(int id) {
         if (id < 0)
             return null;
 
+        String val = remembered(id);
+
+        if (val != null)
+            return val;
+
         initIfNeeded();
 
+        val = remembered(id);
+
+        return val != null ? val : loadStringFromId(id);
+    }
+
+    /**
+     * @param id String ID, which is absent in reverse dictionary.
+     */
+    private String loadStringFromId(int id) {
         QueryCursor<Cache.Entry<String, org.apache.ignite.ci.teamcity.ignited.IgniteStringCompactor.CompactorEntity>> qryCursor
             = stringsCache.query(new SqlQuery<String, org.apache.ignite.ci.teamcity.ignited.IgniteStringCompactor.CompactorEntity>(org.apache.ignite.ci.teamcity.ignited.IgniteStringCompactor.CompactorEntity.class, "id = ?").setArgs(id));
 
@@ -133,7 +247,11 @@ public class IgniteStringCompactor implements IStringCompactor {
 
         qryCursor.close();
 
-        return ObjectInterner.internString(next.getValue().val());
+        String val = ObjectInterner.internString(next.getValue().val());
+
+        remember(id, val);
+
+        return val;
     }
 
     /** {@inheritDoc} */
@@ -16,6 +16,8 @@
  */
 package org.apache.ignite.tcbot.persistence.scheduler;
 
+import java.util.Collection;
+import java.util.Collections;
 import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
 
@@ -37,4 +39,11 @@ public interface IScheduler {
     public void sheduleNamed(String fullName, Runnable cmd, long queitPeriod, TimeUnit unit);
 
     public void stop();
+
+    /**
+     * @return Statistics of named tasks executions.
+     */
+    public default Collection<NamedTaskStat> taskStatistics() {
+        return Collections.emptyList();
+    }
 }
@@ -17,14 +17,25 @@
 package org.apache.ignite.tcbot.persistence.scheduler;
 
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.StampedLock;
 import javax.annotation.Nonnull;
 import javax.annotation.concurrent.GuardedBy;
+import org.apache.ignite.tcbot.common.util.LatencyHistogram;
 
 class NamedTask {
     private final StampedLock lock = new StampedLock();
     private final String name;
 
+    /** Timestamp of the earliest planned dispatch of this task, 0 if task is not planned. */
+    private final AtomicLong plannedTs = new AtomicLong();
+
+    /** Time between becoming eligible to run and actual start. */
+    private final LatencyHistogram queueWait = new LatencyHistogram();
+
+    /** Time of task execution. */
+    private final LatencyHistogram runTime = new LatencyHistogram();
+
     @GuardedBy("lock")
     private volatile Runnable cmd;
 
@@ -77,6 +88,75 @@ class NamedTask {
 
     }
 
+    /**
+     * @return Name of task.
+     */
+    public String name() {
+        return name;
+    }
+
+    /**
+     * @return Timestamp when task may be started, or {@link Long#MAX_VALUE} if task is running or if nobody asked to
+     * run it.
+     */
+    public long nextEligibleTs() {
+        long readStamp = lock.readLock();
+        try {
+            if (cmd == null || status == Status.RUNNING)
+                return Long.MAX_VALUE;
+
+            if (status == Status.COMPLETED && lastFinishedTs != 0)
+                return lastFinishedTs + resValidityMs;
+
+            return 0;
+        }
+        finally {
+            lock.unlockRead(readStamp);
+        }
+    }
+
+    /**
+     * Saves planned dispatch timestamp, if the task is not already planned to earlier time.
+     *
+     * @param ts Timestamp.
+     * @return {@code true} if task should be planned to provided time.
+     */
+    boolean plan(long ts) {
+        while (true) {
+            long planned = plannedTs.get();
+
+            if (planned != 0 && planned <= ts)
+                return false;
+
+            if (plannedTs.compareAndSet(planned, ts))
+                return true;
+        }
+    }
+
+    /**
+     * Removes planned dispatch timestamp, if it was not changed.
+     *
+     * @param ts Timestamp of dispatch.
+     * @return {@code false} if plan is outdated (task was re-planned to another time).
+     */
+    boolean unplan(long ts) {
+        return plannedTs.compareAndSet(ts, 0);
+    }
+
+    /**
+     * @param waitMs Time between task became eligible to run and dispatching it to worker.
+     */
+    void saveQueueWait(long waitMs) {
+        queueWait.record(waitMs);
+    }
+
+    /**
+     * @return Statistics of task runs.
+     */
+    public NamedTaskStat stat() {
+        return new NamedTaskStat(name, queueWait, runTime);
+    }
+
     public Runnable runIfNeeded() throws Exception {
         long optReadStamp = lock.tryOptimisticRead();
         boolean canSkip = canSkipStartNow();
@@ -118,10 +198,13 @@ class NamedTask {
         if (cmd == null)
             return null;
 
+        long startTs = System.currentTimeMillis();
         try {
             cmd.run();
         }
         finally {
+            runTime.record(System.currentTimeMillis() - startTs);
+
             long writeLockStamp2 = lock.writeLock();
             try {
                 lastFinishedTs = System.currentTimeMillis();
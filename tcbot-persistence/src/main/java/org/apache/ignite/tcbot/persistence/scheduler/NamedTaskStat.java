@@ -0,0 +1,65 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.ignite.tcbot.persistence.scheduler;
+
+import org.apache.ignite.tcbot.common.util.LatencyHistogram;
+
+/**
+ * Statistics of named task executions.
+ */
+public class NamedTaskStat {
+    /** Task name. */
+    private final String name;
+
+    /** Time between task became eligible to run and its start. */
+    private final LatencyHistogram queueWait;
+
+    /** Time of task execution. */
+    private final LatencyHistogram runTime;
+
+    /**
+     * @param name Name.
+     * @param queueWait Queue wait.
+     * @param runTime Run time.
+     */
+    NamedTaskStat(String name, LatencyHistogram queueWait, LatencyHistogram runTime) {
+        this.name = name;
+        this.queueWait = queueWait;
+        this.runTime = runTime;
+    }
+
+    /**
+     * @return Task name.
+     */
+    public String name() {
+        return name;
+    }
+
+    /**
+     * @return Histogram of time between task became eligible to run and its start.
+     */
+    public LatencyHistogram queueWait() {
+        return queueWait;
+    }
+
+    /**
+     * @return Histogram of task execution time.
+     */
+    public LatencyHistogram runTime() {
+        return runTime;
+    }
+}
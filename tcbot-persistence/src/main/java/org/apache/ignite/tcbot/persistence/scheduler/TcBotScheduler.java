@@ -17,24 +17,35 @@
 package org.apache.ignite.tcbot.persistence.scheduler;
 
 import com.google.common.base.Preconditions;
-import com.google.common.base.Strings;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Collection;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ThreadFactory;
-import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.concurrent.atomic.AtomicInteger;
-import org.apache.ignite.tcbot.common.interceptor.MonitoredTask;
+import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * Scheduler for background tasks. Named tasks are planned into a queue ordered by time task becomes eligible to run
+ * (respecting quiet period of task). Dispatcher thread takes tasks from the queue at this time and hands them off to
+ * workers pool.
+ */
 class TcBotScheduler implements IScheduler {
+    /** Named tasks workers pool size. */
     public static final int POOL_SIZE = 16;
+
+    /** Pool size for tasks invoked later. */
+    public static final int DELAYED_POOL_SIZE = 4;
+
     /** Logger. */
     private static final Logger logger = LoggerFactory.getLogger(TcBotScheduler.class);
 
@@ -48,11 +59,21 @@ class TcBotScheduler implements IScheduler {
         return thread;
     };
 
-    /** Executor service. */
-    private volatile ScheduledExecutorService executorSvc = Executors.newScheduledThreadPool(POOL_SIZE, threadFactory1);
+    /** Executor service for tasks invoked later. */
+    private volatile ScheduledExecutorService executorSvc = Executors.newScheduledThreadPool(DELAYED_POOL_SIZE, threadFactory1);
+
+    /** Named tasks workers. */
+    private volatile ExecutorService workers = new ThreadPoolExecutor(POOL_SIZE, POOL_SIZE,
+        0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(), threadFactory1);
 
-    /** Submit named task checker guard. */
-    private AtomicBoolean tickGuard = new AtomicBoolean();
+    /** Named tasks planned, ordered by time of dispatch. */
+    private final DelayQueue<PlannedRun> queue = new DelayQueue<>();
+
+    /** Dispatcher thread start guard. */
+    private AtomicBoolean dispatcherGuard = new AtomicBoolean();
+
+    /** Dispatcher thread. */
+    private volatile Thread dispatcher;
 
     /** Named tasks. */
     private final ConcurrentMap<String, NamedTask> namedTasks = new ConcurrentHashMap<>();
@@ -68,40 +89,102 @@ class TcBotScheduler implements IScheduler {
 
         task.sheduleWithQuitePeriod(cmd, queitPeriod, unit);
 
-        if (tickGuard.compareAndSet(false, true)) {
-            for (int threadId = 0; threadId < POOL_SIZE; threadId++) {
-                String threadNme = "Runner " + Strings.padStart(Integer.toString(threadId), 2, '0');
-                int period = 15000 + ThreadLocalRandom.current().nextInt(10000);
-                service().scheduleAtFixedRate(() -> checkNamedTasks(threadNme), 0, period, TimeUnit.MILLISECONDS);
-            }
+        if (dispatcherGuard.compareAndSet(false, true)) {
+            Thread thread = threadFactory1.newThread(this::dispatchLoop);
+
+            thread.setName("tc-scheduler-dispatcher");
+            thread.setDaemon(true);
+            thread.start();
+
+            dispatcher = thread;
         }
+
+        plan(task);
+    }
+
+    /**
+     * Plans task to be dispatched when it becomes eligible to run.
+     *
+     * @param task Task.
+     */
+    private void plan(NamedTask task) {
+        long ts = task.nextEligibleTs();
+
+        if (ts == Long.MAX_VALUE)
+            return; // will be planned after completion
+
+        if (task.plan(ts))
+            queue.offer(new PlannedRun(task, ts));
     }
 
     /**
-     * @param threadNme Runner name to be used in display.
+     * Dispatches planned tasks to workers.
      */
-    @SuppressWarnings({"UnusedReturnValue", "WeakerAccess"})
-    @MonitoredTask(name = "Scheduled", nameExtArgIndex = 0, log = false)
-    protected String checkNamedTasks(String threadNme) {
-        AtomicInteger run = new AtomicInteger();
-        List<Throwable> problems = new ArrayList<>();
-        namedTasks.forEach((s, task) -> {
+    private void dispatchLoop() {
+        while (!Thread.currentThread().isInterrupted()) {
+            PlannedRun run;
+            try {
+                run = queue.take();
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+
+                break;
+            }
+
+            if (!run.task.unplan(run.ts))
+                continue; // outdated, task was re-planned to earlier time
+
+            long eligibleTs = Math.max(run.ts, run.plannedAt);
+
             try {
-                Runnable runnable = task.runIfNeeded();
-                if (runnable != null)
-                    run.incrementAndGet();
+                workers.execute(() -> runNamedTask(run.task, eligibleTs));
             }
             catch (Exception e) {
-                logger.error("Background task [" + s + "] execution failure: " + e.getMessage(), e);
-                problems.add(e);
+                logger.error("Background task [" + run.task.name() + "] dispatch failure: " + e.getMessage(), e);
             }
-        });
+        }
+    }
 
-        return "Finished " + run.get() + " task(s) " + (problems.isEmpty() ? "" : (", exceptions: " + problems.toString()));
+    /**
+     * @param task Task to run.
+     * @param eligibleTs Time when task became eligible to run.
+     */
+    private void runNamedTask(NamedTask task, long eligibleTs) {
+        try {
+            task.saveQueueWait(System.currentTimeMillis() - eligibleTs);
+
+            task.runIfNeeded();
+        }
+        catch (Exception e) {
+            logger.error("Background task [" + task.name() + "] execution failure: " + e.getMessage(), e);
+        }
+        finally {
+            // task may be requested again during execution
+            plan(task);
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override public Collection<NamedTaskStat> taskStatistics() {
+        return namedTasks.values().stream().map(NamedTask::stat).collect(Collectors.toList());
     }
 
     /** {@inheritDoc} */
     @Override public void stop() {
+        Thread dispatcher = this.dispatcher;
+
+        if (dispatcher != null)
+            dispatcher.interrupt();
+
+        stop(workers);
+        stop(executorSvc);
+    }
+
+    /**
+     * @param executorSvc Executor service to stop.
+     */
+    private void stop(ExecutorService executorSvc) {
         if (executorSvc != null) {
             executorSvc.shutdown();
             try {
@@ -120,4 +203,37 @@ class TcBotScheduler implements IScheduler {
     private ScheduledExecutorService service() {
         return Preconditions.checkNotNull(executorSvc, "Service should be created");
     }
+
+    /**
+     * Named task planned to be dispatched at some time.
+     */
+    private static class PlannedRun implements Delayed {
+        /** Task. */
+        private final NamedTask task;
+
+        /** Timestamp of dispatch. */
+        private final long ts;
+
+        /** Timestamp of planning. */
+        private final long plannedAt = System.currentTimeMillis();
+
+        /**
+         * @param task Task.
+         * @param ts Timestamp of dispatch.
+         */
+        PlannedRun(NamedTask task, long ts) {
+            this.task = task;
+            this.ts = ts;
+        }
+
+        /** {@inheritDoc} */
+        @Override public long getDelay(TimeUnit unit) {
+            return unit.convert(ts - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+        }
+
+        /** {@inheritDoc} */
+        @Override public int compareTo(Delayed o) {
+            return Long.compare(ts, ((PlannedRun)o).ts);
+        }
+    }
 }
@@ -21,6 +21,7 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
 import javax.inject.Inject;
 import javax.inject.Provider;
 import org.apache.ignite.Ignite;
@@ -86,6 +87,27 @@ public class ChangeDao {
         return false;
     }
 
+    /**
+     * @param srvId Server id.
+     * @param changes Change ID -> Change compacted.
+     * @return Count of changes saved, only new or modified changes are saved.
+     */
+    @AutoProfiling
+    public int saveAll(int srvId, Map<Integer, ChangeCompacted> changes) {
+        Map<Long, ChangeCompacted> entries = new TreeMap<>();
+
+        changes.forEach((changeId, change) -> entries.put(changeIdToCacheKey(srvId, changeId), change));
+
+        Map<Long, ChangeCompacted> persisted = changesCache.getAll(entries.keySet());
+
+        entries.entrySet().removeIf(e -> e.getValue().equals(persisted.get(e.getKey())));
+
+        if (!entries.isEmpty())
+            changesCache.putAll(entries);
+
+        return entries.size();
+    }
+
     public ChangeCompacted load(int srvId, int changeId) {
         return changesCache.get(changeIdToCacheKey(srvId, changeId));
     }
@@ -29,6 +29,11 @@ import org.xml.sax.SAXParseException;
 import javax.annotation.Nonnull;
 import javax.inject.Inject;
 import java.io.FileNotFoundException;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.stream.IntStream;
 
 public class ChangeSync {
     /** Logger. */
@@ -48,6 +53,71 @@ public class ChangeSync {
         return reloadChange(srvId, changeId, conn);
     }
 
+    /**
+     * Loads changes from storage, absent and outdated changes are requested from the server concurrently (number of
+     * requests sent at once is limited by HTTP transport) and saved in one batch.
+     *
+     * @param srvId Server id.
+     * @param changeIds Change IDs, may contain duplicates.
+     * @param conn Connection.
+     * @return Change ID -> change.
+     */
+    @AutoProfiling
+    public Map<Integer, ChangeCompacted> changes(int srvId, int[] changeIds, ITeamcityConn conn) {
+        int[] uniqueIds = IntStream.of(changeIds).distinct().toArray();
+
+        Map<Integer, ChangeCompacted> res = changeDao.getAll(srvId, uniqueIds);
+        Map<Integer, CompletableFuture<Change>> loading = new TreeMap<>();
+
+        for (int changeId : uniqueIds) {
+            ChangeCompacted change = res.get(changeId);
+
+            if (change == null || change.isOutdatedEntityVersion())
+                loading.put(changeId, conn.getChangeAsync(changeId));
+        }
+
+        if (loading.isEmpty())
+            return res;
+
+        Map<Integer, ChangeCompacted> loaded = new TreeMap<>();
+        RuntimeException err = null;
+
+        for (Map.Entry<Integer, CompletableFuture<Change>> entry : loading.entrySet()) {
+            int changeId = entry.getKey();
+            Change change;
+
+            try {
+                change = entry.getValue().join();
+            }
+            catch (CompletionException e) {
+                Exception cause = e.getCause() instanceof Exception ? (Exception)e.getCause() : e;
+
+                try {
+                    change = changeLoadFailed(changeId, cause, conn);
+                }
+                catch (RuntimeException unexpected) {
+                    if (err == null)
+                        err = unexpected;
+                    else
+                        err.addSuppressed(unexpected);
+
+                    continue;
+                }
+            }
+
+            loaded.put(changeId, new ChangeCompacted(compactor, change));
+        }
+
+        changeDao.saveAll(srvId, loaded);
+
+        if (err != null)
+            throw err;
+
+        res.putAll(loaded);
+
+        return res;
+    }
+
     @Nonnull
     @AutoProfiling
     public ChangeCompacted reloadChange(int srvId, int changeId, ITeamcityConn conn) {
@@ -55,18 +125,7 @@ public class ChangeSync {
         try {
             change = conn.getChange(changeId);
         } catch (Exception e) {
-            if (Throwables.getRootCause(e) instanceof FileNotFoundException) {
-                logger.info("Loading changeId [" + changeId + "] for server [" + conn.serverCode() + "] failed:" + e.getMessage(), e);
-
-                change = new Change();
-            } else if (Throwables.getRootCause(e) instanceof SAXParseException) {
-                System.err.println("Change data seems to be invalid: [" + changeId + "]");
-
-                //can re-queue this change without details
-                change = new Change();
-                change.id = Integer.toString(changeId);
-            } else
-                throw ExceptionUtil.propagateException(e);
+            change = changeLoadFailed(changeId, e, conn);
         }
 
         final ChangeCompacted changeCompacted = new ChangeCompacted(compactor, change);
@@ -75,4 +134,31 @@ public class ChangeSync {
 
         return changeCompacted;
     }
+
+    /**
+     * @param changeId Change id.
+     * @param e Loading error.
+     * @param conn Connection.
+     * @return Change without details to be saved instead of change not available.
+     * @throws RuntimeException If error is not related to particular change data.
+     */
+    @Nonnull
+    private Change changeLoadFailed(int changeId, Exception e, ITeamcityConn conn) {
+        Change change;
+
+        if (Throwables.getRootCause(e) instanceof FileNotFoundException) {
+            logger.info("Loading changeId [" + changeId + "] for server [" + conn.serverCode() + "] failed:" + e.getMessage(), e);
+
+            change = new Change();
+        } else if (Throwables.getRootCause(e) instanceof SAXParseException) {
+            System.err.println("Change data seems to be invalid: [" + changeId + "]");
+
+            //can re-queue this change without details
+            change = new Change();
+            change.id = Integer.toString(changeId);
+        } else
+            throw ExceptionUtil.propagateException(e);
+
+        return change;
+    }
 }
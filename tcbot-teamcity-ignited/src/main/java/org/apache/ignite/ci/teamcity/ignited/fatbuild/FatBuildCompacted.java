@@ -30,7 +30,9 @@ import java.util.Objects;
 import java.util.TreeMap;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.BiPredicate;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -44,6 +46,7 @@ import org.apache.ignite.tcbot.persistence.IVersionedEntity;
 import org.apache.ignite.tcbot.persistence.Persisted;
 import org.apache.ignite.tcignited.build.ITest;
 import org.apache.ignite.tcignited.build.TestCompactedV2;
+import org.apache.ignite.tcignited.build.TestsColumnsCompacted;
 import org.apache.ignite.tcignited.buildlog.ILogProductSpecific;
 import org.apache.ignite.tcservice.ITeamcity;
 import org.apache.ignite.tcservice.model.conf.BuildType;
@@ -68,7 +71,10 @@ import org.apache.ignite.tcservice.model.vcs.VcsRootInstance;
 @Persisted
 public class FatBuildCompacted extends BuildRefCompacted implements IVersionedEntity {
     /** Latest version. */
-    public static final short LATEST_VERSION = 6;
+    public static final short LATEST_VERSION = 7;
+
+    /** Version with tests saved as separate objects, see {@link #testsV2}. */
+    public static final short VER_TESTS_AS_OBJECTS = 6;
 
     /** Latest version. */
     public static final short VER_FULL_DATA_BUT_ID_CONFLICTS_POSSIBLE = 5;
@@ -93,6 +99,8 @@ public class FatBuildCompacted extends BuildRefCompacted implements IVersionedEn
      * <li>{@link #VER_FULL_DATA_BUT_ID_CONFLICTS_POSSIBLE} - fully supported field set, tests, problems. </li>
      * <li>6 - done double check if build ID is consistent with a key. If this check passes, version is set to 6, if
      * not-build is deleted.</li>
+     * <li>7 - tests are saved in columns, see {@link #testsV3}. Builds of version 6 are migrated without reloading,
+     * see {@link #migrateTests(ILogProductSpecific)}.</li>
      * </ul>
      */
     private short _ver = LATEST_VERSION;
@@ -116,8 +124,12 @@ public class FatBuildCompacted extends BuildRefCompacted implements IVersionedEn
     @SuppressWarnings("unused")
     @Nullable private List<TestCompacted> tests;
 
+    //field is still present for version 6 DB records
     @Nullable private List<ITest> testsV2;
 
+    /** Tests saved as parallel arrays. */
+    @Nullable private TestsColumnsCompacted testsV3;
+
     @Nullable private int snapshotDeps[];
 
     private BitSet flags = new BitSet();
@@ -288,10 +300,10 @@ public class FatBuildCompacted extends BuildRefCompacted implements IVersionedEn
         type.setProjectId(projectId(compactor));
         res.setBuildType(type);
 
-        if (testsV2 != null) {
+        if (testsV3 != null || testsV2 != null) {
             TestOccurrencesRef testOccurrencesRef = new TestOccurrencesRef();
             testOccurrencesRef.href = "/app/rest/latest/testOccurrences?locator=build:(id:" + id() + ")";
-            testOccurrencesRef.count = testsV2.size();
+            testOccurrencesRef.count = getTestsCount();
             res.testOccurrences = testOccurrencesRef;
         }
 
@@ -369,18 +381,28 @@ public class FatBuildCompacted extends BuildRefCompacted implements IVersionedEn
      */
     public FatBuildCompacted addTests(IStringCompactor compactor, List<TestOccurrenceFull> page,
         ILogProductSpecific specific) {
-        for (TestOccurrenceFull next : page) {
-            TestCompactedV2 compacted = new TestCompactedV2(compactor, next, specific);
-
-            if (testsV2 == null)
-                testsV2 = new ArrayList<>();
+        List<TestCompactedV2> compacted = page.stream()
+            .map(next -> new TestCompactedV2(compactor, next, specific))
+            .collect(Collectors.toList());
 
-            testsV2.add(compacted);
-        }
+        addTests(compacted);
 
         return this;
     }
 
+    /**
+     * @param compacted Tests to be added to columns.
+     */
+    public void addTests(List<TestCompactedV2> compacted) {
+        if (compacted.isEmpty())
+            return;
+
+        if (testsV3 == null)
+            testsV3 = new TestsColumnsCompacted();
+
+        testsV3.append(compacted);
+    }
+
     /**
      * @param off Offset.
      * @param val Value.
@@ -410,13 +432,12 @@ public class FatBuildCompacted extends BuildRefCompacted implements IVersionedEn
      * @param compactor Compactor.
      */
     public TestOccurrencesFull getTestOcurrences(IStringCompactor compactor) {
-        if (testsV2 == null)
+        if (testsV3 == null && testsV2 == null)
             return new TestOccurrencesFull();
 
         List<TestOccurrenceFull> res = new ArrayList<>();
 
-        for (ITest compacted : testsV2)
-            res.add(TestCompactedV2.toTestOccurrence(compacted, compactor, id()));
+        forEachTest(compacted -> res.add(TestCompactedV2.toTestOccurrence(compacted, compactor, id())));
 
         TestOccurrencesFull testOccurrences = new TestOccurrencesFull();
 
@@ -452,6 +473,7 @@ public class FatBuildCompacted extends BuildRefCompacted implements IVersionedEn
             name == that.name &&
             Objects.equals(tests, that.tests) &&
             Objects.equals(testsV2, that.testsV2) &&
+            Objects.equals(testsV3, that.testsV3) &&
             Arrays.equals(snapshotDeps, that.snapshotDeps) &&
             Objects.equals(flags, that.flags) &&
             Objects.equals(problems, that.problems) &&
@@ -465,7 +487,7 @@ public class FatBuildCompacted extends BuildRefCompacted implements IVersionedEn
     /** {@inheritDoc} */
     @Override public int hashCode() {
         int res = Objects.hash(super.hashCode(), _ver, startDate, finishDate, queuedDate, projectId, name, tests,
-            testsV2, flags, problems, statistics, triggered, buildParameters);
+            testsV2, testsV3, flags, problems, statistics, triggered, buildParameters);
         res = 31 * res + Arrays.hashCode(snapshotDeps);
         res = 31 * res + Arrays.hashCode(changesIds);
         res = 31 * res + Arrays.hashCode(revisions);
@@ -503,6 +525,15 @@ public class FatBuildCompacted extends BuildRefCompacted implements IVersionedEn
     }
 
     public Stream<ITest> getFailedNotMutedTests(IStringCompactor compactor) {
+        if (testsV3 != null) {
+            TestsColumnsCompacted cols = testsV3;
+            int successStatus = TestCompactedV2.statusSuccessCid(compactor);
+
+            return IntStream.range(0, cols.size())
+                .filter(idx -> cols.isFailedButNotMuted(idx, successStatus))
+                .mapToObj(cols::test);
+        }
+
         return getAllTests()
                 .filter(t -> t.isFailedButNotMuted(compactor));
     }
@@ -511,7 +542,13 @@ public class FatBuildCompacted extends BuildRefCompacted implements IVersionedEn
         return getFailedNotMutedTests(compactor).map(t -> t.testName(compactor));
     }
 
+    /**
+     * @return Stream of tests, test objects returned can be saved by caller.
+     */
     public Stream<ITest> getAllTests() {
+        if (testsV3 != null)
+            return testsV3.tests();
+
         if (testsV2 != null)
             return testsV2.stream();
 
@@ -521,7 +558,23 @@ public class FatBuildCompacted extends BuildRefCompacted implements IVersionedEn
         return tests.stream().map(t -> t);
     }
 
+    /**
+     * Iterates over all tests. For columns tests storage same view object is provided for each test, so consumer should
+     * not save reference to the test.
+     *
+     * @param consumer Tests consumer.
+     */
+    public void forEachTest(Consumer<ITest> consumer) {
+        if (testsV3 != null)
+            testsV3.forEach(consumer);
+        else
+            getAllTests().forEach(consumer);
+    }
+
     public int getTestsCount() {
+        if (testsV3 != null)
+            return testsV3.size();
+
         if (testsV2 != null)
             return testsV2.size();
 
@@ -529,9 +582,36 @@ public class FatBuildCompacted extends BuildRefCompacted implements IVersionedEn
     }
 
     public Stream<String> getAllTestNames(IStringCompactor compactor) {
+        if (testsV3 != null) {
+            TestsColumnsCompacted cols = testsV3;
+
+            return IntStream.range(0, cols.size()).mapToObj(idx -> compactor.getStringFromId(cols.testName(idx)));
+        }
+
         return getAllTests().map(t -> t.testName(compactor));
     }
 
+    /**
+     * @return Full run time required to run tests.
+     */
+    public long testsDuration() {
+        if (testsV3 != null) {
+            long res = 0;
+
+            for (int idx = 0; idx < testsV3.size(); idx++)
+                res += Math.max(testsV3.duration(idx), 0);
+
+            return res;
+        }
+
+        return getAllTests()
+            .mapToLong(t -> {
+                Integer duration = t.getDuration();
+
+                return duration == null ? 0 : duration;
+            }).sum();
+    }
+
     public String buildTypeName(IStringCompactor compactor) {
         return compactor.getStringFromId(buildTypeName());
     }
@@ -640,6 +720,7 @@ public class FatBuildCompacted extends BuildRefCompacted implements IVersionedEn
             .add("name", name)
             .add("tests", tests)
             .add("testsV2", testsV2)
+            .add("testsV3", testsV3)
             .add("snapshotDeps", snapshotDeps)
             .add("flags", flags)
             .add("problems", problems)
@@ -729,6 +810,17 @@ public class FatBuildCompacted extends BuildRefCompacted implements IVersionedEn
     }
 
     public int totalNotMutedTests() {
+        if (testsV3 != null) {
+            int res = 0;
+
+            for (int idx = 0; idx < testsV3.size(); idx++) {
+                if (!testsV3.isMutedOrIgnored(idx))
+                    res++;
+            }
+
+            return res;
+        }
+
         return (int)getAllTests().filter(next -> !next.isMutedTest() && !next.isIgnoredTest()).count();
     }
 
@@ -736,20 +828,45 @@ public class FatBuildCompacted extends BuildRefCompacted implements IVersionedEn
         return finishDate;
     }
 
+    /**
+     * Migrates tests saved by previous versions of entity to columns, see {@link #testsV3}. If build has
+     * {@link #VER_TESTS_AS_OBJECTS} version, it is updated to {@link #LATEST_VERSION}.
+     *
+     * @param specific Log product specific.
+     * @return {@code true} if build was modified and should be saved.
+     */
     public boolean migrateTests(ILogProductSpecific specific) {
-        if (tests == null || tests.isEmpty())
-            return false;
+        boolean migrated = false;
 
-        if (testsV2 != null)
-            return false;
+        if (testsV3 == null) {
+            if (testsV2 != null && !testsV2.isEmpty()) {
+                addTests(testsV2.stream()
+                    .map(t -> t instanceof TestCompactedV2 ? (TestCompactedV2)t : new TestCompactedV2().copyFrom(t, specific))
+                    .collect(Collectors.toList()));
 
-        testsV2 = tests.stream()
-            .map(t -> new TestCompactedV2().copyFrom(t, specific))
-            .collect(Collectors.toList());
+                migrated = true;
+            }
+            else if (tests != null && !tests.isEmpty()) {
+                addTests(tests.stream()
+                    .map(t -> new TestCompactedV2().copyFrom(t, specific))
+                    .collect(Collectors.toList()));
+
+                migrated = true;
+            }
+        }
+
+        if (migrated) {
+            tests = null;
+            testsV2 = null;
+        }
+
+        if (_ver == VER_TESTS_AS_OBJECTS) {
+            _ver = LATEST_VERSION;
+
+            migrated = true;
+        }
 
-        tests.clear();
-        tests = null;
-        return true;
+        return migrated;
     }
 
     void oldTestsFmtAdd(TestCompacted  compacted) {
@@ -19,6 +19,7 @@ package org.apache.ignite.ci.teamcity.ignited.mute;
 
 import com.google.common.base.Objects;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import org.apache.ignite.tcbot.persistence.Persisted;
@@ -122,7 +123,12 @@ public class MuteInfoCompacted {
         if (o == null || getClass() != o.getClass())
             return false;
         MuteInfoCompacted compacted = (MuteInfoCompacted)o;
-        return id == compacted.id;
+        return id == compacted.id &&
+            muteDate == compacted.muteDate &&
+            text == compacted.text &&
+            Objects.equal(scope, compacted.scope) &&
+            Arrays.equals(testIds, compacted.testIds) &&
+            Arrays.equals(testNames, compacted.testNames);
     }
 
     /** {@inheritDoc} */
@@ -133,4 +139,18 @@ public class MuteInfoCompacted {
     public int id() {
         return id;
     }
+
+    /**
+     * @return Test name IDs from compactor, or {@code null} if mute has no tests.
+     */
+    public int[] testNames() {
+        return testNames;
+    }
+
+    /**
+     * @return Scope.
+     */
+    public MuteScopeCompacted scope() {
+        return scope;
+    }
 }
@@ -19,6 +19,7 @@ package org.apache.ignite.ci.teamcity.ignited.mute;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 
 import org.apache.ignite.tcbot.persistence.Persisted;
 import org.apache.ignite.tcservice.model.conf.BuildType;
@@ -82,4 +83,35 @@ public class MuteScopeCompacted {
 
         return scope;
     }
+
+    /**
+     * @return Project ID from compactor, or 0 if scope is not a project.
+     */
+    public int projectId() {
+        return projectId;
+    }
+
+    /**
+     * @return Build types, or {@code null} if scope is not a set of build types.
+     */
+    public List<BuildTypeRefCompacted> buildTypes() {
+        return buildTypes;
+    }
+
+    /** {@inheritDoc} */
+    @Override public boolean equals(Object o) {
+        if (this == o)
+            return true;
+        if (o == null || getClass() != o.getClass())
+            return false;
+        MuteScopeCompacted compacted = (MuteScopeCompacted)o;
+        return projectId == compacted.projectId &&
+            projectName == compacted.projectName &&
+            Objects.equals(buildTypes, compacted.buildTypes);
+    }
+
+    /** {@inheritDoc} */
+    @Override public int hashCode() {
+        return Objects.hash(projectId, projectName, buildTypes);
+    }
 }
\ No newline at end of file
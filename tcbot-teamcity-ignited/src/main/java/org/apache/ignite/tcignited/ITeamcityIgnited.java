@@ -85,6 +85,21 @@ public interface ITeamcityIgnited {
      */
     public Set<MuteInfo> getMutes(String projectId);
 
+    /**
+     * @param projectId Project id, mutes of it are actualized.
+     * @param testName Test name ID from compactor.
+     * @param buildTypeId Build type ID from compactor, the test was run in.
+     * @param buildTypeProjectId Project ID of the build type from compactor.
+     * @return {@code True} if test is muted with the build type or its project in scope of the mute.
+     */
+    public boolean isMuted(String projectId, int testName, int buildTypeId, int buildTypeProjectId);
+
+    /**
+     * @param projectId Project id.
+     * @return Stamp, changed each time mutes of associated server are changed.
+     */
+    public long mutesChangeStamp(String projectId);
+
     /**
      * Return all builds for branch and suite with finish status.
      *
@@ -100,6 +115,18 @@ public interface ITeamcityIgnited {
         @Nullable Date sinceDate,
         @Nullable Date untilDate);
 
+    /**
+     * Selects builds started in time range using start time index, builds are not filtered by state or status.
+     *
+     * @param buildTypeIds Build type identifiers.
+     * @param branchName Branch name.
+     * @param fromTs Start time lower bound (inclusive), milliseconds.
+     * @param toTs Start time upper bound (inclusive), milliseconds.
+     * @return Sorted IDs of builds.
+     */
+    public int[] getBuildsStartedBetween(Collection<String> buildTypeIds, @Nullable String branchName, long fromTs,
+        long toTs);
+
     /**
      * Trigger build. Enforces TC Bot to load all builds related to this triggered one.
      * @param buildTypeId Build type identifier.
@@ -166,6 +193,12 @@ public interface ITeamcityIgnited {
 
     public Collection<ChangeCompacted> getAllChanges(int[] changeIds);
 
+    /**
+     * @param changeIds Change IDs, may contain duplicates.
+     * @return Change ID -> change, absent changes are loaded from the server in one batch.
+     */
+    public Map<Integer, ChangeCompacted> getChanges(int[] changeIds);
+
     /**
      * Returns IDs of N. most recent builds in build history.
      *
@@ -274,5 +307,11 @@ public interface ITeamcityIgnited {
 
     public Long getBuildStartTime(int buildId);
 
+    /**
+     * @param buildIds Build IDs.
+     * @return Start times, element is {@code 0} if start time of the build with the same index is unknown.
+     */
+    public long[] getBuildStartTimes(int[] buildIds);
+
     public Integer getBorderForAgeForBuildId(int days);
 }
@@ -19,6 +19,7 @@ package org.apache.ignite.tcignited;
 import java.io.File;
 import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
@@ -30,7 +31,6 @@ import java.util.Objects;
 import java.util.OptionalInt;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import javax.annotation.Nonnull;
@@ -61,6 +61,7 @@ import org.apache.ignite.tcignited.buildlog.BuildLogCheckResultDao;
 import org.apache.ignite.tcignited.buildref.BranchEquivalence;
 import org.apache.ignite.tcignited.buildref.BuildRefDao;
 import org.apache.ignite.tcignited.buildref.BuildRefSync;
+import org.apache.ignite.tcignited.history.BuildStartTimeIndex;
 import org.apache.ignite.tcignited.history.BuildStartTimeStorage;
 import org.apache.ignite.tcignited.history.HistoryCollector;
 import org.apache.ignite.tcignited.history.IRunHistory;
@@ -140,6 +141,9 @@ public class TeamcityIgnitedImpl implements ITeamcityIgnited {
     /** Run history DAO. */
     @Inject private BuildStartTimeStorage buildStartTimeStorage;
 
+    /** Start time index of builds. */
+    @Inject private BuildStartTimeIndex buildStartTimeIdx;
+
     /** Logger check result DAO. */
     @Inject private BuildLogCheckResultDao logCheckResDao;
 
@@ -172,6 +176,8 @@ public class TeamcityIgnitedImpl implements ITeamcityIgnited {
         muteDao.init();
         logCheckResDao.init();
         histDao.init();
+
+        scheduler.invokeLater(() -> verifyBuildRefIndexes(srvCode), 10, TimeUnit.SECONDS);
     }
 
     /**
@@ -199,9 +205,6 @@ public class TeamcityIgnitedImpl implements ITeamcityIgnited {
         @Nullable String branchName,
         @Nullable Date sinceDate,
         @Nullable Date untilDate) {
-        final int allDatesOutOfBounds = -1;
-        final int someDatesOutOfBounds = -2;
-        final int invalidVal = -3;
         final int unknownStatus = compactor.getStringId(STATUS_UNKNOWN);
 
         Integer minBuildId;
@@ -212,146 +215,45 @@ public class TeamcityIgnitedImpl implements ITeamcityIgnited {
         else
             minBuildId = null;
 
-        List<BuildRefCompacted> buildRefs = getAllBuildsCompacted(buildTypeId, branchName)
+        Stream<BuildRefCompacted> buildRefs = getAllBuildsCompacted(buildTypeId, branchName)
             .stream()
             .filter(b -> b.isFinished(compactor))
             .filter(b -> b.status() != unknownStatus) //check build is not cancelled
-            .filter(buildRefCompacted -> minBuildId == null || buildRefCompacted.id() > minBuildId)
-            .sorted(Comparator.comparing(BuildRefCompacted::id))
-            .collect(Collectors.toList());
+            .filter(buildRefCompacted -> minBuildId == null || buildRefCompacted.id() > minBuildId);
 
-        if (buildRefs.isEmpty())
-            return Collections.emptyList();
-
-        int idSince = 0;
-        int idUntil = buildRefs.size() - 1;
-
-        if (sinceDate != null) {
-            idSince = binarySearchDate(buildRefs, 0, buildRefs.size(), sinceDate, true);
-            idSince = (idSince == someDatesOutOfBounds) ? 0 : idSince;
-        }
+        if (sinceDate != null || untilDate != null) {
+            int[] startedInRange = getBuildsStartedBetween(Collections.singleton(buildTypeId), branchName,
+                sinceDate == null ? Long.MIN_VALUE : sinceDate.getTime(),
+                untilDate == null ? Long.MAX_VALUE : untilDate.getTime());
 
-        if (untilDate != null) {
-            idUntil = (idSince < 0) ? allDatesOutOfBounds :
-                binarySearchDate(buildRefs, idSince, buildRefs.size(), untilDate, false);
-            idUntil = (idUntil == someDatesOutOfBounds) ? buildRefs.size() - 1 : idUntil;
+            buildRefs = buildRefs.filter(ref -> Arrays.binarySearch(startedInRange, ref.id()) >= 0);
         }
 
-        if (idSince == invalidVal || idUntil == invalidVal) {
-            AtomicBoolean stopFilter = new AtomicBoolean();
-            AtomicBoolean addBuild = new AtomicBoolean();
-
-            return buildRefs.stream()
-                .filter(b -> {
-                    if (stopFilter.get())
-                        return addBuild.get();
-
-                    Date date = getBuildStartDate(b.id());
-
-                    if (date == null)
-                        return false;
-
-                    if (sinceDate != null && untilDate != null)
-                        if ((date.after(sinceDate) || date.equals(sinceDate)) &&
-                            (date.before(untilDate) || date.equals(untilDate)))
-                            return true;
-                        else {
-                            if (date.after(untilDate)) {
-                                stopFilter.set(true);
-                                addBuild.set(false);
-                            }
-
-                            return false;
-                        }
-                    else if (sinceDate != null) {
-                        if (date.after(sinceDate) || date.equals(sinceDate)) {
-                            stopFilter.set(true);
-                            addBuild.set(true);
-
-                            return true;
-                        }
-
-                        return false;
-                    }
-                    else {
-                        if (date.after(untilDate)) {
-                            stopFilter.set(true);
-                            addBuild.set(false);
-
-                            return false;
-                        }
-
-                        return true;
-                    }
-                })
-                .collect(Collectors.toList());
-        } else if (idSince == allDatesOutOfBounds || idUntil == allDatesOutOfBounds)
-            return Collections.emptyList();
-        else
-            return buildRefs.subList(idSince, idUntil + 1);
+        return buildRefs
+            .sorted(Comparator.comparing(BuildRefCompacted::id))
+            .collect(Collectors.toList());
     }
 
-    /**
-     * @param buildRefs Build refs list.
-     * @param fromIdx From index.
-     * @param toIdx To index.
-     * @param key Key.
-     * @param since {@code true} If key is sinceDate, {@code false} is untilDate.
-     *
-     * @return {@value >= 0} Build id from list with min interval between key. If since {@code true}, min interval
-     * between key and same day or later. If since {@code false}, min interval between key and same day or earlier;
-     * {@value -1} All dates out of bounds. If sinceDate after last list element date or untilDate before first list
-     * element;
-     * {@value -2} Some dates out of bounds. If sinceDate before first list element or untilDate after last list
-     * element;
-     * {@value -3} Invalid value. If method get null or fake stub build.
-     */
-    private int binarySearchDate(List<BuildRefCompacted> buildRefs, int fromIdx, int toIdx, Date key, boolean since) {
-        final int allDatesOutOfBounds = -1;
-        final int someDatesOutOfBounds = -2;
-        final int invalidVal = -3;
-
-        int low = fromIdx;
-        int high = toIdx - 1;
-        long minDiff = key.getTime();
-        int minDiffId = since ? low : high;
-        long temp;
-
-        Date highBuildStartDate = getBuildStartDate(buildRefs.get(high).id());
-        Date lowBuildStartDate = getBuildStartDate(buildRefs.get(low).id());
-
-        if (highBuildStartDate != null) {
-            if (highBuildStartDate.before(key))
-                return since ? allDatesOutOfBounds : someDatesOutOfBounds;
-        }
-
-        if (lowBuildStartDate != null) {
-            if (lowBuildStartDate.after(key))
-                return since ? someDatesOutOfBounds : allDatesOutOfBounds;
-        }
+    /** {@inheritDoc} */
+    @Override public int[] getBuildsStartedBetween(Collection<String> buildTypeIds, @Nullable String branchName,
+        long fromTs, long toTs) {
+        ensureActualizeRequested();
 
-        while (low <= high) {
-            int mid = (low + high) >>> 1;
-            Date midValStartDate = getBuildStartDate(buildRefs.get(mid).id());
+        Set<Integer> branchNameIds = branchEquivalence.branchIdsForQuery(branchName, compactor);
 
-            if (midValStartDate != null) {
-                if (midValStartDate.after(key))
-                    high = mid - 1;
-                else if (midValStartDate.before(key))
-                    low = mid + 1;
-                else
-                    return mid;
+        Set<Integer> buildTypeIdIds = new HashSet<>();
 
-                temp = midValStartDate.getTime() - key.getTime();
+        for (String buildTypeId : buildTypeIds) {
+            Integer buildTypeIdId = compactor.getStringIdIfPresent(buildTypeId);
 
-                if ((temp > 0 == since) && (Math.abs(temp) < minDiff)) {
-                    minDiff = Math.abs(temp);
-                    minDiffId = mid;
-                }
-            } else
-                return invalidVal;
+            if (buildTypeIdId != null)
+                buildTypeIdIds.add(buildTypeIdId);
         }
-        return minDiffId;
+
+        if (branchNameIds.isEmpty() || buildTypeIdIds.isEmpty())
+            return new int[0];
+
+        return buildStartTimeIdx.getBuildIds(srvIdMaskHigh, buildTypeIdIds, branchNameIds, fromTs, toTs);
     }
 
     /** {@inheritDoc} */
@@ -392,16 +294,13 @@ public class TeamcityIgnitedImpl implements ITeamcityIgnited {
 
         List<BuildRefCompacted> res = new ArrayList<>();
 
-        branchNameIds.forEach(br -> {
-            List<BuildRefCompacted> builds = buildRefDao.getBuildsForBranch(srvIdMaskHigh, br);
-
-            if(builds.isEmpty())
-                return;
+        if (branchNameIds.isEmpty())
+            return res;
 
-            builds.stream()
-                    .filter(buildRef -> (buildRef.state() == stateQueuedId || buildRef.state() == stateRunningId))
-                    .forEach(res::add);
-        });
+        buildRefDao.getQueuedAndRunning(srvIdMaskHigh).stream()
+            .filter(buildRef -> branchNameIds.contains(buildRef.branchName()))
+            .filter(buildRef -> (buildRef.state() == stateQueuedId || buildRef.state() == stateRunningId))
+            .forEach(res::add);
 
         return res;
     }
@@ -414,6 +313,20 @@ public class TeamcityIgnitedImpl implements ITeamcityIgnited {
         return muteDao.getMutes(srvIdMaskHigh);
     }
 
+    /** {@inheritDoc} */
+    @Override public boolean isMuted(String projectId, int testName, int buildTypeId, int buildTypeProjectId) {
+        muteSync.ensureActualizeMutes(taskName("actualizeMutes"), projectId, srvIdMaskHigh, conn);
+
+        return muteDao.isMuted(srvIdMaskHigh, testName, buildTypeId, buildTypeProjectId);
+    }
+
+    /** {@inheritDoc} */
+    @Override public long mutesChangeStamp(String projectId) {
+        muteSync.ensureActualizeMutes(taskName("actualizeMutes"), projectId, srvIdMaskHigh, conn);
+
+        return muteDao.changeStamp(srvIdMaskHigh);
+    }
+
 
 
     /** {@inheritDoc} */
@@ -596,23 +509,46 @@ public class TeamcityIgnitedImpl implements ITeamcityIgnited {
         return histCollector.getBuildStartTime(srvIdMaskHigh, buildId);
     }
 
+    /** {@inheritDoc} */
+    @Override public long[] getBuildStartTimes(int[] buildIds) {
+        return histCollector.getBuildStartTimes(srvIdMaskHigh, buildIds);
+    }
+
     /** {@inheritDoc} */
     @Override public Integer getBorderForAgeForBuildId(int days) {
         return buildStartTimeStorage.getBorderForAgeForBuildId(srvIdMaskHigh, days);
     }
 
     /** {@inheritDoc} */
-    @GuavaCached(maximumSize = 500, expireAfterAccessSecs = 30, softValues = true)
     @Override public FatBuildCompacted getFatBuild(int buildId, SyncMode mode) {
+        return mode == SyncMode.NONE ? getFatBuildNoSync(buildId) : getFatBuildSynced(buildId, mode);
+    }
+
+    /**
+     * Refreshed ahead, because it only reads Ignite.
+     *
+     * @param buildId Build id.
+     * @return Build or fake stub if build is not saved.
+     */
+    @SuppressWarnings("WeakerAccess")
+    @GuavaCached(maximumSize = 500, expireAfterAccessSecs = 30, refreshAfterWriteSecs = 20, softValues = true)
+    protected FatBuildCompacted getFatBuildNoSync(int buildId) {
         FatBuildCompacted existingBuild = getFatBuildFromIgnite(buildId);
 
-        if (mode == SyncMode.NONE) {
-            // providing fake builds
-            return existingBuild != null ? existingBuild : new FatBuildCompacted().setFakeStub(true);
-        }
+        // providing fake builds
+        return existingBuild != null ? existingBuild : new FatBuildCompacted().setFakeStub(true);
+    }
 
-        if (existingBuild != null)
-            fatBuildDao.runTestMigrationIfNeeded(srvIdMaskHigh, existingBuild);
+    /**
+     * Not refreshed ahead, refresh would request TeamCity again for build being accessed.
+     *
+     * @param buildId Build id.
+     * @param mode Sync mode, other than {@link SyncMode#NONE}.
+     */
+    @SuppressWarnings("WeakerAccess")
+    @GuavaCached(maximumSize = 500, expireAfterAccessSecs = 30, softValues = true)
+    protected FatBuildCompacted getFatBuildSynced(int buildId, SyncMode mode) {
+        FatBuildCompacted existingBuild = getFatBuildFromIgnite(buildId);
 
         FatBuildCompacted savedVer = fatBuildSync.loadBuild(conn, buildId, existingBuild, mode);
 
@@ -632,17 +568,13 @@ public class TeamcityIgnitedImpl implements ITeamcityIgnited {
     /** {@inheritDoc} */
     @AutoProfiling
     @Override public Collection<ChangeCompacted> getAllChanges(int[] changeIds) {
-        final Map<Integer, ChangeCompacted> changes = changesDao.getAll(srvIdMaskHigh, changeIds);
-
-        for (int changeId : changeIds) {
-            if (!changes.containsKey(changeId)) {
-                final ChangeCompacted change = changeSync.reloadChange(srvIdMaskHigh, changeId, conn);
-
-                changes.put(changeId, change);
-            }
-        }
+        return getChanges(changeIds).values();
+    }
 
-        return changes.values();
+    /** {@inheritDoc} */
+    @AutoProfiling
+    @Override public Map<Integer, ChangeCompacted> getChanges(int[] changeIds) {
+        return changeSync.changes(srvIdMaskHigh, changeIds, conn);
     }
 
     public void actualizeRecentBuildRefs() {
@@ -693,6 +625,17 @@ public class TeamcityIgnitedImpl implements ITeamcityIgnited {
             ", old builds sheduled " + directUpload.size();
     }
 
+    /**
+     * @param srvNme TC service name
+     */
+    @SuppressWarnings("WeakerAccess")
+    @MonitoredTask(name = "Verify BuildRef indexes(srv)", nameExtArgsIndexes = {0})
+    protected String verifyBuildRefIndexes(String srvNme) {
+        buildRefDao.verifyIndexes(srvIdMaskHigh);
+
+        return "Build reference indexes verified";
+    }
+
     /**
      *
      */
@@ -29,6 +29,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.TreeSet;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
@@ -55,12 +56,14 @@ import org.apache.ignite.tcbot.persistence.IStringCompactor;
 import org.apache.ignite.tcignited.buildlog.ILogProductSpecific;
 import org.apache.ignite.tcignited.buildref.BuildRefDao;
 import org.apache.ignite.tcignited.buildtime.BuildTimeResult;
+import org.apache.ignite.tcignited.history.BuildStartTimeIndex;
 import org.apache.ignite.tcignited.history.HistoryCollector;
 import org.apache.ignite.tcservice.model.changes.ChangesList;
 import org.apache.ignite.tcservice.model.hist.BuildRef;
 import org.apache.ignite.tcservice.model.result.Build;
 import org.apache.ignite.tcservice.model.result.problems.ProblemOccurrence;
 import org.apache.ignite.tcservice.model.result.stat.Statistics;
+import org.apache.ignite.tcservice.model.result.tests.TestOccurrenceFull;
 import org.apache.ignite.tcservice.model.result.tests.TestOccurrencesFull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -91,6 +94,9 @@ public class FatBuildDao {
     /** History collector. */
     @Inject private HistoryCollector histCollector;
 
+    /** Start time index of builds. */
+    @Inject private BuildStartTimeIndex startTimeIdx;
+
     /** Update Counters for branch-related changes storage. */
     @Inject private UpdateCountersStorage countersStorage;
 
@@ -122,13 +128,42 @@ public class FatBuildDao {
                                        @Nullable Statistics statistics,
                                        @Nullable ChangesList changesList,
                                        @Nullable FatBuildCompacted existingBuild) {
+        List<TestCompactedV2> compacted = new ArrayList<>();
+
+        for (TestOccurrencesFull next : tests) {
+            for (TestOccurrenceFull occurrence : next.getTests())
+                compacted.add(new TestCompactedV2(compactor, occurrence, logProductSpecific));
+        }
+
+        return saveBuildCompactedTests(srvIdMaskHigh, buildId, build, compacted, problems, statistics, changesList,
+            existingBuild);
+    }
+
+    /**
+     * @param srvIdMaskHigh Server id mask high.
+     * @param buildId
+     * @param build Build data.
+     * @param tests Tests already compacted, in order of occurrences.
+     * @param problems
+     * @param statistics
+     * @param changesList
+     * @param existingBuild existing version of build in the DB.
+     * @return Fat Build saved (if modifications detected), otherwise null.
+     */
+    @Nullable public FatBuildCompacted saveBuildCompactedTests(int srvIdMaskHigh,
+        int buildId,
+        @Nonnull Build build,
+        @Nonnull List<TestCompactedV2> tests,
+        @Nullable List<ProblemOccurrence> problems,
+        @Nullable Statistics statistics,
+        @Nullable ChangesList changesList,
+        @Nullable FatBuildCompacted existingBuild) {
         Preconditions.checkNotNull(buildsCache, "init() was not called");
         Preconditions.checkNotNull(build, "build can't be null");
 
         FatBuildCompacted newBuild = new FatBuildCompacted(compactor, build);
 
-        for (TestOccurrencesFull next : tests)
-            newBuild.addTests(compactor, next.getTests(), logProductSpecific);
+        newBuild.addTests(tests);
 
         if (problems != null)
             newBuild.addProblems(compactor, problems);
@@ -152,7 +187,9 @@ public class FatBuildDao {
     public void putFatBuild(int srvIdMaskHigh, int buildId, FatBuildCompacted newBuild) {
         buildsCache.put(buildIdToCacheKey(srvIdMaskHigh, buildId), newBuild);
 
-        histCollector.invalidateHistoryInMem(srvIdMaskHigh, newBuild);
+        histCollector.onBuildSaved(srvIdMaskHigh, newBuild);
+
+        startTimeIdx.onBuildSaved(srvIdMaskHigh, newBuild, newBuild.getStartDateTs());
 
         countersStorage.increment(newBuild.branchName());
     }
@@ -264,7 +301,7 @@ public class FatBuildDao {
 
         Iterables.partition(keys, MAX_FAT_BUILD_CHUNK).forEach(
             chunk -> {
-                Map<Long, EntryProcessorResult<Long>> map = cacheBin.invokeAll(keys, new GetStartTimeProc());
+                Map<Long, EntryProcessorResult<Long>> map = cacheBin.invokeAll(new TreeSet<>(chunk), new GetStartTimeProc());
                 map.forEach((k, r) -> {
                     Long ts = r.get();
                     if (ts != null)
@@ -395,11 +432,27 @@ public class FatBuildDao {
         return map.values().stream().map(EntryProcessorResult::get).filter(Objects::nonNull).collect(Collectors.toList());
     }
 
+    /**
+     * Migrates tests of build saved by previous versions to columns format and saves build if it was modified.
+     *
+     * @param srvIdMaskHigh Server id mask high.
+     * @param build Build.
+     */
     public void runTestMigrationIfNeeded(int srvIdMaskHigh, FatBuildCompacted build) {
-        if (build.migrateTests(logProductSpecific))
+        if (migrateTests(build))
             putFatBuild(srvIdMaskHigh, build.id(), build);
     }
 
+    /**
+     * Migrates tests of build in place, build is not saved.
+     *
+     * @param build Build.
+     * @return {@code true} if build was modified.
+     */
+    public boolean migrateTests(FatBuildCompacted build) {
+        return build.migrateTests(logProductSpecific);
+    }
+
     private static class GetStartTimeProc implements CacheEntryProcessor<Long, BinaryObject, Long> {
         /** {@inheritDoc} */
         @Override public Long process(MutableEntry<Long, BinaryObject> entry,
@@ -16,6 +16,7 @@
  */
 package org.apache.ignite.tcignited.build;
 
+import com.google.common.base.Preconditions;
 import com.google.common.base.Strings;
 import com.google.common.base.Throwables;
 import java.io.FileNotFoundException;
@@ -28,14 +29,16 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import javax.annotation.concurrent.GuardedBy;
 import javax.inject.Inject;
-import org.apache.ignite.cache.affinity.Affinity;
 import org.apache.ignite.ci.teamcity.ignited.BuildRefCompacted;
 import org.apache.ignite.ci.teamcity.ignited.change.ChangeSync;
 import org.apache.ignite.ci.teamcity.ignited.fatbuild.FatBuildCompacted;
@@ -45,16 +48,20 @@ import org.apache.ignite.tcbot.common.exeption.ExceptionUtil;
 import org.apache.ignite.tcbot.common.exeption.ServiceConflictException;
 import org.apache.ignite.tcbot.common.interceptor.AutoProfiling;
 import org.apache.ignite.tcbot.common.interceptor.MonitoredTask;
+import org.apache.ignite.tcbot.common.util.TimeUtil;
 import org.apache.ignite.tcbot.persistence.IStringCompactor;
 import org.apache.ignite.tcbot.persistence.scheduler.IScheduler;
 import org.apache.ignite.tcignited.ITeamcityIgnited;
 import org.apache.ignite.tcignited.SyncMode;
+import org.apache.ignite.tcignited.buildlog.ILogProductSpecific;
 import org.apache.ignite.tcignited.buildref.BuildRefDao;
 import org.apache.ignite.tcservice.ITeamcityConn;
 import org.apache.ignite.tcservice.model.changes.ChangesList;
 import org.apache.ignite.tcservice.model.result.Build;
 import org.apache.ignite.tcservice.model.result.problems.ProblemOccurrence;
+import org.apache.ignite.tcservice.model.result.problems.ProblemOccurrences;
 import org.apache.ignite.tcservice.model.result.stat.Statistics;
+import org.apache.ignite.tcservice.model.result.tests.TestOccurrenceFull;
 import org.apache.ignite.tcservice.model.result.tests.TestOccurrencesFull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -62,6 +69,9 @@ import org.slf4j.LoggerFactory;
 public class ProactiveFatBuildSync {
     public static final int FAT_BUILD_PROACTIVE_TASKS = 5;
 
+    /** Test occurrences requested in one page. */
+    private static final int TESTS_PAGE_SIZE = 1000;
+
     /** Logger. */
     private static final Logger logger = LoggerFactory.getLogger(ProactiveFatBuildSync.class);
 
@@ -80,6 +90,9 @@ public class ProactiveFatBuildSync {
     /** Change sync. */
     @Inject private ChangeSync changeSync;
 
+    /** Product specific log processing, used for test details compaction. */
+    @Inject private ILogProductSpecific logProductSpecific;
+
     @GuardedBy("this")
     private Map<String, SyncTask> buildToLoad = new HashMap<>();
 
@@ -130,50 +143,48 @@ public class ProactiveFatBuildSync {
         return syncTask;
     }
 
+    /**
+     * Finds builds, which are present in build references, but missed in the fat builds cache. Build references are
+     * scanned only once, partition by partition. Build reference and fat build caches share keys and affinity, so
+     * missing builds check is done by batches of keys co-located in the same partition.
+     *
+     * @param srvCode Server code.
+     * @param conn Connection.
+     * @return Printable result for monitoring page.
+     */
     @SuppressWarnings({"WeakerAccess", "UnusedReturnValue"})
     @MonitoredTask(name = "Find missing builds", nameExtArgsIndexes = {0})
     @AutoProfiling
     protected String findMissingBuildsFromBuildRef(String srvCode, ITeamcityConn conn) {
+        long startTs = System.currentTimeMillis();
         int srvIdMaskHigh = ITeamcityIgnited.serverIdToInt(srvCode);
 
+        int partitions = buildRefDao.partitions();
+        Preconditions.checkState(partitions == fatBuildDao.affinity().partitions(),
+            "Build references and fat builds caches should have the same partitions count");
+
         List<Integer> buildsIdsToLoad = new ArrayList<>();
         AtomicInteger totalAskedToLoad = new AtomicInteger();
-
-        Affinity<Long> affinity = fatBuildDao.affinity();
-        int partitions = affinity.partitions();
+        AtomicInteger totalChecked = new AtomicInteger();
         int checkBatchSize = 1000;
 
         GridIntList keysToCheck = new GridIntList();
         for (int p = 0; p < partitions; p++) {
-            int curPart = p;
-
-            buildRefDao.compactedBuildsForServer(srvIdMaskHigh, bref -> true)
-                .filter(
-                    bref -> {
-                        long fatBuildKey = FatBuildDao.buildIdToCacheKey(srvIdMaskHigh, bref.id());
-                        int part = affinity.partition(fatBuildKey);
-                        return part == curPart;
-                    }
-                )
+            buildRefDao.compactedBuildsForServer(srvIdMaskHigh, p, null)
                 .forEach(buildRef -> {
                     int buildId = buildRef.id();
 
+                    totalChecked.incrementAndGet();
+
                     if (buildRef.isRunning(compactor) || buildRef.isQueued(compactor))
                         buildsIdsToLoad.add(buildId); //re-check queued
                     else
                         keysToCheck.add(buildId); // check if missing
 
-                    int initSize = keysToCheck.size();
-                    if (initSize >= checkBatchSize) {
-                        System.err.println("findMissingBuilds: Srv: " + srvCode + " Checking " + initSize + " builds for partition " + curPart);
+                    if (keysToCheck.size() >= checkBatchSize) {
+                        buildsIdsToLoad.addAll(fatBuildDao.getMissingBuilds(srvIdMaskHigh, keysToCheck.array()));
 
-                        int[] buildIds = keysToCheck.array();
                         keysToCheck.clear();
-
-                        Collection<Integer> builds = fatBuildDao.getMissingBuilds(srvIdMaskHigh, buildIds);
-                        System.err.println("foundMissing: " + builds.size() + ": Srv: " + srvCode + " Checking " + initSize + " builds for partition " + curPart);
-
-                        buildsIdsToLoad.addAll(builds);
                     }
 
                     if (buildsIdsToLoad.size() >= 100) {
@@ -182,18 +193,28 @@ public class ProactiveFatBuildSync {
                         buildsIdsToLoad.clear();
                     }
                 });
-        }
 
-        if (!keysToCheck.isEmpty())
-            buildsIdsToLoad.addAll(fatBuildDao.getMissingBuilds(srvIdMaskHigh, keysToCheck.array()));
+            // Batch should contain only keys from the same partition.
+            if (!keysToCheck.isEmpty()) {
+                buildsIdsToLoad.addAll(fatBuildDao.getMissingBuilds(srvIdMaskHigh, keysToCheck.array()));
+
+                keysToCheck.clear();
+            }
 
+            if (logger.isDebugEnabled()) {
+                logger.debug("findMissingBuilds: Srv: " + srvCode + " partition " + (p + 1) + "/" + partitions
+                    + " done, checked " + totalChecked.get() + " builds");
+            }
+        }
 
         if (!buildsIdsToLoad.isEmpty()) {
             totalAskedToLoad.addAndGet(buildsIdsToLoad.size());
             scheduleBuildsLoad(conn, buildsIdsToLoad);
         }
 
-        return "Invoked later load for " + totalAskedToLoad.get() + " builds from " + srvCode;
+        return "Invoked later load for " + totalAskedToLoad.get() + " builds from " + srvCode
+            + ", checked " + totalChecked.get() + " build references in " + partitions + " partitions"
+            + " in " + TimeUtil.millisToDurationPrintable(System.currentTimeMillis() - startTs);
     }
 
     /** */
@@ -327,6 +348,9 @@ public class ProactiveFatBuildSync {
     public FatBuildCompacted loadBuild(ITeamcityConn conn, int buildId,
         @Nullable FatBuildCompacted existingBuild,
         SyncMode mode) {
+        if (existingBuild != null)
+            fatBuildDao.runTestMigrationIfNeeded(ITeamcityIgnited.serverIdToInt(conn.serverCode()), existingBuild);
+
         if (existingBuild != null && !existingBuild.isOutdatedEntityVersion()) {
             boolean finished =
                 existingBuild.state(compactor) != null // don't count old fake builds as finished
@@ -375,7 +399,7 @@ public class ProactiveFatBuildSync {
         }
 
         Build build;
-        List<TestOccurrencesFull> tests = new ArrayList<>();
+        List<TestCompactedV2> tests = new ArrayList<>();
         List<ProblemOccurrence> problems = null;
         Statistics statistics = null;
         ChangesList changesList = null;
@@ -390,31 +414,37 @@ public class ProactiveFatBuildSync {
                         "Build IDs are not consistent: returned " + build.getId() + " queued is " + buildId);
             }
 
-            if (build.testOccurrences != null && !build.isComposite()) { // don't query tests for compoite
-                String nextHref = null;
-                do {
-                    TestOccurrencesFull page = conn.getTestsPage(buildId, nextHref, true);
-                    nextHref = page.nextHref();
+            // All parts of the build are requested concurrently, responses are assembled in order below.
+            CompletableFuture<List<TestCompactedV2>> testsFut = build.testOccurrences != null && !build.isComposite()
+                ? loadTestPages(conn, buildId, build) // don't query tests for compoite
+                : CompletableFuture.completedFuture(Collections.emptyList());
 
-                    tests.add(page);
-                }
-                while (!Strings.isNullOrEmpty(nextHref));
-            }
+            CompletableFuture<ProblemOccurrences> problemsFut = build.problemOccurrences != null
+                ? conn.getProblemsAsync(buildId)
+                : CompletableFuture.completedFuture(null);
 
-            if (build.problemOccurrences != null)
-                problems = conn.getProblems(buildId).getProblemsNonNull();
+            CompletableFuture<Statistics> statisticsFut = build.statisticsRef != null
+                ? conn.getStatisticsAsync(buildId)
+                : CompletableFuture.completedFuture(null);
 
-            if (build.statisticsRef != null)
-                statistics = conn.getStatistics(buildId);
+            CompletableFuture<ChangesList> changesFut = build.changesRef != null
+                ? conn.getChangesListAsync(buildId)
+                : CompletableFuture.completedFuture(null);
 
-            if (build.changesRef != null) {
-                changesList = conn.getChangesList(buildId);
+            tests = waitFor(testsFut);
 
-                for (int changeId : FatBuildDao.extractChangeIds(changesList)) {
-                    // consult change sync for provided changes data
+            ProblemOccurrences problemsLoaded = waitFor(problemsFut);
 
-                    changeSync.change(srvIdMask, changeId, conn);
-                }
+            if (problemsLoaded != null)
+                problems = problemsLoaded.getProblemsNonNull();
+
+            statistics = waitFor(statisticsFut);
+
+            changesList = waitFor(changesFut);
+
+            if (changesList != null) {
+                // consult change sync for provided changes data
+                changeSync.changes(srvIdMask, FatBuildDao.extractChangeIds(changesList), conn);
             }
         }
         catch (Exception e) {
@@ -432,7 +462,7 @@ public class ProactiveFatBuildSync {
                     if (build.isFakeStub())
                         build.setCancelled();
 
-                    tests = Collections.singletonList(existingBuild.getTestOcurrences(compactor));
+                    existingBuild.getTestOcurrences(compactor).getTests().forEach(compactTo(tests));
 
                     problems = existingBuild.problems(compactor);
 
@@ -456,7 +486,89 @@ public class ProactiveFatBuildSync {
 
         //if we are here because of some sort of outdated version of build,
         // new save will be performed with new entity version for compacted build
-        return fatBuildDao.saveBuild(srvIdMask, buildId, build, tests, problems, statistics, changesList, existingBuild);
+        return fatBuildDao.saveBuildCompactedTests(srvIdMask, buildId, build, tests, problems, statistics, changesList,
+            existingBuild);
+    }
+
+    /**
+     * Loads all test occurrences pages of the build. If tests count is known and build is finished, pages are
+     * requested in parallel by ranges, otherwise pages are requested one by one following next page reference.
+     * Tests are compacted while each page is parsed.
+     *
+     * @param conn Connection.
+     * @param buildId Build id.
+     * @param build Build loaded.
+     * @return Future with compacted tests in order of test occurrences.
+     */
+    private CompletableFuture<List<TestCompactedV2>> loadTestPages(ITeamcityConn conn, int buildId, Build build) {
+        Integer cnt = build.testOccurrences.count;
+
+        if (cnt == null || cnt <= TESTS_PAGE_SIZE || build.isRunning() || build.isQueued()) {
+            List<TestCompactedV2> tests = new ArrayList<>();
+
+            return conn.getTestsPageAsync(buildId, null, true, compactTo(tests))
+                .thenCompose(page -> loadNextTestPages(conn, buildId, page.nextHref(), tests));
+        }
+
+        List<List<TestCompactedV2>> pages = new ArrayList<>();
+        List<CompletableFuture<TestOccurrencesFull>> futs = new ArrayList<>();
+
+        for (int start = 0; start < cnt; start += TESTS_PAGE_SIZE) {
+            List<TestCompactedV2> page = new ArrayList<>(TESTS_PAGE_SIZE);
+
+            pages.add(page);
+            futs.add(conn.getTestsPageAsync(buildId, start, TESTS_PAGE_SIZE, true, compactTo(page)));
+        }
+
+        return CompletableFuture.allOf(futs.toArray(new CompletableFuture<?>[0]))
+            .thenCompose(ignored -> {
+                List<TestCompactedV2> tests = new ArrayList<>(cnt);
+
+                pages.forEach(tests::addAll);
+
+                return loadNextTestPages(conn, buildId, futs.get(futs.size() - 1).join().nextHref(), tests);
+            });
+    }
+
+    /**
+     * Follows next page reference until all pages are loaded.
+     *
+     * @param conn Connection.
+     * @param buildId Build id.
+     * @param nextHref Next page reference of the last page loaded.
+     * @param tests Tests already loaded, tests from next pages are appended to this list.
+     */
+    private CompletableFuture<List<TestCompactedV2>> loadNextTestPages(ITeamcityConn conn, int buildId,
+        @Nullable String nextHref, List<TestCompactedV2> tests) {
+        if (Strings.isNullOrEmpty(nextHref))
+            return CompletableFuture.completedFuture(tests);
+
+        return conn.getTestsPageAsync(buildId, nextHref, true, compactTo(tests))
+            .thenCompose(page -> loadNextTestPages(conn, buildId, page.nextHref(), tests));
+    }
+
+    /**
+     * @param dest Destination list.
+     * @return Consumer compacting test occurrences into destination list.
+     */
+    private Consumer<TestOccurrenceFull> compactTo(List<TestCompactedV2> dest) {
+        return occurrence -> dest.add(new TestCompactedV2(compactor, occurrence, logProductSpecific));
+    }
+
+    /**
+     * @param fut Future.
+     * @return Result of future, errors are rethrown unwrapped from {@link CompletionException}.
+     */
+    private static <T> T waitFor(CompletableFuture<T> fut) {
+        try {
+            return fut.join();
+        }
+        catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException)
+                throw (RuntimeException)e.getCause();
+
+            throw e;
+        }
     }
 
     @Nullable
@@ -464,6 +576,8 @@ public class ProactiveFatBuildSync {
         if (Objects.equals(buildId, existingBuild.id())) {
             existingBuild.setVersion(FatBuildCompacted.LATEST_VERSION);
 
+            fatBuildDao.migrateTests(existingBuild);
+
             fatBuildDao.putFatBuild(srvIdMask, buildId, existingBuild);
 
             return null;
@@ -185,13 +185,21 @@ public class TestCompactedV2 implements ITest {
      * @param off Offset.
      */
     private Boolean getFlag(int off) {
-        if (!getBitAt(off))
+        return getFlag(testFlags, off);
+    }
+
+    /**
+     * @param testFlags Test flags.
+     * @param off Offset.
+     */
+    static Boolean getFlag(int testFlags, int off) {
+        if (!getBitAt(testFlags, off))
             return null;
 
-        return getBitAt(off + 1);
+        return getBitAt(testFlags, off + 1);
     }
 
-    private boolean getBitAt(int off) {
+    private static boolean getBitAt(int testFlags, int off) {
         return (testFlags & (1 << off)) != 0;
     }
 
@@ -296,6 +304,27 @@ public class TestCompactedV2 implements ITest {
         return idInBuild;
     }
 
+    /**
+     * @return Raw flags of the test.
+     */
+    int testFlags() {
+        return testFlags;
+    }
+
+    /**
+     * @return Duration or -1 if not reported.
+     */
+    int duration() {
+        return duration;
+    }
+
+    /**
+     * @return Details compacted or null.
+     */
+    @Nullable StringFieldCompacted details() {
+        return details;
+    }
+
     /** {@inheritDoc} */
     @Override public boolean equals(Object o) {
         if (this == o)
@@ -325,6 +354,14 @@ public class TestCompactedV2 implements ITest {
     }
 
     public int statusSuccess(IStringCompactor compactor) {
+        return statusSuccessCid(compactor);
+    }
+
+    /**
+     * @param compactor Compactor.
+     * @return Compacted ID of success test status.
+     */
+    public static int statusSuccessCid(IStringCompactor compactor) {
         //Each time compactor should give same result, so no locking applied
         if (STATUS_SUCCESS_CID == -1)
             STATUS_SUCCESS_CID = compactor.getStringId(TestOccurrence.STATUS_SUCCESS);
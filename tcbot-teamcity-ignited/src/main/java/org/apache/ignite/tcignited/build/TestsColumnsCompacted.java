@@ -0,0 +1,436 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.ignite.tcignited.build;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.base.Strings;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import javax.annotation.Nullable;
+import org.apache.ignite.ci.tcbot.common.StringFieldCompacted;
+import org.apache.ignite.tcbot.persistence.IStringCompactor;
+import org.apache.ignite.tcbot.persistence.Persisted;
+
+/**
+ * Tests of one build stored as parallel primitive arrays (columns). Single binary object is saved for all tests
+ * instead of one object per test in {@link TestCompactedV2}. Details of tests, if present, are joined and stored as one
+ * compressed field.
+ *
+ * Tests can be accessed using {@link ITest} views, see {@link #test(int)} and {@link #forEach(Consumer)}.
+ */
+@Persisted
+public class TestsColumnsCompacted {
+    /** Empty array. */
+    private static final int[] EMPTY = new int[0];
+
+    /** Id in this build only. Does not identify test for its history */
+    private int[] idInBuild = EMPTY;
+
+    /** Test names (compactor IDs). */
+    private int[] names = EMPTY;
+
+    /** Test statuses (compactor IDs). */
+    private int[] statuses = EMPTY;
+
+    /** Durations, -1 if not reported. */
+    private int[] durations = EMPTY;
+
+    /** Flags, same format with {@link TestCompactedV2} flags. */
+    private byte[] flags = new byte[0];
+
+    /** Test global IDs, 0 if not reported. */
+    private long[] testIds = new long[0];
+
+    /** Actual build ids. */
+    private int[] actualBuildIds = EMPTY;
+
+    /** Sorted indexes of tests having details. */
+    @Nullable private int[] detailsTests;
+
+    /** Start offset for details of test from {@link #detailsTests} in joined string. */
+    @Nullable private int[] detailsOffsets;
+
+    /** Details of all tests joined. */
+    @Nullable private StringFieldCompacted details;
+
+    /** Joined details uncompressed, lazily initialized. */
+    @Nullable private transient String detailsUnpacked;
+
+    /**
+     * @param tests Tests to append.
+     */
+    public TestsColumnsCompacted append(Collection<TestCompactedV2> tests) {
+        if (tests.isEmpty())
+            return this;
+
+        int off = size();
+        int newSize = off + tests.size();
+
+        idInBuild = Arrays.copyOf(idInBuild, newSize);
+        names = Arrays.copyOf(names, newSize);
+        statuses = Arrays.copyOf(statuses, newSize);
+        durations = Arrays.copyOf(durations, newSize);
+        flags = Arrays.copyOf(flags, newSize);
+        testIds = Arrays.copyOf(testIds, newSize);
+        actualBuildIds = Arrays.copyOf(actualBuildIds, newSize);
+
+        StringBuilder newDetails = null;
+        int[] newDetailsTests = EMPTY;
+        int[] newDetailsOffsets = EMPTY;
+        int detailsCnt = 0;
+
+        int idx = off;
+        for (TestCompactedV2 test : tests) {
+            idInBuild[idx] = test.idInBuild();
+            names[idx] = test.testName();
+            statuses[idx] = test.status();
+            durations[idx] = test.duration();
+            flags[idx] = (byte)test.testFlags();
+
+            Long testId = test.getTestId();
+            testIds[idx] = testId == null ? 0 : testId;
+
+            actualBuildIds[idx] = test.getActualBuildId();
+
+            StringFieldCompacted testDetails = test.details();
+            String text = testDetails == null ? null : testDetails.getValue();
+
+            if (!Strings.isNullOrEmpty(text)) {
+                if (newDetails == null) {
+                    newDetails = new StringBuilder(detailsText());
+                    newDetailsTests = detailsTests == null ? new int[tests.size()]
+                        : Arrays.copyOf(detailsTests, detailsTests.length + tests.size());
+                    newDetailsOffsets = detailsOffsets == null ? new int[tests.size()]
+                        : Arrays.copyOf(detailsOffsets, detailsOffsets.length + tests.size());
+                    detailsCnt = detailsTests == null ? 0 : detailsTests.length;
+                }
+
+                newDetailsTests[detailsCnt] = idx;
+                newDetailsOffsets[detailsCnt] = newDetails.length();
+                detailsCnt++;
+
+                newDetails.append(text);
+            }
+
+            idx++;
+        }
+
+        if (newDetails != null) {
+            detailsTests = Arrays.copyOf(newDetailsTests, detailsCnt);
+            detailsOffsets = Arrays.copyOf(newDetailsOffsets, detailsCnt);
+
+            String joined = newDetails.toString();
+
+            details = new StringFieldCompacted(joined);
+            detailsUnpacked = joined;
+        }
+
+        return this;
+    }
+
+    /**
+     * @return Count of tests.
+     */
+    public int size() {
+        return names.length;
+    }
+
+    /**
+     * @param idx Index of test.
+     * @return New view of the test, can be saved by caller.
+     */
+    public ITest test(int idx) {
+        return new TestView(idx);
+    }
+
+    /**
+     * @return Stream of tests views.
+     */
+    public Stream<ITest> tests() {
+        return IntStream.range(0, size()).mapToObj(this::test);
+    }
+
+    /**
+     * Iterates over all tests using one view object (flyweight), consumer should not save reference to the test.
+     *
+     * @param consumer Tests consumer.
+     */
+    public void forEach(Consumer<ITest> consumer) {
+        TestView view = new TestView(-1);
+
+        for (int i = 0; i < size(); i++) {
+            view.idx = i;
+
+            consumer.accept(view);
+        }
+    }
+
+    /**
+     * @param idx Index of test.
+     */
+    public int testName(int idx) {
+        return names[idx];
+    }
+
+    /**
+     * @param idx Index of test.
+     */
+    public int status(int idx) {
+        return statuses[idx];
+    }
+
+    /**
+     * @param idx Index of test.
+     * @return Duration or -1 if duration is not reported.
+     */
+    public int duration(int idx) {
+        return durations[idx];
+    }
+
+    /**
+     * @param idx Index of test.
+     */
+    public boolean isMutedOrIgnored(int idx) {
+        return isFlagSet(idx, TestCompactedV2.MUTED_F) || isFlagSet(idx, TestCompactedV2.IGNORED_F);
+    }
+
+    /**
+     * @param idx Index of test.
+     * @param successStatus Success status code.
+     */
+    public boolean isFailedButNotMuted(int idx, int successStatus) {
+        return statuses[idx] != successStatus && !isMutedOrIgnored(idx);
+    }
+
+    /**
+     * @param idx Index of test.
+     * @param off Flag offset.
+     */
+    private boolean isFlagSet(int idx, int off) {
+        Boolean flag = flag(idx, off);
+
+        return flag != null && flag;
+    }
+
+    /**
+     * @param idx Index of test.
+     * @param off Flag offset.
+     */
+    private Boolean flag(int idx, int off) {
+        return TestCompactedV2.getFlag(flags[idx] & 0xFF, off);
+    }
+
+    /**
+     * @return Joined details for all tests.
+     */
+    private String detailsText() {
+        if (details == null)
+            return "";
+
+        String unpacked = detailsUnpacked;
+
+        if (unpacked == null) {
+            unpacked = details.getValue();
+
+            if (unpacked == null)
+                unpacked = "";
+
+            detailsUnpacked = unpacked;
+        }
+
+        return unpacked;
+    }
+
+    /**
+     * @param idx Index of test.
+     */
+    @Nullable private String detailsText(int idx) {
+        if (detailsTests == null || detailsOffsets == null)
+            return null;
+
+        int pos = Arrays.binarySearch(detailsTests, idx);
+
+        if (pos < 0)
+            return null;
+
+        String text = detailsText();
+
+        int start = detailsOffsets[pos];
+        int end = pos + 1 < detailsOffsets.length ? detailsOffsets[pos + 1] : text.length();
+
+        if (start > end || end > text.length())
+            return null;
+
+        return text.substring(start, end);
+    }
+
+    /** {@inheritDoc} */
+    @Override public boolean equals(Object o) {
+        if (this == o)
+            return true;
+        if (o == null || getClass() != o.getClass())
+            return false;
+        TestsColumnsCompacted that = (TestsColumnsCompacted)o;
+        return Arrays.equals(idInBuild, that.idInBuild) &&
+            Arrays.equals(names, that.names) &&
+            Arrays.equals(statuses, that.statuses) &&
+            Arrays.equals(durations, that.durations) &&
+            Arrays.equals(flags, that.flags) &&
+            Arrays.equals(testIds, that.testIds) &&
+            Arrays.equals(actualBuildIds, that.actualBuildIds) &&
+            Arrays.equals(detailsTests, that.detailsTests) &&
+            Arrays.equals(detailsOffsets, that.detailsOffsets) &&
+            Objects.equals(details, that.details);
+    }
+
+    /** {@inheritDoc} */
+    @Override public int hashCode() {
+        int res = Objects.hashCode(details);
+        res = 31 * res + Arrays.hashCode(idInBuild);
+        res = 31 * res + Arrays.hashCode(names);
+        res = 31 * res + Arrays.hashCode(statuses);
+        res = 31 * res + Arrays.hashCode(durations);
+        res = 31 * res + Arrays.hashCode(flags);
+        res = 31 * res + Arrays.hashCode(testIds);
+        res = 31 * res + Arrays.hashCode(actualBuildIds);
+        res = 31 * res + Arrays.hashCode(detailsTests);
+        res = 31 * res + Arrays.hashCode(detailsOffsets);
+        return res;
+    }
+
+    /** {@inheritDoc} */
+    @Override public String toString() {
+        return MoreObjects.toStringHelper(this)
+            .add("size", size())
+            .add("names", Arrays.toString(names))
+            .add("statuses", Arrays.toString(statuses))
+            .add("detailsTests", Arrays.toString(detailsTests))
+            .toString();
+    }
+
+    /**
+     * View of one test stored in columns.
+     */
+    private class TestView implements ITest {
+        /** Index of test in columns. */
+        private int idx;
+
+        /**
+         * @param idx Index of test.
+         */
+        TestView(int idx) {
+            this.idx = idx;
+        }
+
+        /** {@inheritDoc} */
+        @Override public int testName() {
+            return names[idx];
+        }
+
+        /** {@inheritDoc} */
+        @Override public String testName(IStringCompactor compactor) {
+            return compactor.getStringFromId(names[idx]);
+        }
+
+        /** {@inheritDoc} */
+        @Override public int status() {
+            return statuses[idx];
+        }
+
+        /** {@inheritDoc} */
+        @Override public boolean isInvestigated() {
+            return isFlagSet(idx, TestCompactedV2.CUR_INV_F);
+        }
+
+        /** {@inheritDoc} */
+        @Override public Boolean getCurrentlyMuted() {
+            return flag(idx, TestCompactedV2.CUR_MUTED_F);
+        }
+
+        /** {@inheritDoc} */
+        @Override public Boolean getCurrInvestigatedFlag() {
+            return flag(idx, TestCompactedV2.CUR_INV_F);
+        }
+
+        /** {@inheritDoc} */
+        @Nullable @Override public Integer getDuration() {
+            int duration = durations[idx];
+
+            return duration < 0 ? null : duration;
+        }
+
+        /** {@inheritDoc} */
+        @Override public boolean isFailedTest(IStringCompactor compactor) {
+            return isFailedTest(TestCompactedV2.statusSuccessCid(compactor));
+        }
+
+        /** {@inheritDoc} */
+        @Override public String getDetailsText() {
+            return detailsText(idx);
+        }
+
+        /** {@inheritDoc} */
+        @Override public Long getTestId() {
+            long testId = testIds[idx];
+
+            return testId != 0 ? testId : null;
+        }
+
+        /** {@inheritDoc} */
+        @Override public boolean isFailedButNotMuted(IStringCompactor compactor) {
+            return isFailedButNotMuted(TestCompactedV2.statusSuccessCid(compactor));
+        }
+
+        /** {@inheritDoc} */
+        @Override public Boolean getIgnoredFlag() {
+            return flag(idx, TestCompactedV2.IGNORED_F);
+        }
+
+        /** {@inheritDoc} */
+        @Override public Boolean getMutedFlag() {
+            return flag(idx, TestCompactedV2.MUTED_F);
+        }
+
+        /** {@inheritDoc} */
+        @Override public int getActualBuildId() {
+            return actualBuildIds[idx];
+        }
+
+        /** {@inheritDoc} */
+        @Override public int idInBuild() {
+            return idInBuild[idx];
+        }
+
+        /** {@inheritDoc} */
+        @Override public String toString() {
+            return MoreObjects.toStringHelper(this)
+                .add("idx", idx)
+                .add("idInBuild", idInBuild())
+                .add("name", testName())
+                .add("status", status())
+                .add("duration", durations[idx])
+                .add("flags", flags[idx])
+                .add("testId", testIds[idx])
+                .add("actualBuildId", getActualBuildId())
+                .toString() + "\n";
+        }
+    }
+}
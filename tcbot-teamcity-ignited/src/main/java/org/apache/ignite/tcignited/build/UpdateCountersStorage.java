@@ -18,6 +18,7 @@ package org.apache.ignite.tcignited.build;
 
 import java.util.Collection;
 import java.util.Map;
+import java.util.Set;
 import java.util.TreeMap;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
@@ -28,6 +29,9 @@ public class UpdateCountersStorage {
     /** Counters: Map from Branch name compactor ID to its correspondent update counter value. */
     private ConcurrentMap<Integer, AtomicInteger> counters = new ConcurrentHashMap<>();
 
+    /** Listeners: Map from Branch name compactor ID to listeners of its counter changes. */
+    private final ConcurrentMap<Integer, Set<Runnable>> listeners = new ConcurrentHashMap<>();
+
     public Map<Integer, Integer> getCounters(Collection<Integer> branchNames) {
         Map<Integer, Integer> res = new TreeMap<>();
 
@@ -53,5 +57,43 @@ public class UpdateCountersStorage {
 
     public void increment(int branchName) {
         getIntegerForEntry(branchName).incrementAndGet();
+
+        Set<Runnable> branchListeners = listeners.get(branchName);
+
+        if (branchListeners != null)
+            branchListeners.forEach(Runnable::run);
+    }
+
+    /**
+     * Adds listener to be notified about changes of counters. Listener is called from thread updating counter, so it
+     * should return quickly.
+     *
+     * @param branchNames Branch name compactor IDs.
+     * @param lsnr Listener.
+     */
+    public void addListener(Collection<Integer> branchNames, Runnable lsnr) {
+        for (Integer name : branchNames) {
+            listeners.compute(name, (k, set) -> {
+                Set<Runnable> res = set != null ? set : ConcurrentHashMap.newKeySet();
+
+                res.add(lsnr);
+
+                return res;
+            });
+        }
+    }
+
+    /**
+     * @param branchNames Branch name compactor IDs used for adding listener.
+     * @param lsnr Listener.
+     */
+    public void removeListener(Collection<Integer> branchNames, Runnable lsnr) {
+        for (Integer name : branchNames) {
+            listeners.computeIfPresent(name, (k, set) -> {
+                set.remove(lsnr);
+
+                return set.isEmpty() ? null : set;
+            });
+        }
     }
 }
@@ -17,37 +17,151 @@
 
 package org.apache.ignite.tcignited.buildlog;
 
-import java.io.BufferedReader;
 import java.io.File;
-import java.io.InputStreamReader;
-import java.io.Reader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
-import java.util.stream.Stream;
-import java.util.zip.ZipInputStream;
 
 /**
- * Use one instance per one stream, class is statefull and not thread safe
+ * Use one instance per one stream, class is statefull and not thread safe. Log is scanned as bytes for markers of all
+ * handlers at once, lines are decoded only if some handler accepts them.
  */
 class BuildLogStreamChecker {
+    /** Initial buffer size, buffer grows if line does not fit. */
+    private static final int BUF_SIZE = 64 * 1024;
+
+    /** Handler markers value meaning all lines are passed to handler. */
+    private static final long ALL_LINES = -1L;
+
     private final List<ILineHandler> lineHandlersList;
 
+    /** Markers matcher for all handlers. */
+    private final LogMarkersMatcher matcher;
+
+    /** Handler index -> bits of handler markers, or {@link #ALL_LINES}. */
+    private final long[] handlerMarkers;
+
     BuildLogStreamChecker(ILineHandler... lineHandlers) {
         lineHandlersList = Arrays.asList(lineHandlers);
-    }
+        handlerMarkers = new long[lineHandlers.length];
+
+        List<String> markers = new ArrayList<>();
+
+        for (int i = 0; i < lineHandlers.length; i++) {
+            Collection<String> hndMarkers = lineHandlers[i].markers();
+
+            if (hndMarkers == null || markers.size() + hndMarkers.size() > LogMarkersMatcher.MAX_MARKERS) {
+                handlerMarkers[i] = ALL_LINES;
+
+                continue;
+            }
 
-    void apply(ZipInputStream zipInputStream, File zipFile) {
-        Reader reader = new InputStreamReader(zipInputStream, StandardCharsets.UTF_8);
+            for (String marker : hndMarkers) {
+                handlerMarkers[i] |= 1L << markers.size();
 
-        try (Stream<String> lines = new BufferedReader(reader).lines()) {
-            lines.forEach(line -> lineHandlersList.forEach(h -> h.accept(line, zipFile)));
+                markers.add(marker);
+            }
+        }
+
+        matcher = new LogMarkersMatcher(markers);
+    }
+
+    void apply(InputStream zipInputStream, File zipFile) {
+        try {
+            scan(zipInputStream, zipFile);
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
         }
         finally {
             lineHandlersList.forEach(this::closeSilent);
         }
     }
 
+    /**
+     * @param in Log stream, is not closed.
+     * @param file Log file.
+     */
+    private void scan(InputStream in, File file) throws IOException {
+        byte[] buf = new byte[BUF_SIZE];
+        int end = 0;
+        int lineStart = 0;
+        int pos = 0;
+        int state = LogMarkersMatcher.INITIAL_STATE;
+        long found = 0;
+
+        while (true) {
+            for (; pos < end; pos++) {
+                byte b = buf[pos];
+
+                if (b == '\n') {
+                    onLine(buf, lineStart, pos, found, file);
+
+                    lineStart = pos + 1;
+                    state = LogMarkersMatcher.INITIAL_STATE;
+                    found = 0;
+                }
+                else {
+                    state = matcher.next(state, b);
+                    found |= matcher.output(state);
+                }
+            }
+
+            if (lineStart > 0) {
+                System.arraycopy(buf, lineStart, buf, 0, end - lineStart);
+
+                end -= lineStart;
+                pos -= lineStart;
+                lineStart = 0;
+            }
+
+            if (end == buf.length)
+                buf = Arrays.copyOf(buf, buf.length * 2);
+
+            int read = in.read(buf, end, buf.length - end);
+
+            if (read < 0)
+                break;
+
+            end += read;
+        }
+
+        if (lineStart < end)
+            onLine(buf, lineStart, end, found, file);
+    }
+
+    /**
+     * @param buf Buffer.
+     * @param from Line start.
+     * @param to Line end (exclusive), position of line separator.
+     * @param found Markers found in line.
+     * @param file Log file.
+     */
+    private void onLine(byte[] buf, int from, int to, long found, File file) {
+        int len = to > from && buf[to - 1] == '\r' ? to - from - 1 : to - from;
+        String line = null;
+
+        for (int i = 0; i < handlerMarkers.length; i++) {
+            ILineHandler hnd = lineHandlersList.get(i);
+
+            long hndMarkers = handlerMarkers[i];
+
+            if (hndMarkers == ALL_LINES || (found & hndMarkers) != 0 || hnd.acceptsAllLines()) {
+                if (line == null)
+                    line = new String(buf, from, len, StandardCharsets.UTF_8);
+
+                hnd.accept(line, file);
+            }
+            else
+                hnd.skipped(len);
+        }
+    }
+
     private void closeSilent(ILineHandler handler) {
         try {
             handler.close();
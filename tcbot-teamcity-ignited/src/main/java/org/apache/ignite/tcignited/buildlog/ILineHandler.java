@@ -18,10 +18,35 @@
 package org.apache.ignite.tcignited.buildlog;
 
 import java.io.File;
+import java.util.Collection;
+import javax.annotation.Nullable;
 
 /**
  *
  */
 public interface ILineHandler extends AutoCloseable {
     public void accept(String line, File file);
+
+    /**
+     * @return Markers: lines containing any of these strings are passed to {@link #accept(String, File)}, other lines
+     * are reported to {@link #skipped(int)}. {@code null} means all lines are required.
+     */
+    @Nullable public default Collection<String> markers() {
+        return null;
+    }
+
+    /**
+     * @return {@code true} if next line should be passed to {@link #accept(String, File)} even without markers.
+     */
+    public default boolean acceptsAllLines() {
+        return markers() == null;
+    }
+
+    /**
+     * Called for line not containing any of markers.
+     *
+     * @param lenBytes Line length in bytes, without line separator.
+     */
+    public default void skipped(int lenBytes) {
+    }
 }
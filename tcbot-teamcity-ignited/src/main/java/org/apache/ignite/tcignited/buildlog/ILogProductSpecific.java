@@ -17,6 +17,9 @@
 
 package org.apache.ignite.tcignited.buildlog;
 
+import java.util.Collection;
+import javax.annotation.Nullable;
+
 /**
  *
  */
@@ -30,4 +33,12 @@ public interface ILogProductSpecific {
      * @param line Line.
      */
     public boolean needWarn(String line);
+
+    /**
+     * @return Strings, at least one of them is contained in each line for which {@link #isTestStarting(String)} or
+     * {@link #needWarn(String)} returns {@code true}. {@code null} means all lines should be checked.
+     */
+    @Nullable public default Collection<String> markers() {
+        return null;
+    }
 }
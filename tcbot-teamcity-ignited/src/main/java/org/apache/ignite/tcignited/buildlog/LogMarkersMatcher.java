@@ -0,0 +1,198 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.tcignited.buildlog;
+
+import com.google.common.base.Preconditions;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+
+/**
+ * Aho-Corasick automaton searching for several markers at once in UTF-8 bytes. Transitions are precomputed for all
+ * states, so each byte is processed with one table lookup. Bytes not used in any marker share one column of the table.
+ */
+class LogMarkersMatcher {
+    /** Max markers supported, one bit of {@code long} for each marker. */
+    static final int MAX_MARKERS = Long.SIZE;
+
+    /** Initial state. */
+    static final int INITIAL_STATE = 0;
+
+    /** Byte (as unsigned) -> column in transitions table. */
+    private final int[] byteCls = new int[256];
+
+    /** Columns count. */
+    private final int clsCnt;
+
+    /** Transitions: state * clsCnt + column -> next state. */
+    private final int[] transitions;
+
+    /** State -> bits of markers ending in this state. */
+    private final long[] output;
+
+    /**
+     * @param markers Markers, bit {@code i} of match result corresponds to {@code markers.get(i)}.
+     */
+    LogMarkersMatcher(List<String> markers) {
+        Preconditions.checkArgument(markers.size() <= MAX_MARKERS, "Too many markers: %s", markers.size());
+
+        List<byte[]> patterns = new ArrayList<>();
+
+        int cls = 1;
+
+        for (String marker : markers) {
+            byte[] bytes = marker.getBytes(StandardCharsets.UTF_8);
+
+            for (byte b : bytes) {
+                if (byteCls[b & 0xFF] == 0)
+                    byteCls[b & 0xFF] = cls++;
+            }
+
+            patterns.add(bytes);
+        }
+
+        clsCnt = cls;
+
+        // Trie.
+        List<int[]> gotoFn = new ArrayList<>();
+        List<Long> out = new ArrayList<>();
+
+        gotoFn.add(newRow());
+        out.add(0L);
+
+        for (int i = 0; i < patterns.size(); i++) {
+            byte[] pattern = patterns.get(i);
+
+            if (pattern.length == 0)
+                continue;
+
+            int state = INITIAL_STATE;
+
+            for (byte b : pattern) {
+                int col = byteCls[b & 0xFF];
+                int next = gotoFn.get(state)[col];
+
+                if (next < 0) {
+                    next = gotoFn.size();
+
+                    gotoFn.add(newRow());
+                    out.add(0L);
+
+                    gotoFn.get(state)[col] = next;
+                }
+
+                state = next;
+            }
+
+            out.set(state, out.get(state) | (1L << i));
+        }
+
+        // Failure links resolved into complete transitions table, breadth first.
+        int statesCnt = gotoFn.size();
+
+        transitions = new int[statesCnt * clsCnt];
+        output = new long[statesCnt];
+
+        int[] fail = new int[statesCnt];
+        Queue<Integer> queue = new ArrayDeque<>();
+
+        for (int col = 0; col < clsCnt; col++) {
+            int next = gotoFn.get(INITIAL_STATE)[col];
+
+            if (next < 0)
+                transitions[col] = INITIAL_STATE;
+            else {
+                transitions[col] = next;
+                fail[next] = INITIAL_STATE;
+
+                queue.add(next);
+            }
+        }
+
+        output[INITIAL_STATE] = out.get(INITIAL_STATE);
+
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+
+            output[state] = out.get(state) | output[fail[state]];
+
+            for (int col = 0; col < clsCnt; col++) {
+                int next = gotoFn.get(state)[col];
+                int viaFail = transitions[fail[state] * clsCnt + col];
+
+                if (next < 0)
+                    transitions[state * clsCnt + col] = viaFail;
+                else {
+                    transitions[state * clsCnt + col] = next;
+                    fail[next] = viaFail;
+
+                    queue.add(next);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return Row of trie without transitions.
+     */
+    private int[] newRow() {
+        int[] row = new int[clsCnt];
+
+        Arrays.fill(row, -1);
+
+        return row;
+    }
+
+    /**
+     * @param state Current state.
+     * @param b Next byte.
+     * @return Next state.
+     */
+    int next(int state, byte b) {
+        return transitions[state * clsCnt + byteCls[b & 0xFF]];
+    }
+
+    /**
+     * @param state State.
+     * @return Bits of markers found at the position reached with this state.
+     */
+    long output(int state) {
+        return output[state];
+    }
+
+    /**
+     * @param buf Buffer.
+     * @param off Offset.
+     * @param len Length.
+     * @return Bits of all markers contained in the bytes.
+     */
+    long matches(byte[] buf, int off, int len) {
+        int state = INITIAL_STATE;
+        long res = 0;
+
+        for (int i = off; i < off + len; i++) {
+            state = next(state, buf[i]);
+            res |= output[state];
+        }
+
+        return res;
+    }
+}
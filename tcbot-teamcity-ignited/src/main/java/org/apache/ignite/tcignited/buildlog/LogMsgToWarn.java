@@ -17,6 +17,8 @@
 
 package org.apache.ignite.tcignited.buildlog;
 
+import java.util.Collection;
+import java.util.Collections;
 import javax.annotation.Nullable;
 import org.apache.ignite.tcservice.model.result.problems.ProblemOccurrence;
 
@@ -30,6 +32,9 @@ public class LogMsgToWarn {
 
     private static final String JAVA_LEVEL_DEADLOCK_TXT = " Java-level deadlock:";
 
+    /** Markers: strings contained in any line having problem code. */
+    public static final Collection<String> MARKERS = Collections.singletonList(JAVA_LEVEL_DEADLOCK_TXT);
+
     @Deprecated
     public static boolean needWarn(String line) {
         return line.contains("java.lang.AssertionError:")
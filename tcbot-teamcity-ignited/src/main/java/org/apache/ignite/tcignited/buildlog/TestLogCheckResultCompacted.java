@@ -56,7 +56,14 @@ class TestLogCheckResultCompacted implements ITestLogCheckResult {
 
 
     public void addLineStat(String line) {
-        int i = line.length() + 1; //here suppose UTF-8, 1 byte per char; 1 newline char
+        addLineStat(line.length()); //here suppose UTF-8, 1 byte per char
+    }
+
+    /**
+     * @param lenBytes Line length in bytes without line separator.
+     */
+    public void addLineStat(int lenBytes) {
+        int i = lenBytes + 1; // 1 newline char
         cntLines++;
         cntBytes += i;
     }
@@ -18,6 +18,9 @@
 package org.apache.ignite.tcignited.buildlog;
 
 import java.io.File;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Set;
 import org.apache.ignite.tcbot.persistence.IStringCompactor;
 
 import javax.inject.Inject;
@@ -32,6 +35,9 @@ public class TestLogHandler implements ILineHandler {
     public static final TestLogCheckResultCompacted FAKE_RESULT = new TestLogCheckResultCompacted();
 
     private String currentTestName = null;
+
+    /** Result for current test, created on first line of the test. */
+    private TestLogCheckResultCompacted curTestRes;
     private File workFolder;
 
     /** Result. */
@@ -52,6 +58,7 @@ public class TestLogHandler implements ILineHandler {
                 currentTestName = null;
 
             this.currentTestName = line.substring(line.indexOf(STARTING_TEST) + STARTING_TEST.length(), line.indexOf(TEST_NAME_END));
+            this.curTestRes = null;
         }
 
         if (currentTestName == null)
@@ -69,9 +76,41 @@ public class TestLogHandler implements ILineHandler {
     }
 
     private TestLogCheckResultCompacted curTest() {
-        String curName = getLastTestName();
+        if (curTestRes == null) {
+            String curName = getLastTestName();
+
+            if (curName == null)
+                return FAKE_RESULT;
+
+            curTestRes = res.getOrCreateTestResult(curName);
+        }
+
+        return curTestRes;
+    }
+
+    /** {@inheritDoc} */
+    @Override public Collection<String> markers() {
+        Collection<String> productMarkers = logSpecific.markers();
+
+        if (productMarkers == null)
+            return null;
+
+        Set<String> markers = new LinkedHashSet<>(productMarkers);
+
+        markers.addAll(LogMsgToWarn.MARKERS);
+
+        return markers;
+    }
 
-        return curName == null ? FAKE_RESULT : res.getOrCreateTestResult(curName);
+    /** {@inheritDoc} */
+    @Override public boolean acceptsAllLines() {
+        return logSpecific.markers() == null;
+    }
+
+    /** {@inheritDoc} */
+    @Override public void skipped(int lenBytes) {
+        if (currentTestName != null)
+            curTest().addLineStat(lenBytes);
     }
 
     /** {@inheritDoc} */
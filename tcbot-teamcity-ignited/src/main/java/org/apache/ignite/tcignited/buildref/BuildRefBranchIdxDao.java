@@ -0,0 +1,277 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.tcignited.buildref;
+
+import com.google.common.primitives.Ints;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import javax.inject.Inject;
+import javax.inject.Provider;
+import org.apache.ignite.Ignite;
+import org.apache.ignite.IgniteCache;
+import org.apache.ignite.ci.teamcity.ignited.BuildRefCompacted;
+import org.apache.ignite.tcbot.persistence.CacheConfigs;
+import org.apache.ignite.transactions.Transaction;
+
+import static org.apache.ignite.transactions.TransactionConcurrency.PESSIMISTIC;
+import static org.apache.ignite.transactions.TransactionIsolation.REPEATABLE_READ;
+
+/**
+ * Index of build references by server, suite (build type) and branch. Build IDs are split into chunks by ID range, each
+ * chunk is stored as sorted array. Separate entry for server, suite and branch keeps list of chunks present.
+ */
+public class BuildRefBranchIdxDao {
+    /** Cache name. */
+    public static final String TEAMCITY_BUILD_BRANCH_IDX_CACHE_NAME = "teamcityBuildRefBranchIdx";
+
+    /** Chunk used in key of entry listing chunks present. */
+    static final int CHUNKS_LIST = Integer.MIN_VALUE;
+
+    /** Chunk used in key of marker: index was filled for server. */
+    private static final int FILLED_MARKER = Integer.MIN_VALUE + 1;
+
+    /** Bits of build ID within chunk. */
+    private static final int CHUNK_BITS = 16;
+
+    /** Ignite provider. */
+    @Inject private Provider<Ignite> igniteProvider;
+
+    /** Index: Server, Suite, Branch, Chunk -> sorted build IDs. */
+    private IgniteCache<BuildRefBranchIdxKey, int[]> idxCache;
+
+    /** */
+    public BuildRefBranchIdxDao init() {
+        idxCache = igniteProvider.get().getOrCreateCache(
+            CacheConfigs.getCacheV2TxConfig(TEAMCITY_BUILD_BRANCH_IDX_CACHE_NAME));
+
+        return this;
+    }
+
+    /**
+     * @param srvId Server id.
+     * @param buildTypeId Build type id from compactor.
+     * @param branchNameId Branch name id from compactor.
+     * @param fromBuildId Minimal build ID to return (inclusive).
+     * @param toBuildId Maximal build ID to return (inclusive).
+     * @return Sorted build IDs indexed. IDs of builds removed or changed concurrently may be returned.
+     */
+    public int[] getBuildIds(int srvId, int buildTypeId, int branchNameId, int fromBuildId, int toBuildId) {
+        BuildRefBranchIdxKey listKey = new BuildRefBranchIdxKey(srvId, buildTypeId, branchNameId, CHUNKS_LIST);
+        int[] chunks = idxCache.get(listKey);
+
+        if (chunks == null)
+            return new int[0];
+
+        Set<BuildRefBranchIdxKey> keys = new TreeSet<>();
+
+        for (int chunk : chunks) {
+            if (chunk >= chunk(fromBuildId) && chunk <= chunk(toBuildId))
+                keys.add(listKey.withChunk(chunk));
+        }
+
+        Map<BuildRefBranchIdxKey, int[]> data = idxCache.getAll(keys);
+        int[] res = new int[data.values().stream().mapToInt(ids -> ids.length).sum()];
+        int cnt = 0;
+
+        for (BuildRefBranchIdxKey key : keys) {
+            int[] ids = data.get(key);
+
+            if (ids == null)
+                continue;
+
+            for (int id : ids) {
+                if (id >= fromBuildId && id <= toBuildId)
+                    res[cnt++] = id;
+            }
+        }
+
+        return cnt == res.length ? res : Arrays.copyOf(res, cnt);
+    }
+
+    /**
+     * Adds IDs of new builds (or builds moved to another suite or branch), or removes IDs of builds removed (or moved).
+     *
+     * @param srvId Server id.
+     * @param prev Previous build references.
+     * @param updated Updated build references, value is {@code null} for removed reference.
+     * @param add {@code True} to add IDs (before references are saved), {@code false} to remove (after).
+     */
+    public void update(int srvId, Map<Long, BuildRefCompacted> prev, Map<Long, BuildRefCompacted> updated,
+        boolean add) {
+        Map<BuildRefBranchIdxKey, Set<Integer>> changes = new TreeMap<>();
+
+        updated.forEach((key, ref) -> {
+            BuildRefBranchIdxKey prevKey = chunkKey(srvId, prev.get(key));
+            BuildRefBranchIdxKey newKey = chunkKey(srvId, ref);
+
+            if (Objects.equals(prevKey, newKey))
+                return;
+
+            BuildRefBranchIdxKey changedKey = add ? newKey : prevKey;
+
+            if (changedKey != null)
+                changes.computeIfAbsent(changedKey, k -> new TreeSet<>()).add(BuildRefDao.cacheKeyToBuildId(key));
+        });
+
+        if (add)
+            apply(changes, Collections.emptyMap());
+        else
+            apply(Collections.emptyMap(), changes);
+    }
+
+    /**
+     * Adds build references existing before index was introduced.
+     *
+     * @param srvId Server id.
+     * @param refs References.
+     */
+    public void addAll(int srvId, Collection<BuildRefCompacted> refs) {
+        Map<BuildRefBranchIdxKey, Set<Integer>> changes = new TreeMap<>();
+
+        for (BuildRefCompacted ref : refs)
+            changes.computeIfAbsent(chunkKey(srvId, ref), k -> new TreeSet<>()).add(ref.id());
+
+        apply(changes, Collections.emptyMap());
+    }
+
+    /**
+     * @param srvId Server id.
+     * @return {@code True} if index was completely filled for server.
+     */
+    public boolean isFilled(int srvId) {
+        return idxCache.containsKey(filledMarkerKey(srvId));
+    }
+
+    /**
+     * @param srvId Server id.
+     */
+    public void setFilled(int srvId) {
+        idxCache.put(filledMarkerKey(srvId), new int[0]);
+    }
+
+    /**
+     * @param srvId Server id.
+     */
+    private static BuildRefBranchIdxKey filledMarkerKey(int srvId) {
+        return new BuildRefBranchIdxKey(srvId, 0, 0, FILLED_MARKER);
+    }
+
+    /**
+     * @param buildId Build id.
+     */
+    private static int chunk(int buildId) {
+        return buildId >> CHUNK_BITS;
+    }
+
+    /**
+     * @param srvId Server id.
+     * @param ref Reference.
+     * @return Key of chunk containing reference, or {@code null} for absent reference.
+     */
+    private static BuildRefBranchIdxKey chunkKey(int srvId, BuildRefCompacted ref) {
+        if (ref == null)
+            return null;
+
+        return new BuildRefBranchIdxKey(srvId, ref.buildTypeId(), ref.branchName(), chunk(ref.id()));
+    }
+
+    /**
+     * Updates chunks and lists of chunks present in one transaction.
+     *
+     * @param added Chunk key -> build IDs to add.
+     * @param removed Chunk key -> build IDs to remove.
+     */
+    private void apply(Map<BuildRefBranchIdxKey, Set<Integer>> added, Map<BuildRefBranchIdxKey, Set<Integer>> removed) {
+        Set<BuildRefBranchIdxKey> chunkKeys = new TreeSet<>(added.keySet());
+        chunkKeys.addAll(removed.keySet());
+
+        if (chunkKeys.isEmpty())
+            return;
+
+        Set<BuildRefBranchIdxKey> keys = new TreeSet<>(chunkKeys);
+
+        chunkKeys.forEach(k -> keys.add(k.withChunk(CHUNKS_LIST)));
+
+        try (Transaction tx = igniteProvider.get().transactions().txStart(PESSIMISTIC, REPEATABLE_READ)) {
+            Map<BuildRefBranchIdxKey, int[]> cur = idxCache.getAll(keys);
+            Map<BuildRefBranchIdxKey, Set<Integer>> chunksAdded = new TreeMap<>();
+            Map<BuildRefBranchIdxKey, Set<Integer>> chunksRemoved = new TreeMap<>();
+
+            for (BuildRefBranchIdxKey key : chunkKeys) {
+                int[] curIds = cur.get(key);
+                int[] ids = merge(curIds, added.get(key), removed.get(key));
+                BuildRefBranchIdxKey listKey = key.withChunk(CHUNKS_LIST);
+
+                if (ids.length == 0) {
+                    if (curIds != null) {
+                        idxCache.remove(key);
+
+                        chunksRemoved.computeIfAbsent(listKey, k -> new TreeSet<>()).add(key.chunk());
+                    }
+                }
+                else {
+                    idxCache.put(key, ids);
+
+                    if (curIds == null)
+                        chunksAdded.computeIfAbsent(listKey, k -> new TreeSet<>()).add(key.chunk());
+                }
+            }
+
+            Set<BuildRefBranchIdxKey> listKeys = new TreeSet<>(chunksAdded.keySet());
+            listKeys.addAll(chunksRemoved.keySet());
+
+            for (BuildRefBranchIdxKey listKey : listKeys) {
+                int[] chunks = merge(cur.get(listKey), chunksAdded.get(listKey), chunksRemoved.get(listKey));
+
+                if (chunks.length == 0)
+                    idxCache.remove(listKey);
+                else
+                    idxCache.put(listKey, chunks);
+            }
+
+            tx.commit();
+        }
+    }
+
+    /**
+     * @param cur Current sorted values.
+     * @param added Values to add.
+     * @param removed Values to remove.
+     * @return Sorted values.
+     */
+    private static int[] merge(int[] cur, Set<Integer> added, Set<Integer> removed) {
+        Set<Integer> res = new TreeSet<>();
+
+        if (cur != null)
+            res.addAll(Ints.asList(cur));
+
+        if (added != null)
+            res.addAll(added);
+
+        if (removed != null)
+            res.removeAll(removed);
+
+        return Ints.toArray(res);
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.tcignited.buildref;
+
+import java.util.Comparator;
+import java.util.Objects;
+import javax.annotation.Nonnull;
+import org.apache.ignite.tcbot.persistence.Persisted;
+
+/**
+ * Key of build IDs chunk in index by server, suite and branch.
+ */
+@Persisted
+public class BuildRefBranchIdxKey implements Comparable<BuildRefBranchIdxKey> {
+    /** Comparator. */
+    private static final Comparator<BuildRefBranchIdxKey> CMP =
+        Comparator.<BuildRefBranchIdxKey>comparingInt(k -> k.srvId)
+            .thenComparingInt(k -> k.buildTypeId)
+            .thenComparingInt(k -> k.branchName)
+            .thenComparingInt(k -> k.chunk);
+
+    /** Server ID. */
+    private int srvId;
+
+    /** Build type ID from compactor. */
+    private int buildTypeId;
+
+    /** Branch name ID from compactor. */
+    private int branchName;
+
+    /** Chunk of build IDs, or {@link BuildRefBranchIdxDao#CHUNKS_LIST} for list of chunks present. */
+    private int chunk;
+
+    /**
+     * @param srvId Server ID.
+     * @param buildTypeId Build type ID.
+     * @param branchName Branch name.
+     * @param chunk Chunk.
+     */
+    public BuildRefBranchIdxKey(int srvId, int buildTypeId, int branchName, int chunk) {
+        this.srvId = srvId;
+        this.buildTypeId = buildTypeId;
+        this.branchName = branchName;
+        this.chunk = chunk;
+    }
+
+    /**
+     * @param chunk Chunk.
+     * @return Key for the same server, suite and branch.
+     */
+    public BuildRefBranchIdxKey withChunk(int chunk) {
+        return new BuildRefBranchIdxKey(srvId, buildTypeId, branchName, chunk);
+    }
+
+    /** */
+    public int srvId() {
+        return srvId;
+    }
+
+    /** */
+    public int buildTypeId() {
+        return buildTypeId;
+    }
+
+    /** */
+    public int branchName() {
+        return branchName;
+    }
+
+    /** */
+    public int chunk() {
+        return chunk;
+    }
+
+    /** {@inheritDoc} */
+    @Override public boolean equals(Object o) {
+        if (this == o)
+            return true;
+        if (o == null || getClass() != o.getClass())
+            return false;
+        BuildRefBranchIdxKey key = (BuildRefBranchIdxKey)o;
+        return srvId == key.srvId &&
+            buildTypeId == key.buildTypeId &&
+            branchName == key.branchName &&
+            chunk == key.chunk;
+    }
+
+    /** {@inheritDoc} */
+    @Override public int hashCode() {
+        return Objects.hash(srvId, buildTypeId, branchName, chunk);
+    }
+
+    /** {@inheritDoc} */
+    @Override public int compareTo(@Nonnull BuildRefBranchIdxKey o) {
+        return CMP.compare(this, o);
+    }
+}
@@ -18,16 +18,20 @@
 package org.apache.ignite.tcignited.buildref;
 
 import com.google.common.cache.CacheBuilder;
+import com.google.common.primitives.Ints;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.TreeMap;
-import java.util.concurrent.ExecutionException;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
@@ -48,12 +52,15 @@ import org.apache.ignite.configuration.CacheConfiguration;
 import org.apache.ignite.internal.util.GridIntList;
 import org.apache.ignite.lang.IgnitePredicate;
 import org.apache.ignite.tcbot.common.conf.TcBotSystemProperties;
-import org.apache.ignite.tcbot.common.exeption.ExceptionUtil;
 import org.apache.ignite.tcbot.common.interceptor.AutoProfiling;
 import org.apache.ignite.tcbot.persistence.CacheConfigs;
 import org.apache.ignite.tcbot.persistence.IStringCompactor;
 import org.apache.ignite.tcignited.build.UpdateCountersStorage;
 import org.apache.ignite.tcservice.model.hist.BuildRef;
+import org.apache.ignite.transactions.Transaction;
+
+import static org.apache.ignite.transactions.TransactionConcurrency.PESSIMISTIC;
+import static org.apache.ignite.transactions.TransactionIsolation.REPEATABLE_READ;
 
 /**
  *
@@ -62,18 +69,37 @@ public class BuildRefDao {
     /** Cache name */
     public static final String TEAMCITY_BUILD_CACHE_NAME = "teamcityBuildRef";
 
+    /** Build state index cache name. */
+    public static final String TEAMCITY_BUILD_STATE_IDX_CACHE_NAME = "teamcityBuildRefStateIdx";
+
     /** Ignite provider. */
     @Inject private Provider<Ignite> igniteProvider;
 
     /** Builds (Refs) cache: Long(ServerId||BuildId)-> Build reference */
     private IgniteCache<Long, BuildRefCompacted> buildRefsCache;
 
+    /**
+     * Index of queued and running builds: Long(ServerId||StateId) -> sorted build IDs. Index entries are added before
+     * build reference is saved and removed after, so stale IDs are possible and filtered out on read. IDs of finished
+     * builds are removed on read.
+     */
+    private IgniteCache<Long, int[]> stateIdxCache;
+
+    /** Servers having state index verified since startup, index is not used for other servers. */
+    private final Set<Integer> stateIdxVerified = ConcurrentHashMap.newKeySet();
+
+    /** Servers having suite and branch index verified since startup, index is not used for other servers. */
+    private final Set<Integer> branchIdxVerified = ConcurrentHashMap.newKeySet();
+
     /** Compactor. */
     @Inject private IStringCompactor compactor;
 
     /** Update Counters for branch-related changes storage. */
     @Inject private UpdateCountersStorage countersStorage;
 
+    /** Index of builds by suite and branch. */
+    @Inject private BuildRefBranchIdxDao branchIdxDao;
+
     /** Non persistence cache for all BuildRefsCompacted for particular branch.
      * RunHistKey(ServerId||BranchId||suiteId)-> Build reference
      */
@@ -86,15 +112,6 @@ public class BuildRefDao {
         .build();
 
 
-    /** Build refs in mem cache for all branch. Mostly this cache exist for fast building replace with recent builds. */
-    private final com.google.common.cache.Cache<Long, List<BuildRefCompacted>> buildRefsInMemCacheForAllBranch
-        = CacheBuilder.newBuilder()
-        .maximumSize(Boolean.valueOf(System.getProperty(TcBotSystemProperties.DEV_MODE)) ? 200 : 2000)
-        .expireAfterAccess(2, TimeUnit.MINUTES)
-        .expireAfterWrite(4, TimeUnit.MINUTES) //workaround for stale records
-        .softValues()
-        .build();
-
     /** */
     public BuildRefDao init() {
         CacheConfiguration<Long, BuildRefCompacted> cfg = CacheConfigs.getCacheV2Config(TEAMCITY_BUILD_CACHE_NAME);
@@ -102,6 +119,10 @@ public class BuildRefDao {
         cfg.setQueryEntities(Collections.singletonList(new QueryEntity(Long.class, BuildRefCompacted.class)));
 
         buildRefsCache = igniteProvider.get().getOrCreateCache(cfg);
+        stateIdxCache = igniteProvider.get().getOrCreateCache(
+            CacheConfigs.getCacheV2TxConfig(TEAMCITY_BUILD_STATE_IDX_CACHE_NAME));
+
+        branchIdxDao.init();
 
         return this;
     }
@@ -128,6 +149,41 @@ public class BuildRefDao {
             .map(javax.cache.Cache.Entry::getValue);
     }
 
+    /**
+     * Scans only one partition of the build references cache. Build reference cache and Fat Build cache use the same
+     * keys and the same affinity, so all builds returned are co-located with corresponding fat builds.
+     *
+     * @param srvId Server id.
+     * @param part Partition to scan.
+     * @param filter Optional filter for build references.
+     * @return all builds for a server in the partition.
+     */
+    @Nonnull
+    public Stream<BuildRefCompacted> compactedBuildsForServer(
+        final int srvId,
+        final int part,
+        @Nullable final IgnitePredicate<BuildRefCompacted> filter) {
+        QueryCursor<Cache.Entry<Long, BuildRefCompacted>> qry
+            = buildRefsCache.query(
+                new ScanQuery<Long, BuildRefCompacted>().setPartition(part).setFilter(
+                    (k, v) -> {
+                        if (!isKeyForServer(k, srvId))
+                            return false;
+
+                        return filter == null || filter.apply(v);
+                    }));
+
+        return StreamSupport.stream(qry.spliterator(), false)
+            .map(javax.cache.Cache.Entry::getValue);
+    }
+
+    /**
+     * @return Count of partitions in build references cache.
+     */
+    public int partitions() {
+        return igniteProvider.get().affinity(buildRefsCache.getName()).partitions();
+    }
+
     /**
      * @param key Key.
      * @param srvId Server id.
@@ -164,8 +220,12 @@ public class BuildRefDao {
 
         int size = entriesToPut.size();
         if (size != 0) {
+            updateIndexes(srvId, existingEntries, entriesToPut, true);
+
             buildRefsCache.putAll(entriesToPut);
 
+            updateIndexes(srvId, existingEntries, entriesToPut, false);
+
             invalidateHistoryInMem(srvId, entriesToPut.values().stream());
         }
 
@@ -177,18 +237,13 @@ public class BuildRefDao {
             .map(b -> new RunHistKey(srvId, b.buildTypeId(), b.branchName()))
             .collect(Collectors.toSet());
 
-        Iterable<Long> cacheForAllBranch =
-            setOfHistToClear.stream()
-                .map(b -> branchNameToHistCacheKey(srvId, b.branch()))
-                .collect(Collectors.toSet());
-
-        buildRefsInMemCacheForAllBranch.invalidateAll(cacheForAllBranch);
-        buildRefsInMemCache.invalidateAll(setOfHistToClear);
-
+        // Counters are incremented first, so loading in progress either sees new counter or has result invalidated.
         setOfHistToClear.forEach(b -> {
             int branch = b.branch();
             countersStorage.increment(branch);
         });
+
+        buildRefsInMemCache.invalidateAll(setOfHistToClear);
     }
 
     /**
@@ -227,39 +282,278 @@ public class BuildRefDao {
 
         branchNameIds.forEach(branchNameId -> {
             RunHistKey runHistKey = new RunHistKey(srvId, buildTypeIdId, branchNameId);
-            try {
-                List<BuildRefCompacted> compactedBuildsForBranch =
-                    buildRefsInMemCache.get(runHistKey, () -> {
-                        List<BuildRefCompacted> branch = getBuildsForBranch(srvId, branchNameId);
+            List<BuildRefCompacted> compactedBuildsForBranch = buildRefsInMemCache.getIfPresent(runHistKey);
 
-                        List<BuildRefCompacted> resForBranch = branch.stream()
-                            .filter(e -> e.buildTypeId() == buildTypeIdId)
-                            .collect(Collectors.toList());
+            if (compactedBuildsForBranch == null) {
+                AtomicInteger updCntr = countersStorage.getIntegerForEntry(branchNameId);
+                int updCntBefore = updCntr.get();
 
-                        if (!resForBranch.isEmpty()) {
-                            System.err.println("Branch " + compactor.getStringFromId(branchNameId)
-                                + " Suite " + compactor.getStringFromId(buildTypeIdId)
-                                + " builds " + resForBranch.size() + " ");
-                        }
+                compactedBuildsForBranch = getBuildsCompacted(srvId, buildTypeIdId, branchNameId, Integer.MIN_VALUE);
 
-                        return resForBranch;
-                    });
+                if (!compactedBuildsForBranch.isEmpty()) {
+                    System.err.println("Branch " + compactor.getStringFromId(branchNameId)
+                        + " Suite " + compactor.getStringFromId(buildTypeIdId)
+                        + " builds " + compactedBuildsForBranch.size() + " ");
+                }
 
-                res.addAll(compactedBuildsForBranch);
-            }
-            catch (ExecutionException e) {
-                throw ExceptionUtil.propagateException(e);
+                buildRefsInMemCache.put(runHistKey, compactedBuildsForBranch);
+
+                // Branch was updated during loading, cached value may miss new builds.
+                if (updCntr.get() != updCntBefore)
+                    buildRefsInMemCache.invalidate(runHistKey);
             }
+
+            res.addAll(compactedBuildsForBranch);
         });
 
         return res;
     }
 
+    /**
+     * Reads build references using index by suite and branch, without caching results.
+     *
+     * @param srvId Server id mask high.
+     * @param buildTypeIdId Build type (suite) id from compactor.
+     * @param branchNameIds Branch names for query.
+     * @param minBuildId Minimal build ID to return (inclusive).
+     * @return Builds sorted by ID within each branch.
+     */
+    @AutoProfiling
+    @Nonnull public List<BuildRefCompacted> getAllBuildsCompacted(int srvId,
+        int buildTypeIdId,
+        Collection<Integer> branchNameIds,
+        int minBuildId) {
+        List<BuildRefCompacted> res = new ArrayList<>();
+
+        branchNameIds.forEach(branchNameId -> res.addAll(getBuildsCompacted(srvId, buildTypeIdId, branchNameId, minBuildId)));
+
+        return res;
+    }
+
+    /**
+     * @param srvId Server id mask high.
+     * @param buildTypeIdId Build type (suite) id from compactor.
+     * @param branchNameId Branch name id from compactor.
+     * @param minBuildId Minimal build ID to return (inclusive).
+     * @return Builds sorted by ID.
+     */
+    private List<BuildRefCompacted> getBuildsCompacted(int srvId, int buildTypeIdId, int branchNameId,
+        int minBuildId) {
+        // Index may miss references saved by previous versions until it is verified.
+        if (!branchIdxVerified.contains(srvId))
+            return getBuildsCompactedNoIdx(srvId, buildTypeIdId, branchNameId, minBuildId);
+
+        int[] ids = branchIdxDao.getBuildIds(srvId, buildTypeIdId, branchNameId, minBuildId, Integer.MAX_VALUE);
+
+        if (ids.length == 0)
+            return new ArrayList<>();
+
+        Set<Long> keys = new TreeSet<>();
+
+        for (int id : ids)
+            keys.add(buildIdToCacheKey(srvId, id));
+
+        Map<Long, BuildRefCompacted> refs = buildRefsCache.getAll(keys);
+        List<BuildRefCompacted> res = new ArrayList<>(ids.length);
+
+        for (int id : ids) {
+            BuildRefCompacted ref = refs.get(buildIdToCacheKey(srvId, id));
+
+            // Index entry is added before reference is saved, so reference may be absent or not updated yet.
+            if (ref != null && ref.buildTypeId() == buildTypeIdId && ref.branchName() == branchNameId)
+                res.add(ref);
+        }
+
+        return res;
+    }
+
+    /**
+     * Reads build references using SQL index by branch name.
+     *
+     * @param srvId Server id mask high.
+     * @param buildTypeIdId Build type (suite) id from compactor.
+     * @param branchNameId Branch name id from compactor.
+     * @param minBuildId Minimal build ID to return (inclusive).
+     * @return Builds sorted by ID.
+     */
+    private List<BuildRefCompacted> getBuildsCompactedNoIdx(int srvId, int buildTypeIdId, int branchNameId,
+        int minBuildId) {
+        try (QueryCursor<Cache.Entry<Long, BuildRefCompacted>> qryCursor = buildRefsCache.query(
+            new SqlQuery<Long, BuildRefCompacted>(BuildRefCompacted.class, "branchName = ?")
+                .setArgs(branchNameId))) {
+            return StreamSupport.stream(qryCursor.spliterator(), false)
+                .filter(entry -> isKeyForServer(entry.getKey(), srvId))
+                .map(Cache.Entry::getValue)
+                .filter(ref -> ref.buildTypeId() == buildTypeIdId && ref.id() >= minBuildId)
+                .sorted(Comparator.comparing(BuildRefCompacted::id))
+                .collect(Collectors.toList());
+        }
+    }
+
     /**
      * @param srvId Server id.
      */
     @AutoProfiling
     public List<BuildRefCompacted> getQueuedAndRunning(int srvId) {
+        GridIntList activeStates = activeStateIds();
+
+        // Index may miss references saved by previous versions until it is verified.
+        if (!stateIdxVerified.contains(srvId)) {
+            return compactedBuildsForServer(srvId, bref -> activeStates.contains(bref.state()))
+                .collect(Collectors.toList());
+        }
+
+        Set<Long> idxKeys = new TreeSet<>();
+
+        for (int stateId : activeStates.array())
+            idxKeys.add(stateIdxKey(srvId, stateId));
+
+        if (idxKeys.isEmpty())
+            return new ArrayList<>();
+
+        Map<Long, int[]> idx = stateIdxCache.getAll(idxKeys);
+        Set<Long> buildKeys = new TreeSet<>();
+
+        idx.values().forEach(ids -> {
+            for (int id : ids)
+                buildKeys.add(buildIdToCacheKey(srvId, id));
+        });
+
+        Map<Long, BuildRefCompacted> refs = buildRefsCache.getAll(buildKeys);
+        List<BuildRefCompacted> res = new ArrayList<>();
+        Map<Long, Set<Integer>> staleCandidates = new TreeMap<>();
+
+        idx.forEach((idxKey, ids) -> {
+            for (int id : ids) {
+                BuildRefCompacted ref = refs.get(buildIdToCacheKey(srvId, id));
+
+                // Index entry is added before reference is saved, so absent reference may be saved concurrently.
+                if (ref == null)
+                    continue;
+
+                if (stateIdxKey(srvId, ref.state()) == idxKey)
+                    res.add(ref);
+                else if (!activeStates.contains(ref.state()))
+                    staleCandidates.computeIfAbsent(idxKey, k -> new TreeSet<>()).add(id);
+            }
+        });
+
+        if (!staleCandidates.isEmpty())
+            removeStaleStateIds(srvId, staleCandidates);
+
+        return res;
+    }
+
+    /**
+     * Verifies indexes for server, scanning references partition by partition. State index: adds IDs of queued and
+     * running references missing in index, e.g. saved by previous versions, and removes IDs of finished ones. Suite and
+     * branch index is filled if it was not filled before, filled state is persisted. Indexes are used for queries only
+     * after verification.
+     *
+     * @param srvId Server id.
+     */
+    @AutoProfiling
+    public void verifyIndexes(int srvId) {
+        GridIntList activeStates = activeStateIds();
+        Map<Long, Set<Integer>> found = new TreeMap<>();
+        boolean fillBranchIdx = !branchIdxDao.isFilled(srvId);
+
+        for (int part = 0; part < partitions(); part++) {
+            List<BuildRefCompacted> refs = compactedBuildsForServer(srvId, part,
+                fillBranchIdx ? null : bref -> activeStates.contains(bref.state()))
+                .collect(Collectors.toList());
+
+            // Concurrently moved references may be added for previous suite or branch, these are filtered out on read.
+            if (fillBranchIdx)
+                branchIdxDao.addAll(srvId, refs);
+
+            refs.stream()
+                .filter(ref -> activeStates.contains(ref.state()))
+                .forEach(ref -> found.computeIfAbsent(stateIdxKey(srvId, ref.state()), k -> new TreeSet<>())
+                    .add(ref.id()));
+        }
+
+        if (fillBranchIdx)
+            branchIdxDao.setFilled(srvId);
+
+        branchIdxVerified.add(srvId);
+
+        Set<Long> idxKeys = new TreeSet<>();
+
+        for (int stateId : activeStates.array())
+            idxKeys.add(stateIdxKey(srvId, stateId));
+
+        Map<Long, Set<Integer>> staleCandidates = new TreeMap<>();
+
+        stateIdxCache.getAll(idxKeys).forEach((idxKey, ids) -> {
+            Set<Integer> foundIds = found.getOrDefault(idxKey, Collections.emptySet());
+
+            for (int id : ids) {
+                if (!foundIds.contains(id))
+                    staleCandidates.computeIfAbsent(idxKey, k -> new TreeSet<>()).add(id);
+            }
+        });
+
+        applyStateIdxChanges(srvId, found, Collections.emptyMap());
+
+        if (!staleCandidates.isEmpty())
+            removeStaleStateIds(srvId, staleCandidates);
+
+        stateIdxVerified.add(srvId);
+    }
+
+    /**
+     * Removes IDs of builds which are not queued or running anymore. References are re-read under lock of index entry,
+     * and ID is removed only if reference is present and finished. Save re-adds ID of active reference under the same
+     * lock after reference is put, so ID removed concurrently with save is restored.
+     *
+     * @param srvId Server id.
+     * @param candidates Index key -> build IDs to check.
+     */
+    private void removeStaleStateIds(int srvId, Map<Long, Set<Integer>> candidates) {
+        GridIntList activeStates = activeStateIds();
+
+        try (Transaction tx = igniteProvider.get().transactions().txStart(PESSIMISTIC, REPEATABLE_READ)) {
+            Map<Long, int[]> cur = stateIdxCache.getAll(candidates.keySet());
+            Set<Long> buildKeys = new TreeSet<>();
+
+            candidates.values().forEach(ids -> ids.forEach(id -> buildKeys.add(buildIdToCacheKey(srvId, id))));
+
+            Map<Long, BuildRefCompacted> refs = buildRefsCache.getAll(buildKeys);
+
+            candidates.forEach((idxKey, ids) -> {
+                int[] curIds = cur.get(idxKey);
+
+                if (curIds == null)
+                    return;
+
+                Set<Integer> resIds = new TreeSet<>(Ints.asList(curIds));
+                boolean changed = false;
+
+                for (Integer id : ids) {
+                    BuildRefCompacted ref = refs.get(buildIdToCacheKey(srvId, id));
+
+                    if (ref != null && !activeStates.contains(ref.state()))
+                        changed |= resIds.remove(id);
+                }
+
+                if (!changed)
+                    return;
+
+                if (resIds.isEmpty())
+                    stateIdxCache.remove(idxKey);
+                else
+                    stateIdxCache.put(idxKey, Ints.toArray(resIds));
+            });
+
+            tx.commit();
+        }
+    }
+
+    /**
+     * @return Compactor IDs of queued and running states registered.
+     */
+    private GridIntList activeStateIds() {
         GridIntList list = new GridIntList(2);
         Integer stateQueuedId = compactor.getStringIdIfPresent(BuildRef.STATE_QUEUED);
         if (stateQueuedId != null)
@@ -269,56 +563,114 @@ public class BuildRefDao {
         if (stateRunningId != null)
             list.add(stateRunningId);
 
-        return compactedBuildsForServer(srvId, bref -> list.contains(bref.state()))
-            .collect(Collectors.toList());
+        return list;
     }
 
-    private static long branchNameToHistCacheKey(long srvId, int branchName) {
-        return (long)branchName | srvId << 32;
+    /**
+     * @param srvId Server id.
+     * @param stateId State id from compactor.
+     */
+    private static long stateIdxKey(int srvId, int stateId) {
+        return (long)srvId << 32 | (stateId & 0xFFFFFFFFL);
     }
 
+    /**
+     * @param srvId Server id.
+     * @param prev Previous build references.
+     * @param updated Updated build references, value is {@code null} for removed reference.
+     * @param add {@code True} to add IDs (before references are saved), {@code false} to remove (after).
+     */
+    private void updateIndexes(int srvId, Map<Long, BuildRefCompacted> prev, Map<Long, BuildRefCompacted> updated,
+        boolean add) {
+        updateStateIdx(srvId, prev, updated, add);
+        branchIdxDao.update(srvId, prev, updated, add);
+    }
 
     /**
-     * Collects all builds for branch. Short-term cached because builds from same branch may be queued several times.
+     * Adds IDs of builds which became queued or running before references are saved. After references are saved, removes
+     * IDs of builds which left these states and adds IDs of queued and running builds again: ID may be removed by
+     * concurrent cleanup while previous reference was finished.
      *
      * @param srvId Server id.
-     * @param branchNameId  Branch name - IDs from compactor.
+     * @param prev Previous build references.
+     * @param updated Updated build references, value is {@code null} for removed reference.
+     * @param add {@code True} to add IDs (before references are saved), {@code false} to remove (after).
      */
-    @AutoProfiling
-    public List<BuildRefCompacted> getBuildsForBranch(int srvId, int branchNameId) {
-        long branchKey = branchNameToHistCacheKey(srvId, branchNameId);
+    private void updateStateIdx(int srvId, Map<Long, BuildRefCompacted> prev, Map<Long, BuildRefCompacted> updated,
+        boolean add) {
+        GridIntList activeStates = activeStateIds();
+        Map<Long, Set<Integer>> added = new TreeMap<>();
+        Map<Long, Set<Integer>> removed = new TreeMap<>();
 
-        try {
-            return buildRefsInMemCacheForAllBranch.get(branchKey, () -> getBuildsForBranchNonCached(srvId, branchNameId));
-        }
-        catch (ExecutionException e) {
-            throw ExceptionUtil.propagateException(e);
-        }
+        updated.forEach((key, ref) -> {
+            BuildRefCompacted prevRef = prev.get(key);
+            Integer prevState = prevRef == null ? null : prevRef.state();
+            Integer newState = ref == null ? null : ref.state();
+
+            if (Objects.equals(prevState, newState))
+                return;
+
+            int buildId = cacheKeyToBuildId(key);
+
+            if (newState != null && activeStates.contains(newState))
+                added.computeIfAbsent(stateIdxKey(srvId, newState), k -> new TreeSet<>()).add(buildId);
+
+            if (!add && prevState != null && activeStates.contains(prevState))
+                removed.computeIfAbsent(stateIdxKey(srvId, prevState), k -> new TreeSet<>()).add(buildId);
+        });
+
+        applyStateIdxChanges(srvId, added, removed);
     }
 
-    public List<BuildRefCompacted> getBuildsForBranchNonCached(int srvId, int branchNameId) {
-        List<BuildRefCompacted> list = new ArrayList<>();
+    /**
+     * Applies changes to state index. ID is not removed if reference, re-read under lock of index entry, has state of
+     * the entry: previous state was read before reference was saved, and concurrent save may have returned it.
+     *
+     * @param srvId Server id.
+     * @param added Index key -> build IDs to add.
+     * @param removed Index key -> build IDs to remove.
+     */
+    private void applyStateIdxChanges(int srvId, Map<Long, Set<Integer>> added, Map<Long, Set<Integer>> removed) {
+        Set<Long> keys = new TreeSet<>(added.keySet());
+        keys.addAll(removed.keySet());
 
-        try (QueryCursor<Cache.Entry<Long, BuildRefCompacted>> qryCursor = buildRefsCache.query(
-            new SqlQuery<Long, BuildRefCompacted>(BuildRefCompacted.class, "branchName = ?")
-                .setArgs((Integer)branchNameId))) {
+        if (keys.isEmpty())
+            return;
 
-            for (Cache.Entry<Long, BuildRefCompacted> next : qryCursor) {
-                Long key = next.getKey();
+        try (Transaction tx = igniteProvider.get().transactions().txStart(PESSIMISTIC, REPEATABLE_READ)) {
+            Map<Long, int[]> cur = stateIdxCache.getAll(keys);
+            Set<Long> buildKeys = new TreeSet<>();
 
-                if (!isKeyForServer(key, srvId))
-                    continue;
+            removed.values().forEach(ids -> ids.forEach(id -> buildKeys.add(buildIdToCacheKey(srvId, id))));
+
+            Map<Long, BuildRefCompacted> refs = buildKeys.isEmpty()
+                ? Collections.emptyMap()
+                : buildRefsCache.getAll(buildKeys);
+
+            for (Long key : keys) {
+                Set<Integer> ids = new TreeSet<>();
+                int[] curIds = cur.get(key);
+
+                if (curIds != null)
+                    ids.addAll(Ints.asList(curIds));
+
+                ids.addAll(added.getOrDefault(key, Collections.emptySet()));
 
-                list.add(next.getValue());
+                for (Integer id : removed.getOrDefault(key, Collections.emptySet())) {
+                    BuildRefCompacted ref = refs.get(buildIdToCacheKey(srvId, id));
+
+                    if (ref == null || stateIdxKey(srvId, ref.state()) != key)
+                        ids.remove(id);
+                }
+
+                if (ids.isEmpty())
+                    stateIdxCache.remove(key);
+                else
+                    stateIdxCache.put(key, Ints.toArray(ids));
             }
-        }
 
-        if (!list.isEmpty()) {
-            System.err.println(" Branch " + compactor.getStringFromId(branchNameId)
-                + " builds " + list.size() + " (Overall) ");
+            tx.commit();
         }
-
-        return list;
     }
 
     /**
@@ -331,7 +683,15 @@ public class BuildRefDao {
         BuildRefCompacted buildPersisted = buildRefsCache.get(cacheKey);
 
         if (buildPersisted == null || !buildPersisted.equals(refCompacted)) {
+            Map<Long, BuildRefCompacted> prev = buildPersisted == null
+                ? Collections.emptyMap()
+                : Collections.singletonMap(cacheKey, buildPersisted);
+            Map<Long, BuildRefCompacted> updated = Collections.singletonMap(cacheKey, refCompacted);
+
+            updateIndexes(srvId, prev, updated, true);
             buildRefsCache.put(cacheKey, refCompacted);
+            updateIndexes(srvId, prev, updated, false);
+
             invalidateHistoryInMem(srvId, Stream.of(refCompacted));
 
             return true;
@@ -366,10 +726,19 @@ public class BuildRefDao {
     }
 
     public void remove(long key) {
-        buildRefsCache.remove(key);
+        removeAll(Collections.singleton(key));
     }
 
     public void removeAll(Set<Long> keys) {
+        Map<Long, BuildRefCompacted> prev = buildRefsCache.getAll(keys);
+
         buildRefsCache.removeAll(keys);
+
+        Map<Integer, Map<Long, BuildRefCompacted>> removedBySrv = new TreeMap<>();
+
+        prev.keySet().forEach(key -> removedBySrv.computeIfAbsent(cacheKeyToSrvId(key), k -> new TreeMap<>())
+            .put(key, null));
+
+        removedBySrv.forEach((srvId, removed) -> updateIndexes(srvId, prev, removed, false));
     }
 }
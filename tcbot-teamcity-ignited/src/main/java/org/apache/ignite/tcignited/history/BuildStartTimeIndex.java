@@ -0,0 +1,297 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.tcignited.history;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import javax.inject.Inject;
+import org.apache.ignite.ci.teamcity.ignited.BuildRefCompacted;
+import org.apache.ignite.internal.util.GridIntList;
+import org.apache.ignite.tcbot.common.interceptor.AutoProfiling;
+import org.apache.ignite.tcignited.buildref.BuildRefBranchIdxKey;
+import org.apache.ignite.tcignited.buildref.BuildRefDao;
+
+/**
+ * In-memory index of builds by start time. For each server, build type and branch keeps segment of builds sorted by
+ * start time, so builds started in time range are found using binary search. Segment is built on first query and then
+ * is updated each time a build of its branch is saved.
+ */
+public class BuildStartTimeIndex {
+    /** Max count of segments kept, arbitrary segments are evicted above the limit and will be rebuilt on demand. */
+    private static final int MAX_SEGMENTS = 20_000;
+
+    /** Build reference DAO. */
+    @Inject private BuildRefDao buildRefDao;
+
+    /** History collector, provides start times of builds. */
+    @Inject private HistoryCollector histCollector;
+
+    /** Segments: server, build type and branch (chunk is always 0) -> builds sorted by start time. */
+    private final ConcurrentMap<BuildRefBranchIdxKey, Segment> segments = new ConcurrentHashMap<>();
+
+    /** Updates of segments being loaded: server, build type and branch -> build ID -> start time. */
+    private final ConcurrentMap<BuildRefBranchIdxKey, Map<Integer, Long>> loadingUpdates = new ConcurrentHashMap<>();
+
+    /**
+     * @param srvId Server id mask high.
+     * @param buildTypeIds Build type IDs from compactor.
+     * @param branchNameIds Branch name IDs from compactor.
+     * @param fromTs Min start time, inclusive.
+     * @param toTs Max start time, inclusive.
+     * @return Sorted IDs of builds started in the time range.
+     */
+    @AutoProfiling
+    public int[] getBuildIds(int srvId, Collection<Integer> buildTypeIds, Collection<Integer> branchNameIds,
+        long fromTs, long toTs) {
+        GridIntList res = new GridIntList(16);
+
+        for (Integer buildTypeId : buildTypeIds) {
+            for (Integer branchNameId : branchNameIds) {
+                BuildRefBranchIdxKey key = new BuildRefBranchIdxKey(srvId, buildTypeId, branchNameId, 0);
+
+                segment(key).addBuildIds(fromTs, toTs, res);
+            }
+        }
+
+        int[] ids = res.array();
+
+        Arrays.sort(ids);
+
+        return ids;
+    }
+
+    /**
+     * Updates segment of the build, if the segment is loaded.
+     *
+     * @param srvId Server id mask high.
+     * @param build Build saved.
+     * @param startTs Build start time.
+     */
+    public void onBuildSaved(int srvId, BuildRefCompacted build, long startTs) {
+        if (startTs <= 0 || build.isFakeStub())
+            return;
+
+        BuildRefBranchIdxKey key = new BuildRefBranchIdxKey(srvId, build.buildTypeId(), build.branchName(), 0);
+
+        // Segment being loaded may miss the build, so update is also passed to loading thread.
+        Map<Integer, Long> pending = loadingUpdates.get(key);
+
+        if (pending != null)
+            pending.put(build.id(), startTs);
+
+        segments.computeIfPresent(key, (k, seg) -> seg.with(build.id(), startTs));
+    }
+
+    /**
+     * @param key Key.
+     * @return Segment, loaded if needed.
+     */
+    private Segment segment(BuildRefBranchIdxKey key) {
+        Segment seg = segments.get(key);
+
+        if (seg != null)
+            return seg;
+
+        if (segments.size() >= MAX_SEGMENTS) {
+            Iterator<BuildRefBranchIdxKey> it = segments.keySet().iterator();
+
+            for (int i = 0; i < MAX_SEGMENTS / 10 && it.hasNext(); i++) {
+                it.next();
+                it.remove();
+            }
+        }
+
+        // Loading queries Ignite, so it is done outside of the map, updates received meanwhile are applied after.
+        Map<Integer, Long> pending = loadingUpdates.computeIfAbsent(key, k -> new ConcurrentHashMap<>());
+        Segment loaded;
+
+        try {
+            loaded = loadSegment(key);
+
+            segments.putIfAbsent(key, loaded);
+        }
+        finally {
+            loadingUpdates.remove(key, pending);
+        }
+
+        // Start time is read inside compute, so the latest value is applied if the build is updated concurrently.
+        for (Integer buildId : pending.keySet())
+            segments.computeIfPresent(key, (k, s) -> s.with(buildId, pending.get(buildId)));
+
+        seg = segments.get(key);
+
+        return seg != null ? seg : loaded;
+    }
+
+    /**
+     * @param key Key.
+     */
+    private Segment loadSegment(BuildRefBranchIdxKey key) {
+        List<BuildRefCompacted> refs = buildRefDao.getAllBuildsCompacted(key.srvId(), key.buildTypeId(),
+            Collections.singleton(key.branchName()));
+
+        int[] ids = refs.stream()
+            .filter(ref -> !ref.isFakeStub())
+            .mapToInt(BuildRefCompacted::id)
+            .toArray();
+
+        long[] times = histCollector.getBuildStartTimes(key.srvId(), ids);
+
+        return Segment.of(ids, times);
+    }
+
+    /**
+     * Immutable builds sorted by start time.
+     */
+    static class Segment {
+        /** Empty. */
+        private static final Segment EMPTY = new Segment(new long[0], new int[0]);
+
+        /** Start times, sorted. */
+        private final long[] startTimes;
+
+        /** Build IDs, in order of start times. */
+        private final int[] buildIds;
+
+        /**
+         * @param startTimes Start times.
+         * @param buildIds Build ids.
+         */
+        private Segment(long[] startTimes, int[] buildIds) {
+            this.startTimes = startTimes;
+            this.buildIds = buildIds;
+        }
+
+        /**
+         * @param ids Build IDs.
+         * @param times Start times, builds having unknown ({@code 0}) time are skipped.
+         */
+        static Segment of(int[] ids, long[] times) {
+            Integer[] idxs = new Integer[ids.length];
+            int cnt = 0;
+
+            for (int i = 0; i < ids.length; i++) {
+                if (times[i] > 0)
+                    idxs[cnt++] = i;
+            }
+
+            if (cnt == 0)
+                return EMPTY;
+
+            Arrays.sort(idxs, 0, cnt, (i1, i2) -> times[i1] != times[i2]
+                ? Long.compare(times[i1], times[i2])
+                : Integer.compare(ids[i1], ids[i2]));
+
+            long[] startTimes = new long[cnt];
+            int[] buildIds = new int[cnt];
+
+            for (int i = 0; i < cnt; i++) {
+                startTimes[i] = times[idxs[i]];
+                buildIds[i] = ids[idxs[i]];
+            }
+
+            return new Segment(startTimes, buildIds);
+        }
+
+        /**
+         * @param buildId Build ID.
+         * @param startTs Start time.
+         * @return Segment containing the build with start time provided.
+         */
+        Segment with(int buildId, long startTs) {
+            int existing = -1;
+
+            for (int i = 0; i < buildIds.length; i++) {
+                if (buildIds[i] == buildId) {
+                    existing = i;
+
+                    break;
+                }
+            }
+
+            if (existing >= 0 && startTimes[existing] == startTs)
+                return this;
+
+            int size = existing >= 0 ? buildIds.length - 1 : buildIds.length;
+            long[] newTimes = new long[size + 1];
+            int[] newIds = new int[size + 1];
+            int pos = 0;
+            boolean inserted = false;
+
+            for (int i = 0; i < buildIds.length; i++) {
+                if (i == existing)
+                    continue;
+
+                if (!inserted && (startTimes[i] > startTs || (startTimes[i] == startTs && buildIds[i] > buildId))) {
+                    newTimes[pos] = startTs;
+                    newIds[pos++] = buildId;
+                    inserted = true;
+                }
+
+                newTimes[pos] = startTimes[i];
+                newIds[pos++] = buildIds[i];
+            }
+
+            if (!inserted) {
+                newTimes[pos] = startTs;
+                newIds[pos] = buildId;
+            }
+
+            return new Segment(newTimes, newIds);
+        }
+
+        /**
+         * @param fromTs Min start time, inclusive.
+         * @param toTs Max start time, inclusive.
+         * @param res Build IDs started in the range are added here.
+         */
+        void addBuildIds(long fromTs, long toTs, GridIntList res) {
+            if (fromTs > toTs)
+                return;
+
+            for (int i = lowerBound(fromTs); i < startTimes.length && startTimes[i] <= toTs; i++)
+                res.add(buildIds[i]);
+        }
+
+        /**
+         * @param ts Start time.
+         * @return Index of the first build started at or after the time.
+         */
+        private int lowerBound(long ts) {
+            int low = 0;
+            int high = startTimes.length;
+
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+
+                if (startTimes[mid] < ts)
+                    low = mid + 1;
+                else
+                    high = mid;
+            }
+
+            return low;
+        }
+    }
+}
@@ -18,31 +18,37 @@
 package org.apache.ignite.tcignited.history;
 
 import java.time.Duration;
-import java.util.Collection;
-import java.util.Date;
+import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.TreeSet;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.atomic.AtomicIntegerArray;
-import java.util.stream.Collectors;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 import javax.annotation.Nullable;
 import javax.cache.Cache;
 import javax.inject.Inject;
 import javax.inject.Provider;
 import org.apache.ignite.Ignite;
 import org.apache.ignite.IgniteCache;
+import org.apache.ignite.cache.affinity.Affinity;
+import org.apache.ignite.cache.query.QueryCursor;
 import org.apache.ignite.cache.query.ScanQuery;
-import org.apache.ignite.ci.teamcity.ignited.fatbuild.FatBuildCompacted;
-import org.apache.ignite.lang.IgniteBiPredicate;
 import org.apache.ignite.tcbot.common.TcBotConst;
 import org.apache.ignite.tcbot.common.interceptor.AutoProfiling;
 import org.apache.ignite.tcbot.persistence.CacheConfigs;
 import org.apache.ignite.tcignited.buildref.BuildRefDao;
 
 /**
+ * Build start times. Times are persisted in the {@link #BUILD_START_TIME_CACHE_NAME} cache and kept in memory in
+ * primitive map for each server. Map is filled lazily: partition of the cache is loaded on first request of a build
+ * mapped to the partition.
  */
 public class BuildStartTimeStorage {
     /** Build Start time Cache name. */
@@ -55,6 +61,9 @@ public class BuildStartTimeStorage {
     /** Build start time. */
     private IgniteCache<Long, Long> buildStartTime;
 
+    /** Server ID -> start times loaded. */
+    private final ConcurrentMap<Integer, ServerStartTimes> startTimes = new ConcurrentHashMap<>();
+
     /**
      * Biggest build ID, which is older than particular days count.
      * Map: server ID-> Array of build Ids
@@ -89,69 +98,133 @@ public class BuildStartTimeStorage {
      */
     @AutoProfiling
     @Nullable public Long getBuildStartTime(int srvId, int buildId) {
-        Long ts = buildStartTime.get(buildIdToCacheKey(srvId, buildId));
-        if (ts == null || ts <= 0)
-            return null;
+        long ts = getStartTimes(srvId, new int[] {buildId})[0];
 
-        processBuildForBorder(srvId, buildId, ts);
+        return ts > 0 ? ts : null;
+    }
+
+    /**
+     * @param srvId Server id.
+     * @param buildIds Build IDs.
+     * @return Start times, element is {@code 0} if start time of the build with the same index is unknown.
+     */
+    @AutoProfiling
+    public long[] getStartTimes(int srvId, int[] buildIds) {
+        ServerStartTimes srvTimes = startTimes.computeIfAbsent(srvId, k -> new ServerStartTimes());
+        long[] res = new long[buildIds.length];
+
+        if (srvTimes.read(buildIds, res) == 0 || srvTimes.allLoaded)
+            return res;
 
-        return ts;
+        List<Integer> missing = new ArrayList<>();
+
+        for (int i = 0; i < buildIds.length; i++) {
+            if (res[i] == 0)
+                missing.add(buildIds[i]);
+        }
+
+        if (loadPartitions(srvId, srvTimes, missing))
+            srvTimes.read(buildIds, res);
+
+        return res;
     }
 
-    public boolean setBuildStartTime(int srvId, int buildId, long ts) {
-        if (ts <= 0)
-            return false;
+    /**
+     * @param srvId Server id.
+     * @param srvTimes Server start times.
+     * @param buildIds Build IDs.
+     * @return {@code True} if any partition was loaded.
+     */
+    private boolean loadPartitions(int srvId, ServerStartTimes srvTimes, List<Integer> buildIds) {
+        Affinity<Long> affinity = igniteProvider.get().affinity(buildStartTime.getName());
+        Set<Integer> parts = new TreeSet<>();
 
-        processBuildForBorder(srvId, buildId, ts);
+        for (Integer buildId : buildIds)
+            parts.add(affinity.partition(buildIdToCacheKey(srvId, buildId)));
+
+        boolean loaded = false;
+
+        synchronized (srvTimes) {
+            for (Integer part : parts) {
+                if (srvTimes.loadedParts.get(part))
+                    continue;
+
+                Map<Integer, Long> partTimes = new HashMap<>();
+
+                try (QueryCursor<Cache.Entry<Long, Long>> qry = buildStartTime.query(new ScanQuery<Long, Long>()
+                    .setPartition(part)
+                    .setFilter((k, v) -> BuildRefDao.cacheKeyToSrvId(k) == srvId))) {
+                    for (Cache.Entry<Long, Long> entry : qry) {
+                        Long ts = entry.getValue();
+
+                        if (ts != null && ts > 0)
+                            partTimes.put(BuildRefDao.cacheKeyToBuildId(entry.getKey()), ts);
+                    }
+                }
+
+                srvTimes.putAll(partTimes);
+                partTimes.forEach((buildId, ts) -> processBuildForBorder(srvId, buildId, ts));
+
+                srvTimes.loadedParts.set(part);
+                loaded = true;
+            }
 
-        return buildStartTime.putIfAbsent(buildIdToCacheKey(srvId, buildId), ts);
+            if (srvTimes.loadedParts.cardinality() == affinity.partitions())
+                srvTimes.allLoaded = true;
+        }
+
+        return loaded;
     }
 
-    @AutoProfiling
-    public boolean setBuildProcessed(int srvId, int buildId, long ts) {
+    public boolean setBuildStartTime(int srvId, int buildId, long ts) {
         if (ts <= 0)
             return false;
 
         processBuildForBorder(srvId, buildId, ts);
 
-        return buildStartTime.putIfAbsent(buildIdToCacheKey(srvId, buildId), ts);
+        boolean put = buildStartTime.putIfAbsent(buildIdToCacheKey(srvId, buildId), ts);
+
+        if (put)
+            startTimes.computeIfAbsent(srvId, k -> new ServerStartTimes()).putAll(Map.of(buildId, ts));
+
+        return put;
     }
 
-    private static Set<Long> buildsIdsToCacheKeys(int srvId, Collection<Integer> ids) {
-        return ids.stream()
-            .filter(Objects::nonNull).map(id -> buildIdToCacheKey(srvId, id)).collect(Collectors.toSet());
+    @AutoProfiling
+    public boolean setBuildProcessed(int srvId, int buildId, long ts) {
+        return setBuildStartTime(srvId, buildId, ts);
     }
 
     public Map<Integer, Long> getBuildsStartTime(int srvId, Set<Integer> ids) {
-        Set<Long> cacheKeys = buildsIdsToCacheKeys(srvId, ids);
+        int[] buildIds = ids.stream().filter(Objects::nonNull).mapToInt(Integer::intValue).toArray();
+        long[] times = getStartTimes(srvId, buildIds);
 
         Map<Integer, Long> res = new HashMap<>();
 
-        buildStartTime.getAll(cacheKeys).forEach((k, ts) -> {
-            if (ts != null && ts > 0) {
-                int buildId = BuildRefDao.cacheKeyToBuildId(k);
-
-                res.put(buildId, ts);
-
-                processBuildForBorder(srvId, buildId, ts);
-            }
-        });
+        for (int i = 0; i < buildIds.length; i++) {
+            if (times[i] > 0)
+                res.put(buildIds[i], times[i]);
+        }
 
         return res;
     }
 
     public void setBuildsStartTime(int srvId, Map<Integer, Long> builds) {
         Map<Long, Long> res = new HashMap<>();
+        Map<Integer, Long> valid = new HashMap<>();
 
         builds.forEach((buildId, ts) -> {
             if (ts != null && ts > 0) {
                 res.put(buildIdToCacheKey(srvId, buildId), ts);
+                valid.put(buildId, ts);
 
                 processBuildForBorder(srvId, buildId, ts);
             }
         });
 
         buildStartTime.putAll(res);
+
+        startTimes.computeIfAbsent(srvId, k -> new ServerStartTimes()).putAll(valid);
     }
 
     private void processBuildForBorder(int srvId, Integer buildId, Long ts) {
@@ -188,10 +261,98 @@ public class BuildStartTimeStorage {
 
     public void remove(long key) {
         buildStartTime.remove(key);
+
+        removeLoaded(key);
     }
 
     public void removeAll(Set<Long> keys) {
         buildStartTime.removeAll(keys);
+
+        keys.forEach(this::removeLoaded);
     }
 
+    /**
+     * @param key Cache key.
+     */
+    private void removeLoaded(long key) {
+        ServerStartTimes srvTimes = startTimes.get(BuildRefDao.cacheKeyToSrvId(key));
+
+        if (srvTimes == null)
+            return;
+
+        // Partition being loaded concurrently could return removed time back otherwise.
+        synchronized (srvTimes) {
+            srvTimes.remove(BuildRefDao.cacheKeyToBuildId(key));
+        }
+    }
+
+    /**
+     * Start times of one server loaded in memory.
+     */
+    private static class ServerStartTimes {
+        /** Build ID -> start time. */
+        private final IntLongHashMap times = new IntLongHashMap();
+
+        /** Lock for {@link #times}. */
+        private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+        /** Partitions loaded, guarded by this instance monitor. */
+        private final BitSet loadedParts = new BitSet();
+
+        /** All partitions loaded. */
+        private volatile boolean allLoaded;
+
+        /**
+         * @param buildIds Build IDs.
+         * @param res Start times found, {@code 0} for unknown ones.
+         * @return Count of unknown start times.
+         */
+        int read(int[] buildIds, long[] res) {
+            int missing = 0;
+
+            lock.readLock().lock();
+
+            try {
+                for (int i = 0; i < buildIds.length; i++) {
+                    res[i] = times.get(buildIds[i]);
+
+                    if (res[i] == 0)
+                        missing++;
+                }
+            }
+            finally {
+                lock.readLock().unlock();
+            }
+
+            return missing;
+        }
+
+        /**
+         * @param startTimes Build ID -> positive start time.
+         */
+        void putAll(Map<Integer, Long> startTimes) {
+            lock.writeLock().lock();
+
+            try {
+                startTimes.forEach(times::put);
+            }
+            finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        /**
+         * @param buildId Build ID.
+         */
+        void remove(int buildId) {
+            lock.writeLock().lock();
+
+            try {
+                times.remove(buildId);
+            }
+            finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
 }
@@ -18,19 +18,21 @@ package org.apache.ignite.tcignited.history;
 
 import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.Iterables;
+import com.google.common.primitives.Ints;
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.function.BiPredicate;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 import javax.annotation.Nonnull;
 import javax.cache.Cache;
 import javax.inject.Inject;
@@ -38,7 +40,9 @@ import org.apache.ignite.IgniteCache;
 import org.apache.ignite.binary.BinaryObject;
 import org.apache.ignite.cache.query.QueryCursor;
 import org.apache.ignite.cache.query.ScanQuery;
+import org.apache.ignite.internal.util.GridIntList;
 import org.apache.ignite.ci.teamcity.ignited.BuildRefCompacted;
+import org.apache.ignite.ci.teamcity.ignited.fatbuild.FatBuildCompacted;
 import org.apache.ignite.ci.teamcity.ignited.runhist.Invocation;
 import org.apache.ignite.ci.teamcity.ignited.runhist.RunHistKey;
 import org.apache.ignite.tcbot.common.TcBotConst;
@@ -51,7 +55,6 @@ import org.apache.ignite.tcbot.common.interceptor.AutoProfiling;
 import org.apache.ignite.tcbot.persistence.IStringCompactor;
 import org.apache.ignite.tcignited.ITeamcityIgnited;
 import org.apache.ignite.tcignited.build.FatBuildDao;
-import org.apache.ignite.tcignited.build.ITest;
 import org.apache.ignite.tcignited.build.TestCompactedV2;
 import org.apache.ignite.tcignited.buildref.BranchEquivalence;
 import org.apache.ignite.tcignited.buildref.BuildRefDao;
@@ -87,6 +90,9 @@ public class HistoryCollector {
 
     @Inject private IDataSourcesConfigSupplier cfg;
 
+    /** Max age of suite history in memory, minutes. Appending builds does not prolong it, see {@link #onBuildSaved}. */
+    private static final int HIST_MAX_AGE_MIN = 17;
+
     /**
      * Non persistence cache for all suite RunHistory for particular branch. RunHistKey(ServerId||BranchId||suiteId)->
      * Build reference
@@ -95,10 +101,13 @@ public class HistoryCollector {
         = CacheBuilder.newBuilder()
         .maximumSize(Boolean.valueOf(System.getProperty(TcBotSystemProperties.DEV_MODE)) ? 1000 : 8000)
         .expireAfterAccess(16, TimeUnit.MINUTES)
-        .expireAfterWrite(17, TimeUnit.MINUTES) //workaround for stale records
+        .expireAfterWrite(HIST_MAX_AGE_MIN, TimeUnit.MINUTES) //workaround for stale records
         .softValues()
         .build();
 
+    /** Server ID (hash of code) -> Server code, for servers having history loaded. */
+    private final Map<Integer, String> srvCodes = new ConcurrentHashMap<>();
+
     /**
      * @param srvCode Server id mask to be placed at high bits in the key.
      * @param testName Test name.
@@ -118,6 +127,8 @@ public class HistoryCollector {
         int srvId = ITeamcityIgnited.serverIdToInt(srvCode);
         RunHistKey runHistKey = new RunHistKey(srvId, buildTypeId, normalizedBaseBranch);
 
+        srvCodes.putIfAbsent(srvId, srvCode);
+
         SuiteHistory hist;
         try {
             hist = runHistInMemCache.get(runHistKey,
@@ -144,50 +155,33 @@ public class HistoryCollector {
         String btId = compactor.getStringFromId(buildTypeId);
         String branchId = compactor.getStringFromId(normalizedBaseBranch);
         Set<Integer> strings = branchEquivalence.branchIdsForQuery(branchId, compactor);
-        List<BuildRefCompacted> bRefsList =
-            buildRefDao.getAllBuildsCompacted(srvId, buildTypeId, strings);
+        Integer maxBuildIdForDay = buildStartTimeStorage.getBorderForAgeForBuildId(srvId, TcBotConst.HISTORY_BUILD_ID_BORDER_DAYS);
+        List<BuildRefCompacted> bRefsList = maxBuildIdForDay == null
+            ? buildRefDao.getAllBuildsCompacted(srvId, buildTypeId, strings)
+            : buildRefDao.getAllBuildsCompacted(srvId, buildTypeId, strings, maxBuildIdForDay + 1);
 
         long curTs = System.currentTimeMillis();
-        Set<Integer> buildIds = bRefsList.stream()
-            .filter(b -> {
-                Integer maxBuildIdForDay = buildStartTimeStorage.getBorderForAgeForBuildId(srvId, TcBotConst.HISTORY_BUILD_ID_BORDER_DAYS);
-
-                if (maxBuildIdForDay == null)
-                    return true;
-
-                return b.id() > maxBuildIdForDay;
-
-            })
+        int[] buildIds = bRefsList.stream()
             .filter(this::applicableForHistory)
-            .map(BuildRefCompacted::id)
-            .filter(bId -> !knownBuilds.contains(bId)).collect(Collectors.toSet());
+            .mapToInt(BuildRefCompacted::id)
+            .filter(bId -> !knownBuilds.contains(bId))
+            .distinct()
+            .toArray();
 
         logger.info("***** Loading build start time history for suite "
             + compactor.getStringFromId(buildTypeId)
-            + " branch " + compactor.getStringFromId(normalizedBaseBranch) + ": " + buildIds.size() + " builds" );
-
-        Map<Integer, Long> buildStartTimes = getStartTimeFromSpecialCache(srvId, buildIds);
-
-        Set<Integer> notFoundKeys = new HashSet<>(buildIds);
-        notFoundKeys.removeAll(buildStartTimes.keySet());
+            + " branch " + compactor.getStringFromId(normalizedBaseBranch) + ": " + buildIds.length + " builds" );
 
-        if (!notFoundKeys.isEmpty()) {
-            Map<Integer, Long> buildStartTimeFromFatBuild = getStartTimeFromFatBuild(srvId, notFoundKeys);
-
-            buildStartTimes.putAll(buildStartTimeFromFatBuild);
-
-            buildStartTimeStorage.setBuildsStartTime(srvId, buildStartTimeFromFatBuild);
-        }
+        long[] buildStartTimes = getBuildStartTimes(srvId, buildIds);
 
         long minBuildStartTs = curTs - Duration.ofDays(TcBotConst.HISTORY_MAX_DAYS).toMillis();
 
-        Set<Integer> buildInScope = buildIds.stream().filter(
-            bId -> {
-                Long startTime = buildStartTimes.get(bId);
+        Set<Integer> buildInScope = new HashSet<>();
 
-                return startTime != null && startTime > minBuildStartTs;
-            }
-        ).collect(Collectors.toSet());
+        for (int i = 0; i < buildIds.length; i++) {
+            if (buildStartTimes[i] > minBuildStartTs)
+                buildInScope.add(buildIds[i]);
+        }
 
         logger.info("*** Build " + btId + " branch " + branchId + " builds in scope " +
             buildInScope.size() + " from " + bRefsList.size());
@@ -195,10 +189,42 @@ public class HistoryCollector {
         return buildInScope;
     }
 
-    @SuppressWarnings("WeakerAccess")
+    /**
+     * Returns start times known in start times storage, missing times are loaded from fat builds and saved to storage.
+     *
+     * @param srvId Server id.
+     * @param buildIds Build IDs.
+     * @return Start times, element is {@code 0} if start time of the build with the same index is unknown.
+     */
     @AutoProfiling
-    protected Map<Integer, Long> getStartTimeFromSpecialCache(int srvId, Set<Integer> buildIds) {
-        return buildStartTimeStorage.getBuildsStartTime(srvId, buildIds);
+    public long[] getBuildStartTimes(int srvId, int[] buildIds) {
+        long[] res = buildStartTimeStorage.getStartTimes(srvId, buildIds);
+
+        Set<Integer> notFound = new HashSet<>();
+
+        for (int i = 0; i < buildIds.length; i++) {
+            if (res[i] <= 0)
+                notFound.add(buildIds[i]);
+        }
+
+        if (notFound.isEmpty())
+            return res;
+
+        Map<Integer, Long> fromFatBuilds = getStartTimeFromFatBuild(srvId, notFound);
+
+        if (fromFatBuilds.isEmpty())
+            return res;
+
+        buildStartTimeStorage.setBuildsStartTime(srvId, fromFatBuilds);
+
+        for (int i = 0; i < buildIds.length; i++) {
+            Long ts = res[i] <= 0 ? fromFatBuilds.get(buildIds[i]) : null;
+
+            if (ts != null && ts > 0)
+                res[i] = ts;
+        }
+
+        return res;
     }
 
     @SuppressWarnings("WeakerAccess")
@@ -257,6 +283,67 @@ public class HistoryCollector {
         runHistInMemCache.invalidate(inv);
     }
 
+    /**
+     * Updates in-memory history of suite and branch with the build saved. If the history is loaded, finished build is
+     * appended to it instead of invalidation, so history is kept warm for actively built branches.
+     *
+     * @param srvId Server id.
+     * @param build Fat build saved.
+     */
+    public void onBuildSaved(int srvId, FatBuildCompacted build) {
+        RunHistKey key = new RunHistKey(srvId, build.buildTypeId(), build.branchName());
+
+        if (runHistInMemCache.getIfPresent(key) == null)
+            return; // Build will be found by next history loading.
+
+        if (!applicableForHistory(build))
+            return; // Queued, running and cancelled builds are not included into history.
+
+        String srvCode = srvCodes.get(srvId);
+        long minBuildStartTs = System.currentTimeMillis() - Duration.ofDays(TcBotConst.HISTORY_MAX_DAYS).toMillis();
+
+        if (srvCode == null || build.getStartDateTs() <= minBuildStartTs) {
+            invalidateHistoryInMem(srvId, build);
+
+            return;
+        }
+
+        Set<Integer> filteringParameters = getFilteringParameters(srvCode);
+        SuiteInvocation sinv = toSuiteInvocation(srvId, build.branchName(), build,
+            (k, v) -> filteringParameters.contains(k), compactor.getStringId(TestOccurrence.STATUS_SUCCESS));
+
+        histDao.putAll(srvId, Collections.singletonMap(build.id(), sinv));
+
+        long minLoadedTs = System.currentTimeMillis() - TimeUnit.MINUTES.toMillis(HIST_MAX_AGE_MIN);
+
+        // Write resets expiration, so old history is removed here to be reloaded without builds out of history window.
+        // Null returned for builds which can't be appended removes history too.
+        runHistInMemCache.asMap().computeIfPresent(key,
+            (k, hist) -> hist.loadedTs() > minLoadedTs ? hist.withInvocation(sinv) : null);
+    }
+
+    /**
+     * @param srvId Server id.
+     * @param normalizedBaseBranch Normalized base branch.
+     * @param fatBuild Fat build.
+     * @param paramsFilter Filter for build parameters to be saved.
+     * @param successStatusStrId Success status string ID.
+     */
+    private SuiteInvocation toSuiteInvocation(int srvId, int normalizedBaseBranch, FatBuildCompacted fatBuild,
+        BiPredicate<Integer, Integer> paramsFilter, int successStatusStrId) {
+        SuiteInvocation sinv = new SuiteInvocation(srvId, normalizedBaseBranch, fatBuild, compactor, paramsFilter);
+
+        fatBuild.forEachTest(
+            testCompacted -> {
+                Invocation invocation = TestCompactedV2.toInvocation(testCompacted, fatBuild, successStatusStrId);
+
+                sinv.addTest(testCompacted.testName(), invocation);
+            }
+        );
+
+        return sinv;
+    }
+
     @Nonnull
     private Set<Integer> getFilteringParameters(String srvCode) {
         Set<String> importantParameters = new HashSet<>();
@@ -267,7 +354,7 @@ public class HistoryCollector {
                 .map(IBuildParameterSpec::name)
                 .forEach(importantParameters::add);
 
-        return importantParameters.stream().map(k -> compactor.getStringId(k)).collect(Collectors.toSet());
+        return new HashSet<>(Ints.asList(compactor.getStringIds(importantParameters)));
     }
 
     @AutoProfiling
@@ -290,17 +377,8 @@ public class HistoryCollector {
                     if (!applicableForHistory(fatBuildCompacted))
                         return;
 
-                    SuiteInvocation sinv = new SuiteInvocation(srvId, normalizedBaseBranch, fatBuildCompacted, compactor, paramsFilter);
-
-                    Stream<ITest> tests = fatBuildCompacted.getAllTests();
-                    tests.forEach(
-                        testCompacted -> {
-                            Invocation invocation = TestCompactedV2.toInvocation(testCompacted,
-                                fatBuildCompacted, successStatusStrId);
-
-                            sinv.addTest(testCompacted.testName(), invocation);
-                        }
-                    );
+                    SuiteInvocation sinv = toSuiteInvocation(srvId, normalizedBaseBranch, fatBuildCompacted,
+                        paramsFilter, successStatusStrId);
 
                     suiteRunHist.put(fatBuildCompacted.id(), sinv);
                 });
@@ -382,6 +460,7 @@ public class HistoryCollector {
 
         int cnt = 0;
         List<Long> idsToCheck = new ArrayList<>();
+        Map<Integer, GridIntList> candidates = new HashMap<>();
 
         try (QueryCursor<Cache.Entry<Long, BinaryObject>> cursor = query) {
             for (Cache.Entry<Long, BinaryObject> next : cursor) {
@@ -397,15 +476,24 @@ public class HistoryCollector {
                 if (!passesDate)
                     continue;
 
-                Long startTs = getBuildStartTime(srvId, buildId);
-                if (startTs == null || startTs < minTs)
+                candidates.computeIfAbsent(srvId, k -> new GridIntList()).add(buildId);
+            }
+        }
+
+        for (Map.Entry<Integer, GridIntList> entry : candidates.entrySet()) {
+            int srvId = entry.getKey();
+            int[] buildIds = entry.getValue().array();
+            long[] startTs = getBuildStartTimes(srvId, buildIds);
+
+            for (int i = 0; i < buildIds.length; i++) {
+                if (startTs[i] <= 0 || startTs[i] < minTs)
                     continue; //time not saved in the DB, skip
 
-                System.err.println("Found build at srv [" + srvId + "]: [" + buildId + "] to analyze, ts=" + startTs);
+                System.err.println("Found build at srv [" + srvId + "]: [" + buildIds[i] + "] to analyze, ts=" + startTs[i]);
 
                 cnt++;
 
-                idsToCheck.add(key);
+                idsToCheck.add(BuildRefDao.buildIdToCacheKey(srvId, buildIds[i]));
             }
         }
 
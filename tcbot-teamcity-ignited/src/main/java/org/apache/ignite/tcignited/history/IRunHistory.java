@@ -35,6 +35,16 @@ public interface IRunHistory {
     @Nullable
     List<Integer> getLatestRunResults();
 
+    /**
+     * @return Statuses ({@link RunStatus} codes) of latest runs from oldest to newest, or {@code null} if not available.
+     */
+    @Nullable
+    public default int[] getLatestRunStatuses() {
+        List<Integer> res = getLatestRunResults();
+
+        return res == null ? null : res.stream().mapToInt(s -> s == null ? RunStatus.RES_MISSING.getCode() : s).toArray();
+    }
+
     @Nullable String getFlakyComments();
 
     @Nullable
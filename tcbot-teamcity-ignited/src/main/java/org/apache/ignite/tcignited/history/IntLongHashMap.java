@@ -0,0 +1,151 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.tcignited.history;
+
+/**
+ * Open addressing hash map from {@code int} to positive {@code long} values without boxing. Zero value marks an empty
+ * slot, so zero and negative values can't be stored. Not thread safe.
+ */
+class IntLongHashMap {
+    /** Initial capacity. */
+    private static final int INITIAL_CAPACITY = 1024;
+
+    /** Keys. */
+    private int[] keys = new int[INITIAL_CAPACITY];
+
+    /** Values, {@code 0} for empty slots. */
+    private long[] vals = new long[INITIAL_CAPACITY];
+
+    /** Entries count. */
+    private int size;
+
+    /**
+     * @param key Key.
+     * @return Value or {@code 0} if key is absent.
+     */
+    long get(int key) {
+        int mask = keys.length - 1;
+
+        for (int i = slot(key, mask); vals[i] != 0; i = (i + 1) & mask) {
+            if (keys[i] == key)
+                return vals[i];
+        }
+
+        return 0;
+    }
+
+    /**
+     * @param key Key.
+     * @param val Value, should be positive.
+     */
+    void put(int key, long val) {
+        if (val <= 0)
+            throw new IllegalArgumentException("Only positive values are supported: " + val);
+
+        if ((size + 1) * 4L > keys.length * 3L)
+            resize(keys.length * 2);
+
+        int mask = keys.length - 1;
+        int i = slot(key, mask);
+
+        for (; vals[i] != 0; i = (i + 1) & mask) {
+            if (keys[i] == key) {
+                vals[i] = val;
+
+                return;
+            }
+        }
+
+        keys[i] = key;
+        vals[i] = val;
+        size++;
+    }
+
+    /**
+     * @param key Key.
+     * @return {@code True} if key was removed.
+     */
+    boolean remove(int key) {
+        int mask = keys.length - 1;
+        int i = slot(key, mask);
+
+        for (; vals[i] != 0; i = (i + 1) & mask) {
+            if (keys[i] == key)
+                break;
+        }
+
+        if (vals[i] == 0)
+            return false;
+
+        // Entries following the removed one are shifted back, so probe sequences stay unbroken.
+        for (int next = (i + 1) & mask; vals[next] != 0; next = (next + 1) & mask) {
+            int home = slot(keys[next], mask);
+
+            if (((next - home) & mask) >= ((next - i) & mask)) {
+                keys[i] = keys[next];
+                vals[i] = vals[next];
+                i = next;
+            }
+        }
+
+        vals[i] = 0;
+        size--;
+
+        return true;
+    }
+
+    /**
+     * @return Entries count.
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * @param capacity New capacity, power of 2.
+     */
+    private void resize(int capacity) {
+        int[] oldKeys = keys;
+        long[] oldVals = vals;
+
+        keys = new int[capacity];
+        vals = new long[capacity];
+        size = 0;
+
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldVals[i] != 0)
+                put(oldKeys[i], oldVals[i]);
+        }
+    }
+
+    /**
+     * @param key Key.
+     * @param mask Mask.
+     * @return Home slot of the key.
+     */
+    private static int slot(int key, int mask) {
+        int h = key * 0x9E3779B9;
+
+        return (h ^ (h >>> 16)) & mask;
+    }
+
+    /** {@inheritDoc} */
+    @Override public String toString() {
+        return "IntLongHashMap [size=" + size + ", capacity=" + keys.length + ']';
+    }
+}
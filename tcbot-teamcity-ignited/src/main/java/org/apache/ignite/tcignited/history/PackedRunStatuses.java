@@ -0,0 +1,197 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.tcignited.history;
+
+import com.google.common.base.Preconditions;
+import java.util.Arrays;
+
+/**
+ * Immutable sequence of run statuses ({@link RunStatus} codes) packed into 4 bits per invocation, 16 invocations per
+ * word. Count of invocations for each status is computed once using word-wide comparison and popcount.
+ */
+public class PackedRunStatuses {
+    /** Bits per status. */
+    private static final int BITS = 4;
+
+    /** Statuses in one word. */
+    private static final int PER_WORD = Long.SIZE / BITS;
+
+    /** Status mask. */
+    private static final long MASK = (1L << BITS) - 1;
+
+    /** Lowest bit of each status in word. */
+    private static final long LOW_BITS = 0x1111_1111_1111_1111L;
+
+    /** Code filling unused tail of the last word, does not match any status. */
+    private static final int PADDING = (int)MASK;
+
+    /** Max status code supported. */
+    private static final int MAX_STATUS = PADDING - 1;
+
+    /** Packed statuses. */
+    private final long[] words;
+
+    /** Statuses count. */
+    private final int size;
+
+    /** Status code -> count of invocations having this status. */
+    private final int[] cntByStatus = new int[MAX_STATUS + 1];
+
+    /**
+     * @param words Packed statuses, unused tail of the last word is filled with {@link #PADDING}.
+     * @param size Statuses count.
+     */
+    private PackedRunStatuses(long[] words, int size) {
+        this.words = words;
+        this.size = size;
+
+        for (int status = 0; status <= MAX_STATUS; status++)
+            cntByStatus[status] = countMatching(words, status);
+    }
+
+    /**
+     * @param statuses Statuses.
+     */
+    public static PackedRunStatuses of(byte[] statuses) {
+        long[] words = emptyWords(statuses.length);
+
+        for (int i = 0; i < statuses.length; i++)
+            words[i / PER_WORD] = setAt(words[i / PER_WORD], i % PER_WORD, statuses[i]);
+
+        return new PackedRunStatuses(words, statuses.length);
+    }
+
+    /**
+     * @param status Status to be added as the latest one.
+     * @return New sequence, this instance is not changed.
+     */
+    public PackedRunStatuses append(byte status) {
+        long[] res = Arrays.copyOf(words, wordsCount(size + 1));
+
+        if (res.length > words.length)
+            res[res.length - 1] = -1L;
+
+        res[size / PER_WORD] = setAt(res[size / PER_WORD], size % PER_WORD, status);
+
+        return new PackedRunStatuses(res, size + 1);
+    }
+
+    /**
+     * @param idxs Sorted indexes of statuses to keep.
+     * @return New sequence containing only statuses at indexes provided.
+     */
+    public PackedRunStatuses select(int[] idxs) {
+        long[] res = emptyWords(idxs.length);
+
+        for (int i = 0; i < idxs.length; i++)
+            res[i / PER_WORD] = setAt(res[i / PER_WORD], i % PER_WORD, get(idxs[i]));
+
+        return new PackedRunStatuses(res, idxs.length);
+    }
+
+    /**
+     * @return Statuses count.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @param idx Index.
+     * @return Status at index.
+     */
+    public byte get(int idx) {
+        Preconditions.checkElementIndex(idx, size);
+
+        return (byte)((words[idx / PER_WORD] >>> (idx % PER_WORD * BITS)) & MASK);
+    }
+
+    /**
+     * @param status Status code.
+     * @return Count of invocations having status.
+     */
+    public int count(int status) {
+        return status >= 0 && status <= MAX_STATUS ? cntByStatus[status] : 0;
+    }
+
+    /**
+     * @return Statuses unpacked, oldest first.
+     */
+    public int[] toArray() {
+        int[] res = new int[size];
+
+        for (int i = 0; i < size; i++)
+            res[i] = (int)((words[i / PER_WORD] >>> (i % PER_WORD * BITS)) & MASK);
+
+        return res;
+    }
+
+    /**
+     * @param statuses Statuses count.
+     * @return Words for statuses count, all positions are filled with padding.
+     */
+    private static long[] emptyWords(int statuses) {
+        long[] words = new long[wordsCount(statuses)];
+
+        Arrays.fill(words, -1L);
+
+        return words;
+    }
+
+    /**
+     * @param statuses Statuses count.
+     */
+    private static int wordsCount(int statuses) {
+        return (statuses + PER_WORD - 1) / PER_WORD;
+    }
+
+    /**
+     * @param word Word.
+     * @param pos Position in word.
+     * @param status Status.
+     * @return Word with status set.
+     */
+    private static long setAt(long word, int pos, byte status) {
+        Preconditions.checkArgument(status >= 0 && status <= MAX_STATUS, "Unexpected run status: %s", status);
+
+        int shift = pos * BITS;
+
+        return (word & ~(MASK << shift)) | ((long)status << shift);
+    }
+
+    /**
+     * @param words Packed statuses.
+     * @param status Status.
+     * @return Count of positions having exactly this status.
+     */
+    private static int countMatching(long[] words, int status) {
+        long pattern = LOW_BITS * status;
+        int res = 0;
+
+        for (long word : words) {
+            long diff = word ^ pattern;
+
+            // Lowest bit of each position is set if any of the position bits differs from the pattern.
+            long differs = (diff | (diff >>> 1) | (diff >>> 2) | (diff >>> 3)) & LOW_BITS;
+
+            res += PER_WORD - Long.bitCount(differs);
+        }
+
+        return res;
+    }
+}
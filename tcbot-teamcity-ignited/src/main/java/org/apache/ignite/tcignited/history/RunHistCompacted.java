@@ -47,6 +47,11 @@ public class RunHistCompacted extends AbstractRunHist {
         return data.getLatestRuns();
     }
 
+    /** {@inheritDoc} */
+    @Override public int[] getLatestRunStatuses() {
+        return data.invocations().mapToInt(Invocation::status).toArray();
+    }
+
     /** {@inheritDoc} */
     @Override public Stream<Invocation> getInvocations() {
         return data.invocations();
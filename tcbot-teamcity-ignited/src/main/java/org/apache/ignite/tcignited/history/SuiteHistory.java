@@ -18,14 +18,13 @@
 package org.apache.ignite.tcignited.history;
 
 import com.google.common.base.Preconditions;
-import java.util.ArrayList;
+import com.google.common.primitives.Ints;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
-import java.util.Set;
-import java.util.stream.Collectors;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import org.apache.ignite.ci.teamcity.ignited.runhist.Invocation;
@@ -35,11 +34,14 @@ import org.apache.ignite.ci.teamcity.ignited.runhist.Invocation;
  */
 public class SuiteHistory implements ISuiteRunHistory {
     /** Tests history: Test name ID->statuses for invocations */
-    private Map<Integer, byte[]> testsInvStatues = new HashMap<>();
+    private Map<Integer, PackedRunStatuses> testsInvStatues = new HashMap<>();
 
     /** Suite history. */
     private RunHistCompacted suiteHist = new RunHistCompacted();
 
+    /** Time of loading from storage, kept by copies with invocations appended. */
+    private long loadedTs = System.currentTimeMillis();
+
     public SuiteHistory(Map<Integer, SuiteInvocation> suiteRunHist) {
         //filling data for tests invoked.
         Map<Integer, RunHistCompacted> testsHist = new HashMap<>();
@@ -71,7 +73,7 @@ public class SuiteHistory implements ISuiteRunHistory {
                 }
             );
 
-            testsInvStatues.put(k, testStatusesUltraComp);
+            testsInvStatues.put(k, PackedRunStatuses.of(testStatusesUltraComp));
         });
     }
 
@@ -91,9 +93,63 @@ public class SuiteHistory implements ISuiteRunHistory {
         suiteHist.addInvocation(suiteInv.suiteInvocation());
     }
 
+    /**
+     * Creates copy of this history with one more suite invocation appended as the latest one. This instance is not
+     * modified, so it is still consistent for concurrent readers.
+     *
+     * @param suiteInv Suite invocation (build) to be added.
+     * @return History including invocation provided or {@code null} if the build is not newer than all builds already
+     * present, so history should be reloaded.
+     */
+    @Nullable public SuiteHistory withInvocation(SuiteInvocation suiteInv) {
+        Invocation suite = suiteInv.suiteInvocation();
+        int buildsCnt = (int)suiteHist.getInvocations().count();
+
+        if (buildsCnt > 0 && suiteHist.getInvocationAt(buildsCnt - 1).buildId() >= suite.buildId())
+            return null;
+
+        SuiteHistory res = new SuiteHistory();
+
+        res.loadedTs = loadedTs;
+
+        suiteHist.getInvocations().forEach(res.suiteHist::addInvocation);
+        res.suiteHist.addInvocation(suite);
+
+        byte missingCode = (byte)RunStatus.RES_MISSING.getCode();
+        Map<Integer, Invocation> tests = suiteInv.tests();
+
+        testsInvStatues.forEach((tName, statuses) -> {
+            Invocation testInv = tests.get(tName);
+
+            res.testsInvStatues.put(tName, statuses.append(testInv != null ? testInv.status() : missingCode));
+        });
+
+        tests.forEach((tName, testInv) -> {
+            if (res.testsInvStatues.containsKey(tName))
+                return;
+
+            byte[] statuses = new byte[buildsCnt + 1];
+
+            Arrays.fill(statuses, missingCode);
+
+            statuses[buildsCnt] = testInv.status();
+
+            res.testsInvStatues.put(tName, PackedRunStatuses.of(statuses));
+        });
+
+        return res;
+    }
+
+    /**
+     * @return Time of loading from storage, invocations appended later do not change it.
+     */
+    public long loadedTs() {
+        return loadedTs;
+    }
+
     /** {@inheritDoc} */
     @Nullable @Override public IRunHistory getTestRunHist(int testName) {
-        byte[] testInvStatuses = testsInvStatues.get(testName);
+        PackedRunStatuses testInvStatuses = testsInvStatues.get(testName);
 
         if(testInvStatuses == null)
             return null;
@@ -107,26 +163,13 @@ public class SuiteHistory implements ISuiteRunHistory {
 
         Map<Integer, Integer> buildIdToIdx = suiteHist.buildIdsMapping();
 
-        Set<Integer> indexesToKeep = suitesFiltered.buildIds().stream().map(buildIdToIdx::get).collect(Collectors.toSet());
+        int[] indexesToKeep = suitesFiltered.buildIds().stream().mapToInt(buildIdToIdx::get).sorted().toArray();
 
         SuiteHistory res = new SuiteHistory();
 
         res.suiteHist = suitesFiltered;
 
-        testsInvStatues.forEach((tName, invList) -> {
-            byte[] buildsFiltered = new byte[indexesToKeep.size()];
-
-            int j = 0;
-            for (int i = 0; i < invList.length; i++) {
-                if (!indexesToKeep.contains(i))
-                    continue;
-
-                buildsFiltered[j] = invList[i];
-                j++;
-            }
-
-            res.testsInvStatues.put(tName, buildsFiltered);
-        });
+        testsInvStatues.forEach((tName, invList) -> res.testsInvStatues.put(tName, invList.select(indexesToKeep)));
 
         return res;
     }
@@ -134,59 +177,48 @@ public class SuiteHistory implements ISuiteRunHistory {
         return suiteHist;
     }
 
+    /**
+     * Test history based on statuses packed, invocation details are taken from the suite history.
+     */
     private static class TestUltraCompactRunHist extends AbstractRunHist {
-        @Nonnull private final byte[] testInvStatuses;
+        @Nonnull private final PackedRunStatuses testInvStatuses;
         @Nonnull private final RunHistCompacted suiteHist;
 
-        public TestUltraCompactRunHist(@Nonnull byte[] testInvStatuses, @Nonnull RunHistCompacted suiteHist) {
+        public TestUltraCompactRunHist(@Nonnull PackedRunStatuses testInvStatuses, @Nonnull RunHistCompacted suiteHist) {
             this.testInvStatuses = testInvStatuses;
             this.suiteHist = suiteHist;
 
-            Preconditions.checkState(testInvStatuses.length == suiteHist.getInvocations().count());
+            Preconditions.checkState(testInvStatuses.size() == suiteHist.getInvocations().count());
         }
 
         /** {@inheritDoc} */
         @Nullable @Override public List<Integer> getLatestRunResults() {
-            List<Integer> res = new ArrayList<>();
-            for (int i = 0; i < testInvStatuses.length; i++)
-                res.add((int)testInvStatuses[i]);
+            return Ints.asList(testInvStatuses.toArray());
+        }
 
-            return res;
+        /** {@inheritDoc} */
+        @Override public int[] getLatestRunStatuses() {
+            return testInvStatuses.toArray();
         }
 
         /** {@inheritDoc} */
         @Override public int getCriticalFailuresCount() {
-            int res = 0;
-            for (int i = 0; i < testInvStatuses.length; i++) {
-                if (testInvStatuses[i] == InvocationData.CRITICAL_FAILURE)
-                    res++;
-            }
-
-            return res;
+            return testInvStatuses.count(InvocationData.CRITICAL_FAILURE);
         }
 
         /** {@inheritDoc} */
         @Override public int getRunsCount() {
-            int res = 0;
-            for (int i = 0; i < testInvStatuses.length; i++) {
-                byte status = testInvStatuses[i];
-                if (status != InvocationData.MISSING && !Invocation.isMutedOrIgnored(status))
-                    res++;
-            }
-
-            return res;
+            return testInvStatuses.size()
+                - testInvStatuses.count(InvocationData.MISSING)
+                - testInvStatuses.count(InvocationData.MUTED)
+                - testInvStatuses.count(InvocationData.FAILURE_MUTED)
+                - testInvStatuses.count(InvocationData.OK_MUTED)
+                - testInvStatuses.count(InvocationData.IGNORED);
         }
 
         /** {@inheritDoc} */
         @Override public int getFailuresCount() {
-            int res = 0;
-            for (int i = 0; i < testInvStatuses.length; i++) {
-                byte status = testInvStatuses[i];
-                if (status == InvocationData.FAILURE || status == InvocationData.CRITICAL_FAILURE)
-                    res++;
-            }
-
-            return res;
+            return testInvStatuses.count(InvocationData.FAILURE) + testInvStatuses.count(InvocationData.CRITICAL_FAILURE);
         }
 
         /** {@inheritDoc} */
@@ -199,10 +231,10 @@ public class SuiteHistory implements ISuiteRunHistory {
     private static class TestUltraCompactRunHistIterator implements Iterator<Invocation> {
         /** Cur index: index of element to be returned in case next is called now. */
         private int curIdx = 0;
-        @Nonnull private final byte[] testInvStatuses;
+        @Nonnull private final PackedRunStatuses testInvStatuses;
         @Nonnull private final RunHistCompacted suiteHist;
 
-        public TestUltraCompactRunHistIterator(@Nonnull byte[] testInvStatuses,
+        public TestUltraCompactRunHistIterator(@Nonnull PackedRunStatuses testInvStatuses,
             @Nonnull RunHistCompacted suiteHist) {
             this.testInvStatuses = testInvStatuses;
             this.suiteHist = suiteHist;
@@ -210,7 +242,7 @@ public class SuiteHistory implements ISuiteRunHistory {
 
         /** {@inheritDoc} */
         @Override public boolean hasNext() {
-            return curIdx < testInvStatuses.length;
+            return curIdx < testInvStatuses.size();
         }
 
         /** {@inheritDoc} */
@@ -222,7 +254,7 @@ public class SuiteHistory implements ISuiteRunHistory {
 
             Invocation invocation = new Invocation(suiteInv.buildId())
                 .withChangeState(suiteInv.changesState())
-                .withStatus(testInvStatuses[curIdx]);
+                .withStatus(testInvStatuses.get(curIdx));
 
             curIdx++;
 
@@ -18,15 +18,25 @@
 package org.apache.ignite.tcignited.mute;
 
 import com.google.common.base.Preconditions;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Set;
 import java.util.SortedSet;
 import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
 import javax.cache.Cache;
 import javax.inject.Inject;
 import javax.inject.Provider;
 import org.apache.ignite.Ignite;
 import org.apache.ignite.IgniteCache;
+import org.apache.ignite.cache.query.QueryCursor;
+import org.apache.ignite.cache.query.ScanQuery;
 import org.apache.ignite.ci.teamcity.ignited.mute.MuteInfoCompacted;
 import org.apache.ignite.tcbot.common.interceptor.AutoProfiling;
 import org.apache.ignite.tcbot.persistence.CacheConfigs;
@@ -36,7 +46,8 @@ import org.apache.ignite.internal.util.typedef.F;
 import org.apache.ignite.internal.util.typedef.internal.U;
 
 /**
- *
+ * Mutes storage. In addition to persisted mutes, keeps in-memory index for each server, which is loaded from the cache
+ * once and is updated with each change of mutes.
  */
 public class MuteDao {
     /** Cache name. */
@@ -51,6 +62,9 @@ public class MuteDao {
     /** Compactor. */
     @Inject private IStringCompactor compactor;
 
+    /** Server ID -> mutes index. */
+    private final ConcurrentMap<Integer, MuteIndex> indexes = new ConcurrentHashMap<>();
+
     /**
      *
      */
@@ -64,19 +78,120 @@ public class MuteDao {
      */
     @AutoProfiling
     public SortedSet<MuteInfo> getMutes(int srvIdMaskHigh) {
-        Preconditions.checkNotNull(muteCache, "init() was not called");
-        long srvId = (long) srvIdMaskHigh << 32;
+        return toMuteInfos(index(srvIdMaskHigh).mutes().values());
+    }
+
+    /**
+     * @param srvIdMaskHigh Server id mask high.
+     * @param testNameId Test name ID from compactor.
+     * @return {@code True} if there is at least one mute for the test.
+     */
+    public boolean isMuted(int srvIdMaskHigh, int testNameId) {
+        return index(srvIdMaskHigh).mutesForTest(testNameId).length > 0;
+    }
+
+    /**
+     * @param srvIdMaskHigh Server id mask high.
+     * @param testNameId Test name ID from compactor.
+     * @param buildTypeId Build type ID from compactor.
+     * @param projectId Project ID of build type from compactor.
+     * @return {@code True} if there is a mute for the test having build type or its project in scope.
+     */
+    public boolean isMuted(int srvIdMaskHigh, int testNameId, int buildTypeId, int projectId) {
+        return index(srvIdMaskHigh).isMuted(testNameId, buildTypeId, projectId);
+    }
+
+    /**
+     * @param srvIdMaskHigh Server id mask high.
+     * @param testNameId Test name ID from compactor.
+     * @return Mutes for the test.
+     */
+    public SortedSet<MuteInfo> getMutesForTest(int srvIdMaskHigh, int testNameId) {
+        MuteIndex idx = index(srvIdMaskHigh);
+
+        return toMuteInfos(idx, idx.mutesForTest(testNameId));
+    }
+
+    /**
+     * @param srvIdMaskHigh Server id mask high.
+     * @param buildTypeId Build type ID from compactor.
+     * @return Mutes having build type in scope.
+     */
+    public SortedSet<MuteInfo> getMutesForBuildType(int srvIdMaskHigh, int buildTypeId) {
+        MuteIndex idx = index(srvIdMaskHigh);
+
+        return toMuteInfos(idx, idx.mutesForBuildType(buildTypeId));
+    }
+
+    /**
+     * @param srvIdMaskHigh Server id mask high.
+     * @param projectId Project ID from compactor.
+     * @return Mutes having project as a scope.
+     */
+    public SortedSet<MuteInfo> getMutesForProject(int srvIdMaskHigh, int projectId) {
+        MuteIndex idx = index(srvIdMaskHigh);
+
+        return toMuteInfos(idx, idx.mutesForProject(projectId));
+    }
+
+    /**
+     * @param srvIdMaskHigh Server id mask high.
+     * @return Change stamp of server mutes, it is changed each time any mute is added, changed or removed.
+     */
+    public long changeStamp(int srvIdMaskHigh) {
+        return index(srvIdMaskHigh).stamp();
+    }
 
+    /**
+     * @param idx Index.
+     * @param muteIds Mute IDs.
+     */
+    private SortedSet<MuteInfo> toMuteInfos(MuteIndex idx, int[] muteIds) {
+        List<MuteInfoCompacted> mutes = new ArrayList<>(muteIds.length);
+
+        for (int id : muteIds)
+            mutes.add(idx.mute(id));
+
+        return toMuteInfos(mutes);
+    }
+
+    /**
+     * @param mutes Mutes compacted.
+     * @return New mute objects, which may be modified by caller.
+     */
+    private SortedSet<MuteInfo> toMuteInfos(Collection<MuteInfoCompacted> mutes) {
         TreeSet<MuteInfo> res = new TreeSet<>();
 
-        for (Cache.Entry<Long, MuteInfoCompacted> entry : muteCache) {
-            if ((entry.getKey() & srvId) == srvId)
-                res.add(entry.getValue().toMuteInfo(compactor));
-        }
+        for (MuteInfoCompacted mute : mutes)
+            res.add(mute.toMuteInfo(compactor));
 
         return res;
     }
 
+    /**
+     * @param srvIdMaskHigh Server id mask high.
+     * @return Index, loaded from the cache on first access.
+     */
+    private MuteIndex index(int srvIdMaskHigh) {
+        Preconditions.checkNotNull(muteCache, "init() was not called");
+
+        return indexes.computeIfAbsent(srvIdMaskHigh, this::loadIndex);
+    }
+
+    /**
+     * @param srvIdMaskHigh Server id mask high.
+     */
+    private MuteIndex loadIndex(int srvIdMaskHigh) {
+        try (QueryCursor<Cache.Entry<Long, MuteInfoCompacted>> qry = muteCache.query(
+            new ScanQuery<Long, MuteInfoCompacted>().setFilter((k, v) -> cacheKeyToSrvId(k) == srvIdMaskHigh))) {
+            List<MuteInfoCompacted> mutes = StreamSupport.stream(qry.spliterator(), false)
+                .map(Cache.Entry::getValue)
+                .collect(Collectors.toList());
+
+            return MuteIndex.of(mutes, 0);
+        }
+    }
+
     /**
      * Combine server and project into key for storage.
      *
@@ -89,28 +204,46 @@ public class MuteDao {
     }
 
     /**
-     * Save small part of loaded mutes.
-     *  @param srvIdMaskHigh Server id mask high.
+     * @param key Cache key.
+     * @return Server id mask high.
+     */
+    private static int cacheKeyToSrvId(long key) {
+        return (int)(key >> 32);
+    }
+
+    /**
+     * Saves new and changed mutes of the chunk loaded, mutes not changed since previous save are skipped.
+     *
+     * @param srvIdMaskHigh Server id mask high.
      * @param chunk Chunk.
+     * @return Count of mutes saved.
      */
-    @SuppressWarnings("WeakerAccess")
     @AutoProfiling
-    protected void saveChunk(int srvIdMaskHigh, Set<MuteInfo> chunk) {
+    public int saveChunk(int srvIdMaskHigh, Set<MuteInfo> chunk) {
         Preconditions.checkNotNull(muteCache, "init() was not called");
 
         if (F.isEmpty(chunk))
-            return;
+            return 0;
 
+        MuteIndex idx = index(srvIdMaskHigh);
         HashMap<Long, MuteInfoCompacted> compactedMutes = new HashMap<>(U.capacity(chunk.size()));
 
         for (MuteInfo mute : chunk) {
-            long key = muteIdToCacheKey(srvIdMaskHigh, mute.id);
             MuteInfoCompacted val = new MuteInfoCompacted(mute, compactor);
 
-            compactedMutes.put(key, val);
+            if (!val.equals(idx.mute(mute.id)))
+                compactedMutes.put(muteIdToCacheKey(srvIdMaskHigh, mute.id), val);
         }
 
+        if (compactedMutes.isEmpty())
+            return 0;
+
         muteCache.putAll(compactedMutes);
+
+        indexes.compute(srvIdMaskHigh, (k, cur) -> (cur == null ? idx : cur)
+            .update(compactedMutes.values(), Collections.emptyList()));
+
+        return compactedMutes.size();
     }
 
     /**
@@ -118,7 +251,27 @@ public class MuteDao {
      * @param muteId Mute id.
      */
     public boolean remove(int srvIdMaskHigh, int muteId) {
-        return muteCache.remove(muteIdToCacheKey(srvIdMaskHigh, muteId));
+        return removeAll(srvIdMaskHigh, Collections.singleton(muteId)) > 0;
+    }
+
+    /**
+     * Removes mutes with ID in range, which are absent in the set of actual mutes.
+     *
+     * @param srvIdMaskHigh Server id mask high.
+     * @param fromId Start id, exclusive.
+     * @param toId End id, inclusive.
+     * @param actual IDs of actual mutes.
+     * @return Count of mutes removed.
+     */
+    public int removeNotActual(int srvIdMaskHigh, int fromId, int toId, Set<Integer> actual) {
+        if (fromId >= toId)
+            return 0;
+
+        Set<Integer> rmv = new TreeSet<>(index(srvIdMaskHigh).mutes().subMap(fromId, false, toId, true).keySet());
+
+        rmv.removeAll(actual);
+
+        return removeAll(srvIdMaskHigh, rmv);
     }
 
     /**
@@ -126,19 +279,36 @@ public class MuteDao {
      * @param startId Start id.
      */
     public int removeAllAfter(int srvIdMaskHigh, int startId) {
-        int rmv = 0;
-        long srvId = (long) srvIdMaskHigh << 32;
+        return removeAll(srvIdMaskHigh, new TreeSet<>(index(srvIdMaskHigh).mutes().tailMap(startId, false).keySet()));
+    }
 
-        for (Cache.Entry<Long, MuteInfoCompacted> entry : muteCache) {
-            if ((srvId & entry.getKey()) != srvId)
-                continue;
+    /**
+     * @param srvIdMaskHigh Server id mask high.
+     * @param muteIds Mute IDs.
+     * @return Count of mutes removed.
+     */
+    private int removeAll(int srvIdMaskHigh, Set<Integer> muteIds) {
+        Preconditions.checkNotNull(muteCache, "init() was not called");
 
-            if (entry.getValue().id() > startId) {
-                if (muteCache.remove(entry.getKey()))
-                    rmv++;
-            }
+        if (muteIds.isEmpty())
+            return 0;
+
+        MuteIndex idx = index(srvIdMaskHigh);
+        Set<Long> keys = new TreeSet<>();
+
+        for (Integer id : muteIds) {
+            if (idx.mute(id) != null)
+                keys.add(muteIdToCacheKey(srvIdMaskHigh, id));
         }
 
-        return rmv;
+        if (keys.isEmpty())
+            return 0;
+
+        muteCache.removeAll(keys);
+
+        indexes.compute(srvIdMaskHigh, (k, cur) -> (cur == null ? idx : cur)
+            .update(Collections.emptyList(), muteIds));
+
+        return keys.size();
     }
 }
@@ -0,0 +1,184 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.tcignited.mute;
+
+import com.google.common.primitives.Ints;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import org.apache.ignite.ci.teamcity.ignited.buildtype.BuildTypeRefCompacted;
+import org.apache.ignite.ci.teamcity.ignited.mute.MuteInfoCompacted;
+import org.apache.ignite.ci.teamcity.ignited.mute.MuteScopeCompacted;
+
+/**
+ * Immutable snapshot of mutes of one server with lookups by test name, build type and project. A new snapshot with
+ * incremented change stamp is created for each change of mutes.
+ */
+class MuteIndex {
+    /** Mute ID -> mute. */
+    private final NavigableMap<Integer, MuteInfoCompacted> byId;
+
+    /** Test name ID -> sorted mute IDs. */
+    private final Map<Integer, int[]> byTestName = new HashMap<>();
+
+    /** Build type ID -> sorted mute IDs. */
+    private final Map<Integer, int[]> byBuildType = new HashMap<>();
+
+    /** Project ID -> sorted mute IDs. */
+    private final Map<Integer, int[]> byProject = new HashMap<>();
+
+    /** Change stamp. */
+    private final long stamp;
+
+    /**
+     * @param byId Mute ID -> mute, should not be changed after index creation.
+     * @param stamp Change stamp.
+     */
+    private MuteIndex(NavigableMap<Integer, MuteInfoCompacted> byId, long stamp) {
+        this.byId = Collections.unmodifiableNavigableMap(byId);
+        this.stamp = stamp;
+
+        Map<Integer, Set<Integer>> tests = new HashMap<>();
+        Map<Integer, Set<Integer>> buildTypes = new HashMap<>();
+        Map<Integer, Set<Integer>> projects = new HashMap<>();
+
+        for (MuteInfoCompacted mute : byId.values()) {
+            if (mute.testNames() != null) {
+                for (int testName : mute.testNames())
+                    tests.computeIfAbsent(testName, k -> new TreeSet<>()).add(mute.id());
+            }
+
+            MuteScopeCompacted scope = mute.scope();
+
+            if (scope == null)
+                continue;
+
+            if (scope.projectId() > 0)
+                projects.computeIfAbsent(scope.projectId(), k -> new TreeSet<>()).add(mute.id());
+
+            if (scope.buildTypes() != null) {
+                for (BuildTypeRefCompacted bt : scope.buildTypes())
+                    buildTypes.computeIfAbsent(bt.id(), k -> new TreeSet<>()).add(mute.id());
+            }
+        }
+
+        tests.forEach((k, v) -> byTestName.put(k, Ints.toArray(v)));
+        buildTypes.forEach((k, v) -> byBuildType.put(k, Ints.toArray(v)));
+        projects.forEach((k, v) -> byProject.put(k, Ints.toArray(v)));
+    }
+
+    /**
+     * @param mutes Mutes.
+     * @param stamp Change stamp.
+     */
+    static MuteIndex of(Collection<MuteInfoCompacted> mutes, long stamp) {
+        NavigableMap<Integer, MuteInfoCompacted> byId = new TreeMap<>();
+
+        for (MuteInfoCompacted mute : mutes)
+            byId.put(mute.id(), mute);
+
+        return new MuteIndex(byId, stamp);
+    }
+
+    /**
+     * @param saved Mutes added or changed.
+     * @param removed IDs of mutes removed.
+     * @return New index, or this index if nothing was changed.
+     */
+    MuteIndex update(Collection<MuteInfoCompacted> saved, Collection<Integer> removed) {
+        NavigableMap<Integer, MuteInfoCompacted> res = new TreeMap<>(byId);
+        boolean changed = false;
+
+        for (MuteInfoCompacted mute : saved)
+            changed |= !mute.equals(res.put(mute.id(), mute));
+
+        for (Integer id : removed)
+            changed |= res.remove(id) != null;
+
+        return changed ? new MuteIndex(res, stamp + 1) : this;
+    }
+
+    /**
+     * @return Mute ID -> mute, sorted by ID.
+     */
+    NavigableMap<Integer, MuteInfoCompacted> mutes() {
+        return byId;
+    }
+
+    /**
+     * @param id Mute ID.
+     */
+    MuteInfoCompacted mute(int id) {
+        return byId.get(id);
+    }
+
+    /**
+     * @param testName Test name ID from compactor.
+     * @return Sorted IDs of mutes for test.
+     */
+    int[] mutesForTest(int testName) {
+        return byTestName.getOrDefault(testName, new int[0]);
+    }
+
+    /**
+     * @param testName Test name ID from compactor.
+     * @param buildTypeId Build type ID from compactor.
+     * @param projectId Project ID of build type from compactor.
+     * @return {@code True} if there is a mute for the test having build type or its project in scope.
+     */
+    boolean isMuted(int testName, int buildTypeId, int projectId) {
+        int[] forBuildType = mutesForBuildType(buildTypeId);
+        int[] forProject = mutesForProject(projectId);
+
+        for (int muteId : mutesForTest(testName)) {
+            if (Arrays.binarySearch(forBuildType, muteId) >= 0 || Arrays.binarySearch(forProject, muteId) >= 0)
+                return true;
+        }
+
+        return false;
+    }
+
+    /**
+     * @param buildTypeId Build type ID from compactor.
+     * @return Sorted IDs of mutes having build type in scope.
+     */
+    int[] mutesForBuildType(int buildTypeId) {
+        return byBuildType.getOrDefault(buildTypeId, new int[0]);
+    }
+
+    /**
+     * @param projectId Project ID from compactor.
+     * @return Sorted IDs of mutes having project as a scope.
+     */
+    int[] mutesForProject(int projectId) {
+        return byProject.getOrDefault(projectId, new int[0]);
+    }
+
+    /**
+     * @return Change stamp, incremented for each change of mutes.
+     */
+    long stamp() {
+        return stamp;
+    }
+}
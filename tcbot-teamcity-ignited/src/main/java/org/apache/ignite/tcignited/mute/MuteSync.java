@@ -17,9 +17,11 @@
 
 package org.apache.ignite.tcignited.mute;
 
+import java.util.Set;
 import java.util.SortedSet;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
 import javax.inject.Inject;
 
 import org.apache.ignite.tcbot.common.interceptor.MonitoredTask;
@@ -61,27 +63,24 @@ public class MuteSync {
         if (F.isEmpty(tcDataPage))
             return "No mutes found. Nothing to save.";
 
-        muteDao.saveChunk(srvIdMaskHigh, tcDataPage);
+        int mutesSaved = 0;
+        int mutesDeleted = 0;
+        // Stored mutes before the first page are kept, range of each page starts after the previous one.
+        int lastId = tcDataPage.first().id - 1;
 
-        int mutesSaved = tcDataPage.size();
-        int mutesDeleted = removeMutes(srvIdMaskHigh, tcDataPage);
-        int lastId = tcDataPage.last().id;
+        // Pages are linked by next page reference, so these are loaded one by one.
+        while (!F.isEmpty(tcDataPage)) {
+            mutesSaved += muteDao.saveChunk(srvIdMaskHigh, tcDataPage);
+            mutesDeleted += removeMutes(srvIdMaskHigh, lastId, tcDataPage);
 
-        while (outLinkNext.get() != null) {
-            String nextPageUrl = outLinkNext.get();
-            outLinkNext.set(null);
+            lastId = tcDataPage.last().id;
 
-            tcDataPage = conn.getMutesPage(projectId, nextPageUrl, outLinkNext);
+            String nextPageUrl = outLinkNext.getAndSet(null);
 
-            if (F.isEmpty(tcDataPage))
+            if (nextPageUrl == null)
                 break;
 
-            muteDao.saveChunk(srvIdMaskHigh, tcDataPage);
-
-            mutesSaved += tcDataPage.size();
-            mutesDeleted += removeMutes(srvIdMaskHigh, tcDataPage);
-
-            lastId = tcDataPage.last().id;
+            tcDataPage = conn.getMutesPage(projectId, nextPageUrl, outLinkNext);
         }
 
         mutesDeleted += muteDao.removeAllAfter(srvIdMaskHigh, lastId);
@@ -90,20 +89,16 @@ public class MuteSync {
     }
 
     /**
+     * Removes stored mutes with ID in range covered by the page, which are absent in the page.
+     *
      * @param srvIdMaskHigh Server id mask high.
+     * @param prevLastId Last mute ID of the previous page.
      * @param page Page.
+     * @return Count of mutes removed.
      */
-    private int removeMutes(int srvIdMaskHigh, SortedSet<MuteInfo> page) {
-        int checkId = page.first().id;
-        int rmv = 0;
-
-        for (MuteInfo mute : page) {
-            while (checkId++ != mute.id) {
-                if (muteDao.remove(srvIdMaskHigh, checkId - 1))
-                    rmv++;
-            }
-        }
+    private int removeMutes(int srvIdMaskHigh, int prevLastId, SortedSet<MuteInfo> page) {
+        Set<Integer> actual = page.stream().map(mute -> mute.id).collect(Collectors.toSet());
 
-        return rmv;
+        return muteDao.removeNotActual(srvIdMaskHigh, prevLastId, page.last().id, actual);
     }
-}
\ No newline at end of file
+}
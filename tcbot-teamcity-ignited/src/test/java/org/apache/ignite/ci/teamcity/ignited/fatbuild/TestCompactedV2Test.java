@@ -17,9 +17,11 @@
 package org.apache.ignite.ci.teamcity.ignited.fatbuild;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.stream.Collectors;
 import org.apache.ignite.tcbot.persistence.IStringCompactor;
 import org.apache.ignite.tcbot.persistence.InMemoryStringCompactor;
+import org.apache.ignite.tcignited.build.ITest;
 import org.apache.ignite.tcignited.build.TestCompactedV2;
 import org.apache.ignite.tcignited.buildlog.ILogProductSpecific;
 import org.apache.ignite.tcservice.model.result.tests.TestOccurrenceFull;
@@ -101,4 +103,41 @@ public class TestCompactedV2Test {
 
         assertFalse(buildCompacted.migrateTests(logSpec));
     }
+
+    @Test
+    public void testColumnsKeepTestFieldsAndDetails() {
+        FatBuildCompacted buildCompacted = new FatBuildCompacted();
+        ILogProductSpecific logSpec = Mockito.mock(ILogProductSpecific.class);
+        Mockito.when(logSpec.needWarn(Mockito.anyString())).thenAnswer(inv -> inv.getArgument(0).toString().contains("WARN"));
+
+        IStringCompactor c = new InMemoryStringCompactor();
+        ArrayList<TestOccurrenceFull> page = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            TestOccurrenceFull occ = new TestOccurrenceFull();
+            occ.test = new TestRef();
+            occ.test.id = String.valueOf(100 + i);
+            occ.name = "Test" + i;
+            occ.status = i == 1 ? "FAILURE" : "SUCCESS";
+            occ.duration = i * 10;
+            occ.muted = i == 2 ? true : null;
+            occ.details = i == 1 ? "line\nWARN: test failed\n" : null;
+            page.add(occ);
+        }
+        buildCompacted.addTests(c, page, logSpec);
+        buildCompacted.addTests(c, page.subList(1, 2), logSpec);
+
+        assertEquals(4, buildCompacted.getTestsCount());
+        assertEquals(Arrays.asList("Test0", "Test1", "Test2", "Test1"),
+            buildCompacted.getAllTestNames(c).collect(Collectors.toList()));
+
+        ITest failed = buildCompacted.getAllTests().collect(Collectors.toList()).get(3);
+        assertEquals(Long.valueOf(101), failed.getTestId());
+        assertEquals(Integer.valueOf(10), failed.getDuration());
+        assertEquals("WARN: test failed\n", failed.getDetailsText());
+        assertNull(buildCompacted.getAllTests().findFirst().get().getDetailsText());
+
+        assertEquals(2, buildCompacted.getFailedNotMutedTests(c).count());
+        assertEquals(3, buildCompacted.totalNotMutedTests());
+        assertEquals(40, buildCompacted.testsDuration());
+    }
 }
@@ -0,0 +1,129 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.tcignited.buildlog;
+
+import com.google.common.base.Strings;
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import com.google.inject.Singleton;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+import org.apache.ignite.tcbot.persistence.IStringCompactor;
+import org.apache.ignite.tcbot.persistence.InMemoryStringCompactor;
+import org.apache.ignite.tcservice.model.result.problems.ProblemOccurrence;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+public class BuildLogStreamCheckerTest {
+    /** Log file. */
+    private static final File LOG_FILE = new File("build.log.zip");
+
+    @Test
+    public void testMarkersMatcher() {
+        LogMarkersMatcher matcher = new LogMarkersMatcher(Arrays.asList("he", "she", "his", "hers", ""));
+
+        assertEquals(0b1011, matches(matcher, "ushers"));
+        assertEquals(0b0100, matches(matcher, "this"));
+        assertEquals(0, matches(matcher, "sh e"));
+        assertEquals(0, matches(matcher, ""));
+    }
+
+    @Test
+    public void testScanResultsSameAsForAllLines() {
+        StringBuilder log = new StringBuilder();
+
+        log.append("[12:00:00] Build started\n");
+
+        for (int t = 0; t < 30; t++) {
+            log.append("[12:00:01] >>> Starting test: org.apache.Test#test").append(t).append("-[cfg=1] <<<\n");
+
+            for (int i = 0; i < 100; i++)
+                log.append("[12:00:02] Regular line ").append(i).append(" of test, тест\r\n");
+
+            if (t % 3 == 0)
+                log.append("[12:00:03] java.lang.AssertionError: failed ").append(t).append('\n');
+
+            if (t == 7) {
+                log.append("Found one Java-level deadlock:\n");
+                log.append(Strings.repeat("x", 200_000)).append('\n');
+            }
+        }
+
+        log.append("Full thread dump Java HotSpot(TM) 64-Bit Server VM:\n");
+        log.append("\"main\" #1 prio=5\n\tat java.lang.Thread.sleep(Native Method)\n\n");
+        log.append("[12:00:05] Build finished");
+
+        byte[] bytes = log.toString().getBytes(StandardCharsets.UTF_8);
+
+        Injector injector = Guice.createInjector(binder -> {
+            binder.bind(IStringCompactor.class).to(InMemoryStringCompactor.class).in(Singleton.class);
+            binder.bind(ILogProductSpecific.class).to(LogIgniteSpecific.class);
+        });
+
+        ThreadDumpInMemoryHandler threadDump = new ThreadDumpInMemoryHandler();
+        TestLogHandler testHnd = injector.getInstance(TestLogHandler.class);
+
+        new BuildLogStreamChecker(threadDump, testHnd).apply(new ByteArrayInputStream(bytes), LOG_FILE);
+
+        ThreadDumpInMemoryHandler refThreadDump = new ThreadDumpInMemoryHandler();
+        TestLogHandler refTestHnd = injector.getInstance(TestLogHandler.class);
+
+        for (String line : log.toString().split("\r?\n")) {
+            refThreadDump.accept(line, LOG_FILE);
+            refTestHnd.accept(line, LOG_FILE);
+        }
+
+        refThreadDump.close();
+
+        LogCheckResultCompacted res = testHnd.getResult(true);
+        LogCheckResultCompacted refRes = refTestHnd.getResult(true);
+
+        assertNotNull(threadDump.getLastThreadDump());
+        assertTrue(threadDump.getLastThreadDump().startsWith("Full thread dump"));
+        assertEquals(refThreadDump.getLastThreadDump(), threadDump.getLastThreadDump());
+        assertEquals(refRes.toString(), res.toString());
+        assertTrue(res.hasProblem(ProblemOccurrence.JAVA_LEVEL_DEADLOCK, injector.getInstance(IStringCompactor.class)));
+
+        Map<String, ITestLogCheckResult> tests = res.getTestLogCheckResult();
+        Map<String, ITestLogCheckResult> refTests = refRes.getTestLogCheckResult();
+
+        assertEquals(30, tests.size());
+        assertEquals(refTests.keySet(), tests.keySet());
+
+        // Byte length is used for lines not passed to handler, it is greater for non-ASCII characters.
+        refTests.forEach((name, refTest) ->
+            assertEquals(refTest.getLogSizeBytes() + 100 * "тест".length(),
+                tests.get(name).getLogSizeBytes()));
+    }
+
+    /**
+     * @param matcher Matcher.
+     * @param str String.
+     */
+    private static long matches(LogMarkersMatcher matcher, String str) {
+        byte[] bytes = str.getBytes(StandardCharsets.UTF_8);
+
+        return matcher.matches(bytes, 0, bytes.length);
+    }
+}
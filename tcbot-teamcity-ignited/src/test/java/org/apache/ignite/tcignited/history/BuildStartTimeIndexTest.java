@@ -0,0 +1,206 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.tcignited.history;
+
+import com.google.inject.AbstractModule;
+import com.google.inject.Guice;
+import java.util.Arrays;
+import java.util.Collections;
+import org.apache.ignite.ci.teamcity.ignited.BuildRefCompacted;
+import org.apache.ignite.internal.util.GridIntList;
+import org.apache.ignite.tcignited.buildref.BuildRefDao;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Test for in-memory index of builds by start time.
+ */
+public class BuildStartTimeIndexTest {
+    /** Server ID. */
+    private static final int SRV_ID = 1;
+
+    /** Build type ID. */
+    private static final int BUILD_TYPE = 10;
+
+    /** Branch with builds. */
+    private static final int BRANCH = 20;
+
+    /** Branch without builds. */
+    private static final int EMPTY_BRANCH = 21;
+
+    /** Build reference DAO. */
+    private BuildRefDao buildRefDao;
+
+    /** History collector. */
+    private HistoryCollector histCollector;
+
+    /** Index. */
+    private BuildStartTimeIndex idx;
+
+    /**
+     *
+     */
+    @Before
+    public void initIndex() {
+        buildRefDao = mock(BuildRefDao.class);
+        histCollector = mock(HistoryCollector.class);
+
+        when(buildRefDao.getAllBuildsCompacted(anyInt(), anyInt(), anyCollection())).thenReturn(Collections.emptyList());
+
+        // Build 4 has no start time, build -5 is a fake stub.
+        when(buildRefDao.getAllBuildsCompacted(SRV_ID, BUILD_TYPE, Collections.singleton(BRANCH)))
+            .thenReturn(Arrays.asList(buildRef(1), buildRef(2), buildRef(3), buildRef(4), buildRef(-5)));
+
+        when(histCollector.getBuildStartTimes(eq(SRV_ID), any())).thenAnswer(inv -> startTimes(inv.getArgument(1)));
+
+        // Mocks are provided, so Guice does not inject members of mocked classes.
+        idx = Guice.createInjector(new AbstractModule() {
+            @Override protected void configure() {
+                bind(BuildRefDao.class).toProvider(() -> buildRefDao);
+                bind(HistoryCollector.class).toProvider(() -> histCollector);
+            }
+        }).getInstance(BuildStartTimeIndex.class);
+    }
+
+    /**
+     *
+     */
+    @Test
+    public void testSegmentSortedByStartTime() {
+        BuildStartTimeIndex.Segment seg = BuildStartTimeIndex.Segment.of(new int[] {5, 1, 2, 3}, new long[] {300, 100, 0, 100});
+
+        assertArrayEquals(new int[] {1, 3, 5}, ids(seg, Long.MIN_VALUE, Long.MAX_VALUE));
+
+        // Range is inclusive.
+        assertArrayEquals(new int[] {1, 3}, ids(seg, 100, 299));
+        assertArrayEquals(new int[] {5}, ids(seg, 101, 300));
+        assertArrayEquals(new int[] {}, ids(seg, 101, 299));
+        assertArrayEquals(new int[] {}, ids(seg, 300, 100));
+
+        assertArrayEquals(new int[] {}, ids(BuildStartTimeIndex.Segment.of(new int[] {1}, new long[] {0}), 0, 300));
+    }
+
+    /**
+     *
+     */
+    @Test
+    public void testSegmentWith() {
+        BuildStartTimeIndex.Segment seg = BuildStartTimeIndex.Segment.of(new int[] {1, 2}, new long[] {100, 200});
+
+        assertSame(seg, seg.with(1, 100));
+
+        assertArrayEquals(new int[] {1, 3, 2}, ids(seg.with(3, 150), 0, 300));
+        assertArrayEquals(new int[] {2, 1}, ids(seg.with(1, 250), 0, 300));
+        assertArrayEquals(new int[] {0, 1, 2}, ids(seg.with(0, 100), 0, 300));
+        assertArrayEquals(new int[] {1, 2}, ids(seg, 0, 300));
+    }
+
+    /**
+     *
+     */
+    @Test
+    public void testBuildIdsInRange() {
+        assertArrayEquals(new int[] {1, 2, 3}, buildIds(Long.MIN_VALUE, Long.MAX_VALUE));
+        assertArrayEquals(new int[] {2, 3}, buildIds(100, 200));
+        assertArrayEquals(new int[] {1, 3}, buildIds(200, 300));
+        assertArrayEquals(new int[] {}, buildIds(301, Long.MAX_VALUE));
+        assertArrayEquals(new int[] {}, buildIds(Long.MIN_VALUE, 99));
+
+        assertArrayEquals(new int[] {}, idx.getBuildIds(SRV_ID, Collections.singleton(BUILD_TYPE),
+            Collections.singleton(EMPTY_BRANCH), Long.MIN_VALUE, Long.MAX_VALUE));
+
+        // Segment is loaded once and is updated when builds are saved.
+        idx.onBuildSaved(SRV_ID, buildRef(4), 150);
+        idx.onBuildSaved(SRV_ID, buildRef(6), 0);
+
+        assertArrayEquals(new int[] {2, 3, 4}, buildIds(100, 200));
+
+        verify(buildRefDao, times(1)).getAllBuildsCompacted(SRV_ID, BUILD_TYPE, Collections.singleton(BRANCH));
+    }
+
+    /**
+     * Build saved while segment is loaded is not lost.
+     */
+    @Test
+    public void testBuildSavedWhileLoading() {
+        when(histCollector.getBuildStartTimes(eq(SRV_ID), any())).thenAnswer(inv -> {
+            idx.onBuildSaved(SRV_ID, buildRef(7), 250);
+
+            return startTimes(inv.getArgument(1));
+        });
+
+        assertArrayEquals(new int[] {1, 3, 7}, buildIds(200, 300));
+    }
+
+    /**
+     * @param fromTs From timestamp.
+     * @param toTs To timestamp.
+     */
+    private int[] buildIds(long fromTs, long toTs) {
+        return idx.getBuildIds(SRV_ID, Collections.singleton(BUILD_TYPE), Collections.singleton(BRANCH), fromTs, toTs);
+    }
+
+    /**
+     * @param seg Segment.
+     * @param fromTs From timestamp.
+     * @param toTs To timestamp.
+     * @return Build IDs in order of start time.
+     */
+    private static int[] ids(BuildStartTimeIndex.Segment seg, long fromTs, long toTs) {
+        GridIntList res = new GridIntList(4);
+
+        seg.addBuildIds(fromTs, toTs, res);
+
+        return res.array();
+    }
+
+    /**
+     * @param ids Build IDs.
+     * @return Start times: build 1 at 300, 2 at 100, 3 at 200, others are unknown.
+     */
+    private static long[] startTimes(int[] ids) {
+        long[] res = new long[ids.length];
+
+        for (int i = 0; i < ids.length; i++) {
+            assertTrue("Fake stub should not be queried", ids[i] > 0);
+
+            res[i] = ids[i] == 1 ? 300 : ids[i] == 2 ? 100 : ids[i] == 3 ? 200 : 0;
+        }
+
+        return res;
+    }
+
+    /**
+     * @param id Build ID.
+     */
+    private static BuildRefCompacted buildRef(int id) {
+        return new BuildRefCompacted().withId(id).buildTypeId(BUILD_TYPE).branchName(BRANCH);
+    }
+}
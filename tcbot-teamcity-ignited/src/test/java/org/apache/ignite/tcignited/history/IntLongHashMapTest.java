@@ -0,0 +1,53 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.tcignited.history;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class IntLongHashMapTest {
+    @Test
+    public void testSameAsHashMap() {
+        IntLongHashMap map = new IntLongHashMap();
+        Map<Integer, Long> ref = new HashMap<>();
+        Random rnd = new Random(42);
+
+        for (int i = 0; i < 200_000; i++) {
+            // Small keys range, so puts, removals and collisions are frequent.
+            int key = rnd.nextInt(5000) - 1000;
+
+            if (rnd.nextInt(3) == 0)
+                assertEquals(ref.remove(key) != null, map.remove(key));
+            else {
+                long val = 1 + rnd.nextInt(Integer.MAX_VALUE);
+
+                ref.put(key, val);
+                map.put(key, val);
+            }
+        }
+
+        assertEquals(ref.size(), map.size());
+
+        for (int key = -1000; key < 4000; key++)
+            assertEquals((long)ref.getOrDefault(key, 0L), map.get(key));
+    }
+}
@@ -0,0 +1,193 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.tcignited.mute;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.apache.ignite.ci.teamcity.ignited.mute.MuteInfoCompacted;
+import org.apache.ignite.tcbot.persistence.IStringCompactor;
+import org.apache.ignite.tcbot.persistence.InMemoryStringCompactor;
+import org.apache.ignite.tcservice.model.conf.BuildType;
+import org.apache.ignite.tcservice.model.conf.Project;
+import org.apache.ignite.tcservice.model.mute.MuteAssignment;
+import org.apache.ignite.tcservice.model.mute.MuteInfo;
+import org.apache.ignite.tcservice.model.mute.MuteScope;
+import org.apache.ignite.tcservice.model.mute.MuteTarget;
+import org.apache.ignite.tcservice.model.result.tests.TestRef;
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test for mutes index lookups and updates.
+ */
+public class MuteIndexTest {
+    /** Project of mutes scope. */
+    private static final String PROJECT = "IgniteTests24Java8";
+
+    /** Compactor. */
+    private final IStringCompactor c = new InMemoryStringCompactor();
+
+    @Test
+    public void testLookupByTestName() {
+        MuteIndex idx = MuteIndex.of(Arrays.asList(
+            mute(3, "Text", "TestA", "TestB"),
+            mute(1, "Text", "TestA"),
+            mute(2, "Text")), 0);
+
+        assertArrayEquals(new int[] {1, 3}, idx.mutesForTest(c.getStringId("TestA")));
+        assertArrayEquals(new int[] {3}, idx.mutesForTest(c.getStringId("TestB")));
+        assertArrayEquals(new int[0], idx.mutesForTest(c.getStringId("TestC")));
+
+        assertEquals(Arrays.asList(1, 2, 3), new ArrayList<>(idx.mutes().keySet()));
+        assertEquals(mute(2, "Text"), idx.mute(2));
+        assertNull(idx.mute(4));
+    }
+
+    @Test
+    public void testUpdate() {
+        MuteIndex idx = MuteIndex.of(Arrays.asList(mute(1, "Text", "TestA"), mute(2, "Text", "TestB")), 0);
+
+        // Mutes not changed, same index is returned.
+        assertSame(idx, idx.update(Collections.singletonList(mute(1, "Text", "TestA")), Collections.singleton(5)));
+        assertSame(idx, idx.update(Collections.emptyList(), Collections.emptyList()));
+
+        // Changed mute is compared by all fields, not only by ID.
+        MuteIndex changed = idx.update(Collections.singletonList(mute(1, "Other text", "TestA")),
+            Collections.emptyList());
+
+        assertNotSame(idx, changed);
+        assertEquals(1, changed.stamp());
+        assertEquals("Other text", changed.mute(1).toMuteInfo(c).assignment.text);
+
+        MuteIndex updated = changed.update(Collections.singletonList(mute(3, "Text", "TestB", "TestC")),
+            Collections.singleton(2));
+
+        assertArrayEquals(new int[] {1}, updated.mutesForTest(c.getStringId("TestA")));
+        assertArrayEquals(new int[] {3}, updated.mutesForTest(c.getStringId("TestB")));
+        assertArrayEquals(new int[] {3}, updated.mutesForTest(c.getStringId("TestC")));
+        assertEquals(Arrays.asList(1, 3), new ArrayList<>(updated.mutes().keySet()));
+
+        assertEquals(2, updated.stamp());
+
+        // Previous snapshot is not modified.
+        assertEquals(0, idx.stamp());
+        assertArrayEquals(new int[] {2}, idx.mutesForTest(c.getStringId("TestB")));
+        assertEquals(Arrays.asList(1, 2), new ArrayList<>(idx.mutes().keySet()));
+    }
+
+    @Test
+    public void testLookupByScope() {
+        MuteInfo inSuite = muteInfo(1, "Text", "TestA");
+
+        inSuite.scope.project = null;
+        inSuite.scope.buildTypes = Arrays.asList(buildType("Suite1"), buildType("Suite2"));
+
+        MuteInfo inOtherSuite = muteInfo(2, "Text", "TestB");
+
+        inOtherSuite.scope.project = null;
+        inOtherSuite.scope.buildTypes = Collections.singletonList(buildType("Suite2"));
+
+        MuteIndex idx = MuteIndex.of(Arrays.asList(new MuteInfoCompacted(inSuite, c),
+            new MuteInfoCompacted(inOtherSuite, c), mute(3, "Text", "TestC")), 0);
+
+        int suite1 = c.getStringId("Suite1");
+        int suite2 = c.getStringId("Suite2");
+        int prj = c.getStringId(PROJECT);
+        int otherPrj = c.getStringId("OtherProject");
+
+        assertArrayEquals(new int[] {1}, idx.mutesForBuildType(suite1));
+        assertArrayEquals(new int[] {1, 2}, idx.mutesForBuildType(suite2));
+        assertArrayEquals(new int[] {3}, idx.mutesForProject(prj));
+        assertArrayEquals(new int[0], idx.mutesForProject(otherPrj));
+
+        assertTrue(idx.isMuted(c.getStringId("TestA"), suite1, otherPrj));
+        assertTrue(idx.isMuted(c.getStringId("TestB"), suite2, otherPrj));
+        assertTrue(idx.isMuted(c.getStringId("TestC"), suite1, prj));
+
+        // Test is muted in other suite or project only.
+        assertFalse(idx.isMuted(c.getStringId("TestB"), suite1, otherPrj));
+        assertFalse(idx.isMuted(c.getStringId("TestC"), suite1, otherPrj));
+        assertFalse(idx.isMuted(c.getStringId("TestD"), suite1, prj));
+    }
+
+    /**
+     * @param id Build type ID.
+     */
+    private static BuildType buildType(String id) {
+        BuildType bt = new BuildType();
+
+        bt.setId(id);
+        bt.setName(id);
+        bt.setProjectId(PROJECT);
+        bt.setProjectName(PROJECT);
+
+        return bt;
+    }
+
+    /**
+     * @param id Mute ID.
+     * @param text Mute text.
+     * @param tests Test names.
+     */
+    private MuteInfoCompacted mute(int id, String text, String... tests) {
+        return new MuteInfoCompacted(muteInfo(id, text, tests), c);
+    }
+
+    /**
+     * @param id Mute ID.
+     * @param text Mute text.
+     * @param tests Test names.
+     */
+    static MuteInfo muteInfo(int id, String text, String... tests) {
+        MuteInfo mute = new MuteInfo();
+
+        mute.id = id;
+        mute.assignment = new MuteAssignment();
+        mute.assignment.muteDate = "20190101T120000+0300";
+        mute.assignment.text = text;
+        mute.scope = new MuteScope();
+        mute.scope.project = new Project();
+        mute.scope.project.id = PROJECT;
+        mute.scope.project.name("Ignite Tests 2.4+ (Java 8/9/10/11)");
+        mute.target = new MuteTarget();
+
+        List<TestRef> refs = new ArrayList<>();
+
+        for (String test : tests) {
+            TestRef ref = new TestRef();
+
+            ref.id = String.valueOf(Math.abs(test.hashCode()));
+            ref.name = test;
+
+            refs.add(ref);
+        }
+
+        mute.target.tests = refs;
+
+        return mute;
+    }
+}
@@ -23,7 +23,9 @@ import java.io.UncheckedIOException;
 import java.util.List;
 import java.util.Map;
 import java.util.SortedSet;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 
@@ -38,6 +40,7 @@ import org.apache.ignite.tcservice.model.mute.MuteInfo;
 import org.apache.ignite.tcservice.model.result.Build;
 import org.apache.ignite.tcservice.model.result.problems.ProblemOccurrences;
 import org.apache.ignite.tcservice.model.result.stat.Statistics;
+import org.apache.ignite.tcservice.model.result.tests.TestOccurrenceFull;
 import org.apache.ignite.tcservice.model.result.tests.TestOccurrencesFull;
 import org.apache.ignite.tcbot.common.exeption.ServiceConflictException;
 import org.apache.ignite.tcbot.common.conf.ITcServerConfig;
@@ -52,6 +55,9 @@ import org.apache.ignite.tcbot.common.conf.ITcServerConfig;
  * <li>{@link ServiceConflictException} If conflict (409) was returned from service.</li>
  * <li>{@link IllegalStateException} if some unexpected HTTP error returned.</li>
  * <li>{@link UncheckedIOException} in case communication failed.</ul>
+ *
+ * Async variants of methods don't block caller thread during network communication, returned futures are completed
+ * exceptionally with the same errors.
  */
 public interface ITeamcityConn {
     /**
@@ -79,6 +85,12 @@ public interface ITeamcityConn {
      */
     public Build getBuild(int buildId);
 
+    /**
+     * @param buildId Build id.
+     * @see #getBuild(int)
+     */
+    public CompletableFuture<Build> getBuildAsync(int buildId);
+
     /**
      * @param fullUrl Full url.
      * @param nextPage Next page.
@@ -101,6 +113,32 @@ public interface ITeamcityConn {
      */
     public TestOccurrencesFull getTestsPage(int buildId, @Nullable String href, boolean testDtls);
 
+    /**
+     * Streaming variant of {@link #getTestsPage(int, String, boolean)}: test occurrences are passed to consumer while
+     * response is parsed, without building whole page in memory.
+     *
+     * @param buildId Build id.
+     * @param href Href. Null activates first page loaded.
+     * @param testDtls Query test details.
+     * @param consumer Consumer of test occurrences, called in order of occurrences in the page.
+     * @return Future with page attributes (count and next page reference), tests list of the page is empty.
+     */
+    public CompletableFuture<TestOccurrencesFull> getTestsPageAsync(int buildId, @Nullable String href,
+        boolean testDtls, Consumer<TestOccurrenceFull> consumer);
+
+    /**
+     * Requests range of test occurrences, allows to load pages of one build in parallel.
+     *
+     * @param buildId Build id.
+     * @param start Index of first test occurrence to be returned.
+     * @param cnt Max count of test occurrences to be returned.
+     * @param testDtls Query test details.
+     * @param consumer Consumer of test occurrences, called in order of occurrences in the page.
+     * @return Future with page attributes (count and next page reference), tests list of the page is empty.
+     */
+    public CompletableFuture<TestOccurrencesFull> getTestsPageAsync(int buildId, int start, int cnt,
+        boolean testDtls, Consumer<TestOccurrenceFull> consumer);
+
     /**
      * Trigger build.
      * @param buildTypeId Build type (suite) identifier.
@@ -121,6 +159,12 @@ public interface ITeamcityConn {
      */
     public ProblemOccurrences getProblems(int buildId);
 
+    /**
+     * @param buildId Build id.
+     * @see #getProblems(int)
+     */
+    public CompletableFuture<ProblemOccurrences> getProblemsAsync(int buildId);
+
     /**
      * @param buildId Build id.
      *
@@ -128,6 +172,12 @@ public interface ITeamcityConn {
      */
     public Statistics getStatistics(int buildId);
 
+    /**
+     * @param buildId Build id.
+     * @see #getStatistics(int)
+     */
+    public CompletableFuture<Statistics> getStatisticsAsync(int buildId);
+
     /**
      * @param buildId Build id.
      *
@@ -135,6 +185,12 @@ public interface ITeamcityConn {
      */
     public ChangesList getChangesList(int buildId);
 
+    /**
+     * @param buildId Build id.
+     * @see #getChangesList(int)
+     */
+    public CompletableFuture<ChangesList> getChangesListAsync(int buildId);
+
     /**
      * @param changeId Change id.
      *
@@ -142,6 +198,12 @@ public interface ITeamcityConn {
      */
     public Change getChange(int changeId);
 
+    /**
+     * @param changeId Change id.
+     * @see #getChange(int)
+     */
+    public CompletableFuture<Change> getChangeAsync(int changeId);
+
     /**
      * List of project suites.
      *
@@ -24,12 +24,16 @@ import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.StringReader;
 import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.SortedSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -59,9 +63,11 @@ import org.apache.ignite.tcservice.model.queue.QueueRef;
 import org.apache.ignite.tcservice.model.result.Build;
 import org.apache.ignite.tcservice.model.result.problems.ProblemOccurrences;
 import org.apache.ignite.tcservice.model.result.stat.Statistics;
+import org.apache.ignite.tcservice.model.result.tests.TestOccurrenceFull;
 import org.apache.ignite.tcservice.model.result.tests.TestOccurrencesFull;
 import org.apache.ignite.tcservice.model.user.User;
 import org.apache.ignite.tcservice.model.user.Users;
+import org.apache.ignite.tcservice.util.TestOccurrencesStreamParser;
 import org.apache.ignite.tcservice.util.XmlUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -89,6 +95,17 @@ public class TeamcityServiceConnection implements ITeamcity {
 
     public void init(@Nullable String srvCode) {
         this.srvCode = srvCode;
+
+        if (cfg != null) {
+            ITcServerConfig conf = config();
+
+            if (conf != null && !Strings.isNullOrEmpty(conf.host())) {
+                HttpUtil.configureHost(conf.host(),
+                    conf.httpConnectTimeoutMs(),
+                    conf.httpReadTimeoutMs(),
+                    conf.httpMaxConcurrentRequests());
+            }
+        }
     }
 
     @Override public ITcServerConfig config() {
@@ -233,9 +250,21 @@ public class TeamcityServiceConnection implements ITeamcity {
     /** {@inheritDoc} */
     @AutoProfiling
     @Override public ProblemOccurrences getProblems(int buildId) {
-        return getJaxbUsingHref("app/rest/latest/problemOccurrences" +
-                "?locator=build:(id:" + buildId + ")" +
-                "&fields=problemOccurrence(id,type,identity,href,details,build(id))", ProblemOccurrences.class);
+        return getJaxbUsingHref(problemsHref(buildId), ProblemOccurrences.class);
+    }
+
+    /** {@inheritDoc} */
+    @Override public CompletableFuture<ProblemOccurrences> getProblemsAsync(int buildId) {
+        return getJaxbUsingHrefAsync(problemsHref(buildId), ProblemOccurrences.class);
+    }
+
+    /**
+     * @param buildId Build id.
+     */
+    private String problemsHref(int buildId) {
+        return "app/rest/latest/problemOccurrences" +
+            "?locator=build:(id:" + buildId + ")" +
+            "&fields=problemOccurrence(id,type,identity,href,details,build(id))";
     }
 
     /** {@inheritDoc} */
@@ -244,22 +273,47 @@ public class TeamcityServiceConnection implements ITeamcity {
         return getJaxbUsingHref("app/rest/latest/builds/id:" + buildId + "/statistics", Statistics.class);
     }
 
+    /** {@inheritDoc} */
+    @Override public CompletableFuture<Statistics> getStatisticsAsync(int buildId) {
+        return getJaxbUsingHrefAsync("app/rest/latest/builds/id:" + buildId + "/statistics", Statistics.class);
+    }
+
     /** {@inheritDoc} */
     @AutoProfiling
     @Override public ChangesList getChangesList(int buildId) {
-        String href = "app/rest/latest/changes" +
-                "?locator=build:(id:" + + buildId +")" +
-                "&fields=change(id)";
+        return getJaxbUsingHref(changesListHref(buildId), ChangesList.class);
+    }
 
-        return getJaxbUsingHref(href, ChangesList.class);
+    /** {@inheritDoc} */
+    @Override public CompletableFuture<ChangesList> getChangesListAsync(int buildId) {
+        return getJaxbUsingHrefAsync(changesListHref(buildId), ChangesList.class);
+    }
+
+    /**
+     * @param buildId Build id.
+     */
+    private String changesListHref(int buildId) {
+        return "app/rest/latest/changes" +
+            "?locator=build:(id:" + buildId + ")" +
+            "&fields=change(id)";
     }
 
     /** {@inheritDoc} */
     @AutoProfiling
     @Override public Change getChange(int changeId) {
-        String href = "app/rest/latest/changes/id:" + +changeId;
+        return getJaxbUsingHref(changeHref(changeId), Change.class);
+    }
 
-        return getJaxbUsingHref(href, Change.class);
+    /** {@inheritDoc} */
+    @Override public CompletableFuture<Change> getChangeAsync(int changeId) {
+        return getJaxbUsingHrefAsync(changeHref(changeId), Change.class);
+    }
+
+    /**
+     * @param changeId Change id.
+     */
+    private String changeHref(int changeId) {
+        return "app/rest/latest/changes/id:" + changeId;
     }
 
     /** {@inheritDoc} */
@@ -298,6 +352,57 @@ public class TeamcityServiceConnection implements ITeamcity {
         }
     }
 
+    /**
+     * @param url Url.
+     * @param rootElem Root elem.
+     * @return Future completed with parsed response or with errors described in {@link #sendGetXmlParseJaxb}.
+     */
+    private <T> CompletableFuture<T> sendGetXmlParseJaxbAsync(String url, Class<T> rootElem) {
+        return sendGetParseAsync(url, reader -> loadXml(rootElem, reader));
+    }
+
+    /**
+     * @param url Url.
+     * @param parser Response parser, called in thread completed HTTP request.
+     * @return Future completed with parsed response or with errors described in {@link #sendGetXmlParseJaxb}.
+     */
+    private <T> CompletableFuture<T> sendGetParseAsync(String url, ResponseParser<T> parser) {
+        return teamcityHttpConn.sendGetAsync(basicAuthTok, url).handle((is, err) -> {
+            if (err != null) {
+                Throwable cause = err instanceof CompletionException && err.getCause() != null ? err.getCause() : err;
+
+                if (cause instanceof IOException)
+                    throw new UncheckedIOException((IOException)cause);
+
+                if (cause instanceof RuntimeException)
+                    throw (RuntimeException)cause;
+
+                throw new CompletionException(cause);
+            }
+
+            try (InputStream inputStream = is) {
+                return parser.parse(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+            }
+            catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            catch (Exception e) {
+                throw ExceptionUtil.propagateException(e);
+            }
+        });
+    }
+
+    /**
+     * Parser of response body.
+     */
+    @FunctionalInterface
+    private interface ResponseParser<T> {
+        /**
+         * @param reader Reader of response body.
+         */
+        T parse(InputStreamReader reader) throws Exception;
+    }
+
     @SuppressWarnings("WeakerAccess")
     @AutoProfiling
     protected <T> T loadXml(Class<T> rootElem, InputStreamReader reader) throws JAXBException {
@@ -317,6 +422,11 @@ public class TeamcityServiceConnection implements ITeamcity {
         return getJaxbUsingHref("app/rest/latest/builds/id:" + buildId, Build.class);
     }
 
+    /** {@inheritDoc} */
+    @Override public CompletableFuture<Build> getBuildAsync(int buildId) {
+        return getJaxbUsingHrefAsync("app/rest/latest/builds/id:" + buildId, Build.class);
+    }
+
     /**
      * @param href Href.
      * @param elem Element class.
@@ -325,6 +435,14 @@ public class TeamcityServiceConnection implements ITeamcity {
         return sendGetXmlParseJaxb(host() + (href.startsWith("/") ? href.substring(1) : href), elem);
     }
 
+    /**
+     * @param href Href.
+     * @param elem Element class.
+     */
+    private <T> CompletableFuture<T> getJaxbUsingHrefAsync(String href, Class<T> elem) {
+        return sendGetXmlParseJaxbAsync(host() + (href.startsWith("/") ? href.substring(1) : href), elem);
+    }
+
     /** {@inheritDoc} */
     @Override public String serverCode() {
         return srvCode;
@@ -383,8 +501,37 @@ public class TeamcityServiceConnection implements ITeamcity {
     @AutoProfiling
     @Override public TestOccurrencesFull getTestsPage(int buildId, @Nullable String href, boolean testDtls) {
         String relPathSelected = Strings.isNullOrEmpty(href) ? testsStartHref(buildId, testDtls) : href;
-        String url = host() + (relPathSelected.startsWith("/") ? relPathSelected.substring(1) : relPathSelected);
-        return sendGetXmlParseJaxb(url, TestOccurrencesFull.class);
+
+        return getJaxbUsingHref(relPathSelected, TestOccurrencesFull.class);
+    }
+
+    /** {@inheritDoc} */
+    @Override public CompletableFuture<TestOccurrencesFull> getTestsPageAsync(int buildId, @Nullable String href,
+        boolean testDtls, Consumer<TestOccurrenceFull> consumer) {
+        String relPathSelected = Strings.isNullOrEmpty(href) ? testsStartHref(buildId, testDtls) : href;
+
+        return getTestsPageStreaming(relPathSelected, consumer);
+    }
+
+    /** {@inheritDoc} */
+    @Override public CompletableFuture<TestOccurrencesFull> getTestsPageAsync(int buildId, int start, int cnt,
+        boolean testDtls, Consumer<TestOccurrenceFull> consumer) {
+        String href = "app/rest/latest/testOccurrences?locator=build:(id:" +
+            buildId + "),start:" + start + ",count:" + cnt +
+            "&fields=count,nextHref,testOccurrence(" + testFields(testDtls) + ")";
+
+        return getTestsPageStreaming(href, consumer);
+    }
+
+    /**
+     * @param href Href.
+     * @param consumer Test occurrences consumer.
+     */
+    private CompletableFuture<TestOccurrencesFull> getTestsPageStreaming(String href,
+        Consumer<TestOccurrenceFull> consumer) {
+        String url = host() + (href.startsWith("/") ? href.substring(1) : href);
+
+        return sendGetParseAsync(url, reader -> TestOccurrencesStreamParser.parse(reader, consumer));
     }
 
     /**
@@ -393,13 +540,19 @@ public class TeamcityServiceConnection implements ITeamcity {
      */
     @Nonnull
     private String testsStartHref(int buildId, boolean testDtls) {
-        String fieldList = "id,name," +
-            (testDtls ? "details," : "") +
-            "status,duration,muted,currentlyMuted,currentlyInvestigated,ignored,test(id),build(id)";
-
         return "app/rest/latest/testOccurrences?locator=build:(id:" +
             buildId + ")" +
-            "&fields=testOccurrence(" + fieldList + ")" +
+            "&fields=testOccurrence(" + testFields(testDtls) + ")" +
             "&count=1000)";
     }
+
+    /**
+     * @param testDtls request test details string
+     * @return Fields of test occurrence to be requested.
+     */
+    private static String testFields(boolean testDtls) {
+        return "id,name," +
+            (testDtls ? "details," : "") +
+            "status,duration,muted,currentlyMuted,currentlyInvestigated,ignored,test(id),build(id)";
+    }
 }
@@ -17,39 +17,35 @@
 
 package org.apache.ignite.tcservice.http;
 
-import com.google.common.base.Charsets;
 import com.google.common.base.Preconditions;
 
 import javax.annotation.Nonnull;
+import java.io.ByteArrayOutputStream;
 import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.OutputStream;
 import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * Recording stream, which will copy all responses to a logging file.
  */
 public class FileRecordingInputStream extends FilterInputStream {
-    /** File. */
-    private final OutputStream file;
-    /** Lock to be held until stream is closed. */
-    private final ReentrantLock lock;
+    /** Bytes read. */
+    private final ByteArrayOutputStream buf = new ByteArrayOutputStream();
+
+    /** Consumer of the whole response, called on close. */
+    private final RecordWriter writer;
+
     /** Close guard. */
     private final AtomicBoolean closeGuard = new AtomicBoolean();
 
     /**
      * @param in In.
-     * @param file File.
-     * @param lock Lock.
+     * @param writer Consumer of the whole response.
      */
-    protected FileRecordingInputStream(InputStream in,
-                                       OutputStream file,
-                                       ReentrantLock lock) {
+    protected FileRecordingInputStream(InputStream in, RecordWriter writer) {
         super(in);
-        this.file = file;
-        this.lock = lock;
+        this.writer = writer;
     }
 
     /** {@inheritDoc} */
@@ -58,51 +54,42 @@ public class FileRecordingInputStream extends FilterInputStream {
 
         int readByte = super.read();
 
-        processByte(readByte);
+        if (readByte >= 0)
+            buf.write(readByte);
 
         return readByte;
     }
 
     /** {@inheritDoc} */
-    @Override public int read(@Nonnull byte[] buf, int off, int cnt) throws IOException {
+    @Override public int read(@Nonnull byte[] b, int off, int cnt) throws IOException {
         Preconditions.checkState(!closeGuard.get());
 
-        int readBytes = super.read(buf, off, cnt);
+        int readBytes = super.read(b, off, cnt);
 
         if (readBytes < 0)
             return readBytes;
 
-        processBytes(buf, off, readBytes);
+        buf.write(b, off, readBytes);
 
         return readBytes;
     }
 
-    /**
-     * @param buf Buffer.
-     * @param off Offset.
-     * @param readBytes Read bytes.
-     */
-    private void processBytes(byte[] buf, int off, int readBytes) throws IOException {
-        file.write(buf, off, readBytes);
-    }
-
-    /**
-     * @param readByte Read byte.
-     */
-    private void processByte(int readByte) throws IOException {
-        file.write(new byte[]{(byte) readByte});
-    }
-
     /** {@inheritDoc} */
     @Override public void close() throws IOException {
         super.close();
 
-        if (closeGuard.compareAndSet(false, true)) {
-            file.write("\n".getBytes(Charsets.UTF_8));
-
-            lock.unlock();
+        if (closeGuard.compareAndSet(false, true))
+            writer.write(buf.toByteArray());
+    }
 
-            file.flush();
-        }
+    /**
+     * Consumer of the whole response.
+     */
+    @FunctionalInterface
+    interface RecordWriter {
+        /**
+         * @param body Response body.
+         */
+        void write(byte[] body) throws IOException;
     }
-}
\ No newline at end of file
+}
@@ -22,6 +22,8 @@ import org.apache.ignite.tcbot.common.exeption.ServiceConflictException;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.concurrent.CompletableFuture;
 
 public interface ITeamcityHttpConnection {
     /**
@@ -32,4 +34,24 @@ public interface ITeamcityHttpConnection {
      * @throws IllegalStateException if some unexpected HTTP error returned.
      */
     public InputStream sendGet(String basicAuthTok, String url) throws IOException;
+
+    /**
+     * Sends GET request without blocking caller thread. Default implementation delegates to
+     * {@link #sendGet(String, String)} using common pool.
+     *
+     * @param basicAuthTok Basic auth token.
+     * @param url Url.
+     * @return Future with response body, completed exceptionally with the same errors as
+     * {@link #sendGet(String, String)} throws.
+     */
+    public default CompletableFuture<InputStream> sendGetAsync(String basicAuthTok, String url) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return sendGet(basicAuthTok, url);
+            }
+            catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
 }
@@ -24,16 +24,19 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
-import java.util.concurrent.locks.ReentrantLock;
 
 /**
- *
+ * Records responses to {@link #RECORDS_FILE}. Each response is buffered in memory while being read, and is written to
+ * the file at once when its stream is closed, so concurrent responses do not wait for each other.
  */
 public class TeamcityRecorder {
-    /** Lock. */
-    private ReentrantLock lock = new ReentrantLock();
+    /** Records file. */
+    public static final String RECORDS_FILE = "tcrecorder.txt";
+
+    /** Prefix of the line starting new record, URL of the record follows the prefix. */
+    public static final String RECORD_START = "===HTTP=RECORDER=== GET ";
 
-    /** File. */
+    /** File, guarded by this. */
     private OutputStream file;
 
     /**
@@ -41,36 +44,30 @@ public class TeamcityRecorder {
      * @param url Url.
      */
     public InputStream onGet(InputStream inputStream, String url) throws IOException {
-        if (Boolean.valueOf(System.getProperty(TcBotSystemProperties.TEAMCITY_BOT_RECORDER))) {
-            boolean success = false;
-
-            lock.lock();
-            try {
-                if (file == null)
-                    file = new FileOutputStream("tcrecorder.txt");
+        if (Boolean.valueOf(System.getProperty(TcBotSystemProperties.TEAMCITY_BOT_RECORDER)))
+            return new FileRecordingInputStream(inputStream, body -> write(url, body));
 
-                final String newUrlStartStr = "===HTTP=RECORDER=== GET " + url + "\n";
-                file.write(newUrlStartStr.getBytes(Charsets.UTF_8));
-
-                FileRecordingInputStream spyStream = new FileRecordingInputStream(inputStream, file, lock);
-
-                success = true;
+        return inputStream;
+    }
 
-                return spyStream;
-            }
-            finally {
-                if(!success)
-                    lock.unlock();;
-            }
-        }
+    /**
+     * @param url Url.
+     * @param body Response body.
+     */
+    private synchronized void write(String url, byte[] body) throws IOException {
+        if (file == null)
+            file = new FileOutputStream(RECORDS_FILE);
 
-        return inputStream;
+        file.write((RECORD_START + url + "\n").getBytes(Charsets.UTF_8));
+        file.write(body);
+        file.write("\n".getBytes(Charsets.UTF_8));
+        file.flush();
     }
 
     /**
      *
      */
-    public void stop() throws IOException {
+    public synchronized void stop() throws IOException {
         if (file != null)
             file.close();
     }
@@ -21,6 +21,8 @@ import org.apache.ignite.tcbot.common.util.HttpUtil;
 import javax.inject.Inject;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.concurrent.CompletableFuture;
 
 /**
  *
@@ -33,4 +35,16 @@ public class TeamcityRecordingConnection implements ITeamcityHttpConnection {
     @Override public InputStream sendGet(String basicAuthTok, String url) throws IOException {
         return recorder.onGet(HttpUtil.sendGetWithBasicAuth(basicAuthTok, url), url);
     }
+
+    /** {@inheritDoc} */
+    @Override public CompletableFuture<InputStream> sendGetAsync(String basicAuthTok, String url) {
+        return HttpUtil.sendGetAsyncWithBasicAuth(basicAuthTok, url).thenApply(is -> {
+            try {
+                return recorder.onGet(is, url);
+            }
+            catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
 }
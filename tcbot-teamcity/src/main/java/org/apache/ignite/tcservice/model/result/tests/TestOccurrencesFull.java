@@ -48,4 +48,11 @@ public class TestOccurrencesFull extends TestOccurrencesRef {
     public String nextHref() {
         return nextHref;
     }
+
+    /**
+     * @param nextHref Next page reference.
+     */
+    public void nextHref(String nextHref) {
+        this.nextHref = nextHref;
+    }
 }
@@ -0,0 +1,185 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.ignite.tcservice.util;
+
+import java.io.Reader;
+import java.util.function.Consumer;
+import javax.annotation.Nullable;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import org.apache.ignite.tcservice.model.hist.BuildRef;
+import org.apache.ignite.tcservice.model.result.tests.TestOccurrenceFull;
+import org.apache.ignite.tcservice.model.result.tests.TestOccurrencesFull;
+import org.apache.ignite.tcservice.model.result.tests.TestRef;
+
+/**
+ * Pull parser for test occurrences page. Unlike {@link XmlUtil#load(Class, Reader)} it does not build object graph for
+ * whole page: each test occurrence is passed to consumer as soon as its element is read, so the caller may compact it
+ * and drop the object (and its details text) immediately.
+ */
+public class TestOccurrencesStreamParser {
+    /** Factory. */
+    private static final XMLInputFactory FACTORY = createFactory();
+
+    /**
+     * @return Factory with external entities disabled.
+     */
+    private static XMLInputFactory createFactory() {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, true);
+
+        return factory;
+    }
+
+    /**
+     * @param reader Reader of test occurrences XML.
+     * @param consumer Consumer of test occurrences, called in order of occurrences in the page.
+     * @return Page attributes (count and next page reference), tests list of returned page is empty.
+     * @throws XMLStreamException If XML is malformed.
+     */
+    public static TestOccurrencesFull parse(Reader reader, Consumer<TestOccurrenceFull> consumer)
+        throws XMLStreamException {
+        TestOccurrencesFull page = new TestOccurrencesFull();
+
+        XMLStreamReader xml = FACTORY.createXMLStreamReader(reader);
+
+        try {
+            TestOccurrenceFull occurrence = null;
+
+            while (xml.hasNext()) {
+                int evt = xml.next();
+
+                if (evt == XMLStreamConstants.START_ELEMENT) {
+                    switch (xml.getLocalName()) {
+                        case "testOccurrences":
+                            page.href = attr(xml, "href");
+                            page.count = intAttr(xml, "count");
+                            page.nextHref(attr(xml, "nextHref"));
+
+                            break;
+
+                        case "testOccurrence":
+                            occurrence = readOccurrence(xml);
+
+                            break;
+
+                        case "details":
+                            if (occurrence != null)
+                                occurrence.details = xml.getElementText();
+
+                            break;
+
+                        case "test":
+                            if (occurrence != null) {
+                                TestRef test = new TestRef();
+
+                                test.id = attr(xml, "id");
+                                test.name = attr(xml, "name");
+                                test.href = attr(xml, "href");
+
+                                occurrence.test = test;
+                            }
+
+                            break;
+
+                        case "build":
+                            if (occurrence != null) {
+                                BuildRef build = new BuildRef();
+
+                                build.setId(intAttr(xml, "id"));
+                                build.buildTypeId = attr(xml, "buildTypeId");
+                                build.branchName = attr(xml, "branchName");
+                                build.status = attr(xml, "status");
+                                build.state = attr(xml, "state");
+
+                                occurrence.build = build;
+                            }
+
+                            break;
+
+                        default:
+                            break;
+                    }
+                }
+                else if (evt == XMLStreamConstants.END_ELEMENT
+                    && occurrence != null
+                    && "testOccurrence".equals(xml.getLocalName())) {
+                    consumer.accept(occurrence);
+
+                    occurrence = null;
+                }
+            }
+        }
+        finally {
+            xml.close();
+        }
+
+        return page;
+    }
+
+    /**
+     * @param xml Reader positioned at test occurrence start.
+     */
+    private static TestOccurrenceFull readOccurrence(XMLStreamReader xml) {
+        TestOccurrenceFull occurrence = new TestOccurrenceFull();
+
+        occurrence.setId(attr(xml, "id"));
+        occurrence.name = attr(xml, "name");
+        occurrence.status = attr(xml, "status");
+        occurrence.duration = intAttr(xml, "duration");
+        occurrence.href = attr(xml, "href");
+        occurrence.muted = boolAttr(xml, "muted");
+        occurrence.currentlyMuted = boolAttr(xml, "currentlyMuted");
+        occurrence.currentlyInvestigated = boolAttr(xml, "currentlyInvestigated");
+        occurrence.ignored = boolAttr(xml, "ignored");
+
+        return occurrence;
+    }
+
+    /**
+     * @param xml Xml.
+     * @param name Attribute name.
+     */
+    @Nullable private static String attr(XMLStreamReader xml, String name) {
+        return xml.getAttributeValue(null, name);
+    }
+
+    /**
+     * @param xml Xml.
+     * @param name Attribute name.
+     */
+    @Nullable private static Integer intAttr(XMLStreamReader xml, String name) {
+        String val = attr(xml, name);
+
+        return val == null ? null : Integer.valueOf(val);
+    }
+
+    /**
+     * @param xml Xml.
+     * @param name Attribute name.
+     */
+    @Nullable private static Boolean boolAttr(XMLStreamReader xml, String name) {
+        String val = attr(xml, name);
+
+        return val == null ? null : Boolean.valueOf(val);
+    }
+}